@@ -0,0 +1,25 @@
+package com.paklog.cartonization.application.port.in;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk carton batch. Operations that failed validation are listed
+ * by their position in the batch; every other operation was applied.
+ */
+public record BulkCartonResult(
+    String batchId,
+    int created,
+    int updated,
+    int deactivated,
+    List<Failure> failures
+) {
+    public record Failure(
+        int index,
+        String cartonId,
+        String message
+    ) {}
+
+    public int applied() {
+        return created + updated + deactivated;
+    }
+}
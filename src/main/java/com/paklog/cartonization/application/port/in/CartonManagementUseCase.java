@@ -1,9 +1,11 @@
 package com.paklog.cartonization.application.port.in;
 
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
 import com.paklog.cartonization.application.port.in.command.CreateCartonCommand;
 import com.paklog.cartonization.domain.model.aggregate.Carton;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CartonManagementUseCase {
 
@@ -15,7 +17,17 @@ public interface CartonManagementUseCase {
 
     List<Carton> listActiveCartons();
 
+    List<Carton> listActiveCartonsForSite(String site);
+
     Carton updateCarton(String cartonId, CreateCartonCommand command);
 
     void deactivateCarton(String cartonId);
+
+    BulkCartonResult applyBulk(BulkCartonCommand command);
+
+    /**
+     * Hands every carton to {@code action} one at a time, without loading the
+     * whole catalog into memory.
+     */
+    void forEachCarton(Consumer<Carton> action);
 }
\ No newline at end of file
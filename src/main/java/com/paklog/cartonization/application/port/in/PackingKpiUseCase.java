@@ -0,0 +1,14 @@
+package com.paklog.cartonization.application.port.in;
+
+import com.paklog.cartonization.application.port.out.PackingKpiRollup;
+
+import java.util.List;
+
+public interface PackingKpiUseCase {
+
+    /**
+     * Returns one merged rollup per bucket, site and carton, ordered by bucket,
+     * or one per site and carton for a totals query.
+     */
+    List<PackingKpiRollup> findRollups(PackingKpiRollup.Query query);
+}
@@ -1,8 +1,19 @@
 package com.paklog.cartonization.application.port.in;
 
 import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
+import com.paklog.cartonization.application.port.out.PackingSolutionExport;
 import com.paklog.cartonization.domain.model.entity.PackingSolution;
 
+import java.util.function.Consumer;
+
 public interface PackingSolutionUseCase {
     PackingSolution calculate(CalculatePackingSolutionCommand command);
+
+    PackingSolution getSolutionById(String solutionId);
+
+    /**
+     * Hands every stored solution matching the query to {@code action}, in
+     * keyset order, without holding more than one batch in memory.
+     */
+    void forEachSolution(PackingSolutionExport.Query query, Consumer<PackingSolutionExport> action);
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.paklog.cartonization.application.port.in.command;
+
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An ordered batch of carton create, update, activate and deactivate operations
+ * that is persisted as one bulk write.
+ */
+public record BulkCartonCommand(
+    String batchId,
+    List<Operation> operations
+) {
+    public BulkCartonCommand {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one carton operation is required");
+        }
+        operations = List.copyOf(operations);
+    }
+
+    public enum OperationType {
+        CREATE,
+        UPDATE,
+        UPSERT,
+        ACTIVATE,
+        DEACTIVATE
+    }
+
+    /**
+     * A single operation. {@code cartonId} is required for updates, upserts,
+     * activations and deactivations; name, dimensions and max weight for everything else. An
+     * upsert creates the carton under the given ID if it does not exist yet.
+     * For updates, {@code sites} of {@code null} keeps the carton's current sites.
+     * An operation with a {@code rejection} could not be translated by the adapter
+     * that received it; it is reported as a failure at its position and not applied.
+     */
+    public record Operation(
+        OperationType type,
+        String cartonId,
+        String name,
+        DimensionSet dimensions,
+        Weight maxWeight,
+        Set<String> sites,
+        String rejection
+    ) {
+        public Operation(OperationType type, String cartonId, String name, DimensionSet dimensions,
+                         Weight maxWeight, Set<String> sites) {
+            this(type, cartonId, name, dimensions, maxWeight, sites, null);
+        }
+
+        public static Operation create(String name, DimensionSet dimensions, Weight maxWeight, Set<String> sites) {
+            return new Operation(OperationType.CREATE, null, name, dimensions, maxWeight, sites);
+        }
+
+        public static Operation update(String cartonId, String name, DimensionSet dimensions, Weight maxWeight,
+                                       Set<String> sites) {
+            return new Operation(OperationType.UPDATE, cartonId, name, dimensions, maxWeight, sites);
+        }
+
+        public static Operation upsert(String cartonId, String name, DimensionSet dimensions, Weight maxWeight,
+                                       Set<String> sites) {
+            return new Operation(OperationType.UPSERT, cartonId, name, dimensions, maxWeight, sites);
+        }
+
+        public static Operation activate(String cartonId) {
+            return new Operation(OperationType.ACTIVATE, cartonId, null, null, null, null);
+        }
+
+        public static Operation deactivate(String cartonId) {
+            return new Operation(OperationType.DEACTIVATE, cartonId, null, null, null, null);
+        }
+
+        public static Operation rejected(String cartonId, String reason) {
+            return new Operation(null, cartonId, null, null, null, null, reason);
+        }
+    }
+}
@@ -21,14 +21,17 @@ public final class CalculatePackingSolutionCommand {
 
     private final String orderId;
 
+    private final String siteId;
+
     private final boolean optimizeForMinimumBoxes;
 
     private final boolean allowMixedCategories;
 
-    private CalculatePackingSolutionCommand(String requestId, List<ItemToPack> items, String orderId, boolean optimizeForMinimumBoxes, boolean allowMixedCategories) {
+    private CalculatePackingSolutionCommand(String requestId, List<ItemToPack> items, String orderId, String siteId, boolean optimizeForMinimumBoxes, boolean allowMixedCategories) {
         this.requestId = requestId;
         this.items = items;
         this.orderId = orderId;
+        this.siteId = siteId;
         this.optimizeForMinimumBoxes = optimizeForMinimumBoxes;
         this.allowMixedCategories = allowMixedCategories;
     }
@@ -54,6 +57,10 @@ public final class CalculatePackingSolutionCommand {
         return orderId;
     }
 
+    public String getSiteId() {
+        return siteId;
+    }
+
     public boolean isOptimizeForMinimumBoxes() {
         return optimizeForMinimumBoxes;
     }
@@ -75,12 +82,13 @@ public final class CalculatePackingSolutionCommand {
                allowMixedCategories == that.allowMixedCategories &&
                Objects.equals(requestId, that.requestId) &&
                Objects.equals(items, that.items) &&
-               Objects.equals(orderId, that.orderId);
+               Objects.equals(orderId, that.orderId) &&
+               Objects.equals(siteId, that.siteId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(requestId, items, orderId, optimizeForMinimumBoxes, allowMixedCategories);
+        return Objects.hash(requestId, items, orderId, siteId, optimizeForMinimumBoxes, allowMixedCategories);
     }
 
     @Override
@@ -89,6 +97,7 @@ public final class CalculatePackingSolutionCommand {
                "requestId='" + requestId + '\'' +
                ", items=" + items +
                ", orderId='" + orderId + '\'' +
+               ", siteId='" + siteId + '\'' +
                ", optimizeForMinimumBoxes=" + optimizeForMinimumBoxes +
                ", allowMixedCategories=" + allowMixedCategories +
                '}';
@@ -98,6 +107,7 @@ public final class CalculatePackingSolutionCommand {
         private String requestId;
         private List<ItemToPack> items;
         private String orderId;
+        private String siteId;
         private boolean optimizeForMinimumBoxes;
         private boolean allowMixedCategories;
 
@@ -116,6 +126,11 @@ public final class CalculatePackingSolutionCommand {
             return this;
         }
 
+        public Builder siteId(String siteId) {
+            this.siteId = siteId;
+            return this;
+        }
+
         public Builder optimizeForMinimumBoxes(boolean optimizeForMinimumBoxes) {
             this.optimizeForMinimumBoxes = optimizeForMinimumBoxes;
             return this;
@@ -127,7 +142,7 @@ public final class CalculatePackingSolutionCommand {
         }
 
         public CalculatePackingSolutionCommand build() {
-            return new CalculatePackingSolutionCommand(requestId, items, orderId, optimizeForMinimumBoxes, allowMixedCategories);
+            return new CalculatePackingSolutionCommand(requestId, items, orderId, siteId, optimizeForMinimumBoxes, allowMixedCategories);
         }
     }
 }
\ No newline at end of file
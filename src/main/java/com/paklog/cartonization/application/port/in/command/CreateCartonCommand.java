@@ -3,11 +3,18 @@ package com.paklog.cartonization.application.port.in.command;
 import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
 import com.paklog.cartonization.domain.model.valueobject.Weight;
 
+import java.util.Set;
+
 public record CreateCartonCommand(
     String name,
     DimensionSet dimensions,
-    Weight maxWeight
+    Weight maxWeight,
+    Set<String> sites
 ) {
+    public CreateCartonCommand(String name, DimensionSet dimensions, Weight maxWeight) {
+        this(name, dimensions, maxWeight, Set.of());
+    }
+
     public CreateCartonCommand {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Carton name cannot be empty");
@@ -18,5 +25,6 @@ public record CreateCartonCommand(
         if (maxWeight == null) {
             throw new IllegalArgumentException("Max weight cannot be null");
         }
+        sites = sites != null ? Set.copyOf(sites) : Set.of();
     }
 }
\ No newline at end of file
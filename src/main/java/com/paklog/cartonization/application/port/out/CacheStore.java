@@ -11,16 +11,42 @@ public interface CacheStore {
 
     <T> Optional<T> get(String key, Class<T> type);
 
+    /**
+     * Reads a value together with the time it has left to live, in one round
+     * trip, so a copy kept elsewhere can expire with it.
+     *
+     * @return the value, with a null TTL if the key does not expire
+     */
+    <T> Optional<Expiring<T>> getWithTtl(String key, Class<T> type);
+
+    /**
+     * Stores the value only if the key is not already set, e.g. to take a lease.
+     *
+     * @return true if the value was stored
+     */
+    boolean putIfAbsent(String key, String value, Duration ttl);
+
     boolean exists(String key);
 
     void delete(String key);
 
+    /**
+     * Atomically deletes the key only while it still holds {@code value}, e.g. to
+     * release a lease that may have expired and been taken by someone else.
+     *
+     * @return true if the key was deleted
+     */
+    boolean deleteIfEquals(String key, String value);
+
     void deleteByPattern(String pattern);
 
     void clear();
 
     long size();
 
+    record Expiring<T>(T value, Duration ttl) {
+    }
+
     default String buildKey(String prefix, Object... parts) {
         StringBuilder keyBuilder = new StringBuilder(prefix);
         for (Object part : parts) {
@@ -5,17 +5,55 @@ import com.paklog.cartonization.domain.model.valueobject.CartonId;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Cartons handed out by the list lookups and returned by the saves may be
+ * shared with other readers and must not be modified; {@link #findById} hands
+ * out a carton of the caller's own to modify and save.
+ */
 public interface CartonRepository {
 
     Carton save(Carton carton);
 
+    /**
+     * Persists the cartons in order as a single bulk write.
+     */
+    List<Carton> saveAll(List<Carton> cartons);
+
     Optional<Carton> findById(CartonId id);
 
     List<Carton> findAll();
 
+    /**
+     * Streams every carton from the backing store. Callers must close the stream.
+     */
+    Stream<Carton> streamAll();
+
     List<Carton> findAllActive();
 
+    /**
+     * Returns the active cartons stocked at the given site, smallest volume first.
+     * Cartons not assigned to any site are stocked everywhere.
+     */
+    List<Carton> findAllActiveForSite(String site);
+
+    /**
+     * Returns the version of the carton catalog the active lookups read from. It
+     * changes whenever any carton is saved or deleted, on every node.
+     */
+    long getCatalogVersion();
+
+    /**
+     * Returns the version of the active cartons {@link #findAllActiveForSite} hands
+     * out for the site, or of all active cartons when {@code site} is null. It is
+     * derived from those cartons' content, so it is the same on every node holding
+     * them and does not move when a carton the site does not stock changes.
+     */
+    default long getCatalogVersion(String site) {
+        return getCatalogVersion();
+    }
+
     void deleteById(CartonId id);
 
     boolean existsById(CartonId id);
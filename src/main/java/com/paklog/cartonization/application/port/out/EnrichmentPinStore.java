@@ -0,0 +1,22 @@
+package com.paklog.cartonization.application.port.out;
+
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface EnrichmentPinStore {
+
+    Optional<EnrichmentPin> find(String orderId);
+
+    void save(EnrichmentPin pin);
+
+    void delete(String orderId);
+
+    record EnrichmentPin(
+        String orderId,
+        long catalogVersion,
+        Map<SKU, ProductInfo> products
+    ) {}
+}
@@ -0,0 +1,17 @@
+package com.paklog.cartonization.application.port.out;
+
+import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Historical orders to replay in carton-suite simulations and to mine for
+ * cache warmup, one list of items per order. The stream may be backed by a cursor or an open file and must be
+ * closed by the caller.
+ */
+public interface HistoricalDemandSource {
+
+    Stream<List<ItemWithDimensions>> streamOrders(Instant since);
+}
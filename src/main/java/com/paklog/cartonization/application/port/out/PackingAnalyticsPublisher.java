@@ -0,0 +1,12 @@
+package com.paklog.cartonization.application.port.out;
+
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+
+/**
+ * Publishes computed solutions to the analytics data product. Publishing is
+ * best effort and off the request path: it never blocks or fails the caller.
+ */
+public interface PackingAnalyticsPublisher {
+
+    void publish(PackingSolution solution);
+}
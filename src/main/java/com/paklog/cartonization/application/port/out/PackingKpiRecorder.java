@@ -0,0 +1,14 @@
+package com.paklog.cartonization.application.port.out;
+
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+
+import java.time.Duration;
+
+/**
+ * Feeds computed solutions into the packing KPI rollups. Recording is
+ * in-memory and never fails the request it is called from.
+ */
+public interface PackingKpiRecorder {
+
+    void record(PackingSolution solution, String siteId, Duration solveTime);
+}
@@ -0,0 +1,120 @@
+package com.paklog.cartonization.application.port.out;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packing KPIs of one site and carton over one minute or hour. Rows for
+ * {@link #ALL_CARTONS} count every solution of the site once; per-carton rows
+ * count the solutions that used that carton and only its packages.
+ * <p>
+ * Utilization is histogrammed per package in ten 10% buckets, solve time per
+ * solution against {@link #SOLVE_MILLIS_BOUNDS}, so rollups can be merged and
+ * percentiles estimated from any number of them.
+ */
+public record PackingKpiRollup(
+    Resolution resolution,
+    Instant bucketStart,
+    String siteId,
+    String cartonId,
+    long solutions,
+    long packages,
+    double utilizationSum,
+    List<Long> utilizationHistogram,
+    long solveMillisSum,
+    long solveMillisMax,
+    List<Long> solveHistogram
+) {
+
+    public static final String ALL_CARTONS = "*";
+    public static final String NO_SITE = "-";
+    public static final int UTILIZATION_BUCKETS = 10;
+
+    // Upper bounds of the solve time buckets, in ms; the last bucket is open-ended
+    public static final long[] SOLVE_MILLIS_BOUNDS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500};
+
+    public enum Resolution {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS);
+
+        private final ChronoUnit unit;
+
+        Resolution(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public Duration duration() {
+            return unit.getDuration();
+        }
+
+        public Instant bucketStart(Instant instant) {
+            return instant.truncatedTo(unit);
+        }
+
+        public static Resolution of(String value) {
+            for (Resolution resolution : values()) {
+                if (resolution.name().equalsIgnoreCase(value.trim())) {
+                    return resolution;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported KPI resolution: " + value);
+        }
+    }
+
+    /**
+     * Rollups with bucket starts in {@code [from, to)}. A null site or carton
+     * matches all of them; with {@code totals} the window is summed into one
+     * row per site and carton.
+     */
+    public record Query(Resolution resolution, Instant from, Instant to, String siteId, String cartonId,
+                        boolean totals) {
+    }
+
+    public static int utilizationBucket(double utilization) {
+        return Math.max(0, Math.min(UTILIZATION_BUCKETS - 1, (int) (utilization * UTILIZATION_BUCKETS)));
+    }
+
+    public static int solveBucket(long millis) {
+        for (int i = 0; i < SOLVE_MILLIS_BOUNDS.length; i++) {
+            if (millis <= SOLVE_MILLIS_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return SOLVE_MILLIS_BOUNDS.length;
+    }
+
+    public double averageUtilization() {
+        return packages > 0 ? utilizationSum / packages : 0.0;
+    }
+
+    public double averageSolveMillis() {
+        return solutions > 0 ? (double) solveMillisSum / solutions : 0.0;
+    }
+
+    /**
+     * Adds another rollup's counts to this one's, keeping this one's bucket.
+     * Used both to combine partial rollups of the same bucket and to total a
+     * window.
+     */
+    public PackingKpiRollup merge(PackingKpiRollup other) {
+        return new PackingKpiRollup(resolution, bucketStart, siteId, cartonId,
+            solutions + other.solutions,
+            packages + other.packages,
+            utilizationSum + other.utilizationSum,
+            add(utilizationHistogram, other.utilizationHistogram),
+            solveMillisSum + other.solveMillisSum,
+            Math.max(solveMillisMax, other.solveMillisMax),
+            add(solveHistogram, other.solveHistogram));
+    }
+
+    private static List<Long> add(List<Long> a, List<Long> b) {
+        List<Long> sum = new ArrayList<>(Math.max(a.size(), b.size()));
+        for (int i = 0; i < Math.max(a.size(), b.size()); i++) {
+            sum.add((i < a.size() ? a.get(i) : 0L) + (i < b.size() ? b.get(i) : 0L));
+        }
+        return sum;
+    }
+}
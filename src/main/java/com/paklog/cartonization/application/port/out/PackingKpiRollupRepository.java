@@ -0,0 +1,25 @@
+package com.paklog.cartonization.application.port.out;
+
+import java.util.List;
+
+/**
+ * Stores packing KPI rollups. A bucket may be stored as several partial
+ * rollups, one per instance and flush, so readers merge what they find.
+ */
+public interface PackingKpiRollupRepository {
+
+    /**
+     * Stores the rollups. Those that could not be written are returned rather
+     * than thrown for, so the caller retries them without writing the others
+     * a second time.
+     *
+     * @return the rollups that were not written
+     */
+    List<PackingKpiRollup> insertAll(List<PackingKpiRollup> rollups);
+
+    /**
+     * Returns the stored, unmerged rollups matching the query, ignoring its
+     * {@code totals} flag.
+     */
+    List<PackingKpiRollup> find(PackingKpiRollup.Query query);
+}
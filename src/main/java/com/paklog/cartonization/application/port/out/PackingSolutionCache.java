@@ -0,0 +1,22 @@
+package com.paklog.cartonization.application.port.out;
+
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Content-addressed store of computed packing solutions. Keys identify what was
+ * packed, never which order it was packed for, so identical baskets share an
+ * entry; callers re-stamp a hit for their own request.
+ */
+public interface PackingSolutionCache {
+
+    Optional<PackingSolution> find(String key);
+
+    /**
+     * @param computeTime how long producing the solution took, reported as time
+     *                    saved whenever the entry is hit
+     */
+    void put(String key, PackingSolution solution, Duration computeTime);
+}
@@ -0,0 +1,43 @@
+package com.paklog.cartonization.application.port.out;
+
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A packing solution as read for export: its summary, plus the full solution
+ * when the export asked for packages.
+ */
+public record PackingSolutionExport(
+    String solutionId,
+    String requestId,
+    String orderId,
+    Instant createdAt,
+    int packageCount,
+    int totalItems,
+    BigDecimal avgUtilization,
+    BigDecimal usedVolume,
+    BigDecimal packedWeight,
+    PackingSolution solution
+) {
+
+    public Position position() {
+        return new Position(createdAt, solutionId);
+    }
+
+    /**
+     * Keyset position of an exported solution. Exports run in creation order,
+     * with the solution ID breaking ties between solutions created in the
+     * same instant, and resume strictly after a position.
+     */
+    public record Position(Instant createdAt, String solutionId) {
+    }
+
+    /**
+     * Solutions created in {@code [from, to)}, read {@code batchSize} at a time.
+     * A null bound is open; a null {@code after} starts at {@code from}.
+     */
+    public record Query(Instant from, Instant to, Position after, int batchSize, boolean withPackages) {
+    }
+}
@@ -1,29 +1,73 @@
 package com.paklog.cartonization.application.port.out;
 
 import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PackingSolutionRepository {
 
     PackingSolution save(PackingSolution solution);
 
+    /**
+     * Inserts new solutions as a single bulk write, skipping any that were
+     * already stored.
+     *
+     * @return the number of solutions inserted
+     */
+    int insertAll(List<PackingSolution> solutions);
+
     Optional<PackingSolution> findById(String solutionId);
 
     Optional<PackingSolution> findByRequestId(String requestId);
 
-    List<PackingSolution> findByOrderId(String orderId);
+    // Paged queries return slices in a fixed order their index can serve; any sort on the pageable is ignored
+
+    /**
+     * Solutions for an order, newest first.
+     */
+    Slice<PackingSolution> findByOrderId(String orderId, Pageable pageable);
+
+    /**
+     * All solutions, newest first.
+     */
+    Slice<PackingSolution> findRecentSolutions(Pageable pageable);
+
+    /**
+     * Solutions created after the given instant, oldest first.
+     */
+    Slice<PackingSolution> findSolutionsCreatedAfter(Instant since, Pageable pageable);
+
+    // Range queries order by the ranged value, newest first among equals
+
+    Slice<PackingSolution> findSolutionsWithMinimumPackages(int minPackages, Pageable pageable);
+
+    Slice<PackingSolution> findSolutionsWithTotalItemsBetween(int minItems, int maxItems, Pageable pageable);
 
-    List<PackingSolution> findRecentSolutions(int limit);
+    Slice<PackingSolution> findSolutionsWithUtilizationBetween(BigDecimal min, BigDecimal max, Pageable pageable);
 
-    List<PackingSolution> findSolutionsCreatedAfter(Instant since);
+    Slice<PackingSolution> findSolutionsWithUsedVolumeBetween(BigDecimal min, BigDecimal max, Pageable pageable);
 
-    List<PackingSolution> findSolutionsWithMinimumPackages(int minPackages);
+    /**
+     * Streams the solutions matching the query in keyset order. Each batch is a
+     * separate bounded read that resumes after the last position of the one
+     * before, so memory stays flat and no server cursor outlives a batch.
+     * The stream must be closed by the caller.
+     */
+    Stream<PackingSolutionExport> streamForExport(PackingSolutionExport.Query query);
 
     void deleteById(String solutionId);
 
+    /**
+     * Deletes solutions created before the cutoff in one go. Routine retention
+     * does not go through here; stored solutions expire on their own once they
+     * are older than the configured retention.
+     */
     void deleteOlderThan(Instant cutoffDate);
 
     long count();
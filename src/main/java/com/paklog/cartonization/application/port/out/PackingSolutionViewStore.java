@@ -0,0 +1,13 @@
+package com.paklog.cartonization.application.port.out;
+
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+
+/**
+ * Read-side projection of packing solutions: the response the API serves for
+ * a solution, rendered once when the solution is written so lookups do not
+ * rebuild it from the stored document.
+ */
+public interface PackingSolutionViewStore {
+
+    void project(PackingSolution solution);
+}
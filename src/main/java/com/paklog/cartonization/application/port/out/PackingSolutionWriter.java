@@ -0,0 +1,22 @@
+package com.paklog.cartonization.application.port.out;
+
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+
+import java.util.Optional;
+
+/**
+ * Persists computed solutions off the request path. A written solution may not
+ * be in the repository yet, but can be found here until it is.
+ */
+public interface PackingSolutionWriter {
+
+    void write(PackingSolution solution);
+
+    Optional<PackingSolution> findPending(String solutionId);
+
+    /**
+     * Returns the most recent unwritten solution computed for a request, so a
+     * retried request can be answered before its first answer is stored.
+     */
+    Optional<PackingSolution> findPendingByRequestId(String requestId);
+}
@@ -26,6 +26,18 @@ public interface ProductCatalogClient {
 
     List<SKU> findProductsBySimilarDimensions(DimensionSet dimensions, double tolerancePercentage);
 
+    /**
+     * Version of the catalog content this node holds locally; it only moves
+     * when product facts change. 0 when there is no such content.
+     */
+    long getCatalogVersion();
+
+    /**
+     * The SKU's facts as of {@link #getCatalogVersion()}, read locally without
+     * calling the catalog; empty when that version does not cover the SKU.
+     */
+    Optional<ProductInfo> getVersionedProductInfo(SKU sku);
+
     record ProductInfo(
         SKU sku,
         String name,
@@ -1,17 +1,27 @@
 package com.paklog.cartonization.application.service;
 
+import com.paklog.cartonization.application.port.in.BulkCartonResult;
 import com.paklog.cartonization.application.port.in.CartonManagementUseCase;
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
 import com.paklog.cartonization.application.port.in.command.CreateCartonCommand;
 import com.paklog.cartonization.application.port.out.CartonRepository;
 import com.paklog.cartonization.domain.exception.CartonNotFoundException;
 import com.paklog.cartonization.domain.model.aggregate.Carton;
 import com.paklog.cartonization.domain.model.valueobject.CartonId;
+import com.paklog.cartonization.domain.model.valueobject.CartonStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -20,9 +30,12 @@ public class CartonManagementService implements CartonManagementUseCase {
     private static final Logger log = LoggerFactory.getLogger(CartonManagementService.class);
     
     private final CartonRepository cartonRepository;
+    private final int maxBulkOperations;
     
-    public CartonManagementService(CartonRepository cartonRepository) {
+    public CartonManagementService(CartonRepository cartonRepository,
+                                   @Value("${app.cartons.bulk.max-operations:10000}") int maxBulkOperations) {
         this.cartonRepository = cartonRepository;
+        this.maxBulkOperations = maxBulkOperations;
     }
 
     @Override
@@ -32,7 +45,8 @@ public class CartonManagementService implements CartonManagementUseCase {
         Carton carton = Carton.create(
             command.name(),
             command.dimensions(),
-            command.maxWeight()
+            command.maxWeight(),
+            command.sites()
         );
 
         Carton savedCarton = cartonRepository.save(carton);
@@ -64,6 +78,13 @@ public class CartonManagementService implements CartonManagementUseCase {
         return cartonRepository.findAllActive();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Carton> listActiveCartonsForSite(String site) {
+        log.debug("Listing active cartons for site: {}", site);
+        return cartonRepository.findAllActiveForSite(site);
+    }
+
     @Override
     public Carton updateCarton(String cartonId, CreateCartonCommand command) {
         log.info("Updating carton: {}", cartonId);
@@ -75,7 +96,8 @@ public class CartonManagementService implements CartonManagementUseCase {
         Carton updatedCarton = Carton.create(
             command.name(),
             command.dimensions(),
-            command.maxWeight()
+            command.maxWeight(),
+            command.sites()
         );
 
         // Copy the ID from the existing carton
@@ -104,4 +126,114 @@ public class CartonManagementService implements CartonManagementUseCase {
 
         log.info("Successfully deactivated carton: {}", cartonId);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachCarton(Consumer<Carton> action) {
+        log.debug("Streaming all cartons");
+        try (Stream<Carton> cartons = cartonRepository.streamAll()) {
+            cartons.forEach(action);
+        }
+    }
+
+    @Override
+    public BulkCartonResult applyBulk(BulkCartonCommand command) {
+        List<BulkCartonCommand.Operation> operations = command.operations();
+        if (operations.size() > maxBulkOperations) {
+            throw new IllegalArgumentException(
+                "Bulk carton batch has " + operations.size() + " operations, maximum is " + maxBulkOperations);
+        }
+        log.info("Applying bulk carton batch {} with {} operations", command.batchId(), operations.size());
+
+        // Touched cartons in first-touch order; later operations on a carton build on earlier ones
+        Map<String, Carton> changed = new LinkedHashMap<>();
+        List<BulkCartonResult.Failure> failures = new ArrayList<>();
+        int created = 0;
+        int updated = 0;
+        int deactivated = 0;
+
+        for (int index = 0; index < operations.size(); index++) {
+            BulkCartonCommand.Operation operation = operations.get(index);
+            try {
+                if (operation.rejection() != null) {
+                    throw new IllegalArgumentException(operation.rejection());
+                }
+                if (operation.type() == null) {
+                    throw new IllegalArgumentException("Operation type is required");
+                }
+                switch (operation.type()) {
+                    case CREATE -> {
+                        Carton carton = Carton.create(operation.name(), operation.dimensions(),
+                            operation.maxWeight(), operation.sites());
+                        changed.put(carton.getId().getValue(), carton);
+                        created++;
+                    }
+                    case UPDATE -> {
+                        Carton carton = resolveForBulk(operation.cartonId(), changed);
+                        carton.updateCarton(operation.name(), operation.dimensions(), operation.maxWeight());
+                        if (operation.sites() != null) {
+                            carton.assignSites(operation.sites());
+                        }
+                        changed.put(carton.getId().getValue(), carton);
+                        updated++;
+                    }
+                    case UPSERT -> {
+                        CartonId id = CartonId.of(operation.cartonId());
+                        Optional<Carton> existing = findForBulk(id, changed);
+                        Carton carton;
+                        if (existing.isPresent()) {
+                            carton = existing.get();
+                            carton.updateCarton(operation.name(), operation.dimensions(), operation.maxWeight());
+                            if (operation.sites() != null) {
+                                carton.assignSites(operation.sites());
+                            }
+                            updated++;
+                        } else {
+                            carton = Carton.create(id, operation.name(), operation.dimensions(),
+                                operation.maxWeight(), operation.sites());
+                            created++;
+                        }
+                        changed.put(carton.getId().getValue(), carton);
+                    }
+                    case ACTIVATE -> {
+                        Carton carton = resolveForBulk(operation.cartonId(), changed);
+                        if (carton.getStatus() != CartonStatus.ACTIVE) {
+                            carton.activate();
+                            changed.put(carton.getId().getValue(), carton);
+                            updated++;
+                        }
+                    }
+                    case DEACTIVATE -> {
+                        Carton carton = resolveForBulk(operation.cartonId(), changed);
+                        carton.deactivate();
+                        changed.put(carton.getId().getValue(), carton);
+                        deactivated++;
+                    }
+                }
+            } catch (IllegalArgumentException | CartonNotFoundException e) {
+                failures.add(new BulkCartonResult.Failure(index, operation.cartonId(), e.getMessage()));
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            cartonRepository.saveAll(List.copyOf(changed.values()));
+        }
+
+        log.info("Applied bulk carton batch {}: {} created, {} updated, {} deactivated, {} rejected",
+                command.batchId(), created, updated, deactivated, failures.size());
+        return new BulkCartonResult(command.batchId(), created, updated, deactivated, failures);
+    }
+
+    private Carton resolveForBulk(String cartonId, Map<String, Carton> changed) {
+        return findForBulk(CartonId.of(cartonId), changed)
+            .orElseThrow(() -> new CartonNotFoundException("Carton not found: " + cartonId));
+    }
+
+    private Optional<Carton> findForBulk(CartonId id, Map<String, Carton> changed) {
+        Carton pending = changed.get(id.getValue());
+        if (pending != null) {
+            return Optional.of(pending);
+        }
+        return cartonRepository.findById(id);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,277 @@
+package com.paklog.cartonization.application.service;
+
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
+import com.paklog.cartonization.domain.model.valueobject.PackingRules;
+import com.paklog.cartonization.domain.service.PackingAlgorithmService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Offline engine that replays historical orders against candidate carton
+ * suites and searches for the suite of K cartons that ships the least volume,
+ * or the fewest packages.
+ * <p>
+ * Identical orders are collapsed and weighted by how often they occurred, so
+ * each distinct order is packed once per suite. A suite is scored by splitting
+ * the distinct orders into shards and packing them with the regular
+ * {@link PackingAlgorithmService} on a dedicated fork-join pool sized to the
+ * available cores. Orders a suite cannot pack at all always rank it below any
+ * suite that can.
+ */
+@Service
+public class CartonSuiteSimulator {
+
+    private static final Logger log = LoggerFactory.getLogger(CartonSuiteSimulator.class);
+
+    private final PackingAlgorithmService packingAlgorithmService;
+    private final ForkJoinPool pool;
+    private final int shardSize;
+
+    public CartonSuiteSimulator(PackingAlgorithmService packingAlgorithmService,
+                                @Value("${app.simulation.parallelism:0}") int parallelism,
+                                @Value("${app.simulation.shard-size:256}") int shardSize) {
+        this.packingAlgorithmService = packingAlgorithmService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.shardSize = Math.max(shardSize, 1);
+    }
+
+    public enum Objective {
+        SHIPPED_VOLUME,
+        PACKAGE_COUNT
+    }
+
+    /**
+     * Reads the orders into memory, collapsing identical orders. Items are
+     * compared in SKU order, so the same basket listed differently is still one
+     * order. At most {@code maxOrders} orders are read when it is positive.
+     */
+    public Demand loadDemand(Stream<List<ItemWithDimensions>> orders, long maxOrders) {
+        long start = System.nanoTime();
+        Map<List<ItemWithDimensions>, long[]> occurrences = new HashMap<>();
+        long total = 0;
+
+        try (orders) {
+            var iterator = orders.iterator();
+            while (iterator.hasNext() && (maxOrders <= 0 || total < maxOrders)) {
+                List<ItemWithDimensions> items = iterator.next().stream()
+                    .sorted(Comparator.comparing(item -> item.getSku().getValue()))
+                    .toList();
+                occurrences.computeIfAbsent(items, key -> new long[1])[0]++;
+                total++;
+                if (total % 1_000_000 == 0) {
+                    log.info("Read {} historical orders ({} distinct)", total, occurrences.size());
+                }
+            }
+        }
+
+        List<WeightedOrder> distinct = new ArrayList<>(occurrences.size());
+        occurrences.forEach((items, count) -> distinct.add(new WeightedOrder(items, count[0])));
+        log.info("Loaded {} historical orders ({} distinct) in {} ms", total, distinct.size(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return new Demand(List.copyOf(distinct), total);
+    }
+
+    /**
+     * Packs every order with the given suite and totals the result.
+     */
+    public SuiteScore evaluate(List<Carton> suite, Demand demand, PackingRules rules) {
+        List<Carton> sortedSuite = suite.stream()
+            .sorted(Comparator.comparing(carton -> carton.getDimensions().volume()))
+            .toList();
+        Tally tally = pool.invoke(new ShardTask(demand.orders(), 0, demand.orders().size(), sortedSuite, rules));
+        return tally.toScore();
+    }
+
+    /**
+     * Picks {@code suiteSize} cartons out of {@code candidates}: greedy forward
+     * selection, adding whichever carton improves the score most, followed by up
+     * to {@code swapRounds} rounds of swapping a chosen carton for an unchosen
+     * one while that improves the score.
+     */
+    public SearchResult search(List<Carton> candidates, int suiteSize, Objective objective,
+                               Demand demand, PackingRules rules, int swapRounds) {
+        if (suiteSize <= 0) {
+            throw new IllegalArgumentException("Suite size must be positive");
+        }
+        long start = System.nanoTime();
+        Comparator<SuiteScore> ranking = SuiteScore.ranking(objective);
+
+        SuiteScore baseline = evaluate(candidates, demand, rules);
+        int evaluations = 1;
+        log.info("Baseline with all {} candidate cartons: {}", candidates.size(), baseline);
+
+        if (candidates.size() <= suiteSize) {
+            return new SearchResult(List.copyOf(candidates), baseline, baseline, objective, evaluations,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+
+        List<Carton> suite = new ArrayList<>(suiteSize);
+        SuiteScore best = null;
+        while (suite.size() < suiteSize) {
+            Carton bestCarton = null;
+            SuiteScore bestScore = null;
+            for (Carton candidate : candidates) {
+                if (suite.contains(candidate)) {
+                    continue;
+                }
+                List<Carton> trial = new ArrayList<>(suite);
+                trial.add(candidate);
+                SuiteScore score = evaluate(trial, demand, rules);
+                evaluations++;
+                if (bestScore == null || ranking.compare(score, bestScore) < 0) {
+                    bestCarton = candidate;
+                    bestScore = score;
+                }
+            }
+            suite.add(bestCarton);
+            best = bestScore;
+            log.info("Suite of {}: added {} -> {}", suite.size(), bestCarton.getName(), best);
+        }
+
+        for (int round = 1; round <= swapRounds; round++) {
+            boolean improved = false;
+            for (int position = 0; position < suite.size(); position++) {
+                for (Carton candidate : candidates) {
+                    if (suite.contains(candidate)) {
+                        continue;
+                    }
+                    List<Carton> trial = new ArrayList<>(suite);
+                    Carton replaced = trial.set(position, candidate);
+                    SuiteScore score = evaluate(trial, demand, rules);
+                    evaluations++;
+                    if (ranking.compare(score, best) < 0) {
+                        log.info("Swap round {}: replaced {} with {} -> {}", round, replaced.getName(),
+                                candidate.getName(), score);
+                        suite = trial;
+                        best = score;
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+
+        return new SearchResult(List.copyOf(suite), best, baseline, objective, evaluations,
+            Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private final class ShardTask extends RecursiveTask<Tally> {
+
+        private final List<WeightedOrder> orders;
+        private final int from;
+        private final int to;
+        private final List<Carton> suite;
+        private final PackingRules rules;
+
+        private ShardTask(List<WeightedOrder> orders, int from, int to, List<Carton> suite, PackingRules rules) {
+            this.orders = orders;
+            this.from = from;
+            this.to = to;
+            this.suite = suite;
+            this.rules = rules;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= shardSize) {
+                return packShard();
+            }
+            int middle = (from + to) >>> 1;
+            ShardTask left = new ShardTask(orders, from, middle, suite, rules);
+            left.fork();
+            Tally right = new ShardTask(orders, middle, to, suite, rules).compute();
+            return left.join().add(right);
+        }
+
+        private Tally packShard() {
+            Tally tally = new Tally();
+            for (int i = from; i < to; i++) {
+                WeightedOrder order = orders.get(i);
+                tally.orders += order.occurrences();
+                try {
+                    PackingSolution solution = packingAlgorithmService.calculateOptimalPacking(order.items(), suite, rules);
+                    tally.packages += (long) solution.getTotalPackages() * order.occurrences();
+                    tally.shippedVolume += solution.getTotalVolume().doubleValue() * order.occurrences();
+                } catch (IllegalStateException | IllegalArgumentException e) {
+                    tally.unpackable += order.occurrences();
+                }
+            }
+            return tally;
+        }
+    }
+
+    private static final class Tally {
+        private long orders;
+        private long unpackable;
+        private long packages;
+        private double shippedVolume;
+
+        private Tally add(Tally other) {
+            orders += other.orders;
+            unpackable += other.unpackable;
+            packages += other.packages;
+            shippedVolume += other.shippedVolume;
+            return this;
+        }
+
+        private SuiteScore toScore() {
+            return new SuiteScore(orders, unpackable, packages, BigDecimal.valueOf(shippedVolume));
+        }
+    }
+
+    public record WeightedOrder(
+        List<ItemWithDimensions> items,
+        long occurrences
+    ) {}
+
+    public record Demand(
+        List<WeightedOrder> orders,
+        long totalOrders
+    ) {}
+
+    public record SuiteScore(
+        long orders,
+        long unpackableOrders,
+        long packages,
+        BigDecimal shippedVolume
+    ) {
+        static Comparator<SuiteScore> ranking(Objective objective) {
+            Comparator<SuiteScore> byUnpackable = Comparator.comparingLong(SuiteScore::unpackableOrders);
+            return objective == Objective.PACKAGE_COUNT
+                ? byUnpackable.thenComparingLong(SuiteScore::packages).thenComparing(SuiteScore::shippedVolume)
+                : byUnpackable.thenComparing(SuiteScore::shippedVolume).thenComparingLong(SuiteScore::packages);
+        }
+    }
+
+    public record SearchResult(
+        List<Carton> suite,
+        SuiteScore score,
+        SuiteScore baseline,
+        Objective objective,
+        int evaluations,
+        long durationMs
+    ) {}
+}
@@ -1,46 +1,230 @@
 package com.paklog.cartonization.application.service;
 
+import com.paklog.cartonization.application.port.out.EnrichmentPinStore;
+import com.paklog.cartonization.application.port.out.EnrichmentPinStore.EnrichmentPin;
 import com.paklog.cartonization.application.port.out.ProductCatalogClient;
-import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.exception.InvalidPackingRequestException;
+import com.paklog.cartonization.domain.exception.ProductCatalogUnavailableException;
 import com.paklog.cartonization.domain.model.valueobject.ItemToPack;
 import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
-import com.paklog.cartonization.domain.model.valueobject.Weight;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Enriches items with catalog data, fanning the per-SKU lookups out on virtual
+ * threads. The fan-out is scoped to a single call: the first failure or the
+ * enrichment deadline cancels every lookup still in flight, and nothing
+ * outlives the call. Concurrency across all calls on this node is capped at the
+ * product-catalog bulkhead size.
+ * <p>
+ * When an order ID is given, the resolved products are pinned per order and
+ * catalog version, so retries, replays and amendments of the same order only
+ * look up SKUs they have not seen before. The catalog version only covers the
+ * products in the versioned snapshot, so only those are kept from a pin: all of
+ * them when the pin was taken under the current version, otherwise those whose
+ * facts the snapshot still holds unchanged. Everything else, including pinned
+ * products the snapshot does not cover, is looked up again. Without a catalog
+ * version nothing can be checked, so pinned products are not reused.
+ */
 @Service
 public class DefaultProductDimensionEnricher implements ProductDimensionEnricher {
 
     private static final Logger log = LoggerFactory.getLogger(DefaultProductDimensionEnricher.class);
 
     private final ProductCatalogClient productCatalogClient;
+    private final EnrichmentPinStore enrichmentPinStore;
+    private final ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore catalogPermits;
+    private final Duration timeout;
 
-    public DefaultProductDimensionEnricher(ProductCatalogClient productCatalogClient) {
+    public DefaultProductDimensionEnricher(
+            ProductCatalogClient productCatalogClient,
+            EnrichmentPinStore enrichmentPinStore,
+            @Value("${resilience4j.bulkhead.instances.product-catalog.max-concurrent-calls:25}") int maxConcurrentCalls,
+            @Value("${app.enrichment.timeout:5s}") Duration timeout) {
         this.productCatalogClient = productCatalogClient;
+        this.enrichmentPinStore = enrichmentPinStore;
+        this.catalogPermits = new Semaphore(maxConcurrentCalls, true);
+        this.timeout = timeout;
     }
 
     @Override
     public List<ItemWithDimensions> enrichItems(List<ItemToPack> items) {
+        return toItems(items, lookupAll(distinctSkus(items)));
+    }
+
+    @Override
+    public List<ItemWithDimensions> enrichItems(String orderId, List<ItemToPack> items) {
+        if (orderId == null || orderId.isBlank()) {
+            return enrichItems(items);
+        }
+
+        List<SKU> skus = distinctSkus(items);
+        long catalogVersion = productCatalogClient.getCatalogVersion();
+        Optional<EnrichmentPin> pin = enrichmentPinStore.find(orderId);
+
+        Map<SKU, ProductInfo> products = new LinkedHashMap<>();
+        if (pin.isPresent() && catalogVersion != 0) {
+            products.putAll(stillCurrent(pin.get(), catalogVersion));
+        }
+        List<SKU> missing = skus.stream()
+            .filter(sku -> !products.containsKey(sku))
+            .toList();
+
+        if (missing.isEmpty()) {
+            log.debug("Reusing pinned enrichment for order: {} ({} SKUs)", orderId, skus.size());
+            return toItems(items, products);
+        }
+
+        products.putAll(lookupAll(missing));
+        enrichmentPinStore.save(new EnrichmentPin(orderId, catalogVersion, products));
+
+        log.debug("Pinned enrichment for order: {} ({} SKUs, {} looked up)", orderId, products.size(), missing.size());
+        return toItems(items, products);
+    }
+
+    /**
+     * Returns the pinned products that hold under the current catalog version:
+     * of those the versioned snapshot covers, all when the pin was taken under
+     * it and otherwise those whose facts it still has unchanged.
+     */
+    private Map<SKU, ProductInfo> stillCurrent(EnrichmentPin pin, long catalogVersion) {
+        boolean sameVersion = pin.catalogVersion() == catalogVersion;
+        Map<SKU, ProductInfo> unchanged = new LinkedHashMap<>();
+        pin.products().forEach((sku, pinned) -> productCatalogClient.getVersionedProductInfo(sku)
+            .filter(current -> sameVersion || sameFacts(pinned, current))
+            .ifPresent(current -> unchanged.put(sku, pinned)));
+        if (!sameVersion) {
+            log.info("Catalog version moved from {} to {} for order: {}, kept {} of {} pinned products",
+                    pin.catalogVersion(), catalogVersion, pin.orderId(), unchanged.size(), pin.products().size());
+        }
+        return unchanged;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    private Map<SKU, ProductInfo> lookupAll(List<SKU> skus) {
+        Map<SKU, ProductInfo> products = new LinkedHashMap<>();
+        if (skus.size() == 1) {
+            products.put(skus.get(0), lookup(skus.get(0)));
+            return products;
+        }
+
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        ExecutorCompletionService<Map.Entry<SKU, ProductInfo>> completion =
+            new ExecutorCompletionService<>(lookupExecutor);
+        List<Future<Map.Entry<SKU, ProductInfo>>> inFlight = new ArrayList<>(skus.size());
+
+        try {
+            for (SKU sku : skus) {
+                inFlight.add(completion.submit(() -> boundedLookup(sku, deadlineNanos, mdc)));
+            }
+
+            for (int received = 0; received < skus.size(); received++) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                Future<Map.Entry<SKU, ProductInfo>> done = completion.poll(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new ProductCatalogUnavailableException(
+                        "Enrichment of " + skus.size() + " SKUs exceeded deadline of " + timeout);
+                }
+                Map.Entry<SKU, ProductInfo> entry = done.get();
+                products.put(entry.getKey(), entry.getValue());
+            }
+            return products;
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to enrich item dimensions", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while enriching item dimensions", e);
+        } finally {
+            // No-op for completed lookups; cancels and interrupts the rest on failure or deadline
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static List<SKU> distinctSkus(List<ItemToPack> items) {
         return items.stream()
-            .map(this::enrichItem)
-            .collect(Collectors.toList());
+            .map(ItemToPack::getSku)
+            .distinct()
+            .toList();
     }
 
-    private ItemWithDimensions enrichItem(ItemToPack item) {
+    private static List<ItemWithDimensions> toItems(List<ItemToPack> items, Map<SKU, ProductInfo> products) {
+        List<ItemWithDimensions> enriched = new ArrayList<>(items.size());
+        for (ItemToPack item : items) {
+            enriched.add(products.get(item.getSku()).toItemWithDimensions(item.getQuantity()));
+        }
+        return enriched;
+    }
+
+    private static boolean sameFacts(ProductInfo a, ProductInfo b) {
+        return Objects.equals(a.dimensions(), b.dimensions())
+            && Objects.equals(a.weight(), b.weight())
+            && Objects.equals(a.category(), b.category())
+            && a.fragile() == b.fragile();
+    }
+
+    private Map.Entry<SKU, ProductInfo> boundedLookup(SKU sku, long deadlineNanos, Map<String, String> mdc)
+            throws InterruptedException {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
         try {
-            // Fetch product info from catalog
-            var productInfo = productCatalogClient.getProductInfo(item.getSku())
-                .orElseThrow(() -> new IllegalStateException(
-                    "Product not found for SKU: " + item.getSku().getValue()));
+            if (!catalogPermits.tryAcquire(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+                throw new ProductCatalogUnavailableException(
+                    "Product catalog bulkhead saturated while enriching SKU: " + sku.getValue());
+            }
+            try {
+                return Map.entry(sku, lookup(sku));
+            } finally {
+                catalogPermits.release();
+            }
+        } finally {
+            MDC.clear();
+        }
+    }
 
-            return productInfo.toItemWithDimensions(item.getQuantity());
+    private ProductInfo lookup(SKU sku) {
+        try {
+            // Fetch product info from catalog; empty means the catalog definitively has no such product
+            return productCatalogClient.getProductInfo(sku)
+                .orElseThrow(() -> new InvalidPackingRequestException(
+                    "Product not found for SKU: " + sku.getValue()));
+        } catch (InvalidPackingRequestException | ProductCatalogUnavailableException e) {
+            log.warn("Failed to enrich item with SKU: {}: {}", sku.getValue(), e.getMessage());
+            throw e;
         } catch (Exception e) {
-            log.error("Failed to enrich item with SKU: {}", item.getSku().getValue(), e);
-            throw new IllegalStateException("Failed to enrich item dimensions for SKU: " + item.getSku().getValue(), e);
+            log.error("Failed to enrich item with SKU: {}", sku.getValue(), e);
+            throw new IllegalStateException("Failed to enrich item dimensions for SKU: " + sku.getValue(), e);
         }
     }
 }
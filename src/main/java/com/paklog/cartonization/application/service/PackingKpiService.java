@@ -0,0 +1,65 @@
+package com.paklog.cartonization.application.service;
+
+import com.paklog.cartonization.application.port.in.PackingKpiUseCase;
+import com.paklog.cartonization.application.port.out.PackingKpiRollup;
+import com.paklog.cartonization.application.port.out.PackingKpiRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves packing KPIs from the stored rollups, merging the partial rollups
+ * each instance flushes for a bucket. The window is limited to a number of
+ * buckets, so a dashboard query reads a bounded number of documents.
+ */
+@Service
+public class PackingKpiService implements PackingKpiUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(PackingKpiService.class);
+
+    private final PackingKpiRollupRepository rollupRepository;
+    private final int maxBuckets;
+
+    public PackingKpiService(PackingKpiRollupRepository rollupRepository,
+                             @Value("${app.kpi.query.max-buckets:1440}") int maxBuckets) {
+        this.rollupRepository = rollupRepository;
+        this.maxBuckets = maxBuckets;
+    }
+
+    @Override
+    public List<PackingKpiRollup> findRollups(PackingKpiRollup.Query query) {
+        if (!query.from().isBefore(query.to())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        long buckets = Duration.between(query.from(), query.to()).dividedBy(query.resolution().duration());
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("Window spans " + buckets + " " + query.resolution().name().toLowerCase()
+                + " buckets, at most " + maxBuckets + " are allowed");
+        }
+
+        List<PackingKpiRollup> stored = rollupRepository.find(query);
+        log.debug("Merging {} stored KPI rollups for {}", stored.size(), query);
+
+        Map<List<Object>, PackingKpiRollup> merged = new LinkedHashMap<>();
+        for (PackingKpiRollup rollup : stored) {
+            List<Object> key = query.totals()
+                ? List.of(rollup.siteId(), rollup.cartonId())
+                : List.of(rollup.bucketStart(), rollup.siteId(), rollup.cartonId());
+            merged.merge(key, rollup, PackingKpiRollup::merge);
+        }
+
+        List<PackingKpiRollup> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparing(PackingKpiRollup::bucketStart)
+            .thenComparing(PackingKpiRollup::siteId)
+            .thenComparing(PackingKpiRollup::cartonId));
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+package com.paklog.cartonization.application.service;
+
+import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.ItemToPack;
+import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
+import com.paklog.cartonization.domain.model.valueobject.PackingRules;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Content-addressed keys for the packing solution cache: a 128-bit hash of the
+ * canonical item multiset, the packing rules, the site and the catalog versions
+ * the solution was computed against. Order and request IDs are never part of a
+ * key, and the same basket listed in a different order or with a SKU split over
+ * several lines hashes the same.
+ * <p>
+ * A basket key is computed from SKUs and quantities alone, before enrichment, so
+ * it also covers the product catalog version. An items key is computed from the
+ * enriched items and so only needs the carton catalog version.
+ * <p>
+ * Both versions are hashes of catalog content, the site's active cartons and
+ * the product facts, never node-local counters or timestamps, so every instance
+ * holding the same catalogs computes the same keys and shares the entries.
+ * <p>
+ * A request fingerprint is the same kind of hash over what a client asked for
+ * (order, site, options and items), so a retry under the same request ID can
+ * be told apart from a different request reusing it.
+ */
+final class PackingSolutionKeys {
+
+    private static final int KEY_BYTES = 16;
+
+    private PackingSolutionKeys() {
+    }
+
+    static String basketKey(List<ItemToPack> items, PackingRules rules, String siteId,
+                            long cartonCatalogVersion, long productCatalogVersion) {
+        Map<String, Long> quantities = new TreeMap<>();
+        for (ItemToPack item : items) {
+            quantities.merge(item.getSku().getValue(), item.getQuantity().longValue(), Long::sum);
+        }
+
+        StringBuilder canonical = new StringBuilder(64 + quantities.size() * 24);
+        canonical.append("cartons=").append(cartonCatalogVersion)
+            .append("|products=").append(productCatalogVersion);
+        appendContext(canonical, rules, siteId);
+        quantities.forEach((sku, quantity) -> canonical.append('\n').append(sku).append('\u0000').append(quantity));
+        return "basket:" + hash(canonical);
+    }
+
+    static String itemsKey(List<ItemWithDimensions> items, PackingRules rules, String siteId,
+                           long cartonCatalogVersion) {
+        Map<String, Long> quantities = new TreeMap<>();
+        for (ItemWithDimensions item : items) {
+            quantities.merge(canonicalItem(item), item.getQuantity().longValue(), Long::sum);
+        }
+
+        StringBuilder canonical = new StringBuilder(64 + quantities.size() * 96);
+        canonical.append("cartons=").append(cartonCatalogVersion);
+        appendContext(canonical, rules, siteId);
+        quantities.forEach((item, quantity) -> canonical.append('\n').append(item).append('\u0000').append(quantity));
+        return "items:" + hash(canonical);
+    }
+
+    static String requestFingerprint(CalculatePackingSolutionCommand command) {
+        Map<String, Long> quantities = new TreeMap<>();
+        for (ItemToPack item : command.getItems()) {
+            quantities.merge(item.getSku().getValue(), item.getQuantity().longValue(), Long::sum);
+        }
+
+        StringBuilder canonical = new StringBuilder(64 + quantities.size() * 24);
+        canonical.append("order=").append(command.getOrderId() != null ? command.getOrderId() : "")
+            .append("|site=").append(command.getSiteId() != null ? command.getSiteId() : "")
+            .append("|minBoxes=").append(command.isOptimizeForMinimumBoxes())
+            .append("|mixedCategories=").append(command.isAllowMixedCategories());
+        quantities.forEach((sku, quantity) -> canonical.append('\n').append(sku).append('\u0000').append(quantity));
+        return hash(canonical);
+    }
+
+    private static void appendContext(StringBuilder canonical, PackingRules rules, String siteId) {
+        canonical.append("|site=").append(siteId != null ? siteId : "")
+            .append("|minBoxes=").append(rules.shouldOptimizeForMinimumBoxes())
+            .append("|mixedCategories=").append(rules.shouldAllowMixedCategories())
+            .append("|separateFragile=").append(rules.shouldSeparateFragileItems())
+            .append("|maxUtilization=").append(decimal(rules.getMaxUtilizationThreshold()));
+    }
+
+    private static String canonicalItem(ItemWithDimensions item) {
+        DimensionSet dimensions = item.getDimensions();
+        Weight weight = item.getWeight();
+        return item.getSku().getValue()
+            + '\u0000' + decimal(dimensions.getLength())
+            + '\u0000' + decimal(dimensions.getWidth())
+            + '\u0000' + decimal(dimensions.getHeight())
+            + '\u0000' + dimensions.getUnit()
+            + '\u0000' + decimal(weight.getValue())
+            + '\u0000' + weight.getUnit()
+            + '\u0000' + (item.getCategory() != null ? item.getCategory() : "")
+            + '\u0000' + Boolean.TRUE.equals(item.getFragile());
+    }
+
+    private static String decimal(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : "";
+    }
+
+    private static String hash(CharSequence canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, KEY_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
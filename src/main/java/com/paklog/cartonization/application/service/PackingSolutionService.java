@@ -3,19 +3,30 @@ package com.paklog.cartonization.application.service;
 import com.paklog.cartonization.application.port.in.PackingSolutionUseCase;
 import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
 import com.paklog.cartonization.application.port.out.CartonRepository;
-import com.paklog.cartonization.application.port.out.EventPublisher;
+import com.paklog.cartonization.application.port.out.PackingAnalyticsPublisher;
+import com.paklog.cartonization.application.port.out.PackingKpiRecorder;
+import com.paklog.cartonization.application.port.out.PackingSolutionCache;
+import com.paklog.cartonization.application.port.out.PackingSolutionExport;
+import com.paklog.cartonization.application.port.out.PackingSolutionRepository;
+import com.paklog.cartonization.application.port.out.PackingSolutionWriter;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient;
+import com.paklog.cartonization.domain.exception.PackingSolutionNotFoundException;
 import com.paklog.cartonization.domain.model.aggregate.Carton;
 import com.paklog.cartonization.domain.model.entity.PackingSolution;
 import com.paklog.cartonization.domain.model.valueobject.*;
 import com.paklog.cartonization.domain.service.PackingAlgorithmService;
-import com.paklog.cartonization.domain.event.PackingSolutionCalculated;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -25,17 +36,35 @@ public class PackingSolutionService implements PackingSolutionUseCase {
 
     private final PackingAlgorithmService packingAlgorithmService;
     private final CartonRepository cartonRepository;
-    private final EventPublisher eventPublisher;
     private final ProductDimensionEnricher productDimensionEnricher;
+    private final ProductCatalogClient productCatalogClient;
+    private final PackingSolutionCache solutionCache;
+    private final PackingSolutionWriter solutionWriter;
+    private final PackingSolutionRepository solutionRepository;
+    private final PackingKpiRecorder kpiRecorder;
+    private final PackingAnalyticsPublisher analyticsPublisher;
+    private final boolean solutionCacheEnabled;
 
     public PackingSolutionService(PackingAlgorithmService packingAlgorithmService,
                                    CartonRepository cartonRepository,
-                                   EventPublisher eventPublisher,
-                                   ProductDimensionEnricher productDimensionEnricher) {
+                                   ProductDimensionEnricher productDimensionEnricher,
+                                   ProductCatalogClient productCatalogClient,
+                                   PackingSolutionCache solutionCache,
+                                   PackingSolutionWriter solutionWriter,
+                                   PackingSolutionRepository solutionRepository,
+                                   PackingKpiRecorder kpiRecorder,
+                                   PackingAnalyticsPublisher analyticsPublisher,
+                                   @Value("${app.solution-cache.enabled:true}") boolean solutionCacheEnabled) {
         this.packingAlgorithmService = packingAlgorithmService;
         this.cartonRepository = cartonRepository;
-        this.eventPublisher = eventPublisher;
         this.productDimensionEnricher = productDimensionEnricher;
+        this.productCatalogClient = productCatalogClient;
+        this.solutionCache = solutionCache;
+        this.solutionWriter = solutionWriter;
+        this.solutionRepository = solutionRepository;
+        this.kpiRecorder = kpiRecorder;
+        this.analyticsPublisher = analyticsPublisher;
+        this.solutionCacheEnabled = solutionCacheEnabled;
     }
 
     @Override
@@ -43,41 +72,21 @@ public class PackingSolutionService implements PackingSolutionUseCase {
         log.info("Processing packing solution request: {}", command.getRequestId());
 
         try {
-            // Get available cartons
-            List<Carton> availableCartons = cartonRepository.findAllActive();
-            if (availableCartons.isEmpty()) {
-                throw new IllegalStateException("No active cartons available");
-            }
-
-            // Enrich items with dimensions from product catalog
-            List<ItemWithDimensions> enrichedItems = productDimensionEnricher.enrichItems(command.getItems());
-
-            // Build packing rules from command
-            PackingRules rules = PackingRules.builder()
-                .optimizeForMinimumBoxes(command.isOptimizeForMinimumBoxes())
-                .allowMixedCategories(command.isAllowMixedCategories())
-                .separateFragileItems(true)
-                .maxUtilizationThreshold(BigDecimal.valueOf(0.95))
-                .build();
-
-            // Calculate optimal packing
-            PackingSolution solution = packingAlgorithmService.calculateOptimalPacking(
-                enrichedItems,
-                availableCartons,
-                rules
-            );
-
-            // Set metadata
-            solution.setRequestId(command.getRequestId());
-            solution.setOrderId(command.getOrderId());
+            long started = System.nanoTime();
+            PackingSolution solution = resolve(command);
+            kpiRecorder.record(solution, command.getSiteId(), Duration.ofNanos(System.nanoTime() - started));
 
             log.info("Successfully calculated packing solution for request: {}", command.getRequestId());
             log.info("Solution uses {} packages with {} total items",
                     solution.getTotalPackages(), solution.getTotalItems());
 
-            // Publish domain event
-            PackingSolutionCalculated event = PackingSolutionCalculated.from(solution);
-            eventPublisher.publish("cartonization.packing-solution.calculated", solution.getRequestId(), event);
+            // The calculated event is stored with the solution and relayed from the outbox
+            solution.setRequestFingerprint(PackingSolutionKeys.requestFingerprint(command));
+            solution.markCalculated();
+
+            // Persisted and published to analytics off the request path
+            solutionWriter.write(solution);
+            analyticsPublisher.publish(solution);
 
             return solution;
 
@@ -87,6 +96,130 @@ public class PackingSolutionService implements PackingSolutionUseCase {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PackingSolution getSolutionById(String solutionId) {
+        return solutionWriter.findPending(solutionId)
+            .or(() -> solutionRepository.findById(solutionId))
+            .orElseThrow(() -> new PackingSolutionNotFoundException("Packing solution not found: " + solutionId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachSolution(PackingSolutionExport.Query query, Consumer<PackingSolutionExport> action) {
+        log.debug("Streaming packing solutions: {}", query);
+        try (Stream<PackingSolutionExport> solutions = solutionRepository.streamForExport(query)) {
+            solutions.forEach(action);
+        }
+    }
+
+    /**
+     * Makes sure the solution cache holds a solution for the command's basket,
+     * computing it if needed, without publishing anything. Used by cache warmup.
+     */
+    public void precompute(CalculatePackingSolutionCommand command) {
+        if (solutionCacheEnabled) {
+            resolve(command);
+        }
+    }
+
+    // The product catalog version only covers the products in the versioned snapshot
+    private boolean coveredByCatalogVersion(List<ItemToPack> items) {
+        for (ItemToPack item : items) {
+            if (productCatalogClient.getVersionedProductInfo(item.getSku()).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private PackingSolution resolve(CalculatePackingSolutionCommand command) {
+        long started = System.nanoTime();
+
+        // Build packing rules from command
+        PackingRules rules = PackingRules.builder()
+            .optimizeForMinimumBoxes(command.isOptimizeForMinimumBoxes())
+            .allowMixedCategories(command.isAllowMixedCategories())
+            .separateFragileItems(true)
+            .maxUtilizationThreshold(BigDecimal.valueOf(0.95))
+            .build();
+
+        // Content version of the site's cartons, the same on every node; read before the cartons,
+        // so a concurrent catalog change can only make the key older than the data
+        long cartonCatalogVersion = cartonRepository.getCatalogVersion(command.getSiteId());
+
+        // Identical baskets against the same catalogs are served without enrichment, as long as
+        // the product catalog version vouches for every product in the basket
+        String basketKey = null;
+        if (solutionCacheEnabled) {
+            long productCatalogVersion = productCatalogClient.getCatalogVersion();
+            if (productCatalogVersion > 0 && coveredByCatalogVersion(command.getItems())) {
+                basketKey = PackingSolutionKeys.basketKey(command.getItems(), rules, command.getSiteId(),
+                    cartonCatalogVersion, productCatalogVersion);
+                Optional<PackingSolution> cached = solutionCache.find(basketKey);
+                if (cached.isPresent()) {
+                    return reuse(cached.get(), command, cartonCatalogVersion);
+                }
+            }
+        }
+
+        // Get the cartons stocked at the fulfilling site, or all active cartons if none given
+        List<Carton> availableCartons = command.getSiteId() != null
+            ? cartonRepository.findAllActiveForSite(command.getSiteId())
+            : cartonRepository.findAllActive();
+        if (availableCartons.isEmpty()) {
+            throw new IllegalStateException(command.getSiteId() != null
+                ? "No active cartons available at site: " + command.getSiteId()
+                : "No active cartons available");
+        }
+
+        // Enrich items with dimensions from product catalog
+        List<ItemWithDimensions> enrichedItems = productDimensionEnricher.enrichItems(command.getOrderId(), command.getItems());
+
+        // Without a product catalog version, only the enriched items identify the basket
+        String itemsKey = null;
+        if (solutionCacheEnabled) {
+            itemsKey = PackingSolutionKeys.itemsKey(enrichedItems, rules, command.getSiteId(), cartonCatalogVersion);
+            Optional<PackingSolution> cached = solutionCache.find(itemsKey);
+            if (cached.isPresent()) {
+                if (basketKey != null) {
+                    solutionCache.put(basketKey, cached.get(), Duration.ofNanos(System.nanoTime() - started));
+                }
+                return reuse(cached.get(), command, cartonCatalogVersion);
+            }
+        }
+
+        // Calculate optimal packing
+        long solveStarted = System.nanoTime();
+        PackingSolution solution = packingAlgorithmService.calculateOptimalPacking(
+            enrichedItems,
+            availableCartons,
+            rules
+        );
+
+        // Set metadata
+        solution.setRequestId(command.getRequestId());
+        solution.setOrderId(command.getOrderId());
+        solution.setCartonCatalogVersion(cartonCatalogVersion);
+
+        if (itemsKey != null) {
+            long finished = System.nanoTime();
+            solutionCache.put(itemsKey, solution, Duration.ofNanos(finished - solveStarted));
+            if (basketKey != null) {
+                solutionCache.put(basketKey, solution, Duration.ofNanos(finished - started));
+            }
+        }
+        return solution;
+    }
+
+    private PackingSolution reuse(PackingSolution cached, CalculatePackingSolutionCommand command,
+                                  long cartonCatalogVersion) {
+        PackingSolution solution = cached.reuseFor(command.getRequestId(), command.getOrderId());
+        solution.setCartonCatalogVersion(cartonCatalogVersion);
+        log.debug("Served packing solution for request: {} from solution cache", command.getRequestId());
+        return solution;
+    }
+
     public static class PackingSolutionException extends RuntimeException {
         public PackingSolutionException(String message, Throwable cause) {
             super(message, cause);
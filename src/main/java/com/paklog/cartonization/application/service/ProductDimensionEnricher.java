@@ -7,4 +7,12 @@ import java.util.List;
 
 public interface ProductDimensionEnricher {
     List<ItemWithDimensions> enrichItems(List<ItemToPack> items);
+
+    /**
+     * Enriches items for a specific order, allowing implementations to reuse
+     * data already resolved for the same order on an earlier attempt.
+     */
+    default List<ItemWithDimensions> enrichItems(String orderId, List<ItemToPack> items) {
+        return enrichItems(items);
+    }
 }
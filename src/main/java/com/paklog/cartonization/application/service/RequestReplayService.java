@@ -0,0 +1,111 @@
+package com.paklog.cartonization.application.service;
+
+import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
+import com.paklog.cartonization.application.port.out.PackingSolutionRepository;
+import com.paklog.cartonization.application.port.out.PackingSolutionWriter;
+import com.paklog.cartonization.domain.exception.RequestIdReusedException;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Answers a repeated request with the solution computed the first time, so a
+ * retry costs a lookup instead of a second solve (HTTP) or no answer at all
+ * (Kafka, where the idempotency lock drops the duplicate). Solutions not yet
+ * flushed by the write-behind writer are found there; stored ones by request
+ * ID, through the solution cache. A request is only answered with a stored
+ * solution if it asks for the same thing, judged by its fingerprint.
+ */
+@Service
+public class RequestReplayService {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestReplayService.class);
+
+    public enum Channel {
+        HTTP,
+        KAFKA
+    }
+
+    private final PackingSolutionWriter solutionWriter;
+    private final PackingSolutionRepository solutionRepository;
+
+    private final Map<Channel, Counter> hits = new EnumMap<>(Channel.class);
+    private final Map<Channel, Counter> misses = new EnumMap<>(Channel.class);
+
+    public RequestReplayService(PackingSolutionWriter solutionWriter,
+                                PackingSolutionRepository solutionRepository,
+                                MeterRegistry meterRegistry) {
+        this.solutionWriter = solutionWriter;
+        this.solutionRepository = solutionRepository;
+
+        for (Channel channel : Channel.values()) {
+            hits.put(channel, counter(meterRegistry, channel, "hit"));
+            misses.put(channel, counter(meterRegistry, channel, "miss"));
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Channel channel, String result) {
+        return Counter.builder("cartonization.replay.lookups")
+            .description("Lookups of a stored solution for a repeated request ID")
+            .tag("channel", channel.name().toLowerCase())
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Finds the solution already computed for a command's request ID, making
+     * sure the command is a retry of the request that solution answered.
+     *
+     * @throws RequestIdReusedException if the request ID was used for a
+     *                                  different request
+     */
+    public Optional<PackingSolution> replay(CalculatePackingSolutionCommand command, Channel channel) {
+        Optional<PackingSolution> stored = replay(command.getRequestId(), channel);
+        if (stored.isPresent() && !isRetryOf(command, stored.get())) {
+            throw new RequestIdReusedException("Request ID " + command.getRequestId()
+                + " was already used for a different request");
+        }
+        return stored;
+    }
+
+    // Solutions stored before fingerprints were recorded can only be matched on their order
+    private static boolean isRetryOf(CalculatePackingSolutionCommand command, PackingSolution stored) {
+        if (stored.getRequestFingerprint() == null) {
+            return Objects.equals(stored.getOrderId(), command.getOrderId());
+        }
+        return stored.getRequestFingerprint().equals(PackingSolutionKeys.requestFingerprint(command));
+    }
+
+    /**
+     * Finds the solution already computed for a request. A failed lookup is
+     * treated as a miss, so the caller falls back to its usual handling.
+     *
+     * @param requestId the request ID the client sent
+     * @param channel   the path the request came in on, for the hit rate
+     * @return the stored solution, or empty if there is none (yet)
+     */
+    public Optional<PackingSolution> replay(String requestId, Channel channel) {
+        Optional<PackingSolution> solution;
+        try {
+            solution = solutionWriter.findPendingByRequestId(requestId)
+                .or(() -> solutionRepository.findByRequestId(requestId));
+        } catch (Exception e) {
+            log.warn("Failed to look up stored solution for request: {}, treating as new", requestId, e);
+            solution = Optional.empty();
+        }
+
+        (solution.isPresent() ? hits : misses).get(channel).increment();
+        if (solution.isPresent()) {
+            log.debug("Replaying solution {} for repeated request: {}", solution.get().getSolutionId(), requestId);
+        }
+        return solution;
+    }
+}
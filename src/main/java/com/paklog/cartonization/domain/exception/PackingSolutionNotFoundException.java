@@ -0,0 +1,7 @@
+package com.paklog.cartonization.domain.exception;
+
+public class PackingSolutionNotFoundException extends RuntimeException {
+    public PackingSolutionNotFoundException(String message) {
+        super(message);
+    }
+}
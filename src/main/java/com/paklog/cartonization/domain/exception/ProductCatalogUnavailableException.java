@@ -0,0 +1,11 @@
+package com.paklog.cartonization.domain.exception;
+
+public class ProductCatalogUnavailableException extends RuntimeException {
+    public ProductCatalogUnavailableException(String message) {
+        super(message);
+    }
+
+    public ProductCatalogUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.paklog.cartonization.domain.exception;
+
+public class RequestIdReusedException extends RuntimeException {
+    public RequestIdReusedException(String message) {
+        super(message);
+    }
+}
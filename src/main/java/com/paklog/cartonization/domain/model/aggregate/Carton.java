@@ -10,7 +10,10 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class Carton {
 
@@ -21,6 +24,8 @@ public class Carton {
     private DimensionSet dimensions;
     private Weight maxWeight;
     private CartonStatus status;
+    // Sites stocking this carton type; empty means every site
+    private Set<String> sites;
     private final Instant createdAt;
     private Instant updatedAt;
 
@@ -28,22 +33,33 @@ public class Carton {
 
     // Private constructor for factory method pattern
     private Carton(CartonId id, String name, DimensionSet dimensions,
-                   Weight maxWeight, CartonStatus status) {
+                   Weight maxWeight, CartonStatus status, Set<String> sites) {
         this.id = id;
         this.name = name;
         this.dimensions = dimensions;
         this.maxWeight = maxWeight;
         this.status = status;
+        this.sites = sites;
         this.createdAt = Instant.now();
         this.updatedAt = Instant.now();
     }
 
     // Factory method for creating new carton
     public static Carton create(String name, DimensionSet dimensions, Weight maxWeight) {
+        return create(name, dimensions, maxWeight, Set.of());
+    }
+
+    // Factory method for creating a carton stocked only at the given sites
+    public static Carton create(String name, DimensionSet dimensions, Weight maxWeight, Set<String> sites) {
+        return create(CartonId.generate(), name, dimensions, maxWeight, sites);
+    }
+
+    // Factory method for creating a carton under an ID assigned elsewhere, e.g. by an import
+    public static Carton create(CartonId cartonId, String name, DimensionSet dimensions, Weight maxWeight,
+                                Set<String> sites) {
         validateCartonData(name, dimensions, maxWeight);
 
-        CartonId cartonId = CartonId.generate();
-        Carton carton = new Carton(cartonId, name, dimensions, maxWeight, CartonStatus.ACTIVE);
+        Carton carton = new Carton(cartonId, name, dimensions, maxWeight, CartonStatus.ACTIVE, normalizeSites(sites));
 
         carton.addDomainEvent(new CartonCreatedEvent(
             cartonId.getValue(),
@@ -61,18 +77,26 @@ public class Carton {
     public static Carton reconstitute(CartonId id, String name, DimensionSet dimensions,
                                       Weight maxWeight, CartonStatus status,
                                       Instant createdAt, Instant updatedAt) {
-        Carton carton = new Carton(id, name, dimensions, maxWeight, status, createdAt, updatedAt);
+        return reconstitute(id, name, dimensions, maxWeight, status, Set.of(), createdAt, updatedAt);
+    }
+
+    public static Carton reconstitute(CartonId id, String name, DimensionSet dimensions,
+                                      Weight maxWeight, CartonStatus status, Set<String> sites,
+                                      Instant createdAt, Instant updatedAt) {
+        Carton carton = new Carton(id, name, dimensions, maxWeight, status, normalizeSites(sites), createdAt, updatedAt);
         return carton;
     }
 
     // Private constructor for reconstitution
     private Carton(CartonId id, String name, DimensionSet dimensions,
-                   Weight maxWeight, CartonStatus status, Instant createdAt, Instant updatedAt) {
+                   Weight maxWeight, CartonStatus status, Set<String> sites,
+                   Instant createdAt, Instant updatedAt) {
         this.id = id;
         this.name = name;
         this.dimensions = dimensions;
         this.maxWeight = maxWeight;
         this.status = status;
+        this.sites = sites;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -116,6 +140,25 @@ public class Carton {
         return dimensions.canContain(itemDimensions);
     }
 
+    public boolean isStockedAt(String site) {
+        return site == null || sites.isEmpty() || sites.contains(site.trim().toUpperCase());
+    }
+
+    public void assignSites(Set<String> newSites) {
+        this.sites = normalizeSites(newSites);
+        this.updatedAt = Instant.now();
+
+        addDomainEvent(new CartonUpdatedEvent(
+            id.getValue(),
+            name,
+            dimensions,
+            maxWeight,
+            updatedAt
+        ));
+
+        log.info("Assigned carton {} to sites: {}", id.getValue(), sites.isEmpty() ? "all" : sites);
+    }
+
     public void updateDimensions(DimensionSet newDimensions) {
         validateDimensions(newDimensions);
         this.dimensions = newDimensions;
@@ -185,6 +228,11 @@ public class Carton {
         log.info("Updated carton: {}", id.getValue());
     }
 
+    // Copy of this carton's current state, without its pending events
+    public Carton copy() {
+        return new Carton(id, name, dimensions, maxWeight, status, sites, createdAt, updatedAt);
+    }
+
     // Domain event handling
     private void addDomainEvent(DomainEvent event) {
         domainEvents.add(event);
@@ -196,6 +244,15 @@ public class Carton {
         return events;
     }
 
+    // Pending events, left in place until whoever stores them has done so
+    public List<DomainEvent> domainEvents() {
+        return List.copyOf(domainEvents);
+    }
+
+    public void clearDomainEvents() {
+        domainEvents.clear();
+    }
+
     // Validation methods
     private static void validateCartonData(String name, DimensionSet dimensions, Weight maxWeight) {
         if (name == null || name.trim().isEmpty()) {
@@ -217,6 +274,20 @@ public class Carton {
         }
     }
 
+    private static Set<String> normalizeSites(Set<String> sites) {
+        if (sites == null || sites.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> normalized = new TreeSet<>();
+        for (String site : sites) {
+            if (site == null || site.trim().isEmpty()) {
+                throw new IllegalArgumentException("Carton site cannot be empty");
+            }
+            normalized.add(site.trim().toUpperCase());
+        }
+        return Collections.unmodifiableSet(normalized);
+    }
+
     public CartonId getId() {
         return id;
     }
@@ -237,6 +308,10 @@ public class Carton {
         return status;
     }
 
+    public Set<String> getSites() {
+        return sites;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -26,6 +26,22 @@ public class Package {
         return new Package(carton);
     }
 
+    // Factory method for reconstituting a package exactly as it was packed, without re-checking packing rules
+    public static Package reconstitute(Carton carton, List<ItemWithDimensions> items) {
+        Package pkg = new Package(carton);
+        for (ItemWithDimensions item : items) {
+            pkg.items.add(item);
+            pkg.currentWeight = pkg.currentWeight.add(item.getWeight().getValue());
+            pkg.usedVolume = pkg.usedVolume.add(item.getDimensions().volume());
+        }
+        return pkg;
+    }
+
+    // Copy of this package with its own copy of the carton and item list
+    public Package copy() {
+        return reconstitute(carton.copy(), items);
+    }
+
     public boolean canAddItem(ItemWithDimensions item, PackingRules rules) {
         // Check if carton can physically fit the item
         if (!carton.canFitItem(item.getDimensions(), item.getWeight())) {
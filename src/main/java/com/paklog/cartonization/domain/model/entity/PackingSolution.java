@@ -1,5 +1,7 @@
 package com.paklog.cartonization.domain.model.entity;
 
+import com.paklog.cartonization.domain.event.DomainEvent;
+import com.paklog.cartonization.domain.event.PackingSolutionCalculated;
 import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -12,13 +14,22 @@ public class PackingSolution {
     private final String solutionId;
     private String requestId;
     private String orderId;
+    // Content version of the cartons this solution was computed against; null when not recorded
+    private Long cartonCatalogVersion;
+    // Fingerprint of the request this solution answered, to tell a retry from a reused request ID
+    private String requestFingerprint;
     private final List<Package> packages;
     private final Instant createdAt;
+    private final List<DomainEvent> domainEvents = new ArrayList<>();
 
     private PackingSolution(String solutionId, List<Package> packages) {
+        this(solutionId, packages, Instant.now());
+    }
+
+    private PackingSolution(String solutionId, List<Package> packages, Instant createdAt) {
         this.solutionId = solutionId;
         this.packages = packages;
-        this.createdAt = Instant.now();
+        this.createdAt = createdAt;
     }
 
 
@@ -27,6 +38,36 @@ public class PackingSolution {
         return new PackingSolution(solutionId, packages);
     }
 
+    // Factory method for reconstituting from a stored copy
+    public static PackingSolution reconstitute(String solutionId, String requestId, String orderId,
+                                               List<Package> packages, Instant createdAt) {
+        PackingSolution solution = new PackingSolution(solutionId, packages, createdAt);
+        solution.requestId = requestId;
+        solution.orderId = orderId;
+        return solution;
+    }
+
+    // Factory method for serving this solution to another request for an identical basket
+    public PackingSolution reuseFor(String requestId, String orderId) {
+        PackingSolution copy = create(packages);
+        copy.requestId = requestId;
+        copy.orderId = orderId;
+        copy.cartonCatalogVersion = cartonCatalogVersion;
+        return copy;
+    }
+
+    // Copy of this solution and its packages, without its pending events
+    public PackingSolution copy() {
+        List<Package> copiedPackages = new ArrayList<>(packages.size());
+        for (Package pkg : packages) {
+            copiedPackages.add(pkg.copy());
+        }
+        PackingSolution copy = reconstitute(solutionId, requestId, orderId, copiedPackages, createdAt);
+        copy.cartonCatalogVersion = cartonCatalogVersion;
+        copy.requestFingerprint = requestFingerprint;
+        return copy;
+    }
+
     public void setRequestId(String requestId) {
         this.requestId = requestId;
     }
@@ -35,6 +76,19 @@ public class PackingSolution {
         this.orderId = orderId;
     }
 
+    public void setCartonCatalogVersion(Long cartonCatalogVersion) {
+        this.cartonCatalogVersion = cartonCatalogVersion;
+    }
+
+    public void setRequestFingerprint(String requestFingerprint) {
+        this.requestFingerprint = requestFingerprint;
+    }
+
+    // Records that this solution was calculated for its request, once it carries the request's IDs
+    public synchronized void markCalculated() {
+        domainEvents.add(PackingSolutionCalculated.from(this));
+    }
+
     public int getTotalPackages() {
         return packages.size();
     }
@@ -101,6 +155,14 @@ public class PackingSolution {
         return orderId;
     }
 
+    public Long getCartonCatalogVersion() {
+        return cartonCatalogVersion;
+    }
+
+    public String getRequestFingerprint() {
+        return requestFingerprint;
+    }
+
     public List<Package> getPackages() {
         return packages;
     }
@@ -108,4 +170,9 @@ public class PackingSolution {
     public Instant getCreatedAt() {
         return createdAt;
     }
-}
\ No newline at end of file
+
+    // Domain event handling; left in place so a retried write stores the same events
+    public synchronized List<DomainEvent> domainEvents() {
+        return List.copyOf(domainEvents);
+    }
+}
@@ -1,6 +1,23 @@
 package com.paklog.cartonization.domain.model.valueobject;
 
+import java.util.Locale;
+
 public enum DimensionUnit {
     INCHES,
-    CENTIMETERS
-}
\ No newline at end of file
+    CENTIMETERS;
+
+    /**
+     * Resolves a unit from its name or its common abbreviation ({@code IN}, {@code CM}).
+     *
+     * @throws IllegalArgumentException if the code is not a supported dimension unit
+     */
+    public static DimensionUnit fromCode(String code) {
+        String normalized = code == null ? "" : code.trim().toUpperCase(Locale.ROOT);
+        return switch (normalized) {
+            case "INCHES", "INCH", "IN" -> INCHES;
+            case "CENTIMETERS", "CENTIMETER", "CM" -> CENTIMETERS;
+            default -> throw new IllegalArgumentException(
+                "Unsupported dimension unit: " + code + " (expected IN or CM)");
+        };
+    }
+}
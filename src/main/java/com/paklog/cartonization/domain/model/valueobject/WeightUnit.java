@@ -1,6 +1,23 @@
 package com.paklog.cartonization.domain.model.valueobject;
 
+import java.util.Locale;
+
 public enum WeightUnit {
     POUNDS,
-    KILOGRAMS
-}
\ No newline at end of file
+    KILOGRAMS;
+
+    /**
+     * Resolves a unit from its name or its common abbreviation ({@code LB}, {@code KG}).
+     *
+     * @throws IllegalArgumentException if the code is not a supported weight unit
+     */
+    public static WeightUnit fromCode(String code) {
+        String normalized = code == null ? "" : code.trim().toUpperCase(Locale.ROOT);
+        return switch (normalized) {
+            case "POUNDS", "POUND", "LBS", "LB" -> POUNDS;
+            case "KILOGRAMS", "KILOGRAM", "KG" -> KILOGRAMS;
+            default -> throw new IllegalArgumentException(
+                "Unsupported weight unit: " + code + " (expected LB or KG)");
+        };
+    }
+}
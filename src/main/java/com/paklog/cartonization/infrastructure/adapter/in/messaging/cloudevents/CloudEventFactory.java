@@ -52,6 +52,15 @@ public class CloudEventFactory {
         );
     }
 
+    public CloudEvent createCartonManagementResponse(String batchId, Object data) {
+        return createCloudEvent(
+            CloudEventTypes.CARTON_MANAGEMENT_RESPONSE,
+            batchId,
+            data,
+            "application/json"
+        );
+    }
+
     public CloudEvent createCartonCreated(String cartonId, Object data) {
         return createCloudEvent(
             CloudEventTypes.CARTON_CREATED,
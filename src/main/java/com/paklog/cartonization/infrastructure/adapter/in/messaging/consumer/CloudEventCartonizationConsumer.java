@@ -1,14 +1,21 @@
 package com.paklog.cartonization.infrastructure.adapter.in.messaging.consumer;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.application.port.in.BulkCartonResult;
+import com.paklog.cartonization.application.port.in.CartonManagementUseCase;
 import com.paklog.cartonization.application.port.in.PackingSolutionUseCase;
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
 import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
 import com.paklog.cartonization.application.service.IdempotencyService;
+import com.paklog.cartonization.application.service.RequestReplayService;
 import com.paklog.cartonization.domain.model.entity.PackingSolution;
 import com.paklog.cartonization.infrastructure.adapter.in.messaging.cloudevents.CloudEventFactory;
 import com.paklog.cartonization.infrastructure.adapter.in.messaging.cloudevents.CloudEventTypes;
+import com.paklog.cartonization.infrastructure.adapter.in.messaging.event.CartonManagementRequestEvent;
 import com.paklog.cartonization.infrastructure.adapter.in.messaging.event.CartonizationRequestEvent;
 import com.paklog.cartonization.infrastructure.adapter.in.messaging.event.CartonizationResponseEvent;
+import com.paklog.cartonization.infrastructure.adapter.in.messaging.mapper.CartonManagementEventMapper;
 import com.paklog.cartonization.infrastructure.adapter.in.messaging.mapper.CartonizationEventMapper;
 import com.paklog.cartonization.infrastructure.adapter.out.messaging.CloudEventPublisher;
 import io.cloudevents.CloudEvent;
@@ -17,6 +24,7 @@ import io.cloudevents.core.data.PojoCloudEventData;
 import io.cloudevents.jackson.JsonFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
@@ -25,6 +33,8 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class CloudEventCartonizationConsumer {
@@ -37,19 +47,32 @@ public class CloudEventCartonizationConsumer {
     private final CloudEventFactory cloudEventFactory;
     private final ObjectMapper objectMapper;
     private final IdempotencyService idempotencyService;
+    private final RequestReplayService requestReplayService;
+    private final CartonManagementUseCase cartonManagementUseCase;
+    private final CartonManagementEventMapper cartonManagementEventMapper;
+    private final String cartonManagementResponseTopic;
 
     public CloudEventCartonizationConsumer(PackingSolutionUseCase packingSolutionUseCase,
                                          CloudEventPublisher cloudEventPublisher,
                                          CartonizationEventMapper eventMapper,
                                          CloudEventFactory cloudEventFactory,
                                          ObjectMapper objectMapper,
-                                         IdempotencyService idempotencyService) {
+                                         IdempotencyService idempotencyService,
+                                         RequestReplayService requestReplayService,
+                                         CartonManagementUseCase cartonManagementUseCase,
+                                         CartonManagementEventMapper cartonManagementEventMapper,
+                                         @Value("${app.kafka.topics.carton-management-responses:order-fulfillment-core.cartonization.management-responses}")
+                                         String cartonManagementResponseTopic) {
         this.packingSolutionUseCase = packingSolutionUseCase;
         this.cloudEventPublisher = cloudEventPublisher;
         this.eventMapper = eventMapper;
         this.cloudEventFactory = cloudEventFactory;
         this.objectMapper = objectMapper;
         this.idempotencyService = idempotencyService;
+        this.requestReplayService = requestReplayService;
+        this.cartonManagementUseCase = cartonManagementUseCase;
+        this.cartonManagementEventMapper = cartonManagementEventMapper;
+        this.cartonManagementResponseTopic = cartonManagementResponseTopic;
     }
 
     @KafkaListener(
@@ -87,9 +110,9 @@ public class CloudEventCartonizationConsumer {
             log.info("Processing cartonization request: {} for order: {}",
                     requestEvent.getRequestId(), requestEvent.getOrderId());
 
-            // Check idempotency - skip if already processed
+            // Check idempotency - answer a duplicate from the stored solution instead of solving again
             if (!idempotencyService.tryAcquireIdempotencyLock(requestEvent.getRequestId())) {
-                log.info("Request {} already processed, skipping duplicate", requestEvent.getRequestId());
+                replayDuplicate(cloudEvent, requestEvent, startTime);
                 acknowledgment.acknowledge();
                 return;
             }
@@ -145,6 +168,7 @@ public class CloudEventCartonizationConsumer {
             @Header(KafkaHeaders.OFFSET) long offset,
             Acknowledgment acknowledgment) {
 
+        String lockedBatchId = null;
         try {
             log.info("Received carton management CloudEvent from topic: {}, partition: {}, offset: {}", 
                     topic, partition, offset);
@@ -159,22 +183,95 @@ public class CloudEventCartonizationConsumer {
                 return;
             }
 
-            // TODO: Implement carton management request handling
-            // This could include operations like:
-            // - Create new carton types
-            // - Update existing cartons
-            // - Deactivate cartons
-            // - Bulk carton operations
+            // Extract the batch; the CloudEvent ID doubles as batch ID when none is given
+            CartonManagementRequestEvent requestEvent = extractCartonManagementRequest(cloudEvent);
+            BulkCartonCommand command = cartonManagementEventMapper.toCommand(requestEvent, cloudEvent.getId());
+
+            // Check idempotency - redelivered batches must not create cartons twice
+            if (!idempotencyService.tryAcquireIdempotencyLock(command.batchId())) {
+                log.info("Carton management batch {} already processed, skipping duplicate", command.batchId());
+                acknowledgment.acknowledge();
+                return;
+            }
+            lockedBatchId = command.batchId();
+
+            // Apply the whole batch as one bulk write and one catalog version change
+            BulkCartonResult result = cartonManagementUseCase.applyBulk(command);
+
+            publishCartonManagementResponse(cloudEvent, command.batchId(), result);
 
             acknowledgment.acknowledge();
 
-            log.info("Successfully processed carton management CloudEvent: {}", cloudEvent.getId());
+            log.info("Successfully processed carton management CloudEvent: {} ({} applied, {} rejected)",
+                    cloudEvent.getId(), result.applied(), result.failures().size());
 
-        } catch (Exception e) {
-            log.error("Failed to process carton management CloudEvent. Topic: {}, Partition: {}, Offset: {}, Error: {}", 
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            // The batch itself is unusable (unreadable, empty or too large); redelivery cannot fix it
+            log.error("Rejected carton management CloudEvent. Topic: {}, Partition: {}, Offset: {}, Error: {}",
                      topic, partition, offset, e.getMessage(), e);
+            releaseBatch(lockedBatchId);
+
+            publishCartonManagementResponse(cloudEvent, cloudEvent.getId(),
+                Map.of("batchId", cloudEvent.getId(), "status", "ERROR", "errorMessage", String.valueOf(e.getMessage())));
 
             acknowledgment.acknowledge();
+        } catch (Exception e) {
+            // Likely transient (Mongo, Redis): give the batch back so the error handler redelivers it
+            log.error("Failed to process carton management CloudEvent, leaving it for redelivery. Topic: {}, Partition: {}, Offset: {}, Error: {}",
+                     topic, partition, offset, e.getMessage(), e);
+            releaseBatch(lockedBatchId);
+            throw e instanceof RuntimeException runtime ? runtime : new IllegalStateException(e);
+        }
+    }
+
+    private void releaseBatch(String batchId) {
+        if (batchId != null) {
+            idempotencyService.clearIdempotency(batchId);
+        }
+    }
+
+    /**
+     * Republishes the response for a request that was already handled, in case
+     * the first one never reached the requester. If the original is still being
+     * solved, its own response is on the way and nothing is sent.
+     */
+    private void replayDuplicate(CloudEvent cloudEvent, CartonizationRequestEvent requestEvent, Instant startTime) {
+        String requestId = requestEvent.getRequestId();
+        Optional<PackingSolution> stored = requestReplayService.replay(requestId, RequestReplayService.Channel.KAFKA);
+        if (stored.isEmpty()) {
+            log.info("Request {} already in progress or processed without a stored solution, skipping duplicate",
+                    requestId);
+            return;
+        }
+
+        long processingTimeMs = Instant.now().toEpochMilli() - startTime.toEpochMilli();
+        publishSuccessResponse(cloudEvent, eventMapper.toSuccessResponse(requestEvent, stored.get(), processingTimeMs));
+        log.info("Request {} already processed, replayed stored solution {}", requestId,
+                stored.get().getSolutionId());
+    }
+
+    private CartonManagementRequestEvent extractCartonManagementRequest(CloudEvent cloudEvent) throws Exception {
+        if (cloudEvent.getData() == null) {
+            throw new IllegalArgumentException("CloudEvent data is null");
+        }
+
+        return objectMapper.readValue(cloudEvent.getData().toBytes(), CartonManagementRequestEvent.class);
+    }
+
+    private void publishCartonManagementResponse(CloudEvent originalEvent, String batchId, Object responseData) {
+        try {
+            CloudEvent responseCloudEvent = cloudEventFactory.createCartonManagementResponse(batchId, responseData);
+
+            // Add correlation ID from original event
+            if (originalEvent.getExtension("correlationid") != null) {
+                responseCloudEvent = cloudEventFactory.addCorrelation(
+                    responseCloudEvent, originalEvent.getExtension("correlationid").toString());
+            }
+
+            cloudEventPublisher.publishCloudEvent(cartonManagementResponseTopic, batchId, responseCloudEvent);
+
+        } catch (Exception e) {
+            log.error("Failed to publish carton management response CloudEvent for batch: {}", batchId, e);
         }
     }
 
@@ -0,0 +1,144 @@
+package com.paklog.cartonization.infrastructure.adapter.in.messaging.event;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+public final class CartonManagementRequestEvent {
+    private final String batchId;
+    private final List<OperationRequest> operations;
+
+    public CartonManagementRequestEvent(String batchId, List<OperationRequest> operations) {
+        this.batchId = batchId;
+        this.operations = operations;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public List<OperationRequest> getOperations() {
+        return operations;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CartonManagementRequestEvent that = (CartonManagementRequestEvent) o;
+        return Objects.equals(batchId, that.batchId) &&
+               Objects.equals(operations, that.operations);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(batchId, operations);
+    }
+
+    @Override
+    public String toString() {
+        return "CartonManagementRequestEvent{" +
+               "batchId='" + batchId + '\'' +
+               ", operationsCount=" + (operations != null ? operations.size() : 0) +
+               '}';
+    }
+
+    public static class OperationRequest {
+        private final String type;
+        private final String cartonId;
+        private final String name;
+        private final BigDecimal length;
+        private final BigDecimal width;
+        private final BigDecimal height;
+        private final String dimensionUnit;
+        private final BigDecimal maxWeight;
+        private final String weightUnit;
+        private final List<String> sites;
+
+        public OperationRequest(String type, String cartonId, String name,
+                                BigDecimal length, BigDecimal width, BigDecimal height, String dimensionUnit,
+                                BigDecimal maxWeight, String weightUnit, List<String> sites) {
+            this.type = type;
+            this.cartonId = cartonId;
+            this.name = name;
+            this.length = length;
+            this.width = width;
+            this.height = height;
+            this.dimensionUnit = dimensionUnit;
+            this.maxWeight = maxWeight;
+            this.weightUnit = weightUnit;
+            this.sites = sites;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getCartonId() {
+            return cartonId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public BigDecimal getLength() {
+            return length;
+        }
+
+        public BigDecimal getWidth() {
+            return width;
+        }
+
+        public BigDecimal getHeight() {
+            return height;
+        }
+
+        public String getDimensionUnit() {
+            return dimensionUnit;
+        }
+
+        public BigDecimal getMaxWeight() {
+            return maxWeight;
+        }
+
+        public String getWeightUnit() {
+            return weightUnit;
+        }
+
+        public List<String> getSites() {
+            return sites;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            OperationRequest that = (OperationRequest) o;
+            return Objects.equals(type, that.type) &&
+                   Objects.equals(cartonId, that.cartonId) &&
+                   Objects.equals(name, that.name) &&
+                   Objects.equals(length, that.length) &&
+                   Objects.equals(width, that.width) &&
+                   Objects.equals(height, that.height) &&
+                   Objects.equals(dimensionUnit, that.dimensionUnit) &&
+                   Objects.equals(maxWeight, that.maxWeight) &&
+                   Objects.equals(weightUnit, that.weightUnit) &&
+                   Objects.equals(sites, that.sites);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, cartonId, name, length, width, height, dimensionUnit, maxWeight, weightUnit, sites);
+        }
+
+        @Override
+        public String toString() {
+            return "OperationRequest{" +
+                   "type='" + type + '\'' +
+                   ", cartonId='" + cartonId + '\'' +
+                   ", name='" + name + '\'' +
+                   '}';
+        }
+    }
+}
@@ -8,6 +8,7 @@ public final class CartonizationRequestEvent {
     private final String requestId;
     private final String orderId;
     private final String customerId;
+    private final String siteId;
     private final List<ItemRequest> items;
     private final PackingPreferences preferences;
     private final String priority;
@@ -15,11 +16,12 @@ public final class CartonizationRequestEvent {
     private final String source;
 
     public CartonizationRequestEvent(String requestId, String orderId, String customerId, 
-                                   List<ItemRequest> items, PackingPreferences preferences, 
+                                   String siteId, List<ItemRequest> items, PackingPreferences preferences, 
                                    String priority, Instant requestedAt, String source) {
         this.requestId = requestId;
         this.orderId = orderId;
         this.customerId = customerId;
+        this.siteId = siteId;
         this.items = items;
         this.preferences = preferences;
         this.priority = priority;
@@ -39,6 +41,10 @@ public final class CartonizationRequestEvent {
         return customerId;
     }
 
+    public String getSiteId() {
+        return siteId;
+    }
+
     public List<ItemRequest> getItems() {
         return items;
     }
@@ -78,6 +84,7 @@ public final class CartonizationRequestEvent {
                "requestId='" + requestId + '\'' +
                ", orderId='" + orderId + '\'' +
                ", customerId='" + customerId + '\'' +
+               ", siteId='" + siteId + '\'' +
                ", itemsCount=" + (items != null ? items.size() : 0) +
                ", priority='" + priority + '\'' +
                ", requestedAt=" + requestedAt +
@@ -0,0 +1,76 @@
+package com.paklog.cartonization.infrastructure.adapter.in.messaging.mapper;
+
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.DimensionUnit;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+import com.paklog.cartonization.domain.model.valueobject.WeightUnit;
+import com.paklog.cartonization.infrastructure.adapter.in.messaging.event.CartonManagementRequestEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class CartonManagementEventMapper {
+
+    public BulkCartonCommand toCommand(CartonManagementRequestEvent event, String fallbackBatchId) {
+        if (event == null) {
+            return null;
+        }
+
+        List<BulkCartonCommand.Operation> operations = event.getOperations() == null
+            ? List.of()
+            : event.getOperations().stream()
+                .map(this::toOperationOrRejection)
+                .collect(Collectors.toList());
+
+        String batchId = event.getBatchId() != null && !event.getBatchId().isBlank()
+            ? event.getBatchId()
+            : fallbackBatchId;
+        return new BulkCartonCommand(batchId, operations);
+    }
+
+    /**
+     * Maps one operation; a malformed one becomes a rejected operation so that
+     * the rest of the batch is still applied.
+     */
+    private BulkCartonCommand.Operation toOperationOrRejection(CartonManagementRequestEvent.OperationRequest request) {
+        if (request == null) {
+            return BulkCartonCommand.Operation.rejected(null, "Operation is required");
+        }
+        try {
+            return toOperation(request);
+        } catch (IllegalArgumentException e) {
+            return BulkCartonCommand.Operation.rejected(request.getCartonId(), e.getMessage());
+        }
+    }
+
+    private BulkCartonCommand.Operation toOperation(CartonManagementRequestEvent.OperationRequest request) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("Operation type is required");
+        }
+
+        DimensionSet dimensions = null;
+        if (request.getLength() != null && request.getWidth() != null
+                && request.getHeight() != null && request.getDimensionUnit() != null) {
+            dimensions = new DimensionSet(request.getLength(), request.getWidth(), request.getHeight(),
+                DimensionUnit.fromCode(request.getDimensionUnit()));
+        }
+
+        Weight maxWeight = null;
+        if (request.getMaxWeight() != null && request.getWeightUnit() != null) {
+            maxWeight = new Weight(request.getMaxWeight(), WeightUnit.fromCode(request.getWeightUnit()));
+        }
+
+        return new BulkCartonCommand.Operation(
+            BulkCartonCommand.OperationType.valueOf(request.getType().toUpperCase()),
+            request.getCartonId(),
+            request.getName(),
+            dimensions,
+            maxWeight,
+            request.getSites() != null ? Set.copyOf(request.getSites()) : null
+        );
+    }
+}
@@ -30,6 +30,7 @@ public class CartonizationEventMapper {
             .requestId(event.getRequestId())
             .items(items)
             .orderId(event.getOrderId())
+            .siteId(event.getSiteId())
             .optimizeForMinimumBoxes(getOptimizeForMinimumBoxes(event))
             .allowMixedCategories(getAllowMixedCategories(event))
             .build();
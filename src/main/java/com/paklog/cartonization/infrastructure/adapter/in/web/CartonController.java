@@ -1,6 +1,8 @@
 package com.paklog.cartonization.infrastructure.adapter.in.web;
 
+import com.paklog.cartonization.application.port.in.BulkCartonResult;
 import com.paklog.cartonization.application.port.in.CartonManagementUseCase;
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
 import com.paklog.cartonization.application.port.in.command.CreateCartonCommand;
 import com.paklog.cartonization.domain.model.aggregate.Carton;
 import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
@@ -25,6 +27,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 @Tag(name = "Carton Management", description = "API for managing carton types and specifications")
 @RestController
@@ -73,12 +77,13 @@ public class CartonController {
                 request.length(),
                 request.width(),
                 request.height(),
-                DimensionUnit.valueOf(request.dimensionUnit().toUpperCase())
+                DimensionUnit.fromCode(request.dimensionUnit())
             ),
             new Weight(
                 request.maxWeight(),
-                WeightUnit.valueOf(request.weightUnit().toUpperCase())
-            )
+                WeightUnit.fromCode(request.weightUnit())
+            ),
+            request.sites() != null ? Set.copyOf(request.sites()) : Set.of()
         );
 
         Carton carton = cartonManagementUseCase.createCarton(command);
@@ -87,7 +92,7 @@ public class CartonController {
 
     @Operation(
         summary = "List carton types",
-        description = "Retrieves a list of available carton types. Can be filtered to show only active cartons."
+        description = "Retrieves a list of available carton types. Can be filtered to show only active cartons, or only the active cartons stocked at a site."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -105,12 +110,22 @@ public class CartonController {
                 description = "Filter to show only active cartons",
                 example = "true"
             )
-            @RequestParam(required = false, defaultValue = "false") boolean activeOnly) {
-        log.info("Listing cartons (activeOnly: {})", activeOnly);
+            @RequestParam(required = false, defaultValue = "false") boolean activeOnly,
+            @Parameter(
+                description = "Only show active cartons stocked at this site",
+                example = "DC-EAST-01"
+            )
+            @RequestParam(required = false) String site) {
+        log.info("Listing cartons (activeOnly: {}, site: {})", activeOnly, site);
 
-        List<Carton> cartons = activeOnly
-            ? cartonManagementUseCase.listActiveCartons()
-            : cartonManagementUseCase.listAllCartons();
+        List<Carton> cartons;
+        if (site != null && !site.isBlank()) {
+            cartons = cartonManagementUseCase.listActiveCartonsForSite(site);
+        } else {
+            cartons = activeOnly
+                ? cartonManagementUseCase.listActiveCartons()
+                : cartonManagementUseCase.listAllCartons();
+        }
 
         return ResponseEntity.ok(cartons);
     }
@@ -185,6 +200,74 @@ public class CartonController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(
+        summary = "Apply carton operations in bulk",
+        description = "Creates, updates, activates and deactivates carton types in one ordered batch, persisted with a single bulk write and a single catalog version change. Invalid operations are reported by position and do not stop the rest of the batch."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch applied; rejected operations are listed in failures",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = BulkCartonResult.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid batch",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    value = "{\"error\": \"Validation Failed\", \"message\": \"At least one carton operation is required\"}"
+                )
+            )
+        )
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCartonResult> applyBulk(@Valid @RequestBody BulkCartonRequest request) {
+        String batchId = request.batchId() != null && !request.batchId().isBlank()
+            ? request.batchId()
+            : UUID.randomUUID().toString();
+        log.info("Applying bulk carton batch {} with {} operations", batchId, request.operations().size());
+
+        List<BulkCartonCommand.Operation> operations = request.operations().stream()
+            .map(this::toOperationOrRejection)
+            .toList();
+
+        BulkCartonResult result = cartonManagementUseCase.applyBulk(new BulkCartonCommand(batchId, operations));
+        return ResponseEntity.ok(result);
+    }
+
+    private BulkCartonCommand.Operation toOperationOrRejection(BulkCartonOperationRequest request) {
+        try {
+            return toOperation(request);
+        } catch (IllegalArgumentException e) {
+            return BulkCartonCommand.Operation.rejected(request.cartonId(), e.getMessage());
+        }
+    }
+
+    private BulkCartonCommand.Operation toOperation(BulkCartonOperationRequest request) {
+        DimensionSet dimensions = request.length() != null && request.width() != null
+                && request.height() != null && request.dimensionUnit() != null
+            ? new DimensionSet(request.length(), request.width(), request.height(),
+                DimensionUnit.fromCode(request.dimensionUnit()))
+            : null;
+        Weight maxWeight = request.maxWeight() != null && request.weightUnit() != null
+            ? new Weight(request.maxWeight(), WeightUnit.fromCode(request.weightUnit()))
+            : null;
+        Set<String> sites = request.sites() != null ? Set.copyOf(request.sites()) : null;
+
+        return new BulkCartonCommand.Operation(
+            BulkCartonCommand.OperationType.valueOf(request.type().toUpperCase()),
+            request.cartonId(),
+            request.name(),
+            dimensions,
+            maxWeight,
+            sites
+        );
+    }
+
     @Schema(
         description = "Request to create a new carton type",
         example = """
@@ -195,7 +278,8 @@ public class CartonController {
               "height": 15.0,
               "dimensionUnit": "CM",
               "maxWeight": 5.0,
-              "weightUnit": "KG"
+              "weightUnit": "KG",
+              "sites": ["DC-EAST-01", "DC-WEST-02"]
             }
             """
     )
@@ -239,12 +323,12 @@ public class CartonController {
         @Schema(
             description = "Unit of measurement for dimensions",
             example = "CM",
-            allowableValues = {"MM", "CM", "M", "IN", "FT"}
+            allowableValues = {"IN", "INCHES", "CM", "CENTIMETERS"}
         )
         @NotBlank(message = "Dimension unit is required")
         @Pattern(
-            regexp = "^(MM|CM|M|IN|FT)$",
-            message = "Dimension unit must be one of: MM, CM, M, IN, FT"
+            regexp = "^(IN|INCHES|CM|CENTIMETERS)$",
+            message = "Dimension unit must be one of: IN, INCHES, CM, CENTIMETERS"
         )
         String dimensionUnit,
         
@@ -260,13 +344,112 @@ public class CartonController {
         @Schema(
             description = "Unit of measurement for weight",
             example = "KG", 
-            allowableValues = {"G", "KG", "LB", "OZ"}
+            allowableValues = {"LB", "POUNDS", "KG", "KILOGRAMS"}
         )
         @NotBlank(message = "Weight unit is required")
         @Pattern(
-            regexp = "^(G|KG|LB|OZ)$",
-            message = "Weight unit must be one of: G, KG, LB, OZ"
+            regexp = "^(LB|POUNDS|KG|KILOGRAMS)$",
+            message = "Weight unit must be one of: LB, POUNDS, KG, KILOGRAMS"
         )
-        String weightUnit
+        String weightUnit,
+        
+        @Schema(
+            description = "Sites stocking this carton type; empty means every site",
+            example = "[\"DC-EAST-01\", \"DC-WEST-02\"]"
+        )
+        List<@NotBlank(message = "Site must not be blank") String> sites
+    ) {}
+    @Schema(
+        description = "Ordered batch of carton operations",
+        example = """
+            {
+              "batchId": "seed-2025-01",
+              "operations": [
+                {
+                  "type": "CREATE",
+                  "name": "Medium Box",
+                  "length": 30.0,
+                  "width": 20.0,
+                  "height": 15.0,
+                  "dimensionUnit": "CM",
+                  "maxWeight": 5.0,
+                  "weightUnit": "KG"
+                },
+                {
+                  "type": "DEACTIVATE",
+                  "cartonId": "small-box-001"
+                }
+              ]
+            }
+            """
+    )
+    public record BulkCartonRequest(
+        @Schema(
+            description = "Optional batch identifier for tracking. If not provided, one will be generated.",
+            example = "seed-2025-01"
+        )
+        String batchId,
+
+        @Schema(
+            description = "Operations, applied in order",
+            requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotEmpty(message = "At least one carton operation is required")
+        List<@Valid BulkCartonOperationRequest> operations
+    ) {}
+
+    @Schema(description = "One carton operation within a bulk batch")
+    public record BulkCartonOperationRequest(
+        @Schema(
+            description = "Operation to apply",
+            example = "CREATE",
+            allowableValues = {"CREATE", "UPDATE", "UPSERT", "ACTIVATE", "DEACTIVATE"}
+        )
+        @NotBlank(message = "Operation type is required")
+        @Pattern(
+            regexp = "^(CREATE|UPDATE|UPSERT|ACTIVATE|DEACTIVATE)$",
+            message = "Operation type must be one of: CREATE, UPDATE, UPSERT, ACTIVATE, DEACTIVATE"
+        )
+        String type,
+
+        @Schema(description = "Carton to update, upsert, activate or deactivate", example = "small-box-001")
+        String cartonId,
+
+        @Schema(description = "Human-readable carton name", example = "Medium Box", maxLength = 100)
+        @Size(max = 100, message = "Carton name must not exceed 100 characters")
+        String name,
+
+        @Schema(description = "Carton length dimension", example = "30.0")
+        @DecimalMin(value = "0.1", message = "Length must be at least 0.1")
+        BigDecimal length,
+
+        @Schema(description = "Carton width dimension", example = "20.0")
+        @DecimalMin(value = "0.1", message = "Width must be at least 0.1")
+        BigDecimal width,
+
+        @Schema(description = "Carton height dimension", example = "15.0")
+        @DecimalMin(value = "0.1", message = "Height must be at least 0.1")
+        BigDecimal height,
+
+        @Schema(
+            description = "Unit of measurement for dimensions; an unsupported unit rejects this operation only",
+            example = "CM",
+            allowableValues = {"IN", "INCHES", "CM", "CENTIMETERS"}
+        )
+        String dimensionUnit,
+
+        @Schema(description = "Maximum weight capacity of the carton", example = "5.0")
+        @DecimalMin(value = "0.01", message = "Maximum weight must be at least 0.01")
+        BigDecimal maxWeight,
+
+        @Schema(
+            description = "Unit of measurement for weight; an unsupported unit rejects this operation only",
+            example = "KG",
+            allowableValues = {"LB", "POUNDS", "KG", "KILOGRAMS"}
+        )
+        String weightUnit,
+
+        @Schema(description = "Sites stocking this carton type; omit on update to keep the current sites")
+        List<@NotBlank(message = "Site must not be blank") String> sites
     ) {}
 }
\ No newline at end of file
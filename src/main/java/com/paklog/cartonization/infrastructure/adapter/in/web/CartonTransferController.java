@@ -0,0 +1,88 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web;
+
+import com.paklog.cartonization.infrastructure.adapter.in.web.CartonTransferService.ImportSummary;
+import com.paklog.cartonization.infrastructure.adapter.in.web.CartonTransferService.TransferFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Tag(name = "Carton Management", description = "API for managing carton types and specifications")
+@RestController
+@RequestMapping("/api/v1/cartons")
+public class CartonTransferController {
+
+    private static final Logger log = LoggerFactory.getLogger(CartonTransferController.class);
+
+    private final CartonTransferService cartonTransferService;
+
+    public CartonTransferController(CartonTransferService cartonTransferService) {
+        this.cartonTransferService = cartonTransferService;
+    }
+
+    @Operation(
+        summary = "Export all carton types",
+        description = "Streams every carton type as NDJSON (one JSON object per line) or CSV, straight from a database cursor."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cartons streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCartons(
+            @Parameter(
+                description = "Output format: ndjson or csv",
+                example = "ndjson"
+            )
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        TransferFormat transferFormat = TransferFormat.of(format);
+        log.info("Exporting cartons as {}", transferFormat);
+
+        StreamingResponseBody body = out -> cartonTransferService.export(transferFormat, out);
+        return ResponseEntity.ok()
+            .contentType(transferFormat.mediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cartons." + transferFormat.extension() + "\"")
+            .body(body);
+    }
+
+    @Operation(
+        summary = "Import carton types",
+        description = """
+            Streams carton types in as NDJSON or CSV, in the same shape as the export. Each row is
+            upserted by ID (rows without an ID are created) and rows are applied in chunks, each
+            persisted as one bulk write. Rows that fail validation are reported by line number.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import finished; rejected rows are listed in failures",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ImportSummary.class)
+            )
+        ),
+        @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    })
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportSummary> importCartons(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        TransferFormat transferFormat = TransferFormat.of(contentType);
+        log.info("Importing cartons as {}", transferFormat);
+
+        return ResponseEntity.ok(cartonTransferService.importCartons(transferFormat, body));
+    }
+}
@@ -0,0 +1,308 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.application.port.in.BulkCartonResult;
+import com.paklog.cartonization.application.port.in.CartonManagementUseCase;
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
+import com.paklog.cartonization.infrastructure.adapter.in.web.dto.CartonRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams cartons out as NDJSON or CSV straight from a database cursor, and
+ * streams them in line by line, applying fixed-size chunks as bulk writes. Memory
+ * use is bounded by the chunk size, not by the size of the catalog.
+ */
+@Service
+public class CartonTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(CartonTransferService.class);
+
+    private final CartonManagementUseCase cartonManagementUseCase;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    private final Counter exportedRows;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final Timer importChunkTimer;
+    private final AtomicInteger activeImports = new AtomicInteger();
+    private final AtomicLong rowsInFlight = new AtomicLong();
+
+    public CartonTransferService(CartonManagementUseCase cartonManagementUseCase,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.cartons.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${app.cartons.import.max-reported-failures:100}") int maxReportedFailures) {
+        this.cartonManagementUseCase = cartonManagementUseCase;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+
+        this.exportedRows = Counter.builder("cartonization.cartons.transfer.rows")
+            .description("Carton rows streamed by the import and export endpoints")
+            .tag("direction", "export")
+            .tag("result", "written")
+            .register(meterRegistry);
+        this.importedRows = Counter.builder("cartonization.cartons.transfer.rows")
+            .description("Carton rows streamed by the import and export endpoints")
+            .tag("direction", "import")
+            .tag("result", "applied")
+            .register(meterRegistry);
+        this.rejectedRows = Counter.builder("cartonization.cartons.transfer.rows")
+            .description("Carton rows streamed by the import and export endpoints")
+            .tag("direction", "import")
+            .tag("result", "rejected")
+            .register(meterRegistry);
+        this.importChunkTimer = Timer.builder("cartonization.cartons.import.chunk.duration")
+            .description("Time taken to apply one chunk of a carton import")
+            .register(meterRegistry);
+        Gauge.builder("cartonization.cartons.import.active", activeImports, AtomicInteger::get)
+            .description("Carton imports currently running")
+            .register(meterRegistry);
+        Gauge.builder("cartonization.cartons.import.rows_in_progress", rowsInFlight, AtomicLong::get)
+            .description("Rows read so far by carton imports currently running")
+            .register(meterRegistry);
+    }
+
+    public enum TransferFormat {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        TransferFormat(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static TransferFormat of(String value) {
+            if (value != null && value.toLowerCase().contains("csv")) {
+                return CSV;
+            }
+            if (value == null || value.toLowerCase().contains("ndjson") || value.toLowerCase().contains("json")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported carton transfer format: " + value);
+        }
+    }
+
+    /**
+     * Writes every carton to {@code out}, one per line.
+     *
+     * @return the number of cartons written
+     */
+    public long export(TransferFormat format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == TransferFormat.CSV) {
+            writer.write(CartonRecord.CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long[] written = {0};
+        try {
+            cartonManagementUseCase.forEachCarton(carton -> {
+                try {
+                    CartonRecord record = CartonRecord.from(carton);
+                    writer.write(format == TransferFormat.CSV ? record.toCsv() : objectMapper.writeValueAsString(record));
+                    writer.write('\n');
+                    written[0]++;
+                    exportedRows.increment();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+
+        log.info("Exported {} cartons as {} in {} ms", written[0], format,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return written[0];
+    }
+
+    /**
+     * Reads cartons from {@code in}, one per line (a quoted CSV field may span
+     * lines), and applies them in chunks of {@code app.cartons.import.chunk-size}
+     * operations. Each row is an upsert by ID;
+     * rows without an ID get a new one.
+     */
+    public ImportSummary importCartons(TransferFormat format, InputStream in) throws IOException {
+        ImportRun run = new ImportRun(UUID.randomUUID().toString());
+        activeImports.incrementAndGet();
+        log.info("Starting carton import {} ({})", run.importId, format);
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                long rowLine = lineNumber;
+                if (format == TransferFormat.CSV && CartonRecord.continuesOnNextLine(line)) {
+                    // A quoted field holds a line break; the row goes on until the quote closes
+                    StringBuilder row = new StringBuilder(line);
+                    String next;
+                    while (CartonRecord.continuesOnNextLine(row) && (next = reader.readLine()) != null) {
+                        lineNumber++;
+                        row.append('\n').append(next);
+                    }
+                    line = row.toString();
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == TransferFormat.CSV && rowLine == 1 && line.trim().startsWith("id,")) {
+                    continue; // header
+                }
+
+                run.rows++;
+                rowsInFlight.incrementAndGet();
+                try {
+                    CartonRecord record = format == TransferFormat.CSV
+                        ? CartonRecord.fromCsv(line)
+                        : objectMapper.readValue(line, CartonRecord.class);
+                    for (BulkCartonCommand.Operation operation : record.toOperations()) {
+                        run.pending.add(operation);
+                        run.pendingLines.add(rowLine);
+                    }
+                } catch (IllegalArgumentException | JsonProcessingException e) {
+                    run.reject(rowLine, null, e.getMessage());
+                }
+
+                // An upsert and its status change always land in the same chunk
+                if (run.pending.size() >= chunkSize) {
+                    flush(run);
+                }
+            }
+            flush(run);
+
+        } finally {
+            activeImports.decrementAndGet();
+            rowsInFlight.addAndGet(-run.rows);
+        }
+
+        ImportSummary summary = run.summary();
+        log.info("Finished carton import {}: {} rows, {} created, {} updated, {} deactivated, {} rejected in {} ms",
+                summary.importId(), summary.rows(), summary.created(), summary.updated(), summary.deactivated(),
+                summary.rejected(), summary.durationMs());
+        return summary;
+    }
+
+    private void flush(ImportRun run) {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+
+        run.chunks++;
+        BulkCartonCommand command = new BulkCartonCommand(run.importId + "-" + run.chunks, run.pending);
+        BulkCartonResult result = importChunkTimer.record(() -> cartonManagementUseCase.applyBulk(command));
+
+        run.created += result.created();
+        run.updated += result.updated();
+        run.deactivated += result.deactivated();
+
+        // A row is rejected once, by its first failing operation; the others were applied
+        Set<Long> rejectedLines = new HashSet<>();
+        for (BulkCartonResult.Failure failure : result.failures()) {
+            long line = run.pendingLines.get(failure.index());
+            if (rejectedLines.add(line)) {
+                run.reject(line, failure.cartonId(), failure.message());
+            }
+        }
+        importedRows.increment(new HashSet<>(run.pendingLines).size() - rejectedLines.size());
+        run.pending.clear();
+        run.pendingLines.clear();
+
+        double seconds = Math.max(Duration.ofNanos(System.nanoTime() - run.startNanos).toMillis(), 1) / 1000.0;
+        log.info("Carton import {}: {} rows processed, {} rejected ({} rows/s)",
+                run.importId, run.rows, run.rejected, Math.round(run.rows / seconds));
+    }
+
+    private final class ImportRun {
+        private final String importId;
+        private final long startNanos = System.nanoTime();
+        private final List<BulkCartonCommand.Operation> pending = new ArrayList<>(chunkSize + 1);
+        private final List<Long> pendingLines = new ArrayList<>(chunkSize + 1);
+        private final List<RowFailure> failures = new ArrayList<>();
+        private long rows;
+        private long rejected;
+        private int chunks;
+        private int created;
+        private int updated;
+        private int deactivated;
+
+        private ImportRun(String importId) {
+            this.importId = importId;
+        }
+
+        private void reject(long line, String cartonId, String message) {
+            rejected++;
+            rejectedRows.increment();
+            if (failures.size() < maxReportedFailures) {
+                failures.add(new RowFailure(line, cartonId, message));
+            }
+        }
+
+        private ImportSummary summary() {
+            return new ImportSummary(importId, rows, created, updated, deactivated, rejected,
+                List.copyOf(failures), Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        }
+    }
+
+    public record ImportSummary(
+        String importId,
+        long rows,
+        int created,
+        int updated,
+        int deactivated,
+        long rejected,
+        List<RowFailure> failures,
+        long durationMs
+    ) {}
+
+    public record RowFailure(
+        long line,
+        String cartonId,
+        String message
+    ) {}
+}
@@ -2,6 +2,8 @@ package com.paklog.cartonization.infrastructure.adapter.in.web;
 
 import com.paklog.cartonization.domain.exception.CartonNotFoundException;
 import com.paklog.cartonization.domain.exception.InvalidPackingRequestException;
+import com.paklog.cartonization.domain.exception.PackingSolutionNotFoundException;
+import com.paklog.cartonization.domain.exception.RequestIdReusedException;
 import com.paklog.cartonization.infrastructure.adapter.in.web.dto.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
@@ -41,6 +43,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
+    @ExceptionHandler(PackingSolutionNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handlePackingSolutionNotFound(
+            PackingSolutionNotFoundException ex, HttpServletRequest request) {
+        
+        log.warn("Packing solution not found for request: {}", request.getRequestURI());
+        
+        String requestId = getRequestId(request);
+        ErrorResponse errorResponse = ErrorResponse.of(
+            "Not Found",
+            ex.getMessage(),
+            request.getRequestURI(),
+            requestId
+        );
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
     @ExceptionHandler(InvalidPackingRequestException.class)
     public ResponseEntity<ErrorResponse> handleInvalidPackingRequest(
             InvalidPackingRequestException ex, HttpServletRequest request) {
@@ -58,6 +77,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
     }
 
+    @ExceptionHandler(RequestIdReusedException.class)
+    public ResponseEntity<ErrorResponse> handleRequestIdReused(
+            RequestIdReusedException ex, HttpServletRequest request) {
+        
+        log.warn("Request ID reused for a different request: {}", request.getRequestURI());
+        
+        String requestId = getRequestId(request);
+        ErrorResponse errorResponse = ErrorResponse.of(
+            "Conflict",
+            ex.getMessage(),
+            request.getRequestURI(),
+            requestId
+        );
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -62,6 +62,8 @@ public class HealthController {
                             "enabled": true,
                             "cartonsCached": true,
                             "productsCached": true,
+                            "warmFraction": 0.93,
+                            "ready": true,
                             "availableCaches": ["cartons", "products", "packing-solutions"]
                           }
                         }
@@ -0,0 +1,72 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web;
+
+import com.paklog.cartonization.application.port.in.PackingKpiUseCase;
+import com.paklog.cartonization.application.port.out.PackingKpiRollup;
+import com.paklog.cartonization.infrastructure.adapter.in.web.dto.PackingKpiRecord;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@Tag(name = "Packing KPIs", description = "API for packing KPIs rolled up per minute and hour")
+@RestController
+@RequestMapping("/api/v1/packing-kpis")
+public class PackingKpiController {
+
+    private static final Logger log = LoggerFactory.getLogger(PackingKpiController.class);
+
+    // Window when no start is given, in buckets
+    private static final int DEFAULT_BUCKETS = 60;
+
+    private final PackingKpiUseCase packingKpiUseCase;
+
+    public PackingKpiController(PackingKpiUseCase packingKpiUseCase) {
+        this.packingKpiUseCase = packingKpiUseCase;
+    }
+
+    @Operation(
+        summary = "Get packing KPIs",
+        description = """
+            Returns package counts, utilization and solve time histograms and carton usage per site
+            and carton, read from the per-minute or per-hour rollups rather than from the solutions.
+            Buckets are written once they close, so the current minute or hour is not included yet.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "KPIs returned successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid resolution or window")
+    })
+    @GetMapping
+    public ResponseEntity<List<PackingKpiRecord>> getPackingKpis(
+            @Parameter(description = "minute or hour", example = "minute")
+            @RequestParam(required = false, defaultValue = "minute") String resolution,
+            @Parameter(description = "Start of the window; defaults to 60 buckets before its end", example = "2025-01-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "End of the window, exclusive; defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Only this site", example = "DC-EAST-01")
+            @RequestParam(required = false) String siteId,
+            @Parameter(description = "Only this carton; * for all cartons of a site")
+            @RequestParam(required = false) String cartonId,
+            @Parameter(description = "Sum the window into one row per site and carton")
+            @RequestParam(required = false, defaultValue = "false") boolean totals) {
+        PackingKpiRollup.Resolution bucketSize = PackingKpiRollup.Resolution.of(resolution);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(bucketSize.duration().multipliedBy(DEFAULT_BUCKETS));
+        log.debug("Getting {} packing KPIs from {} to {} for site {} and carton {}", bucketSize, start, end,
+                siteId, cartonId);
+
+        List<PackingKpiRollup> rollups = packingKpiUseCase.findRollups(
+            new PackingKpiRollup.Query(bucketSize, start, end, siteId, cartonId, totals));
+        return ResponseEntity.ok(rollups.stream().map(PackingKpiRecord::from).toList());
+    }
+}
@@ -2,8 +2,11 @@ package com.paklog.cartonization.infrastructure.adapter.in.web;
 
 import com.paklog.cartonization.application.port.in.PackingSolutionUseCase;
 import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
+import com.paklog.cartonization.application.service.RequestReplayService;
 import com.paklog.cartonization.domain.model.entity.PackingSolution;
 import com.paklog.cartonization.domain.model.valueobject.ItemToPack;
+import com.paklog.cartonization.infrastructure.adapter.in.web.dto.PackingSolutionRecord;
+import com.paklog.cartonization.infrastructure.cache.PackingSolutionViewCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,10 +22,12 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Tag(name = "Packing Solutions", description = "API for calculating optimal packing solutions")
@@ -32,10 +37,18 @@ public class PackingSolutionController {
 
     private static final Logger log = LoggerFactory.getLogger(PackingSolutionController.class);
     
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final PackingSolutionUseCase packingSolutionUseCase;
+    private final RequestReplayService requestReplayService;
+    private final PackingSolutionViewCache viewCache;
     
-    public PackingSolutionController(PackingSolutionUseCase packingSolutionUseCase) {
+    public PackingSolutionController(PackingSolutionUseCase packingSolutionUseCase,
+                                     RequestReplayService requestReplayService,
+                                     PackingSolutionViewCache viewCache) {
         this.packingSolutionUseCase = packingSolutionUseCase;
+        this.requestReplayService = requestReplayService;
+        this.viewCache = viewCache;
     }
 
     @Operation(
@@ -66,6 +79,7 @@ public class PackingSolutionController {
                             }
                           ],
                           "orderId": "ORDER-123456",
+                          "siteId": "DC-EAST-01",
                           "optimizeForMinimumBoxes": true,
                           "allowMixedCategories": true
                         }
@@ -77,47 +91,50 @@ public class PackingSolutionController {
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200", 
-            description = "Packing solution calculated successfully",
+            description = "Packing solution calculated successfully, in the same representation a lookup by ID returns",
             content = @Content(
                 mediaType = "application/json",
-                schema = @Schema(implementation = PackingSolution.class),
+                schema = @Schema(implementation = PackingSolutionRecord.class),
                 examples = @ExampleObject(
                     name = "Successful packing solution",
                     value = """
                         {
-                          "solutionId": "sol-789",
+                          "solutionId": "sol-3f9a1c2b7d4e",
                           "requestId": "req-123",
                           "orderId": "ORDER-123456",
+                          "createdAt": "2024-01-15T10:30:00Z",
+                          "packageCount": 1,
+                          "totalItems": 3,
+                          "avgUtilization": 0.755,
+                          "usedVolume": 2265.0,
+                          "packedWeight": 1.2,
                           "packages": [
                             {
-                              "packageId": "pkg-001",
-                              "carton": {
-                                "id": "small-box",
-                                "name": "Small Box",
-                                "dimensions": {
-                                  "length": 20.0,
-                                  "width": 15.0,
-                                  "height": 10.0,
-                                  "unit": "CM"
-                                }
-                              },
+                              "cartonId": "small-box",
+                              "cartonName": "Small Box",
+                              "utilization": 0.755,
+                              "weight": 1.2,
                               "items": [
-                                {
-                                  "sku": "BOOK-001",
-                                  "quantity": 2
-                                }
-                              ],
-                              "utilizationPercentage": 75.5
+                                { "sku": "BOOK-001", "quantity": 2 },
+                                { "sku": "SHIRT-XL-BLUE", "quantity": 1 }
+                              ]
                             }
-                          ],
-                          "totalPackages": 1,
-                          "totalWeight": "1.2 KG",
-                          "efficiency": 85.2
+                          ]
                         }
                         """
                 )
             )
         ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "X-Request-ID was already used for a different request",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    value = "{\"error\": \"Conflict\", \"message\": \"Request ID req-123 was already used for a different request\"}"
+                )
+            )
+        ),
         @ApiResponse(
             responseCode = "400", 
             description = "Invalid request data",
@@ -181,17 +198,20 @@ public class PackingSolutionController {
             )
         )
     })
-    @PostMapping
-    public ResponseEntity<PackingSolution> calculatePackingSolution(
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PackingSolutionRecord> calculatePackingSolution(
             @Valid @RequestBody PackingRequest request,
             @Parameter(
-                description = "Optional request ID for tracking. If not provided, one will be generated.",
+                description = "Optional request ID for tracking. If not provided, one will be generated. "
+                    + "A request repeating an earlier ID with the same body gets the solution computed for it, "
+                    + "marked with the Idempotent-Replayed header; a different body under that ID is a conflict.",
                 example = "req-12345"
             )
             @RequestHeader(value = "X-Request-ID", required = false) String requestId) {
 
-        // Generate request ID if not provided
-        if (requestId == null || requestId.isEmpty()) {
+        // Generate request ID if not provided; a provided one may be a retry, answered from the stored solution
+        boolean generated = requestId == null || requestId.isEmpty();
+        if (generated) {
             requestId = UUID.randomUUID().toString();
         }
 
@@ -207,17 +227,65 @@ public class PackingSolutionController {
             .requestId(requestId)
             .items(items)
             .orderId(request.orderId())
+            .siteId(request.siteId())
             .optimizeForMinimumBoxes(request.optimizeForMinimumBoxes() != null ? request.optimizeForMinimumBoxes() : true)
             .allowMixedCategories(request.allowMixedCategories() != null ? request.allowMixedCategories() : true)
             .build();
 
+        if (!generated) {
+            Optional<PackingSolution> stored = requestReplayService.replay(command, RequestReplayService.Channel.HTTP);
+            if (stored.isPresent()) {
+                log.info("Replaying packing solution {} for repeated request: {}",
+                        stored.get().getSolutionId(), requestId);
+                return ResponseEntity.ok().header(REPLAYED_HEADER, "true").body(PackingSolutionRecord.from(stored.get()));
+            }
+        }
+
         // Calculate solution
         PackingSolution solution = packingSolutionUseCase.calculate(command);
 
         log.info("Successfully calculated packing solution. RequestId: {}, Packages: {}",
                 requestId, solution.getTotalPackages());
 
-        return ResponseEntity.ok(solution);
+        return ResponseEntity.ok(PackingSolutionRecord.from(solution));
+    }
+
+    @Operation(
+        summary = "Get packing solution by ID",
+        description = "Retrieves a previously calculated packing solution, in the same representation the calculation returned. Solutions are persisted asynchronously and are served from the write queue until stored. The response is rendered once and cached."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Packing solution found",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = PackingSolutionRecord.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Packing solution not found",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    value = "{\"error\": \"Not Found\", \"message\": \"Packing solution not found: sol-unknown\"}"
+                )
+            )
+        )
+    })
+    @GetMapping(value = "/{solutionId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getPackingSolution(
+            @Parameter(
+                description = "Unique packing solution identifier",
+                example = "sol-3f9a1c2b7d4e"
+            )
+            @PathVariable String solutionId) {
+        log.info("Getting packing solution by ID: {}", solutionId);
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(viewCache.serve(solutionId, packingSolutionUseCase::getSolutionById));
     }
 
     @Schema(
@@ -235,6 +303,7 @@ public class PackingSolutionController {
                 }
               ],
               "orderId": "ORDER-123456",
+              "siteId": "DC-EAST-01",
               "optimizeForMinimumBoxes": true,
               "allowMixedCategories": true
             }
@@ -256,6 +325,13 @@ public class PackingSolutionController {
         )
         String orderId,
         
+        @Schema(
+            description = "Warehouse fulfilling the order; only cartons stocked there are considered",
+            example = "DC-EAST-01",
+            maxLength = 50
+        )
+        String siteId,
+        
         @Schema(
             description = "Whether to optimize for minimum number of boxes (true) or minimum cost (false)",
             example = "true",
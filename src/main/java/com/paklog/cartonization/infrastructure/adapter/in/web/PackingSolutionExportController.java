@@ -0,0 +1,73 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web;
+
+import com.paklog.cartonization.application.port.out.PackingSolutionExport;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+
+@Tag(name = "Packing Solutions", description = "API for calculating optimal packing solutions")
+@RestController
+@RequestMapping("/api/v1/packing-solutions")
+public class PackingSolutionExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(PackingSolutionExportController.class);
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final PackingSolutionExportService packingSolutionExportService;
+
+    public PackingSolutionExportController(PackingSolutionExportService packingSolutionExportService) {
+        this.packingSolutionExportService = packingSolutionExportService;
+    }
+
+    @Operation(
+        summary = "Export packing solutions",
+        description = """
+            Streams stored packing solutions as NDJSON (one JSON object per line), oldest first,
+            reading them from the database in keyset-paged batches. To resume an interrupted
+            export, pass the createdAt and solutionId of the last line received as afterCreatedAt
+            and afterId. Solutions still waiting in the write-behind queue are not included.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Packing solutions streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid window, resume position, batch size or projection")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSolutions(
+            @Parameter(description = "Only solutions created at or after this instant", example = "2025-01-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Only solutions created before this instant; defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "createdAt of the last solution already received")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant afterCreatedAt,
+            @Parameter(description = "solutionId of the last solution already received")
+            @RequestParam(required = false) String afterId,
+            @Parameter(description = "Solutions read from the database per round trip", example = "1000")
+            @RequestParam(required = false) Integer batchSize,
+            @Parameter(description = "summary, or full to include packages and items", example = "summary")
+            @RequestParam(required = false) String projection) {
+        PackingSolutionExport.Query query = packingSolutionExportService.query(
+            from, to, afterCreatedAt, afterId, batchSize, projection);
+        log.info("Exporting packing solutions from {} to {} after {}, batch size {}, packages: {}",
+                query.from(), query.to(), query.after(), query.batchSize(), query.withPackages());
+
+        StreamingResponseBody body = out -> packingSolutionExportService.export(query, out);
+        return ResponseEntity.ok()
+            .contentType(NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"packing-solutions.ndjson\"")
+            .body(body);
+    }
+}
@@ -0,0 +1,128 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.application.port.in.PackingSolutionUseCase;
+import com.paklog.cartonization.application.port.out.PackingSolutionExport;
+import com.paklog.cartonization.infrastructure.adapter.in.web.dto.PackingSolutionRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Streams stored packing solutions out as NDJSON, one solution per line, in
+ * creation order. Solutions are read in keyset-paged batches, so memory use is
+ * bounded by the batch size however long the requested window is.
+ */
+@Service
+public class PackingSolutionExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PackingSolutionExportService.class);
+
+    private final PackingSolutionUseCase packingSolutionUseCase;
+    private final ObjectMapper objectMapper;
+    private final int defaultBatchSize;
+    private final int maxBatchSize;
+    private final Projection defaultProjection;
+
+    private final Counter exportedRows;
+
+    public PackingSolutionExportService(PackingSolutionUseCase packingSolutionUseCase,
+                                        ObjectMapper objectMapper,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.packing-solutions.export.batch-size:1000}") int defaultBatchSize,
+                                        @Value("${app.packing-solutions.export.max-batch-size:10000}") int maxBatchSize,
+                                        @Value("${app.packing-solutions.export.projection:summary}") String defaultProjection) {
+        this.packingSolutionUseCase = packingSolutionUseCase;
+        this.objectMapper = objectMapper;
+        this.defaultBatchSize = defaultBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.defaultProjection = Projection.of(defaultProjection);
+
+        this.exportedRows = Counter.builder("cartonization.packing_solutions.export.rows")
+            .description("Packing solutions streamed by the export endpoint")
+            .register(meterRegistry);
+    }
+
+    public enum Projection {
+        SUMMARY,
+        FULL;
+
+        public static Projection of(String value) {
+            for (Projection projection : values()) {
+                if (projection.name().equalsIgnoreCase(value.trim())) {
+                    return projection;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported packing solution export projection: " + value);
+        }
+    }
+
+    /**
+     * Resolves request parameters into an export query. Without an upper bound
+     * the window ends now, so an export always finishes even while new
+     * solutions keep arriving.
+     *
+     * @throws IllegalArgumentException if the resume position is incomplete or
+     *                                  the batch size is out of range
+     */
+    public PackingSolutionExport.Query query(Instant from, Instant to, Instant afterCreatedAt, String afterId,
+                                             Integer batchSize, String projection) {
+        if ((afterCreatedAt == null) != (afterId == null || afterId.isBlank())) {
+            throw new IllegalArgumentException("afterCreatedAt and afterId must be given together");
+        }
+        int size = batchSize != null ? batchSize : defaultBatchSize;
+        if (size < 1 || size > maxBatchSize) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + maxBatchSize);
+        }
+        Projection resolved = projection != null ? Projection.of(projection) : defaultProjection;
+        PackingSolutionExport.Position after = afterCreatedAt != null
+            ? new PackingSolutionExport.Position(afterCreatedAt, afterId)
+            : null;
+        return new PackingSolutionExport.Query(from, to != null ? to : Instant.now(), after, size,
+            resolved == Projection.FULL);
+    }
+
+    /**
+     * Writes every solution matching the query to {@code out}, one per line.
+     *
+     * @return the number of solutions written
+     */
+    public long export(PackingSolutionExport.Query query, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        long[] written = {0};
+        try {
+            packingSolutionUseCase.forEachSolution(query, export -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(PackingSolutionRecord.from(export)));
+                    writer.write('\n');
+                    written[0]++;
+                    exportedRows.increment();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+
+        log.info("Exported {} packing solutions in {} ms", written[0],
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return written[0];
+    }
+}
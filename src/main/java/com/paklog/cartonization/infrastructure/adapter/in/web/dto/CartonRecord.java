@@ -0,0 +1,197 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web.dto;
+
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.CartonId;
+import com.paklog.cartonization.domain.model.valueobject.CartonStatus;
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.DimensionUnit;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+import com.paklog.cartonization.domain.model.valueobject.WeightUnit;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Flat, one-line representation of a carton used by the streaming import and
+ * export endpoints, as an NDJSON object or a CSV row. In CSV, sites are joined
+ * with {@code |}.
+ */
+@Schema(description = "Carton as exported and imported by the streaming endpoints")
+public record CartonRecord(
+    String id,
+    String name,
+    BigDecimal length,
+    BigDecimal width,
+    BigDecimal height,
+    String dimensionUnit,
+    BigDecimal maxWeight,
+    String weightUnit,
+    String status,
+    List<String> sites
+) {
+    public static final String CSV_HEADER = "id,name,length,width,height,dimensionUnit,maxWeight,weightUnit,status,sites";
+    private static final int CSV_COLUMNS = 10;
+
+    public static CartonRecord from(Carton carton) {
+        return new CartonRecord(
+            carton.getId().getValue(),
+            carton.getName(),
+            carton.getDimensions().getLength(),
+            carton.getDimensions().getWidth(),
+            carton.getDimensions().getHeight(),
+            carton.getDimensions().getUnit().name(),
+            carton.getMaxWeight().getValue(),
+            carton.getMaxWeight().getUnit().name(),
+            carton.getStatus().name(),
+            List.copyOf(carton.getSites())
+        );
+    }
+
+    /**
+     * Converts the record into the bulk operations that recreate it: an upsert
+     * under its ID (a new ID if it has none), followed by an activation or
+     * deactivation matching the record's status, if it has one.
+     *
+     * @throws IllegalArgumentException if a unit or status is not recognised
+     */
+    public List<BulkCartonCommand.Operation> toOperations() {
+        String cartonId = id != null && !id.isBlank() ? id : CartonId.generate().getValue();
+
+        DimensionSet dimensions = length != null && width != null && height != null && dimensionUnit != null
+            ? new DimensionSet(length, width, height, DimensionUnit.fromCode(dimensionUnit))
+            : null;
+        Weight weight = maxWeight != null && weightUnit != null
+            ? new Weight(maxWeight, WeightUnit.fromCode(weightUnit))
+            : null;
+        Set<String> siteSet = sites != null ? new LinkedHashSet<>(sites) : Set.of();
+
+        List<BulkCartonCommand.Operation> operations = new ArrayList<>(2);
+        operations.add(BulkCartonCommand.Operation.upsert(cartonId, name, dimensions, weight, siteSet));
+        if (status != null && !status.isBlank()) {
+            operations.add(CartonStatus.valueOf(status.trim().toUpperCase()) == CartonStatus.INACTIVE
+                ? BulkCartonCommand.Operation.deactivate(cartonId)
+                : BulkCartonCommand.Operation.activate(cartonId));
+        }
+        return operations;
+    }
+
+    public String toCsv() {
+        return String.join(",",
+            csvField(id),
+            csvField(name),
+            csvField(length),
+            csvField(width),
+            csvField(height),
+            csvField(dimensionUnit),
+            csvField(maxWeight),
+            csvField(weightUnit),
+            csvField(status),
+            csvField(sites != null ? String.join("|", sites) : null)
+        );
+    }
+
+    /**
+     * Whether {@code row} ends inside a quoted field, i.e. the field holds a line
+     * break and the row continues on the next line.
+     */
+    public static boolean continuesOnNextLine(CharSequence row) {
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            if (row.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+
+    /**
+     * Parses one CSV row in {@link #CSV_HEADER} column order. Quoted fields may
+     * contain line breaks.
+     *
+     * @throws IllegalArgumentException if the row is malformed
+     */
+    public static CartonRecord fromCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != CSV_COLUMNS) {
+            throw new IllegalArgumentException(
+                "Expected " + CSV_COLUMNS + " CSV columns but found " + fields.size());
+        }
+        String sites = blankToNull(fields.get(9));
+        return new CartonRecord(
+            blankToNull(fields.get(0)),
+            blankToNull(fields.get(1)),
+            decimal(fields.get(2)),
+            decimal(fields.get(3)),
+            decimal(fields.get(4)),
+            blankToNull(fields.get(5)),
+            decimal(fields.get(6)),
+            blankToNull(fields.get(7)),
+            blankToNull(fields.get(8)),
+            sites != null ? Arrays.asList(sites.split("\\|")) : null
+        );
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(CSV_COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted CSV field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static BigDecimal decimal(String value) {
+        String trimmed = blankToNull(value);
+        if (trimmed == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + trimmed);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web.dto;
+
+import com.paklog.cartonization.application.port.out.PackingKpiRollup;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packing KPIs of one site and carton over one bucket, or over the whole
+ * window for a totals query. Carton {@code *} covers all cartons of the site.
+ */
+@Schema(description = "Packing KPIs of a site and carton over one minute, hour or the whole window")
+public record PackingKpiRecord(
+    Instant bucketStart,
+    String siteId,
+    String cartonId,
+    long solutions,
+    long packages,
+    double avgUtilization,
+    @Schema(description = "Packages per 10% utilization band, from 0-10% to 90-100%")
+    List<Long> utilizationHistogram,
+    double avgSolveMillis,
+    long maxSolveMillis,
+    @Schema(description = "Solutions per solve time bucket, bounded by solveHistogramBoundsMillis plus an open-ended last bucket")
+    List<Long> solveHistogram,
+    List<Long> solveHistogramBoundsMillis
+) {
+
+    private static final List<Long> SOLVE_BOUNDS = Arrays.stream(PackingKpiRollup.SOLVE_MILLIS_BOUNDS)
+        .boxed()
+        .toList();
+
+    public static PackingKpiRecord from(PackingKpiRollup rollup) {
+        return new PackingKpiRecord(
+            rollup.bucketStart(),
+            rollup.siteId(),
+            rollup.cartonId(),
+            rollup.solutions(),
+            rollup.packages(),
+            rollup.averageUtilization(),
+            rollup.utilizationHistogram(),
+            rollup.averageSolveMillis(),
+            rollup.solveMillisMax(),
+            rollup.solveHistogram(),
+            SOLVE_BOUNDS
+        );
+    }
+}
@@ -0,0 +1,116 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.paklog.cartonization.application.port.out.PackingSolutionExport;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A packing solution as the API serves it: its summary and the SKUs packed in
+ * each carton. This is the body of a calculation, of its replay and of a
+ * solution lookup, and one line of the export; export lines have packages
+ * only when the export asked for them.
+ * {@code createdAt} and {@code solutionId} of the last line received are the
+ * position to resume an interrupted export from.
+ */
+@Schema(description = "Packing solution summary with the SKUs packed in each carton")
+public record PackingSolutionRecord(
+    @Schema(description = "Unique packing solution identifier", example = "sol-3f9a1c2b7d4e")
+    String solutionId,
+    @Schema(description = "Request the solution was calculated for", example = "req-123")
+    String requestId,
+    @Schema(description = "Order the solution was calculated for", example = "ORDER-123456")
+    String orderId,
+    @Schema(description = "When the solution was calculated", example = "2024-01-15T10:30:00Z")
+    Instant createdAt,
+    @Schema(description = "Number of cartons used", example = "1")
+    int packageCount,
+    @Schema(description = "Units packed, across all cartons", example = "3")
+    int totalItems,
+    @Schema(description = "Mean share of carton volume filled, from 0 to 1", example = "0.755")
+    BigDecimal avgUtilization,
+    @Schema(description = "Volume taken by the packed items, in the cartons' units", example = "2265.0")
+    BigDecimal usedVolume,
+    @Schema(description = "Weight of the packed items, in the cartons' units", example = "1.2")
+    BigDecimal packedWeight,
+    @Schema(description = "Cartons and their contents; omitted from export lines that did not ask for them")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    List<PackageRecord> packages
+) {
+
+    public static PackingSolutionRecord from(PackingSolutionExport export) {
+        return new PackingSolutionRecord(
+            export.solutionId(),
+            export.requestId(),
+            export.orderId(),
+            export.createdAt(),
+            export.packageCount(),
+            export.totalItems(),
+            export.avgUtilization(),
+            export.usedVolume(),
+            export.packedWeight(),
+            export.solution() != null
+                ? export.solution().getPackages().stream().map(PackageRecord::from).toList()
+                : null
+        );
+    }
+
+    public static PackingSolutionRecord from(PackingSolution solution) {
+        BigDecimal packedWeight = BigDecimal.ZERO;
+        for (Package pkg : solution.getPackages()) {
+            packedWeight = packedWeight.add(pkg.getCurrentWeight());
+        }
+        return new PackingSolutionRecord(
+            solution.getSolutionId(),
+            solution.getRequestId(),
+            solution.getOrderId(),
+            solution.getCreatedAt(),
+            solution.getTotalPackages(),
+            solution.getTotalItems(),
+            solution.getAverageUtilization(),
+            solution.getUsedVolume(),
+            packedWeight,
+            solution.getPackages().stream().map(PackageRecord::from).toList()
+        );
+    }
+
+    @Schema(description = "One carton of a packing solution")
+    public record PackageRecord(
+        @Schema(description = "Carton used", example = "small-box")
+        String cartonId,
+        @Schema(description = "Name of the carton", example = "Small Box")
+        String cartonName,
+        @Schema(description = "Share of the carton's volume filled, from 0 to 1", example = "0.755")
+        BigDecimal utilization,
+        @Schema(description = "Weight of the items in this carton", example = "1.2")
+        BigDecimal weight,
+        @Schema(description = "SKUs packed in this carton")
+        List<ItemRecord> items
+    ) {
+        static PackageRecord from(Package pkg) {
+            return new PackageRecord(
+                pkg.getCarton().getId().getValue(),
+                pkg.getCarton().getName(),
+                pkg.getUtilization(),
+                pkg.getCurrentWeight(),
+                pkg.getItems().stream()
+                    .map(item -> new ItemRecord(item.getSku().getValue(), item.getQuantity()))
+                    .toList()
+            );
+        }
+    }
+
+    @Schema(description = "A SKU and how many units of it a carton holds")
+    public record ItemRecord(
+        @Schema(description = "Stock Keeping Unit", example = "BOOK-001")
+        String sku,
+        @Schema(description = "Units packed", example = "2")
+        int quantity
+    ) {
+    }
+}
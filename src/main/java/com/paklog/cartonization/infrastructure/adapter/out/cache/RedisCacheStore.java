@@ -5,18 +5,29 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class RedisCacheStore implements CacheStore {
 
     private static final Logger log = LoggerFactory.getLogger(RedisCacheStore.class);
 
+    // Compare-and-delete; the argument goes through the same serializer as the stored value
+    private static final RedisScript<Long> DELETE_IF_EQUALS = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final Counter cacheFailureCounter;
 
@@ -76,6 +87,48 @@ public class RedisCacheStore implements CacheStore {
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<Expiring<T>> getWithTtl(String key, Class<T> type) {
+        try {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    ops.opsForValue().get(key);
+                    ops.getExpire(key, TimeUnit.MILLISECONDS);
+                    return null;
+                }
+            });
+            Object value = results.get(0);
+            if (value == null || !type.isAssignableFrom(value.getClass())) {
+                log.debug("No value of type {} found in cache for key: {}", type.getSimpleName(), key);
+                return Optional.empty();
+            }
+            // PTTL is -1 for a key without expiry
+            Long ttlMillis = (Long) results.get(1);
+            Duration ttl = ttlMillis != null && ttlMillis >= 0 ? Duration.ofMillis(ttlMillis) : null;
+            return Optional.of(new Expiring<>((T) value, ttl));
+        } catch (Exception e) {
+            log.error("Failed to retrieve value and TTL from cache with key: {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, String value, Duration ttl) {
+        try {
+            Boolean stored = redisTemplate.opsForValue().setIfAbsent(key, value, ttl);
+            log.debug("Conditional store for key: {} with TTL: {} - Stored: {}", key, ttl, stored);
+            return stored != null && stored;
+        } catch (Exception e) {
+            cacheFailureCounter.increment();
+            log.error("Failed to conditionally store key: {}, treating as stored", key, e);
+            // Graceful degradation - callers proceed as if they hold the key
+            return true;
+        }
+    }
+
     @Override
     public boolean exists(String key) {
         try {
@@ -102,6 +155,20 @@ public class RedisCacheStore implements CacheStore {
         }
     }
 
+    @Override
+    public boolean deleteIfEquals(String key, String value) {
+        try {
+            Long deleted = redisTemplate.execute(DELETE_IF_EQUALS, List.of(key), value);
+            boolean result = deleted != null && deleted > 0;
+            log.debug("Conditional delete for key: {} - Deleted: {}", key, result);
+            return result;
+        } catch (Exception e) {
+            cacheFailureCounter.increment();
+            log.error("Failed to conditionally delete key: {}, continuing", key, e);
+            return false;
+        }
+    }
+
     @Override
     public void deleteByPattern(String pattern) {
         try {
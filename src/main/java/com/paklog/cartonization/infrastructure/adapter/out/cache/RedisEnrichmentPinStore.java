@@ -0,0 +1,72 @@
+package com.paklog.cartonization.infrastructure.adapter.out.cache;
+
+import com.paklog.cartonization.application.port.out.CacheStore;
+import com.paklog.cartonization.application.port.out.EnrichmentPinStore;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import com.paklog.cartonization.infrastructure.cache.CatalogSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stores per-order enrichment pins in Redis using the catalog snapshot encoding,
+ * which gives each pin a checksum and format version for free.
+ */
+@Component
+public class RedisEnrichmentPinStore implements EnrichmentPinStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisEnrichmentPinStore.class);
+    private static final String KEY_PREFIX = "enrichment-pin";
+
+    private final CacheStore cacheStore;
+    private final Duration ttl;
+
+    public RedisEnrichmentPinStore(CacheStore cacheStore,
+                                   @Value("${app.enrichment.pin-ttl:24h}") Duration ttl) {
+        this.cacheStore = cacheStore;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<EnrichmentPin> find(String orderId) {
+        return cacheStore.get(cacheStore.buildKey(KEY_PREFIX, orderId), String.class)
+            .flatMap(encoded -> decode(orderId, encoded));
+    }
+
+    @Override
+    public void save(EnrichmentPin pin) {
+        try {
+            byte[] bytes = CatalogSnapshot.encode(pin.catalogVersion(), Instant.now(), pin.products().values());
+            cacheStore.put(cacheStore.buildKey(KEY_PREFIX, pin.orderId()), Base64.getEncoder().encodeToString(bytes), ttl);
+        } catch (Exception e) {
+            log.warn("Failed to pin enrichment for order: {}, continuing without pin: {}", pin.orderId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void delete(String orderId) {
+        cacheStore.delete(cacheStore.buildKey(KEY_PREFIX, orderId));
+    }
+
+    private Optional<EnrichmentPin> decode(String orderId, String encoded) {
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.from(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)));
+            Map<SKU, ProductInfo> products = new LinkedHashMap<>();
+            snapshot.all().forEach(product -> products.put(product.sku(), product));
+            return Optional.of(new EnrichmentPin(orderId, snapshot.getCatalogVersion(), products));
+        } catch (Exception e) {
+            log.warn("Discarding unreadable enrichment pin for order: {}: {}", orderId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
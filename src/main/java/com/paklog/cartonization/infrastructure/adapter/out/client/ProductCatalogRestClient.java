@@ -1,7 +1,11 @@
 package com.paklog.cartonization.infrastructure.adapter.out.client;
 
 import com.paklog.cartonization.application.port.out.ProductCatalogClient;
+import com.paklog.cartonization.domain.exception.ProductCatalogUnavailableException;
 import com.paklog.cartonization.domain.model.valueobject.*;
+import com.paklog.cartonization.infrastructure.cache.CacheService;
+import com.paklog.cartonization.infrastructure.cache.CatalogSnapshotService;
+import com.paklog.cartonization.infrastructure.cache.ProductNegativeCache;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
@@ -11,10 +15,12 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -24,23 +30,59 @@ public class ProductCatalogRestClient implements ProductCatalogClient {
 
     private static final Logger log = LoggerFactory.getLogger(ProductCatalogRestClient.class);
     private static final String CIRCUIT_BREAKER_NAME = "productCatalog";
+    private static final String PRODUCT_CACHE = "product-by-sku";
     
     private final RestTemplate restTemplate;
+    private final ProductNegativeCache negativeCache;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CacheService cacheService;
     private final String baseUrl;
+    private final Duration productTtl;
 
     public ProductCatalogRestClient(
         RestTemplate restTemplate,
-        @Value("${product-catalog.url:http://localhost:8081}") String baseUrl
+        ProductNegativeCache negativeCache,
+        CatalogSnapshotService catalogSnapshotService,
+        CacheService cacheService,
+        @Value("${product-catalog.url:http://localhost:8081}") String baseUrl,
+        @Value("${app.redis.cache.product-ttl}") Duration productTtl
     ) {
         this.restTemplate = restTemplate;
+        this.negativeCache = negativeCache;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.cacheService = cacheService;
         this.baseUrl = baseUrl;
+        this.productTtl = productTtl;
     }
 
     @Override
     @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "getProductInfoFallback")
     @Retry(name = CIRCUIT_BREAKER_NAME)
-    @Cacheable(value = "product-by-sku", key = "#sku.value")
     public Optional<ProductInfo> getProductInfo(SKU sku) {
+        // The local snapshot carries the catalog version solutions are keyed by, so it answers first
+        // while no staler than a cached product would be; its hits are not copied into the cache,
+        // which keeps the snapshot producer confirming facts against the catalog itself
+        Optional<ProductInfo> snapshotted = catalogSnapshotService.findConfirmedWithin(sku, productTtl);
+        if (snapshotted.isPresent()) {
+            return snapshotted;
+        }
+
+        // Hot SKUs are recomputed early by a single caller instead of all at once on expiry
+        return Optional.ofNullable(cacheService.getWithEarlyRecompute(PRODUCT_CACHE, sku.getValue(),
+            ProductInfo.class, productTtl, () -> loadProductInfo(sku)));
+    }
+
+    private ProductInfo loadProductInfo(SKU sku) {
+        // Tombstones are only consulted once the product cache misses, before going remote
+        Optional<ProductNegativeCache.Reason> tombstone = negativeCache.lookup(sku);
+        if (tombstone.isPresent()) {
+            log.debug("Serving cached {} for SKU: {}", tombstone.get(), sku.getValue());
+            return null;
+        }
+        return fetchProductInfo(sku).orElse(null);
+    }
+
+    private Optional<ProductInfo> fetchProductInfo(SKU sku) {
         try {
             log.debug("Fetching product info for SKU: {}", sku.getValue());
             
@@ -58,11 +100,20 @@ public class ProductCatalogRestClient implements ProductCatalogClient {
             }
             
             log.warn("Product not found for SKU: {}", sku.getValue());
+            negativeCache.record(sku, ProductNegativeCache.Reason.NOT_FOUND);
+            return Optional.empty();
+
+        } catch (HttpClientErrorException.NotFound e) {
+            log.warn("Product not found for SKU: {}", sku.getValue());
+            negativeCache.record(sku, ProductNegativeCache.Reason.NOT_FOUND);
+            return Optional.empty();
+        } catch (HttpClientErrorException.Gone e) {
+            log.warn("Product no longer active for SKU: {}", sku.getValue());
+            negativeCache.record(sku, ProductNegativeCache.Reason.INACTIVE);
             return Optional.empty();
-            
         } catch (Exception e) {
             log.error("Failed to fetch product info for SKU: {}", sku.getValue(), e);
-            throw new RuntimeException("Failed to fetch product info", e);
+            throw new ProductCatalogUnavailableException("Failed to fetch product info for SKU: " + sku.getValue(), e);
         }
     }
 
@@ -171,10 +222,27 @@ public class ProductCatalogRestClient implements ProductCatalogClient {
         }
     }
 
+    @Override
+    public long getCatalogVersion() {
+        return catalogSnapshotService.getCatalogVersion();
+    }
+
+    @Override
+    public Optional<ProductInfo> getVersionedProductInfo(SKU sku) {
+        return catalogSnapshotService.find(sku);
+    }
+
     // Fallback methods
     public Optional<ProductInfo> getProductInfoFallback(SKU sku, Exception ex) {
+        // The last known facts beat failing the order while the catalog is down
+        Optional<ProductInfo> snapshotted = catalogSnapshotService.find(sku);
+        if (snapshotted.isPresent()) {
+            log.warn("Serving SKU: {} from catalog snapshot, catalog unavailable: {}", sku.getValue(), ex.getMessage());
+            return snapshotted;
+        }
         log.warn("Using fallback for getProductInfo, SKU: {}, error: {}", sku.getValue(), ex.getMessage());
-        return Optional.empty();
+        // An outage is not a miss: never let it look like "not found" to callers
+        throw new ProductCatalogUnavailableException("Product catalog unavailable for SKU: " + sku.getValue(), ex);
     }
 
     public List<ProductInfo> getProductsInfoFallback(List<SKU> skus, Exception ex) {
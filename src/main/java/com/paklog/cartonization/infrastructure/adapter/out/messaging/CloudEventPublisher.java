@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paklog.cartonization.application.port.out.EventPublisher;
 import com.paklog.cartonization.infrastructure.adapter.in.messaging.cloudevents.CloudEventFactory;
 import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
 import io.cloudevents.jackson.JsonFormat;
 import io.cloudevents.kafka.CloudEventSerializer;
 import org.slf4j.Logger;
@@ -11,6 +12,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+
 @Component
 public class CloudEventPublisher implements EventPublisher {
 
@@ -127,12 +131,25 @@ public class CloudEventPublisher implements EventPublisher {
         publishCloudEvent(topic, solutionId, cloudEvent);
     }
 
+    /**
+     * Wraps an event serialized earlier, such as one taken from the outbox,
+     * keeping the ID and time it was recorded with so consumers can recognize
+     * a redelivery.
+     */
+    public CloudEvent toCloudEvent(String eventClassName, String subject, String eventJson,
+                                   String eventId, Instant occurredOn) {
+        return CloudEventBuilder.v1(createCloudEventFromPayload(eventClassName, subject, eventJson))
+            .withId(eventId)
+            .withTime(occurredOn.atOffset(ZoneOffset.UTC))
+            .build();
+    }
+
     private CloudEvent createCloudEventFromPayload(Object event, String eventJson) {
-        String eventClassName = event.getClass().getSimpleName();
-        
+        return createCloudEventFromPayload(event.getClass().getSimpleName(), extractSubjectFromEvent(event), eventJson);
+    }
+
+    private CloudEvent createCloudEventFromPayload(String eventClassName, String subject, String eventJson) {
         // Map event types to CloudEvent types
-        String subject = extractSubjectFromEvent(event);
-        
         return switch (eventClassName) {
             case "CartonizationRequestEvent" -> 
                 cloudEventFactory.createCartonizationRequest(subject, eventJson);
@@ -144,7 +161,7 @@ public class CloudEventPublisher implements EventPublisher {
                 cloudEventFactory.createCartonUpdated(subject, eventJson);
             case "CartonDeactivatedEvent" -> 
                 cloudEventFactory.createCartonDeactivated(subject, eventJson);
-            case "PackingSolutionCalculatedEvent" -> 
+            case "PackingSolutionCalculated", "PackingSolutionCalculatedEvent" -> 
                 cloudEventFactory.createPackingSolutionCalculated(subject, eventJson);
             default -> 
                 cloudEventFactory.createCustomEvent(
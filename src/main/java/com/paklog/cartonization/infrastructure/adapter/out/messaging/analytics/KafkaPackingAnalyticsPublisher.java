@@ -0,0 +1,178 @@
+package com.paklog.cartonization.infrastructure.adapter.out.messaging.analytics;
+
+import com.paklog.cartonization.application.port.out.PackingAnalyticsPublisher;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes one {@code packingSolutions_v1} record per package to the
+ * analytics topic, which Pinot ingests as is. Solutions are queued and a
+ * single thread encodes and sends them, so the request path only pays for a
+ * queue offer; the producer behind it batches and compresses records into
+ * large produce requests.
+ * <p>
+ * Analytics is best effort: when the queue is full, solutions are dropped and
+ * counted rather than slowing down packing. On shutdown the queue is drained
+ * and the producer flushed.
+ */
+@Component
+public class KafkaPackingAnalyticsPublisher implements PackingAnalyticsPublisher, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaPackingAnalyticsPublisher.class);
+
+    // Stop after request intake (web server and listener containers) has stopped
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topic;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<PackingSolution> queue;
+    private final PackingAnalyticsEncoder encoder = new PackingAnalyticsEncoder();
+
+    private final Counter sentRecords;
+    private final Counter failedRecords;
+    private final Counter droppedSolutions;
+
+    private volatile boolean running;
+    private Thread sender;
+
+    public KafkaPackingAnalyticsPublisher(@Qualifier("analyticsKafkaTemplate") KafkaTemplate<String, byte[]> kafkaTemplate,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${app.kafka.topics.packing-analytics:order-fulfillment-core.cartonization.packing-solutions-v1}") String topic,
+                                          @Value("${app.analytics.enabled:true}") boolean enabled,
+                                          @Value("${app.analytics.queue-capacity:10000}") int queueCapacity,
+                                          @Value("${app.analytics.batch-size:500}") int batchSize,
+                                          @Value("${app.analytics.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.sentRecords = Counter.builder("cartonization.analytics.records")
+            .description("packingSolutions_v1 records handed to Kafka, by delivery result")
+            .tag("result", "sent")
+            .register(meterRegistry);
+        this.failedRecords = Counter.builder("cartonization.analytics.records")
+            .description("packingSolutions_v1 records handed to Kafka, by delivery result")
+            .tag("result", "failed")
+            .register(meterRegistry);
+        this.droppedSolutions = Counter.builder("cartonization.analytics.dropped")
+            .description("Solutions not published to analytics because the queue was full or stopped")
+            .register(meterRegistry);
+        Gauge.builder("cartonization.analytics.queue_depth", queue, BlockingQueue::size)
+            .description("Solutions waiting to be published to analytics")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(PackingSolution solution) {
+        if (!enabled || solution.getPackages().isEmpty()) {
+            return;
+        }
+        if (!running || !queue.offer(solution)) {
+            droppedSolutions.increment();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        sender = new Thread(this::sendLoop, "packing-analytics-publisher");
+        sender.setDaemon(true);
+        sender.start();
+        log.info("Packing analytics publisher started - topic: {}, batch size: {}", topic, batchSize);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            sender.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (sender.isAlive()) {
+            log.warn("Packing analytics publisher did not drain within {}, {} solutions not published",
+                    shutdownTimeout, queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void sendLoop() {
+        List<PackingSolution> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PackingSolution first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (PackingSolution solution : batch) {
+                    send(solution);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Failed to publish {} solutions to analytics: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+        kafkaTemplate.flush();
+        log.info("Packing analytics publisher stopped");
+    }
+
+    private void send(PackingSolution solution) {
+        for (Package pkg : solution.getPackages()) {
+            byte[] record = encoder.encode(solution, pkg);
+            // Keyed by solution so a solution's packages land in one partition
+            kafkaTemplate.send(topic, solution.getSolutionId(), record).whenComplete((result, error) -> {
+                if (error == null) {
+                    sentRecords.increment();
+                } else {
+                    failedRecords.increment();
+                    log.debug("Failed to publish analytics record for solution {}: {}",
+                            solution.getSolutionId(), error.getMessage());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.paklog.cartonization.infrastructure.adapter.out.messaging.analytics;
+
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes one package of a solution as a {@code packingSolutions_v1} record:
+ * a flat JSON object in the shape of {@code pinot-config/packingSolutions_schema.json}.
+ * <p>
+ * The record is written straight into a buffer that is reused from record to
+ * record, numbers included, so the only allocation per record is the returned
+ * copy Kafka needs to own. Not thread-safe; each producing thread keeps its
+ * own encoder.
+ */
+class PackingAnalyticsEncoder {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private byte[] buffer = new byte[512];
+    private int length;
+
+    byte[] encode(PackingSolution solution, Package pkg) {
+        length = 0;
+        writeAscii("{\"solutionId\":");
+        writeString(solution.getSolutionId());
+        writeAscii(",\"calculationTimestamp\":");
+        writeLong(solution.getCreatedAt().toEpochMilli());
+        writeAscii(",\"cartonId\":");
+        writeString(pkg.getCarton().getId().getValue());
+        writeAscii(",\"totalPackedItems\":");
+        writeLong(totalItems(pkg.getItems()));
+        writeAscii(",\"utilizationPercentage\":");
+        writeHundredths(utilizationHundredths(pkg.getUtilization()));
+        writeAscii(",\"packedSkus\":[");
+        writeDistinctSkus(pkg.getItems());
+        writeAscii("]}");
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private static long totalItems(List<ItemWithDimensions> items) {
+        long total = 0;
+        for (ItemWithDimensions item : items) {
+            total += item.getQuantity();
+        }
+        return total;
+    }
+
+    // Utilization is a 0-1 fraction; the contract wants a 0-100 percentage
+    private static long utilizationHundredths(BigDecimal utilization) {
+        long hundredths = Math.round(utilization.doubleValue() * 10_000);
+        return Math.max(0, Math.min(10_000, hundredths));
+    }
+
+    // Packages hold few items, so a scan for earlier duplicates beats allocating a set per record
+    private void writeDistinctSkus(List<ItemWithDimensions> items) {
+        boolean first = true;
+        for (int i = 0; i < items.size(); i++) {
+            String sku = items.get(i).getSku().getValue();
+            if (seenBefore(items, i, sku)) {
+                continue;
+            }
+            if (!first) {
+                writeByte(',');
+            }
+            writeString(sku);
+            first = false;
+        }
+    }
+
+    private static boolean seenBefore(List<ItemWithDimensions> items, int index, String sku) {
+        for (int j = 0; j < index; j++) {
+            if (items.get(j).getSku().getValue().equals(sku)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeHundredths(long hundredths) {
+        writeLong(hundredths / 100);
+        long fraction = hundredths % 100;
+        if (fraction != 0) {
+            writeByte('.');
+            writeByte('0' + (int) (fraction / 10));
+            if (fraction % 10 != 0) {
+                writeByte('0' + (int) (fraction % 10));
+            }
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        ensureCapacity(20);
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value > 0);
+        // Digits were written least significant first
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+
+    private void writeString(String value) {
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writeByte('\\');
+                writeByte(c);
+            } else if (c < 0x20) {
+                writeAscii("\\u00");
+                writeByte(HEX[c >> 4]);
+                writeByte(HEX[c & 0xF]);
+            } else if (c < 0x80) {
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                writeByte(0xF0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                writeByte(0x80 | (codePoint & 0x3F));
+            } else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeAscii(String value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
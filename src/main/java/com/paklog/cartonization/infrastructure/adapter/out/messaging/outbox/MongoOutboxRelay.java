@@ -0,0 +1,270 @@
+package com.paklog.cartonization.infrastructure.adapter.out.messaging.outbox;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.paklog.cartonization.infrastructure.adapter.out.messaging.CloudEventPublisher;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.CartonDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.PackingSolutionDocument;
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the domain events waiting in the outboxes embedded in carton and
+ * packing solution documents, oldest first.
+ * <p>
+ * Each pass claims a batch of documents with a lease, so instances relaying
+ * side by side do not publish the same events, sends all their events
+ * without waiting in between, so the producer batches them, and then waits
+ * for the acknowledgements. Acknowledged events are removed from their
+ * document; a document's events are acknowledged in order, so after a failed
+ * send the rest of its events stay pending and are sent again once the lease
+ * has expired. Delivery is at least once: an event keeps its ID across sends.
+ */
+@Component
+public class MongoOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoOutboxRelay.class);
+
+    private static final String EVENTS = "outbox.events";
+    private static final String SINCE = "outbox.since";
+    private static final String LEASE_OWNER = "outbox.leaseOwner";
+    private static final String LEASE_UNTIL = "outbox.leaseUntil";
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, CloudEvent> kafkaTemplate;
+    private final CloudEventPublisher cloudEventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration sendTimeout;
+    private final List<Source> sources;
+    private final String owner = UUID.randomUUID().toString();
+
+    private record Source(String aggregate, String collection, String topic,
+                          AtomicReference<Instant> oldestPending, Counter relayed, Counter failed) {
+    }
+
+    public MongoOutboxRelay(MongoTemplate mongoTemplate,
+                            KafkaTemplate<String, CloudEvent> kafkaTemplate,
+                            CloudEventPublisher cloudEventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.outbox.relay.enabled:true}") boolean enabled,
+                            @Value("${app.outbox.relay.batch-size:200}") int batchSize,
+                            @Value("${app.outbox.relay.lease:15s}") Duration lease,
+                            @Value("${app.outbox.relay.send-timeout:10s}") Duration sendTimeout,
+                            @Value("${app.kafka.topics.cartonization-events:order-fulfillment-core.cartonization.events}") String cartonTopic,
+                            @Value("${app.kafka.topics.packing-solution-calculated:cartonization.packing-solution.calculated}") String solutionTopic) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.cloudEventPublisher = cloudEventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.sendTimeout = sendTimeout;
+        this.sources = List.of(
+            source("carton", mongoTemplate.getCollectionName(CartonDocument.class), cartonTopic, meterRegistry),
+            source("packing-solution", mongoTemplate.getCollectionName(PackingSolutionDocument.class), solutionTopic,
+                meterRegistry));
+    }
+
+    private static Source source(String aggregate, String collection, String topic, MeterRegistry meterRegistry) {
+        AtomicReference<Instant> oldestPending = new AtomicReference<>();
+        // Worked out when scraped, so the lag keeps growing while the relay is stuck
+        Gauge.builder("cartonization.outbox.lag", oldestPending, MongoOutboxRelay::lagSeconds)
+            .description("Age of the oldest domain event waiting in the outbox")
+            .baseUnit("seconds")
+            .tag("aggregate", aggregate)
+            .register(meterRegistry);
+        return new Source(aggregate, collection, topic, oldestPending,
+            Counter.builder("cartonization.outbox.events")
+                .description("Outbox events sent to Kafka, by result")
+                .tag("aggregate", aggregate)
+                .tag("result", "relayed")
+                .register(meterRegistry),
+            Counter.builder("cartonization.outbox.events")
+                .description("Outbox events sent to Kafka, by result")
+                .tag("aggregate", aggregate)
+                .tag("result", "failed")
+                .register(meterRegistry));
+    }
+
+    private static double lagSeconds(AtomicReference<Instant> oldestPending) {
+        Instant oldest = oldestPending.get();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis() / 1000.0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:200}",
+               initialDelayString = "${app.outbox.relay.poll-interval-ms:200}")
+    public void relayPending() {
+        if (!enabled) {
+            return;
+        }
+        for (Source source : sources) {
+            try {
+                // Keep going while batches come back full, so a backlog drains without waiting a poll interval
+                while (relayBatch(source) == batchSize) {
+                    log.debug("Relayed a full outbox batch of {} documents, continuing", source.aggregate());
+                }
+                source.oldestPending().set(oldestPending(source));
+            } catch (Exception e) {
+                log.warn("Failed to relay {} outbox events: {}", source.aggregate(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Claims, publishes and acknowledges one batch of documents.
+     *
+     * @return the number of documents claimed, or zero after a failed send
+     *         so the pass stops rather than claiming more while Kafka is down
+     */
+    private int relayBatch(Source source) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(source.collection());
+        Date now = new Date();
+        Bson claimable = Filters.and(
+            Filters.lte(SINCE, now),
+            Filters.or(Filters.exists(LEASE_UNTIL, false), Filters.lt(LEASE_UNTIL, now)));
+
+        List<Object> ids = collection.find(claimable)
+            .sort(Sorts.ascending(SINCE))
+            .limit(batchSize)
+            .projection(Projections.include("_id"))
+            .map(document -> document.get("_id"))
+            .into(new ArrayList<>());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Date leaseUntil = Date.from(now.toInstant().plus(lease));
+        collection.updateMany(Filters.and(Filters.in("_id", ids), claimable),
+            Updates.combine(Updates.set(LEASE_OWNER, owner), Updates.set(LEASE_UNTIL, leaseUntil)));
+        List<Document> claimed = collection.find(Filters.and(Filters.in("_id", ids),
+                Filters.eq(LEASE_OWNER, owner), Filters.eq(LEASE_UNTIL, leaseUntil)))
+            .sort(Sorts.ascending(SINCE))
+            .projection(Projections.include(EVENTS))
+            .into(new ArrayList<>());
+
+        List<List<CompletableFuture<SendResult<String, CloudEvent>>>> sends = new ArrayList<>(claimed.size());
+        for (Document document : claimed) {
+            sends.add(send(source, events(document)));
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<WriteModel<Document>> acknowledgements = new ArrayList<>(claimed.size());
+        boolean allSent = true;
+        for (int i = 0; i < claimed.size(); i++) {
+            List<Document> events = events(claimed.get(i));
+            List<String> sent = new ArrayList<>(events.size());
+            for (int j = 0; j < events.size(); j++) {
+                if (!acknowledged(sends.get(i).get(j), deadline)) {
+                    break;
+                }
+                sent.add(events.get(j).getString("id"));
+            }
+            source.relayed().increment(sent.size());
+            source.failed().increment(events.size() - sent.size());
+            allSent &= sent.size() == events.size();
+            if (!sent.isEmpty()) {
+                acknowledgements.add(new UpdateOneModel<>(
+                    Filters.and(Filters.eq("_id", claimed.get(i).get("_id")), Filters.eq(LEASE_OWNER, owner)),
+                    acknowledge(sent, sent.size() == events.size())));
+            }
+        }
+        if (!acknowledgements.isEmpty()) {
+            collection.bulkWrite(acknowledgements);
+        }
+        log.debug("Relayed outbox events of {} {} documents to {}", claimed.size(), source.aggregate(), source.topic());
+        return allSent ? claimed.size() : 0;
+    }
+
+    private List<CompletableFuture<SendResult<String, CloudEvent>>> send(Source source, List<Document> events) {
+        List<CompletableFuture<SendResult<String, CloudEvent>>> futures = new ArrayList<>(events.size());
+        for (Document event : events) {
+            try {
+                String key = event.getString("key");
+                CloudEvent cloudEvent = cloudEventPublisher.toCloudEvent(event.getString("type"), key,
+                    event.getString("payload"), event.getString("id"), event.getDate("occurredOn").toInstant());
+                futures.add(kafkaTemplate.send(source.topic(), key, cloudEvent));
+            } catch (Exception e) {
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return futures;
+    }
+
+    private static boolean acknowledged(CompletableFuture<SendResult<String, CloudEvent>> future, long deadline) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.debug("Outbox event was not acknowledged: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Removes the sent events and recomputes when the oldest remaining one
+     * occurred. Events appended since the batch was read stay. The lease is
+     * released once everything read was sent; after a failure it is kept, so
+     * the rest is retried when it expires rather than on the next poll.
+     */
+    private static List<Bson> acknowledge(List<String> sent, boolean releaseLease) {
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$set", new Document(EVENTS, new Document("$filter", new Document()
+            .append("input", "$" + EVENTS)
+            .append("cond", new Document("$not", List.of(new Document("$in", List.of("$$this.id", sent)))))))));
+        pipeline.add(new Document("$set", new Document(SINCE, new Document("$min", "$" + EVENTS + ".occurredOn"))));
+        if (releaseLease) {
+            pipeline.add(new Document("$unset", List.of(LEASE_OWNER, LEASE_UNTIL)));
+        }
+        pipeline.add(new Document("$set", new Document("outbox", new Document("$cond", List.of(
+            new Document("$eq", List.of(new Document("$size", "$" + EVENTS), 0)), "$$REMOVE", "$outbox")))));
+        return pipeline;
+    }
+
+    private Instant oldestPending(Source source) {
+        Document oldest = mongoTemplate.getCollection(source.collection())
+            .find(Filters.exists(SINCE))
+            .sort(Sorts.ascending(SINCE))
+            .projection(Projections.include(SINCE))
+            .first();
+        return oldest == null ? null : oldest.get("outbox", Document.class).getDate("since").toInstant();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> events(Document document) {
+        Document outbox = document.get("outbox", Document.class);
+        List<Document> events = outbox != null ? (List<Document>) outbox.get("events") : null;
+        return events != null ? events : List.of();
+    }
+}
@@ -6,23 +6,34 @@ import com.paklog.cartonization.domain.model.valueobject.CartonId;
 import com.paklog.cartonization.domain.model.valueobject.CartonStatus;
 import org.springframework.stereotype.Repository;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class InMemoryCartonRepository implements CartonRepository {
 
     private final Map<String, Carton> cartons = new ConcurrentHashMap<>();
+    private final AtomicLong catalogVersion = new AtomicLong();
 
     @Override
     public Carton save(Carton carton) {
         cartons.put(carton.getId().getValue(), carton);
+        catalogVersion.incrementAndGet();
         return carton;
     }
 
+    @Override
+    public List<Carton> saveAll(List<Carton> cartons) {
+        cartons.forEach(this::save);
+        return List.copyOf(cartons);
+    }
+
     @Override
     public Optional<Carton> findById(CartonId id) {
         return Optional.ofNullable(cartons.get(id.getValue()));
@@ -33,6 +44,11 @@ public class InMemoryCartonRepository implements CartonRepository {
         return List.copyOf(cartons.values());
     }
 
+    @Override
+    public Stream<Carton> streamAll() {
+        return List.copyOf(cartons.values()).stream();
+    }
+
     @Override
     public List<Carton> findAllActive() {
         return cartons.values().stream()
@@ -40,9 +56,24 @@ public class InMemoryCartonRepository implements CartonRepository {
             .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Carton> findAllActiveForSite(String site) {
+        return cartons.values().stream()
+            .filter(carton -> carton.getStatus() == CartonStatus.ACTIVE)
+            .filter(carton -> carton.isStockedAt(site))
+            .sorted(Comparator.comparing(carton -> carton.getDimensions().volume()))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
     @Override
     public void deleteById(CartonId id) {
         cartons.remove(id.getValue());
+        catalogVersion.incrementAndGet();
     }
 
     @Override
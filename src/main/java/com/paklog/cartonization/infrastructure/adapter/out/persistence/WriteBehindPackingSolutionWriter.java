@@ -0,0 +1,336 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence;
+
+import com.paklog.cartonization.application.port.out.PackingSolutionRepository;
+import com.paklog.cartonization.application.port.out.PackingSolutionViewStore;
+import com.paklog.cartonization.application.port.out.PackingSolutionWriter;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for packing solutions. Solutions are queued in a
+ * bounded in-memory queue and a single flusher thread inserts them in bulk,
+ * once a batch is full or the oldest queued solution has waited the flush
+ * interval, whichever comes first.
+ * <p>
+ * When the queue is full, callers wait up to the offer timeout and then write
+ * their solution themselves, so a slow database pushes back on intake instead
+ * of growing the queue. A failed caller write is dropped rather than failing
+ * the request, whose solution has already been computed. A failed batch is
+ * retried with backoff and dropped after the last attempt, or as soon as the
+ * flusher is interrupted while backing off. On shutdown, which runs after the web server and the
+ * Kafka listeners have stopped taking work, the queue is drained before the
+ * database connection closes.
+ * <p>
+ * Once a batch is stored, its read-side views are projected on a separate
+ * thread, so the flusher never waits on the cache. If projection falls more
+ * than its queue behind, batches are skipped; their views are rendered on
+ * first lookup instead.
+ */
+@Component
+public class WriteBehindPackingSolutionWriter implements PackingSolutionWriter, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindPackingSolutionWriter.class);
+
+    // Stop after request intake (web server and listener containers) has stopped
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final PackingSolutionRepository repository;
+    private final PackingSolutionViewStore viewStore;
+    private final BlockingQueue<PackingSolution> queue;
+    private final Map<String, PackingSolution> pending = new ConcurrentHashMap<>();
+    private final Map<String, PackingSolution> pendingByRequest = new ConcurrentHashMap<>();
+
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final int maxAttempts;
+    private final Duration shutdownTimeout;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter callerWrites;
+    private final Counter droppedSolutions;
+    private final Counter skippedProjections;
+    private final ThreadPoolExecutor projector;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public WriteBehindPackingSolutionWriter(PackingSolutionRepository repository,
+                                            PackingSolutionViewStore viewStore,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${app.persistence.write-behind.queue-capacity:10000}") int queueCapacity,
+                                            @Value("${app.persistence.write-behind.batch-size:500}") int batchSize,
+                                            @Value("${app.persistence.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                            @Value("${app.persistence.write-behind.offer-timeout:50ms}") Duration offerTimeout,
+                                            @Value("${app.persistence.write-behind.max-attempts:3}") int maxAttempts,
+                                            @Value("${app.persistence.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout,
+                                            @Value("${app.persistence.write-behind.projection-queue-capacity:64}") int projectionQueueCapacity) {
+        this.repository = repository;
+        this.viewStore = viewStore;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.shutdownTimeout = shutdownTimeout;
+
+        this.flushTimer = Timer.builder("cartonization.persistence.write_behind.flush")
+            .description("Time to write one batch of packing solutions")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("cartonization.persistence.write_behind.batch_size")
+            .description("Packing solutions per bulk insert")
+            .register(meterRegistry);
+        this.callerWrites = Counter.builder("cartonization.persistence.write_behind.caller_writes")
+            .description("Packing solutions written by the caller because the queue was full or stopped")
+            .register(meterRegistry);
+        this.droppedSolutions = Counter.builder("cartonization.persistence.write_behind.dropped")
+            .description("Packing solutions dropped because writing them failed")
+            .register(meterRegistry);
+        this.skippedProjections = Counter.builder("cartonization.persistence.write_behind.skipped_projections")
+            .description("Packing solutions whose view was left to be rendered on lookup because projection was behind")
+            .register(meterRegistry);
+        Gauge.builder("cartonization.persistence.write_behind.queue_depth", queue, BlockingQueue::size)
+            .description("Packing solutions waiting to be written")
+            .register(meterRegistry);
+
+        this.projector = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(projectionQueueCapacity, 1)), runnable -> {
+                Thread thread = new Thread(runnable, "packing-solution-views");
+                thread.setDaemon(true);
+                return thread;
+            }, (task, executor) -> {
+                ProjectionTask projection = (ProjectionTask) task;
+                skippedProjections.increment(projection.solutions().size());
+                log.debug("View projection behind, leaving {} views to be rendered on lookup",
+                        projection.solutions().size());
+            });
+    }
+
+    @Override
+    public void write(PackingSolution solution) {
+        track(solution);
+        try {
+            if (running && queue.offer(solution, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Backpressure: the caller pays for its own write
+        callerWrites.increment();
+        try {
+            repository.save(solution);
+            viewStore.project(solution);
+        } catch (Exception e) {
+            droppedSolutions.increment();
+            log.error("Dropping packing solution {} after its caller write failed", solution.getSolutionId(), e);
+        } finally {
+            untrack(solution);
+        }
+    }
+
+    @Override
+    public Optional<PackingSolution> findPending(String solutionId) {
+        return Optional.ofNullable(pending.get(solutionId));
+    }
+
+    @Override
+    public Optional<PackingSolution> findPendingByRequestId(String requestId) {
+        return requestId != null ? Optional.ofNullable(pendingByRequest.get(requestId)) : Optional.empty();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "packing-solution-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Packing solution write-behind started - batch size: {}, flush interval: {}, queue capacity: {}",
+                batchSize, flushInterval, queue.remainingCapacity());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        log.info("Draining {} queued packing solutions", queue.size());
+        try {
+            flusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.warn("Packing solution writer did not drain within {}, {} solutions not written",
+                    shutdownTimeout, queue.size());
+            return;
+        }
+
+        // Solutions offered while the flusher was finishing up
+        List<PackingSolution> stragglers = new ArrayList<>();
+        queue.drainTo(stragglers);
+        if (!stragglers.isEmpty()) {
+            flush(stragglers);
+        }
+
+        projector.shutdown();
+        try {
+            if (!projector.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Packing solution views still projecting after {}, leaving them to be rendered on lookup",
+                        shutdownTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void flushLoop() {
+        List<PackingSolution> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                collect(batch);
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.drainTo(batch);
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+        log.info("Packing solution writer stopped");
+    }
+
+    private void collect(List<PackingSolution> batch) throws InterruptedException {
+        PackingSolution first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            PackingSolution next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PackingSolution> batch) {
+        batchSizes.record(batch.size());
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            long started = System.nanoTime();
+            try {
+                repository.insertAll(batch);
+                flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                project(batch);
+                break;
+            } catch (Exception e) {
+                flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                if (attempt == maxAttempts) {
+                    droppedSolutions.increment(batch.size());
+                    log.error("Dropping {} packing solutions after {} failed write attempts",
+                            batch.size(), maxAttempts, e);
+                    break;
+                }
+                log.warn("Writing {} packing solutions failed (attempt {}/{}), retrying: {}",
+                        batch.size(), attempt, maxAttempts, e.getMessage());
+                if (!sleep(flushInterval.multipliedBy(attempt))) {
+                    droppedSolutions.increment(batch.size());
+                    log.error("Dropping {} packing solutions, interrupted before write attempt {}/{}",
+                            batch.size(), attempt + 1, maxAttempts);
+                    break;
+                }
+            }
+        }
+        batch.forEach(this::untrack);
+    }
+
+    private void project(List<PackingSolution> batch) {
+        ProjectionTask task = new ProjectionTask(List.copyOf(batch), viewStore);
+        if (projector.isShutdown()) {
+            task.run();
+        } else {
+            projector.execute(task);
+        }
+    }
+
+    private record ProjectionTask(List<PackingSolution> solutions, PackingSolutionViewStore viewStore)
+            implements Runnable {
+        @Override
+        public void run() {
+            solutions.forEach(viewStore::project);
+        }
+    }
+
+    private void track(PackingSolution solution) {
+        pending.put(solution.getSolutionId(), solution);
+        if (solution.getRequestId() != null) {
+            pendingByRequest.put(solution.getRequestId(), solution);
+        }
+    }
+
+    // Only drop the request mapping if a later solution for the same request has not replaced it
+    private void untrack(PackingSolution solution) {
+        pending.remove(solution.getSolutionId());
+        if (solution.getRequestId() != null) {
+            pendingByRequest.remove(solution.getRequestId(), solution);
+        }
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -2,11 +2,11 @@ package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.
 
 import java.util.Objects;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 
 @Document(collection = "cartons")
 public class CartonDocument {
@@ -14,27 +14,30 @@ public class CartonDocument {
     @Id
     private String id;
 
-    @Indexed
     private String name;
 
     private DimensionDocument dimensions;
     private WeightDocument maxWeight;
 
-    @Indexed
     private String status;
 
+    private List<String> sites;
+
     private Instant createdAt;
     private Instant updatedAt;
+
+    private OutboxDocument outbox;
     
     public CartonDocument() {
     }
     
-    public CartonDocument(String id, String name, DimensionDocument dimensions, WeightDocument maxWeight, String status, Instant createdAt, Instant updatedAt) {
+    public CartonDocument(String id, String name, DimensionDocument dimensions, WeightDocument maxWeight, String status, List<String> sites, Instant createdAt, Instant updatedAt) {
         this.id = id;
         this.name = name;
         this.dimensions = dimensions;
         this.maxWeight = maxWeight;
         this.status = status;
+        this.sites = sites;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -79,6 +82,14 @@ public class CartonDocument {
         this.status = status;
     }
     
+    public List<String> getSites() {
+        return sites;
+    }
+    
+    public void setSites(List<String> sites) {
+        this.sites = sites;
+    }
+    
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -94,6 +105,14 @@ public class CartonDocument {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public OutboxDocument getOutbox() {
+        return outbox;
+    }
+
+    public void setOutbox(OutboxDocument outbox) {
+        this.outbox = outbox;
+    }
     
     @Override
     public boolean equals(Object o) {
@@ -105,13 +124,14 @@ public class CartonDocument {
                Objects.equals(dimensions, that.dimensions) &&
                Objects.equals(maxWeight, that.maxWeight) &&
                Objects.equals(status, that.status) &&
+               Objects.equals(sites, that.sites) &&
                Objects.equals(createdAt, that.createdAt) &&
                Objects.equals(updatedAt, that.updatedAt);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, dimensions, maxWeight, status, createdAt, updatedAt);
+        return Objects.hash(id, name, dimensions, maxWeight, status, sites, createdAt, updatedAt);
     }
     
     @Override
@@ -122,6 +142,7 @@ public class CartonDocument {
                ", dimensions=" + dimensions +
                ", maxWeight=" + maxWeight +
                ", status='" + status + '\'' +
+               ", sites=" + sites +
                ", createdAt=" + createdAt +
                ", updatedAt=" + updatedAt +
                '}';
@@ -137,6 +158,7 @@ public class CartonDocument {
         private DimensionDocument dimensions;
         private WeightDocument maxWeight;
         private String status;
+        private List<String> sites;
         private Instant createdAt;
         private Instant updatedAt;
         
@@ -165,6 +187,11 @@ public class CartonDocument {
             return this;
         }
         
+        public Builder sites(List<String> sites) {
+            this.sites = sites;
+            return this;
+        }
+        
         public Builder createdAt(Instant createdAt) {
             this.createdAt = createdAt;
             return this;
@@ -176,7 +203,7 @@ public class CartonDocument {
         }
         
         public CartonDocument build() {
-            return new CartonDocument(id, name, dimensions, maxWeight, status, createdAt, updatedAt);
+            return new CartonDocument(id, name, dimensions, maxWeight, status, sites, createdAt, updatedAt);
         }
     }
 
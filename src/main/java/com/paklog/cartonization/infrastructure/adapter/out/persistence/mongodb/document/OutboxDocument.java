@@ -0,0 +1,124 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Domain events of an aggregate that have not reached Kafka yet, embedded in
+ * the aggregate's own document so they are written in the same single-document
+ * write as the state change that raised them.
+ * <p>
+ * {@code since} is when the oldest pending event occurred; the relay reads
+ * documents in that order and the field is absent once everything has been
+ * relayed. The lease fields mark a document a relay instance is publishing.
+ */
+public class OutboxDocument {
+
+    private List<Event> events;
+    private Instant since;
+    private String leaseOwner;
+    private Instant leaseUntil;
+
+    public OutboxDocument() {
+    }
+
+    public OutboxDocument(List<Event> events, Instant since) {
+        this.events = events;
+        this.since = since;
+    }
+
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<Event> events) {
+        this.events = events;
+    }
+
+    public Instant getSince() {
+        return since;
+    }
+
+    public void setSince(Instant since) {
+        this.since = since;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(Instant leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    /**
+     * One serialized domain event. The ID becomes the CloudEvent ID, so a
+     * consumer can tell a redelivery from a new event.
+     */
+    public static class Event {
+        private String id;
+        private String type;
+        private String key;
+        private String payload;
+        private Instant occurredOn;
+
+        public Event() {
+        }
+
+        public Event(String id, String type, String key, String payload, Instant occurredOn) {
+            this.id = id;
+            this.type = type;
+            this.key = key;
+            this.payload = payload;
+            this.occurredOn = occurredOn;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        public void setPayload(String payload) {
+            this.payload = payload;
+        }
+
+        public Instant getOccurredOn() {
+            return occurredOn;
+        }
+
+        public void setOccurredOn(Instant occurredOn) {
+            this.occurredOn = occurredOn;
+        }
+    }
+}
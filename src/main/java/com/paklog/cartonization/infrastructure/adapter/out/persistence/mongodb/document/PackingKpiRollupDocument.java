@@ -0,0 +1,127 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One partial KPI rollup in a time-series collection; the collection it is in
+ * gives its resolution. {@code bucketStart} is the time field and
+ * {@code meta} the series key.
+ */
+public class PackingKpiRollupDocument {
+
+    private Instant bucketStart;
+    private MetaDocument meta;
+
+    private long solutions;
+    private long packages;
+    private double utilizationSum;
+    private List<Long> utilizationHistogram;
+    private long solveMillisSum;
+    private long solveMillisMax;
+    private List<Long> solveHistogram;
+
+    public PackingKpiRollupDocument() {
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public MetaDocument getMeta() {
+        return meta;
+    }
+
+    public void setMeta(MetaDocument meta) {
+        this.meta = meta;
+    }
+
+    public long getSolutions() {
+        return solutions;
+    }
+
+    public void setSolutions(long solutions) {
+        this.solutions = solutions;
+    }
+
+    public long getPackages() {
+        return packages;
+    }
+
+    public void setPackages(long packages) {
+        this.packages = packages;
+    }
+
+    public double getUtilizationSum() {
+        return utilizationSum;
+    }
+
+    public void setUtilizationSum(double utilizationSum) {
+        this.utilizationSum = utilizationSum;
+    }
+
+    public List<Long> getUtilizationHistogram() {
+        return utilizationHistogram;
+    }
+
+    public void setUtilizationHistogram(List<Long> utilizationHistogram) {
+        this.utilizationHistogram = utilizationHistogram;
+    }
+
+    public long getSolveMillisSum() {
+        return solveMillisSum;
+    }
+
+    public void setSolveMillisSum(long solveMillisSum) {
+        this.solveMillisSum = solveMillisSum;
+    }
+
+    public long getSolveMillisMax() {
+        return solveMillisMax;
+    }
+
+    public void setSolveMillisMax(long solveMillisMax) {
+        this.solveMillisMax = solveMillisMax;
+    }
+
+    public List<Long> getSolveHistogram() {
+        return solveHistogram;
+    }
+
+    public void setSolveHistogram(List<Long> solveHistogram) {
+        this.solveHistogram = solveHistogram;
+    }
+
+    public static class MetaDocument {
+        private String site;
+        private String carton;
+
+        public MetaDocument() {
+        }
+
+        public MetaDocument(String site, String carton) {
+            this.site = site;
+            this.carton = carton;
+        }
+
+        public String getSite() {
+            return site;
+        }
+
+        public void setSite(String site) {
+            this.site = site;
+        }
+
+        public String getCarton() {
+            return carton;
+        }
+
+        public void setCarton(String carton) {
+            this.carton = carton;
+        }
+    }
+}
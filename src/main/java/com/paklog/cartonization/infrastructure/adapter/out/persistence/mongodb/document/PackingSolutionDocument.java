@@ -1,33 +1,68 @@
 package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document;
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Stored packing solution.
+ * <p>
+ * Schema version 2 is the compact layout: item facts live once in a
+ * per-solution SKU dictionary, cartons once in a carton dictionary, and
+ * packages only reference both. Numbers are stored as doubles and the summary
+ * fields are denormalized for queries that never need the packages. Documents
+ * without a schema version are version 1, with a full carton and full item
+ * facts embedded in every package; they are still read and are upgraded lazily.
+ */
 @Document(collection = "packing_solutions")
 public class PackingSolutionDocument {
 
+    public static final int LEGACY_SCHEMA_VERSION = 1;
+    public static final int SCHEMA_VERSION = 2;
+
     @Id
     private String solutionId;
 
-    @Indexed
     private String requestId;
 
-    @Indexed
     private String orderId;
 
+    private Instant createdAt;
+
+    private Integer schemaVersion;
+
+    // Content version of the cartons the solution was computed against
+    private Long cartonCatalogVersion;
+
+    // Fingerprint of the request the solution answered; absent on documents written before it was recorded
+    private String requestFingerprint;
+
+    // Denormalized at write time and indexed for range queries; absent on version 1 documents
+    private Integer packageCount;
+    private Integer totalItems;
+    private Double packedWeight;
+    private Double usedVolume;
+    private Double avgUtilization;
+
+    private List<SkuDocument> skus;
+    private List<CartonRefDocument> cartons;
+
+    @Field("pkgs")
+    private List<PackageRefDocument> packageRefs;
+
+    // Version 1 packages, read only
     private List<PackageDocument> packages;
 
-    @Indexed
-    private Instant createdAt;
+    private OutboxDocument outbox;
 
     public PackingSolutionDocument() {
     }
 
+    // Version 1 layout, with every package embedding its carton and item facts
     public PackingSolutionDocument(String solutionId, String requestId, String orderId, List<PackageDocument> packages, Instant createdAt) {
         this.solutionId = solutionId;
         this.requestId = requestId;
@@ -76,6 +111,106 @@ public class PackingSolutionDocument {
         this.createdAt = createdAt;
     }
 
+    public Integer getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    public void setSchemaVersion(Integer schemaVersion) {
+        this.schemaVersion = schemaVersion;
+    }
+
+    public boolean isLegacy() {
+        return schemaVersion == null || schemaVersion < SCHEMA_VERSION;
+    }
+
+    public Long getCartonCatalogVersion() {
+        return cartonCatalogVersion;
+    }
+
+    public void setCartonCatalogVersion(Long cartonCatalogVersion) {
+        this.cartonCatalogVersion = cartonCatalogVersion;
+    }
+
+    public String getRequestFingerprint() {
+        return requestFingerprint;
+    }
+
+    public void setRequestFingerprint(String requestFingerprint) {
+        this.requestFingerprint = requestFingerprint;
+    }
+
+    public Integer getPackageCount() {
+        return packageCount;
+    }
+
+    public void setPackageCount(Integer packageCount) {
+        this.packageCount = packageCount;
+    }
+
+    public Integer getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(Integer totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public Double getPackedWeight() {
+        return packedWeight;
+    }
+
+    public void setPackedWeight(Double packedWeight) {
+        this.packedWeight = packedWeight;
+    }
+
+    public Double getUsedVolume() {
+        return usedVolume;
+    }
+
+    public void setUsedVolume(Double usedVolume) {
+        this.usedVolume = usedVolume;
+    }
+
+    public Double getAvgUtilization() {
+        return avgUtilization;
+    }
+
+    public void setAvgUtilization(Double avgUtilization) {
+        this.avgUtilization = avgUtilization;
+    }
+
+    public List<SkuDocument> getSkus() {
+        return skus;
+    }
+
+    public void setSkus(List<SkuDocument> skus) {
+        this.skus = skus;
+    }
+
+    public List<CartonRefDocument> getCartons() {
+        return cartons;
+    }
+
+    public void setCartons(List<CartonRefDocument> cartons) {
+        this.cartons = cartons;
+    }
+
+    public List<PackageRefDocument> getPackageRefs() {
+        return packageRefs;
+    }
+
+    public void setPackageRefs(List<PackageRefDocument> packageRefs) {
+        this.packageRefs = packageRefs;
+    }
+
+    public OutboxDocument getOutbox() {
+        return outbox;
+    }
+
+    public void setOutbox(OutboxDocument outbox) {
+        this.outbox = outbox;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -95,11 +230,393 @@ public class PackingSolutionDocument {
                "solutionId='" + solutionId + '\'' +
                ", requestId='" + requestId + '\'' +
                ", orderId='" + orderId + '\'' +
-               ", packagesCount=" + (packages != null ? packages.size() : 0) +
+               ", schemaVersion=" + (isLegacy() ? LEGACY_SCHEMA_VERSION : schemaVersion) +
+               ", packageCount=" + (isLegacy() ? (packages != null ? packages.size() : 0) : packageCount) +
                ", createdAt=" + createdAt +
                '}';
     }
 
+    /**
+     * Facts of one SKU as it was packed; packages refer to it by position.
+     */
+    public static class SkuDocument {
+        @Field("s")
+        private String sku;
+        @Field("l")
+        private double length;
+        @Field("w")
+        private double width;
+        @Field("h")
+        private double height;
+        @Field("du")
+        private String dimensionUnit;
+        @Field("m")
+        private double weight;
+        @Field("wu")
+        private String weightUnit;
+        @Field("c")
+        private String category;
+        @Field("f")
+        private boolean fragile;
+
+        public SkuDocument() {
+        }
+
+        public SkuDocument(String sku, double length, double width, double height, String dimensionUnit,
+                           double weight, String weightUnit, String category, boolean fragile) {
+            this.sku = sku;
+            this.length = length;
+            this.width = width;
+            this.height = height;
+            this.dimensionUnit = dimensionUnit;
+            this.weight = weight;
+            this.weightUnit = weightUnit;
+            this.category = category;
+            this.fragile = fragile;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public double getLength() {
+            return length;
+        }
+
+        public void setLength(double length) {
+            this.length = length;
+        }
+
+        public double getWidth() {
+            return width;
+        }
+
+        public void setWidth(double width) {
+            this.width = width;
+        }
+
+        public double getHeight() {
+            return height;
+        }
+
+        public void setHeight(double height) {
+            this.height = height;
+        }
+
+        public String getDimensionUnit() {
+            return dimensionUnit;
+        }
+
+        public void setDimensionUnit(String dimensionUnit) {
+            this.dimensionUnit = dimensionUnit;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public void setWeight(double weight) {
+            this.weight = weight;
+        }
+
+        public String getWeightUnit() {
+            return weightUnit;
+        }
+
+        public void setWeightUnit(String weightUnit) {
+            this.weightUnit = weightUnit;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public boolean isFragile() {
+            return fragile;
+        }
+
+        public void setFragile(boolean fragile) {
+            this.fragile = fragile;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SkuDocument that = (SkuDocument) o;
+            return Double.compare(length, that.length) == 0 &&
+                   Double.compare(width, that.width) == 0 &&
+                   Double.compare(height, that.height) == 0 &&
+                   Double.compare(weight, that.weight) == 0 &&
+                   fragile == that.fragile &&
+                   Objects.equals(sku, that.sku) &&
+                   Objects.equals(dimensionUnit, that.dimensionUnit) &&
+                   Objects.equals(weightUnit, that.weightUnit) &&
+                   Objects.equals(category, that.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sku, length, width, height, dimensionUnit, weight, weightUnit, category, fragile);
+        }
+
+        @Override
+        public String toString() {
+            return "SkuDocument{" +
+                   "sku='" + sku + '\'' +
+                   ", dimensions=" + length + "x" + width + "x" + height + " " + dimensionUnit +
+                   ", weight=" + weight + " " + weightUnit +
+                   ", category='" + category + '\'' +
+                   ", fragile=" + fragile +
+                   '}';
+        }
+    }
+
+    /**
+     * A carton as it was when the solution was packed, stored once per
+     * solution however many packages use it. The catalog itself is not
+     * versioned, so the facts are kept here rather than looked up later.
+     */
+    public static class CartonRefDocument {
+        @Field("c")
+        private String cartonId;
+        @Field("n")
+        private String name;
+        @Field("l")
+        private double length;
+        @Field("w")
+        private double width;
+        @Field("h")
+        private double height;
+        @Field("du")
+        private String dimensionUnit;
+        @Field("mw")
+        private double maxWeight;
+        @Field("wu")
+        private String weightUnit;
+
+        public CartonRefDocument() {
+        }
+
+        public CartonRefDocument(String cartonId, String name, double length, double width, double height,
+                                 String dimensionUnit, double maxWeight, String weightUnit) {
+            this.cartonId = cartonId;
+            this.name = name;
+            this.length = length;
+            this.width = width;
+            this.height = height;
+            this.dimensionUnit = dimensionUnit;
+            this.maxWeight = maxWeight;
+            this.weightUnit = weightUnit;
+        }
+
+        public String getCartonId() {
+            return cartonId;
+        }
+
+        public void setCartonId(String cartonId) {
+            this.cartonId = cartonId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getLength() {
+            return length;
+        }
+
+        public void setLength(double length) {
+            this.length = length;
+        }
+
+        public double getWidth() {
+            return width;
+        }
+
+        public void setWidth(double width) {
+            this.width = width;
+        }
+
+        public double getHeight() {
+            return height;
+        }
+
+        public void setHeight(double height) {
+            this.height = height;
+        }
+
+        public String getDimensionUnit() {
+            return dimensionUnit;
+        }
+
+        public void setDimensionUnit(String dimensionUnit) {
+            this.dimensionUnit = dimensionUnit;
+        }
+
+        public double getMaxWeight() {
+            return maxWeight;
+        }
+
+        public void setMaxWeight(double maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        public String getWeightUnit() {
+            return weightUnit;
+        }
+
+        public void setWeightUnit(String weightUnit) {
+            this.weightUnit = weightUnit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CartonRefDocument that = (CartonRefDocument) o;
+            return Double.compare(length, that.length) == 0 &&
+                   Double.compare(width, that.width) == 0 &&
+                   Double.compare(height, that.height) == 0 &&
+                   Double.compare(maxWeight, that.maxWeight) == 0 &&
+                   Objects.equals(cartonId, that.cartonId) &&
+                   Objects.equals(name, that.name) &&
+                   Objects.equals(dimensionUnit, that.dimensionUnit) &&
+                   Objects.equals(weightUnit, that.weightUnit);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cartonId, name, length, width, height, dimensionUnit, maxWeight, weightUnit);
+        }
+
+        @Override
+        public String toString() {
+            return "CartonRefDocument{" +
+                   "cartonId='" + cartonId + '\'' +
+                   ", name='" + name + '\'' +
+                   '}';
+        }
+    }
+
+    /**
+     * One package: the carton it uses and the SKU dictionary positions and
+     * quantities of its items, in packing order.
+     */
+    public static class PackageRefDocument {
+        @Field("c")
+        private String cartonId;
+        @Field("i")
+        private List<ItemRefDocument> items;
+
+        public PackageRefDocument() {
+        }
+
+        public PackageRefDocument(String cartonId, List<ItemRefDocument> items) {
+            this.cartonId = cartonId;
+            this.items = items;
+        }
+
+        public String getCartonId() {
+            return cartonId;
+        }
+
+        public void setCartonId(String cartonId) {
+            this.cartonId = cartonId;
+        }
+
+        public List<ItemRefDocument> getItems() {
+            return items;
+        }
+
+        public void setItems(List<ItemRefDocument> items) {
+            this.items = items;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PackageRefDocument that = (PackageRefDocument) o;
+            return Objects.equals(cartonId, that.cartonId) &&
+                   Objects.equals(items, that.items);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cartonId, items);
+        }
+
+        @Override
+        public String toString() {
+            return "PackageRefDocument{" +
+                   "cartonId='" + cartonId + '\'' +
+                   ", itemsCount=" + (items != null ? items.size() : 0) +
+                   '}';
+        }
+    }
+
+    public static class ItemRefDocument {
+        @Field("k")
+        private int skuIndex;
+        @Field("q")
+        private int quantity;
+
+        public ItemRefDocument() {
+        }
+
+        public ItemRefDocument(int skuIndex, int quantity) {
+            this.skuIndex = skuIndex;
+            this.quantity = quantity;
+        }
+
+        public int getSkuIndex() {
+            return skuIndex;
+        }
+
+        public void setSkuIndex(int skuIndex) {
+            this.skuIndex = skuIndex;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ItemRefDocument that = (ItemRefDocument) o;
+            return skuIndex == that.skuIndex && quantity == that.quantity;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(skuIndex, quantity);
+        }
+
+        @Override
+        public String toString() {
+            return "ItemRefDocument{skuIndex=" + skuIndex + ", quantity=" + quantity + '}';
+        }
+    }
+
     public static class PackageDocument {
         private CartonDocument carton;
         private List<ItemDocument> items;
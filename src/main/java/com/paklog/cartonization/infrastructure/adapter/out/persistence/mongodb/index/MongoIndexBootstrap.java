@@ -0,0 +1,195 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.index;
+
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.CartonDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.PackingSolutionDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository.SpringDataMongoCartonRepository;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository.SpringDataMongoPackingSolutionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates and verifies the MongoDB indexes the repositories rely on, once at
+ * startup and before the application reports ready. Automatic index creation
+ * stays off; every index is declared here.
+ * <p>
+ * Packing solution retention is a TTL index on {@code createdAt}, so MongoDB
+ * expires old solutions a few at a time instead of the application issuing
+ * large range deletes. A changed retention is applied to the existing index
+ * in place. After the indexes are in place, every query method on the
+ * repository interfaces is checked against the indexes that actually exist,
+ * and the ones no index serves are reported.
+ */
+@Component
+public class MongoIndexBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexBootstrap.class);
+
+    // Order the outbox relay reads pending events in; sparse, so it only holds documents with events pending
+    private static final Index OUTBOX_INDEX = new Index("outbox.since", Sort.Direction.ASC).sparse();
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration solutionRetention;
+    private final AtomicInteger uncoveredQueries = new AtomicInteger();
+
+    public MongoIndexBootstrap(MongoTemplate mongoTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.persistence.indexes.enabled:true}") boolean enabled,
+                               @Value("${app.persistence.solution-retention:90d}") Duration solutionRetention) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.solutionRetention = solutionRetention;
+
+        Gauge.builder("cartonization.persistence.uncovered_queries", uncoveredQueries, AtomicInteger::get)
+            .description("Repository query methods no index serves, as of the last startup check")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Indexes per document type. The leading key of each is what the query
+     * coverage check matches against.
+     */
+    private Map<Class<?>, List<Index>> declaredIndexes() {
+        Map<Class<?>, List<Index>> indexes = new LinkedHashMap<>();
+        indexes.put(PackingSolutionDocument.class, List.of(
+            new Index("requestId", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC),
+            new Index("orderId", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC),
+            new Index("createdAt", Sort.Direction.ASC).expire(solutionRetention),
+            // Keyset order of the export; a TTL index can only have the one key
+            new Index("createdAt", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+            new Index("packageCount", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC),
+            new Index("totalItems", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC),
+            new Index("avgUtilization", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC),
+            new Index("usedVolume", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC),
+            OUTBOX_INDEX
+        ));
+        indexes.put(CartonDocument.class, List.of(
+            new Index("status", Sort.Direction.ASC),
+            OUTBOX_INDEX
+        ));
+        return indexes;
+    }
+
+    private static Map<Class<?>, Class<?>> repositories() {
+        Map<Class<?>, Class<?>> repositories = new LinkedHashMap<>();
+        repositories.put(PackingSolutionDocument.class, SpringDataMongoPackingSolutionRepository.class);
+        repositories.put(CartonDocument.class, SpringDataMongoCartonRepository.class);
+        return repositories;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            log.info("MongoDB index bootstrap disabled");
+            return;
+        }
+
+        int created = 0;
+        int verified = 0;
+        int ttlUpdated = 0;
+        for (Map.Entry<Class<?>, List<Index>> entry : declaredIndexes().entrySet()) {
+            String collection = mongoTemplate.getCollectionName(entry.getKey());
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(entry.getKey());
+                List<IndexInfo> existing = indexOps.getIndexInfo();
+                for (Index index : entry.getValue()) {
+                    Optional<IndexInfo> match = existing.stream()
+                        .filter(info -> sameKeys(info, index))
+                        .findFirst();
+                    if (match.isEmpty()) {
+                        String name = indexOps.ensureIndex(index);
+                        log.info("Created index {} on {}", name, collection);
+                        created++;
+                    } else if (ttlChanged(match.get(), index)) {
+                        updateTtl(collection, match.get(), index);
+                        ttlUpdated++;
+                    } else {
+                        verified++;
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Failed to bootstrap indexes on {}", collection, e);
+            }
+        }
+        log.info("MongoDB index bootstrap finished - created: {}, verified: {}, TTL updated: {}",
+                created, verified, ttlUpdated);
+
+        reportCoverage();
+    }
+
+    private void reportCoverage() {
+        int gaps = 0;
+        for (Map.Entry<Class<?>, Class<?>> entry : repositories().entrySet()) {
+            try {
+                MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                    .getRequiredPersistentEntity(entry.getKey());
+                List<List<String>> indexKeys = mongoTemplate.indexOps(entry.getKey()).getIndexInfo().stream()
+                    .map(info -> info.getIndexFields().stream().map(IndexField::getKey).toList())
+                    .toList();
+                for (QueryIndexCoverage.Gap gap :
+                        QueryIndexCoverage.uncoveredQueries(entry.getValue(), entity, indexKeys)) {
+                    log.warn("Query {}.{} is not covered by an index on {}: {}",
+                            entry.getValue().getSimpleName(), gap.method(), entity.getCollection(), gap.reason());
+                    gaps++;
+                }
+            } catch (Exception e) {
+                log.error("Failed to check index coverage for {}", entry.getValue().getSimpleName(), e);
+            }
+        }
+        uncoveredQueries.set(gaps);
+        if (gaps == 0) {
+            log.info("Every repository query is served by an index");
+        }
+    }
+
+    // Key order matters for a compound index, so compare entries in order
+    private static boolean sameKeys(IndexInfo existing, Index declared) {
+        List<Map.Entry<String, Object>> existingKeys = existing.getIndexFields().stream()
+            .map(field -> Map.entry(field.getKey(), (Object) (field.getDirection() == Sort.Direction.DESC ? -1 : 1)))
+            .toList();
+        return existingKeys.equals(List.copyOf(declared.getIndexKeys().entrySet()));
+    }
+
+    private static boolean ttlChanged(IndexInfo existing, Index declared) {
+        Object declaredSeconds = declared.getIndexOptions().get("expireAfterSeconds");
+        if (declaredSeconds == null) {
+            return false;
+        }
+        Optional<Duration> current = existing.getExpireAfter();
+        return current.isEmpty() || current.get().getSeconds() != ((Number) declaredSeconds).longValue();
+    }
+
+    private void updateTtl(String collection, IndexInfo existing, Index declared) {
+        long seconds = ((Number) declared.getIndexOptions().get("expireAfterSeconds")).longValue();
+        try {
+            mongoTemplate.executeCommand(new Document("collMod", collection)
+                .append("index", new Document("name", existing.getName()).append("expireAfterSeconds", seconds)));
+            log.info("Set retention of index {} on {} to {}s (was {})", existing.getName(), collection, seconds,
+                    existing.getExpireAfter().map(d -> d.getSeconds() + "s").orElse("no expiry"));
+        } catch (Exception e) {
+            log.warn("Could not set retention on index {} of {}; drop it and restart to recreate it as a TTL "
+                    + "index: {}", existing.getName(), collection, e.getMessage());
+        }
+    }
+}
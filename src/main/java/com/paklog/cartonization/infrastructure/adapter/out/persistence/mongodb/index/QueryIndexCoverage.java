@@ -0,0 +1,120 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.index;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Works out which fields each query method declared on a Spring Data
+ * repository filters and sorts on, and reports the methods no index can serve.
+ * An index serves a query when its leading key is one of the filtered fields,
+ * or, for an unfiltered query, one of the sort fields. Methods that neither
+ * filter nor sort are deliberate full reads and are not reported.
+ */
+final class QueryIndexCoverage {
+
+    // Operators MongoDB evaluates per document, whatever indexes exist
+    private static final Set<String> UNINDEXABLE_OPERATORS = Set.of("$size", "$where", "$expr");
+
+    private QueryIndexCoverage() {
+    }
+
+    record Gap(String method, String reason) {
+    }
+
+    static List<Gap> uncoveredQueries(Class<?> repositoryInterface, MongoPersistentEntity<?> entity,
+                                      List<List<String>> indexKeys) {
+        List<Method> methods = new ArrayList<>(List.of(repositoryInterface.getDeclaredMethods()));
+        methods.sort(Comparator.comparing(Method::getName));
+
+        List<Gap> gaps = new ArrayList<>();
+        for (Method method : methods) {
+            if (method.isDefault() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+
+            Set<String> filtered = new LinkedHashSet<>();
+            Set<String> sorted = new LinkedHashSet<>();
+            Set<String> unindexable = new LinkedHashSet<>();
+            Query query = method.getAnnotation(Query.class);
+            if (query != null) {
+                collectFields(parse(query.value()), filtered, unindexable);
+                if (!query.sort().isBlank()) {
+                    sorted.addAll(parse(query.sort()).keySet());
+                }
+            } else {
+                PartTree tree = new PartTree(method.getName(), entity.getType());
+                for (Part part : tree.getParts()) {
+                    filtered.add(fieldName(entity, part.getProperty().toDotPath()));
+                }
+                for (Sort.Order order : tree.getSort()) {
+                    sorted.add(fieldName(entity, order.getProperty()));
+                }
+            }
+
+            if (!unindexable.isEmpty()) {
+                gaps.add(new Gap(method.getName(), "filters with " + String.join(", ", unindexable)
+                    + ", which no index can serve"));
+                continue;
+            }
+            Set<String> leading = filtered.isEmpty() ? sorted : filtered;
+            if (leading.isEmpty()) {
+                continue;
+            }
+            boolean covered = indexKeys.stream()
+                .anyMatch(keys -> !keys.isEmpty() && leading.contains(keys.get(0)));
+            if (!covered) {
+                gaps.add(new Gap(method.getName(), "no index leads with " + String.join(" or ", leading)));
+            }
+        }
+        return gaps;
+    }
+
+    private static Document parse(String json) {
+        // Placeholders only stand in for values, so any literal keeps the query parseable
+        return Document.parse(json.replaceAll("\\?\\d+", "0"));
+    }
+
+    private static void collectFields(Document filter, Set<String> fields, Set<String> unindexable) {
+        filter.forEach((key, value) -> {
+            if (key.equals("$and") || key.equals("$or") || key.equals("$nor")) {
+                if (value instanceof List<?> clauses) {
+                    clauses.stream()
+                        .filter(Document.class::isInstance)
+                        .forEach(clause -> collectFields((Document) clause, fields, unindexable));
+                }
+                return;
+            }
+            if (UNINDEXABLE_OPERATORS.contains(key)) {
+                unindexable.add(key);
+                return;
+            }
+            fields.add(key);
+            if (value instanceof Document operators) {
+                operators.keySet().stream()
+                    .filter(UNINDEXABLE_OPERATORS::contains)
+                    .forEach(operator -> unindexable.add(operator + " on '" + key + "'"));
+            }
+        });
+    }
+
+    private static String fieldName(MongoPersistentEntity<?> entity, String dotPath) {
+        int dot = dotPath.indexOf('.');
+        String head = dot < 0 ? dotPath : dotPath.substring(0, dot);
+        MongoPersistentProperty property = entity.getPersistentProperty(head);
+        String field = property != null ? property.getFieldName() : head;
+        return dot < 0 ? field : field + dotPath.substring(dot);
+    }
+}
@@ -6,6 +6,8 @@ import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.d
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class CartonDocumentMapper {
@@ -17,6 +19,7 @@ public class CartonDocumentMapper {
             .dimensions(toDimensionDocument(carton.getDimensions()))
             .maxWeight(toWeightDocument(carton.getMaxWeight()))
             .status(carton.getStatus().name())
+            .sites(List.copyOf(carton.getSites()))
             .createdAt(carton.getCreatedAt())
             .updatedAt(carton.getUpdatedAt())
             .build();
@@ -29,6 +32,7 @@ public class CartonDocumentMapper {
             toDimensionSet(document.getDimensions()),
             toWeight(document.getMaxWeight()),
             CartonStatus.valueOf(document.getStatus()),
+            document.getSites() != null ? Set.copyOf(document.getSites()) : Set.of(),
             document.getCreatedAt(),
             document.getUpdatedAt()
         );
@@ -0,0 +1,57 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.domain.event.DomainEvent;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.OutboxDocument;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serializes an aggregate's domain events into outbox entries. Events are
+ * serialized when they are stored, the way they would have been published,
+ * so the relay only has to wrap them.
+ */
+@Component
+public class OutboxDocumentMapper {
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxDocumentMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the outbox holding the events, keyed by {@code key}, or
+     *         {@code null} when there are none
+     */
+    public OutboxDocument toOutbox(List<? extends DomainEvent> events, String key) {
+        if (events.isEmpty()) {
+            return null;
+        }
+        List<OutboxDocument.Event> entries = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            entries.add(toEntry(event, key));
+        }
+        Instant since = entries.stream()
+            .map(OutboxDocument.Event::getOccurredOn)
+            .min(Comparator.naturalOrder())
+            .orElseThrow();
+        return new OutboxDocument(entries, since);
+    }
+
+    private OutboxDocument.Event toEntry(DomainEvent event, String key) {
+        try {
+            Instant occurredOn = event.occurredOn() != null ? event.occurredOn() : Instant.now();
+            return new OutboxDocument.Event(UUID.randomUUID().toString(), event.getClass().getSimpleName(), key,
+                objectMapper.writeValueAsString(event), occurredOn);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper;
 
+import com.paklog.cartonization.application.port.out.PackingSolutionExport;
 import com.paklog.cartonization.domain.model.aggregate.Carton;
 import com.paklog.cartonization.domain.model.entity.Package;
 import com.paklog.cartonization.domain.model.entity.PackingSolution;
@@ -9,9 +10,18 @@ import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.d
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Maps packing solutions to the compact version 2 document and back. Version 1
+ * documents are still read, and {@link #upgrade} rewrites one in the compact
+ * layout.
+ */
 @Component
 public class PackingSolutionDocumentMapper {
 
@@ -26,17 +36,41 @@ public class PackingSolutionDocumentMapper {
             return null;
         }
 
-        List<PackingSolutionDocument.PackageDocument> packageDocs = solution.getPackages().stream()
-            .map(this::toPackageDocument)
-            .collect(Collectors.toList());
+        Map<PackingSolutionDocument.SkuDocument, Integer> skus = new LinkedHashMap<>();
+        Map<String, PackingSolutionDocument.CartonRefDocument> cartons = new LinkedHashMap<>();
+        List<PackingSolutionDocument.PackageRefDocument> packageRefs = new ArrayList<>(solution.getPackages().size());
+        BigDecimal packedWeight = BigDecimal.ZERO;
 
-        return new PackingSolutionDocument(
-            solution.getSolutionId(),
-            solution.getRequestId(),
-            solution.getOrderId(),
-            packageDocs,
-            solution.getCreatedAt()
-        );
+        for (Package pkg : solution.getPackages()) {
+            String cartonId = pkg.getCarton().getId().getValue();
+            cartons.computeIfAbsent(cartonId, id -> toCartonRef(pkg.getCarton()));
+
+            List<PackingSolutionDocument.ItemRefDocument> itemRefs = new ArrayList<>(pkg.getItems().size());
+            for (ItemWithDimensions item : pkg.getItems()) {
+                int skuIndex = skus.computeIfAbsent(toSkuDocument(item), sku -> skus.size());
+                itemRefs.add(new PackingSolutionDocument.ItemRefDocument(skuIndex, item.getQuantity()));
+            }
+            packageRefs.add(new PackingSolutionDocument.PackageRefDocument(cartonId, itemRefs));
+            packedWeight = packedWeight.add(pkg.getCurrentWeight());
+        }
+
+        PackingSolutionDocument document = new PackingSolutionDocument();
+        document.setSolutionId(solution.getSolutionId());
+        document.setRequestId(solution.getRequestId());
+        document.setOrderId(solution.getOrderId());
+        document.setCreatedAt(solution.getCreatedAt());
+        document.setSchemaVersion(PackingSolutionDocument.SCHEMA_VERSION);
+        document.setCartonCatalogVersion(solution.getCartonCatalogVersion());
+        document.setRequestFingerprint(solution.getRequestFingerprint());
+        document.setPackageCount(solution.getTotalPackages());
+        document.setTotalItems(solution.getTotalItems());
+        document.setPackedWeight(packedWeight.doubleValue());
+        document.setUsedVolume(solution.getUsedVolume().doubleValue());
+        document.setAvgUtilization(solution.getAverageUtilization().doubleValue());
+        document.setSkus(new ArrayList<>(skus.keySet()));
+        document.setCartons(new ArrayList<>(cartons.values()));
+        document.setPackageRefs(packageRefs);
+        return document;
     }
 
     public PackingSolution fromDocument(PackingSolutionDocument document) {
@@ -44,61 +78,170 @@ public class PackingSolutionDocumentMapper {
             return null;
         }
 
-        List<Package> packages = document.getPackages().stream()
-            .map(this::fromPackageDocument)
-            .collect(Collectors.toList());
-
-        PackingSolution solution = PackingSolution.create(packages);
-        
-        // Use reflection to set private fields since we're reconstructing from persistence
-        setField(solution, "solutionId", document.getSolutionId());
-        setField(solution, "requestId", document.getRequestId());
-        setField(solution, "orderId", document.getOrderId());
-        setField(solution, "createdAt", document.getCreatedAt());
-
+        List<Package> packages = document.isLegacy() ? legacyPackagesOf(document) : packagesOf(document);
+        PackingSolution solution = PackingSolution.reconstitute(
+            document.getSolutionId(),
+            document.getRequestId(),
+            document.getOrderId(),
+            packages,
+            document.getCreatedAt()
+        );
+        solution.setCartonCatalogVersion(document.getCartonCatalogVersion());
+        solution.setRequestFingerprint(document.getRequestFingerprint());
         return solution;
     }
 
-    private PackingSolutionDocument.PackageDocument toPackageDocument(Package pkg) {
-        CartonDocument cartonDoc = cartonMapper.toDocument(pkg.getCarton());
-        
-        List<PackingSolutionDocument.ItemDocument> itemDocs = pkg.getItems().stream()
-            .map(this::toItemDocument)
-            .collect(Collectors.toList());
+    /**
+     * Rewrites a version 1 document in the compact layout, keeping its IDs and
+     * creation time.
+     */
+    public PackingSolutionDocument upgrade(PackingSolutionDocument document) {
+        return document.isLegacy() ? toDocument(fromDocument(document)) : document;
+    }
 
-        return new PackingSolutionDocument.PackageDocument(
-            cartonDoc,
-            itemDocs,
-            pkg.getCurrentWeight().toString(),
-            pkg.getUsedVolume().toString()
+    /**
+     * Reads a document for export. Version 2 summaries are taken as stored;
+     * version 1 documents have none, so theirs are worked out from the
+     * packages.
+     */
+    public PackingSolutionExport toExport(PackingSolutionDocument document, boolean withPackages) {
+        if (document.isLegacy()) {
+            PackingSolution solution = fromDocument(document);
+            BigDecimal packedWeight = solution.getPackages().stream()
+                .map(Package::getCurrentWeight)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            return new PackingSolutionExport(solution.getSolutionId(), solution.getRequestId(),
+                solution.getOrderId(), solution.getCreatedAt(), solution.getTotalPackages(),
+                solution.getTotalItems(), solution.getAverageUtilization(), solution.getUsedVolume(), packedWeight,
+                withPackages ? solution : null);
+        }
+        return new PackingSolutionExport(
+            document.getSolutionId(),
+            document.getRequestId(),
+            document.getOrderId(),
+            document.getCreatedAt(),
+            document.getPackageCount(),
+            document.getTotalItems(),
+            decimal(document.getAvgUtilization()),
+            decimal(document.getUsedVolume()),
+            decimal(document.getPackedWeight()),
+            withPackages ? fromDocument(document) : null
         );
     }
 
-    private Package fromPackageDocument(PackingSolutionDocument.PackageDocument doc) {
-        Carton carton = cartonMapper.toDomain(doc.getCarton());
-        Package pkg = Package.create(carton);
+    /**
+     * Returns the items an order shipped, across all of its packages, without
+     * rebuilding the packages themselves.
+     */
+    public List<ItemWithDimensions> itemsOf(PackingSolutionDocument document) {
+        if (document.isLegacy()) {
+            return document.getPackages().stream()
+                .flatMap(pkg -> pkg.getItems().stream())
+                .map(this::fromItemDocument)
+                .collect(Collectors.toList());
+        }
 
-        List<ItemWithDimensions> items = doc.getItems().stream()
-            .map(this::fromItemDocument)
+        List<PackingSolutionDocument.SkuDocument> skus = document.getSkus();
+        return document.getPackageRefs().stream()
+            .flatMap(pkg -> pkg.getItems().stream())
+            .map(ref -> fromSkuDocument(skus.get(ref.getSkuIndex()), ref.getQuantity()))
             .collect(Collectors.toList());
+    }
 
-        // Add items to package (this will update currentWeight and usedVolume)
-        items.forEach(pkg::addItem);
+    private List<Package> packagesOf(PackingSolutionDocument document) {
+        Map<String, Carton> cartons = new HashMap<>();
+        document.getCartons().forEach(ref -> cartons.put(ref.getCartonId(), fromCartonRef(ref)));
+        List<PackingSolutionDocument.SkuDocument> skus = document.getSkus();
+
+        List<Package> packages = new ArrayList<>(document.getPackageRefs().size());
+        for (PackingSolutionDocument.PackageRefDocument pkg : document.getPackageRefs()) {
+            Carton carton = cartons.get(pkg.getCartonId());
+            if (carton == null) {
+                throw new IllegalStateException("Packing solution " + document.getSolutionId()
+                    + " references unknown carton " + pkg.getCartonId());
+            }
+            List<ItemWithDimensions> items = pkg.getItems().stream()
+                .map(ref -> fromSkuDocument(skus.get(ref.getSkuIndex()), ref.getQuantity()))
+                .collect(Collectors.toList());
+            packages.add(Package.reconstitute(carton, items));
+        }
+        return packages;
+    }
 
-        return pkg;
+    private List<Package> legacyPackagesOf(PackingSolutionDocument document) {
+        return document.getPackages().stream()
+            .map(pkg -> Package.reconstitute(
+                cartonMapper.toDomain(pkg.getCarton()),
+                pkg.getItems().stream().map(this::fromItemDocument).collect(Collectors.toList())))
+            .collect(Collectors.toList());
     }
 
-    private PackingSolutionDocument.ItemDocument toItemDocument(ItemWithDimensions item) {
-        return new PackingSolutionDocument.ItemDocument(
+    private PackingSolutionDocument.SkuDocument toSkuDocument(ItemWithDimensions item) {
+        DimensionSet dimensions = item.getDimensions();
+        return new PackingSolutionDocument.SkuDocument(
             item.getSku().getValue(),
-            item.getQuantity(),
-            toDimensionDocument(item.getDimensions()),
-            toWeightDocument(item.getWeight()),
+            dimensions.getLength().doubleValue(),
+            dimensions.getWidth().doubleValue(),
+            dimensions.getHeight().doubleValue(),
+            dimensions.getUnit().name(),
+            item.getWeight().getValue().doubleValue(),
+            item.getWeight().getUnit().name(),
             item.getCategory(),
-            item.getFragile()
+            item.isFragile()
         );
     }
 
+    private ItemWithDimensions fromSkuDocument(PackingSolutionDocument.SkuDocument doc, int quantity) {
+        return ItemWithDimensions.builder()
+            .sku(SKU.of(doc.getSku()))
+            .quantity(quantity)
+            .dimensions(new DimensionSet(
+                decimal(doc.getLength()),
+                decimal(doc.getWidth()),
+                decimal(doc.getHeight()),
+                DimensionUnit.valueOf(doc.getDimensionUnit())))
+            .weight(new Weight(decimal(doc.getWeight()), WeightUnit.valueOf(doc.getWeightUnit())))
+            .category(doc.getCategory())
+            .fragile(doc.isFragile())
+            .build();
+    }
+
+    private PackingSolutionDocument.CartonRefDocument toCartonRef(Carton carton) {
+        DimensionSet dimensions = carton.getDimensions();
+        return new PackingSolutionDocument.CartonRefDocument(
+            carton.getId().getValue(),
+            carton.getName(),
+            dimensions.getLength().doubleValue(),
+            dimensions.getWidth().doubleValue(),
+            dimensions.getHeight().doubleValue(),
+            dimensions.getUnit().name(),
+            carton.getMaxWeight().getValue().doubleValue(),
+            carton.getMaxWeight().getUnit().name()
+        );
+    }
+
+    private Carton fromCartonRef(PackingSolutionDocument.CartonRefDocument ref) {
+        return Carton.reconstitute(
+            CartonId.of(ref.getCartonId()),
+            ref.getName(),
+            new DimensionSet(
+                decimal(ref.getLength()),
+                decimal(ref.getWidth()),
+                decimal(ref.getHeight()),
+                DimensionUnit.valueOf(ref.getDimensionUnit())),
+            new Weight(decimal(ref.getMaxWeight()), WeightUnit.valueOf(ref.getWeightUnit())),
+            CartonStatus.ACTIVE,
+            null,
+            null
+        );
+    }
+
+    // Doubles come back without the trailing zeros a BigDecimal may have been written with
+    private static BigDecimal decimal(double value) {
+        BigDecimal decimal = BigDecimal.valueOf(value).stripTrailingZeros();
+        return decimal.scale() < 0 ? decimal.setScale(0) : decimal;
+    }
+
     private ItemWithDimensions fromItemDocument(PackingSolutionDocument.ItemDocument doc) {
         return ItemWithDimensions.builder()
             .sku(SKU.of(doc.getSku()))
@@ -110,15 +253,6 @@ public class PackingSolutionDocumentMapper {
             .build();
     }
 
-    private CartonDocument.DimensionDocument toDimensionDocument(DimensionSet dimensions) {
-        return new CartonDocument.DimensionDocument(
-            dimensions.getLength(),
-            dimensions.getWidth(),
-            dimensions.getHeight(),
-            dimensions.getUnit().toString()
-        );
-    }
-
     private DimensionSet fromDimensionDocument(CartonDocument.DimensionDocument doc) {
         return new DimensionSet(
             doc.getLength(),
@@ -128,27 +262,10 @@ public class PackingSolutionDocumentMapper {
         );
     }
 
-    private CartonDocument.WeightDocument toWeightDocument(Weight weight) {
-        return new CartonDocument.WeightDocument(
-            weight.getValue(),
-            weight.getUnit().toString()
-        );
-    }
-
     private Weight fromWeightDocument(CartonDocument.WeightDocument doc) {
         return new Weight(
             doc.getValue(),
             WeightUnit.valueOf(doc.getUnit())
         );
     }
-
-    private void setField(Object target, String fieldName, Object value) {
-        try {
-            var field = target.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            field.set(target, value);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to set field " + fieldName, e);
-        }
-    }
-}
\ No newline at end of file
+}
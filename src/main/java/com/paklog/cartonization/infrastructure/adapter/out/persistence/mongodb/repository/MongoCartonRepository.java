@@ -3,19 +3,18 @@ package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.
 import com.paklog.cartonization.application.port.out.CartonRepository;
 import com.paklog.cartonization.domain.model.aggregate.Carton;
 import com.paklog.cartonization.domain.model.valueobject.CartonId;
-import com.paklog.cartonization.domain.model.valueobject.CartonStatus;
 import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.CartonDocument;
 import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.CartonDocumentMapper;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.OutboxDocumentMapper;
+import com.paklog.cartonization.infrastructure.cache.VersionedCartonCatalog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 @Primary
@@ -25,60 +24,104 @@ public class MongoCartonRepository implements CartonRepository {
     
     private final SpringDataMongoCartonRepository springDataRepository;
     private final CartonDocumentMapper mapper;
+    private final OutboxDocumentMapper outboxMapper;
+    private final VersionedCartonCatalog cartonCatalog;
     
-    public MongoCartonRepository(SpringDataMongoCartonRepository springDataRepository, CartonDocumentMapper mapper) {
+    public MongoCartonRepository(SpringDataMongoCartonRepository springDataRepository,
+                                 CartonDocumentMapper mapper,
+                                 OutboxDocumentMapper outboxMapper,
+                                 VersionedCartonCatalog cartonCatalog) {
         this.springDataRepository = springDataRepository;
         this.mapper = mapper;
+        this.outboxMapper = outboxMapper;
+        this.cartonCatalog = cartonCatalog;
     }
 
     @Override
-    @CacheEvict(value = {"cartons", "carton-by-id", "active-cartons"}, allEntries = true)
     public Carton save(Carton carton) {
         log.debug("Saving carton with ID: {}", carton.getId());
 
-        CartonDocument document = mapper.toDocument(carton);
-        CartonDocument saved = springDataRepository.save(document);
+        CartonDocument document = toDocument(carton);
+        springDataRepository.bulkUpsert(List.of(document));
+        carton.clearDomainEvents();
+
+        Carton persisted = mapper.toDomain(document);
+        cartonCatalog.applySaved(persisted);
+        return persisted;
+    }
 
-        // Publish domain events after successful save
-        carton.pullDomainEvents().forEach(event -> {
-            log.info("Publishing domain event: {}", event.getClass().getSimpleName());
-            // Event publishing logic would go here
-        });
+    @Override
+    public List<Carton> saveAll(List<Carton> cartons) {
+        log.info("Bulk saving {} cartons", cartons.size());
+        List<CartonDocument> documents = cartons.stream()
+            .map(this::toDocument)
+            .toList();
+        int written = springDataRepository.bulkUpsert(documents);
+        cartons.forEach(Carton::clearDomainEvents);
+        log.debug("Bulk write touched {} of {} carton documents", written, documents.size());
+
+        List<Carton> persisted = documents.stream()
+            .map(mapper::toDomain)
+            .toList();
+        cartonCatalog.applySavedAll(persisted);
+        return persisted;
+    }
 
-        return mapper.toDomain(saved);
+    // Pending domain events are written with the carton, for the outbox relay to publish;
+    // they stay on the carton until the write succeeds, so a retried save still carries them
+    private CartonDocument toDocument(Carton carton) {
+        CartonDocument document = mapper.toDocument(carton);
+        document.setOutbox(outboxMapper.toOutbox(carton.domainEvents(), carton.getId().getValue()));
+        return document;
     }
 
     @Override
-    @Cacheable(value = "carton-by-id", key = "#id.value")
     public Optional<Carton> findById(CartonId id) {
         log.debug("Finding carton by ID: {}", id);
-        return springDataRepository.findById(id.getValue())
-            .map(mapper::toDomain);
+        // The one lookup callers modify through, so it hands out a copy of the shared carton
+        return cartonCatalog.current().find(id).map(Carton::copy);
     }
 
     @Override
-    @Cacheable(value = "cartons")
     public List<Carton> findAll() {
         log.debug("Finding all cartons");
-        return springDataRepository.findAll().stream()
-            .map(mapper::toDomain)
-            .collect(Collectors.toList());
+        return cartonCatalog.current().all();
+    }
+
+    @Override
+    public Stream<Carton> streamAll() {
+        log.debug("Streaming all cartons from MongoDB");
+        return springDataRepository.streamAllBy()
+            .map(mapper::toDomain);
     }
 
     @Override
-    @Cacheable(value = "active-cartons")
     public List<Carton> findAllActive() {
         log.debug("Finding all active cartons");
-        return springDataRepository.findByStatus(CartonStatus.ACTIVE.name()).stream()
-            .map(mapper::toDomain)
-            .collect(Collectors.toList());
+        return cartonCatalog.current().active();
+    }
+
+    @Override
+    public List<Carton> findAllActiveForSite(String site) {
+        log.debug("Finding active cartons for site: {}", site);
+        return cartonCatalog.current().activeAt(site);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return cartonCatalog.current().version();
+    }
+
+    @Override
+    public long getCatalogVersion(String site) {
+        return cartonCatalog.current().activeVersionAt(site);
     }
 
     @Override
-    @CacheEvict(value = {"cartons", "carton-by-id", "active-cartons"}, allEntries = true)
     public void deleteById(CartonId id) {
         log.info("Deleting carton with ID: {}", id);
         springDataRepository.deleteById(id.getValue());
+        cartonCatalog.applyDeleted(id);
     }
 
     @Override
@@ -0,0 +1,39 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
+
+import com.paklog.cartonization.application.port.out.HistoricalDemandSource;
+import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.PackingSolutionDocumentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Replays the orders behind persisted packing solutions, read through a
+ * database cursor so the full history never has to fit in memory.
+ */
+@Component
+public class MongoHistoricalDemandSource implements HistoricalDemandSource {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoHistoricalDemandSource.class);
+
+    private final SpringDataMongoPackingSolutionRepository springDataRepository;
+    private final PackingSolutionDocumentMapper mapper;
+
+    public MongoHistoricalDemandSource(SpringDataMongoPackingSolutionRepository springDataRepository,
+                                       PackingSolutionDocumentMapper mapper) {
+        this.springDataRepository = springDataRepository;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Stream<List<ItemWithDimensions>> streamOrders(Instant since) {
+        log.info("Streaming historical orders from packing solutions created after {}", since);
+        return springDataRepository.streamByCreatedAtAfter(since)
+            .map(mapper::itemsOf)
+            .filter(items -> !items.isEmpty());
+    }
+}
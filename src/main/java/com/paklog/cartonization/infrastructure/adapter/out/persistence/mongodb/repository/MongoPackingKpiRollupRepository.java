@@ -0,0 +1,166 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
+
+import com.paklog.cartonization.application.port.out.PackingKpiRollup;
+import com.paklog.cartonization.application.port.out.PackingKpiRollup.Resolution;
+import com.paklog.cartonization.application.port.out.PackingKpiRollupRepository;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.PackingKpiRollupDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores KPI rollups in two MongoDB time-series collections, one per
+ * resolution, so minute rollups can expire long before hourly ones. Both
+ * collections are created at startup if missing, and their retention is
+ * applied on every start.
+ * <p>
+ * Time-series collections take no upserts, so a rollup can only be inserted
+ * once. Inserts are unordered and per collection, and only the rollups that
+ * failed are handed back for a retry.
+ */
+@Component
+public class MongoPackingKpiRollupRepository implements PackingKpiRollupRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoPackingKpiRollupRepository.class);
+
+    static final String MINUTE_COLLECTION = "packing_kpis_minute";
+    static final String HOUR_COLLECTION = "packing_kpis_hour";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Map<Resolution, Duration> retention;
+
+    public MongoPackingKpiRollupRepository(MongoTemplate mongoTemplate,
+                                           @Value("${app.kpi.rollups.enabled:true}") boolean enabled,
+                                           @Value("${app.kpi.rollups.minute-retention:14d}") Duration minuteRetention,
+                                           @Value("${app.kpi.rollups.hour-retention:400d}") Duration hourRetention) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.retention = Map.of(Resolution.MINUTE, minuteRetention, Resolution.HOUR, hourRetention);
+    }
+
+    private static String collection(Resolution resolution) {
+        return resolution == Resolution.MINUTE ? MINUTE_COLLECTION : HOUR_COLLECTION;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void ensureCollections() {
+        if (!enabled) {
+            return;
+        }
+        for (Resolution resolution : Resolution.values()) {
+            String collection = collection(resolution);
+            long expireAfterSeconds = retention.get(resolution).getSeconds();
+            try {
+                if (!mongoTemplate.collectionExists(collection)) {
+                    // CollectionOptions has no TTL for time-series collections in this driver version
+                    mongoTemplate.executeCommand(new Document("create", collection)
+                        .append("timeseries", new Document("timeField", "bucketStart")
+                            .append("metaField", "meta")
+                            .append("granularity", resolution == Resolution.MINUTE ? "minutes" : "hours"))
+                        .append("expireAfterSeconds", expireAfterSeconds));
+                    log.info("Created time-series collection {} with {}s retention", collection, expireAfterSeconds);
+                } else {
+                    mongoTemplate.executeCommand(new Document("collMod", collection)
+                        .append("expireAfterSeconds", expireAfterSeconds));
+                }
+                mongoTemplate.indexOps(collection).ensureIndex(new Index("meta.site", Sort.Direction.ASC)
+                    .on("meta.carton", Sort.Direction.ASC)
+                    .on("bucketStart", Sort.Direction.ASC));
+            } catch (Exception e) {
+                log.error("Failed to set up KPI rollup collection {}", collection, e);
+            }
+        }
+    }
+
+    @Override
+    public List<PackingKpiRollup> insertAll(List<PackingKpiRollup> rollups) {
+        List<PackingKpiRollup> failed = new ArrayList<>();
+        for (Resolution resolution : Resolution.values()) {
+            List<PackingKpiRollup> batch = rollups.stream()
+                .filter(rollup -> rollup.resolution() == resolution)
+                .toList();
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection(resolution))
+                    .insert(batch.stream().map(MongoPackingKpiRollupRepository::toDocument).toList())
+                    .execute();
+            } catch (BulkOperationException e) {
+                e.getErrors().forEach(error -> failed.add(batch.get(error.getIndex())));
+                log.warn("Failed to write {} of {} rollups to {}: {}", e.getErrors().size(), batch.size(),
+                    collection(resolution), e.getMessage());
+            } catch (Exception e) {
+                failed.addAll(batch);
+                log.warn("Failed to write {} rollups to {}: {}", batch.size(), collection(resolution), e.getMessage());
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public List<PackingKpiRollup> find(PackingKpiRollup.Query query) {
+        Criteria criteria = Criteria.where("bucketStart").gte(query.from()).lt(query.to());
+        if (query.siteId() != null) {
+            criteria = criteria.and("meta.site").is(query.siteId());
+        }
+        if (query.cartonId() != null) {
+            criteria = criteria.and("meta.carton").is(query.cartonId());
+        }
+        Query mongoQuery = new Query(criteria).with(Sort.by("bucketStart"));
+
+        List<PackingKpiRollup> rollups = new ArrayList<>();
+        for (PackingKpiRollupDocument document :
+                mongoTemplate.find(mongoQuery, PackingKpiRollupDocument.class, collection(query.resolution()))) {
+            rollups.add(fromDocument(document, query.resolution()));
+        }
+        return rollups;
+    }
+
+    private static PackingKpiRollupDocument toDocument(PackingKpiRollup rollup) {
+        PackingKpiRollupDocument document = new PackingKpiRollupDocument();
+        document.setBucketStart(rollup.bucketStart());
+        document.setMeta(new PackingKpiRollupDocument.MetaDocument(rollup.siteId(), rollup.cartonId()));
+        document.setSolutions(rollup.solutions());
+        document.setPackages(rollup.packages());
+        document.setUtilizationSum(rollup.utilizationSum());
+        document.setUtilizationHistogram(rollup.utilizationHistogram());
+        document.setSolveMillisSum(rollup.solveMillisSum());
+        document.setSolveMillisMax(rollup.solveMillisMax());
+        document.setSolveHistogram(rollup.solveHistogram());
+        return document;
+    }
+
+    private static PackingKpiRollup fromDocument(PackingKpiRollupDocument document, Resolution resolution) {
+        return new PackingKpiRollup(
+            resolution,
+            document.getBucketStart(),
+            document.getMeta().getSite(),
+            document.getMeta().getCarton(),
+            document.getSolutions(),
+            document.getPackages(),
+            document.getUtilizationSum(),
+            document.getUtilizationHistogram() != null ? document.getUtilizationHistogram() : List.of(),
+            document.getSolveMillisSum(),
+            document.getSolveMillisMax(),
+            document.getSolveHistogram() != null ? document.getSolveHistogram() : List.of()
+        );
+    }
+}
@@ -1,20 +1,30 @@
 package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
 
+import com.paklog.cartonization.application.port.out.PackingSolutionExport;
 import com.paklog.cartonization.application.port.out.PackingSolutionRepository;
 import com.paklog.cartonization.domain.model.entity.PackingSolution;
 import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.PackingSolutionDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.OutboxDocumentMapper;
 import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.PackingSolutionDocumentMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class MongoPackingSolutionRepository implements PackingSolutionRepository {
@@ -23,20 +33,34 @@ public class MongoPackingSolutionRepository implements PackingSolutionRepository
     
     private final SpringDataMongoPackingSolutionRepository springDataRepository;
     private final PackingSolutionDocumentMapper mapper;
+    private final OutboxDocumentMapper outboxMapper;
+    private final boolean migrateOnRead;
+    private final Counter migratedDocuments;
 
     public MongoPackingSolutionRepository(SpringDataMongoPackingSolutionRepository springDataRepository, 
-                                        PackingSolutionDocumentMapper mapper) {
+                                        PackingSolutionDocumentMapper mapper,
+                                        OutboxDocumentMapper outboxMapper,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.persistence.solution-schema.migrate-on-read:true}") boolean migrateOnRead) {
         this.springDataRepository = springDataRepository;
         this.mapper = mapper;
+        this.outboxMapper = outboxMapper;
+        this.migrateOnRead = migrateOnRead;
+        this.migratedDocuments = Counter.builder("cartonization.persistence.solution_schema.migrated")
+            .description("Version 1 packing solution documents rewritten in the compact layout on read")
+            .register(meterRegistry);
     }
 
     @Override
-    @CacheEvict(value = {"packing-solutions", "packing-cache"}, allEntries = true)
+    @Caching(evict = {
+        @CacheEvict(value = "packing-solutions", key = "#solution.solutionId"),
+        @CacheEvict(value = "packing-cache", key = "'request:' + #solution.requestId")
+    })
     public PackingSolution save(PackingSolution solution) {
         try {
             log.debug("Saving packing solution: {}", solution.getSolutionId());
             
-            PackingSolutionDocument document = mapper.toDocument(solution);
+            PackingSolutionDocument document = toDocument(solution);
             PackingSolutionDocument savedDocument = springDataRepository.save(document);
             
             log.info("Successfully saved packing solution: {}", savedDocument.getSolutionId());
@@ -49,12 +73,23 @@ public class MongoPackingSolutionRepository implements PackingSolutionRepository
     }
 
     @Override
-    @Cacheable(value = "packing-solutions", key = "#solutionId")
+    public int insertAll(List<PackingSolution> solutions) {
+        List<PackingSolutionDocument> documents = solutions.stream()
+            .map(this::toDocument)
+            .toList();
+        int inserted = springDataRepository.bulkInsert(documents);
+        log.debug("Bulk insert stored {} of {} packing solutions", inserted, documents.size());
+        return inserted;
+    }
+
+    @Override
+    @Cacheable(value = "packing-solutions", key = "#solutionId", unless = "#result == null")
     public Optional<PackingSolution> findById(String solutionId) {
         try {
             log.debug("Finding packing solution by ID: {}", solutionId);
             
             return springDataRepository.findById(solutionId)
+                .map(this::upgradeIfLegacy)
                 .map(mapper::fromDocument);
                 
         } catch (Exception e) {
@@ -64,12 +99,13 @@ public class MongoPackingSolutionRepository implements PackingSolutionRepository
     }
 
     @Override
-    @Cacheable(value = "packing-cache", key = "'request:' + #requestId")
+    @Cacheable(value = "packing-cache", key = "'request:' + #requestId", unless = "#result == null")
     public Optional<PackingSolution> findByRequestId(String requestId) {
         try {
             log.debug("Finding packing solution by request ID: {}", requestId);
             
-            return springDataRepository.findByRequestId(requestId)
+            return springDataRepository.findFirstByRequestIdOrderByCreatedAtDesc(requestId)
+                .map(this::upgradeIfLegacy)
                 .map(mapper::fromDocument);
                 
         } catch (Exception e) {
@@ -79,68 +115,123 @@ public class MongoPackingSolutionRepository implements PackingSolutionRepository
     }
 
     @Override
-    public List<PackingSolution> findByOrderId(String orderId) {
+    public Slice<PackingSolution> findByOrderId(String orderId, Pageable pageable) {
         try {
-            log.debug("Finding packing solutions by order ID: {}", orderId);
+            log.debug("Finding packing solutions by order ID: {}, page: {}", orderId, pageable);
             
-            return springDataRepository.findByOrderId(orderId).stream()
-                .map(mapper::fromDocument)
-                .collect(Collectors.toList());
+            return springDataRepository.findByOrderId(orderId, unsorted(pageable))
+                .map(this::upgradeIfLegacy)
+                .map(mapper::fromDocument);
                 
         } catch (Exception e) {
             log.error("Failed to find packing solutions by order ID: {}", orderId, e);
-            return List.of();
+            return emptySlice(pageable);
         }
     }
 
     @Override
-    public List<PackingSolution> findRecentSolutions(int limit) {
+    public Slice<PackingSolution> findRecentSolutions(Pageable pageable) {
         try {
-            log.debug("Finding {} recent packing solutions", limit);
+            log.debug("Finding recent packing solutions, page: {}", pageable);
             
-            PageRequest pageRequest = PageRequest.of(0, limit);
-            return springDataRepository.findRecentSolutions(pageRequest).stream()
-                .map(mapper::fromDocument)
-                .collect(Collectors.toList());
+            return springDataRepository.findRecentSolutions(unsorted(pageable))
+                .map(mapper::fromDocument);
                 
         } catch (Exception e) {
             log.error("Failed to find recent packing solutions", e);
-            return List.of();
+            return emptySlice(pageable);
         }
     }
 
     @Override
-    public List<PackingSolution> findSolutionsCreatedAfter(Instant since) {
+    public Slice<PackingSolution> findSolutionsCreatedAfter(Instant since, Pageable pageable) {
         try {
-            log.debug("Finding packing solutions created after: {}", since);
+            log.debug("Finding packing solutions created after: {}, page: {}", since, pageable);
             
-            return springDataRepository.findByCreatedAtAfter(since).stream()
-                .map(mapper::fromDocument)
-                .collect(Collectors.toList());
+            return springDataRepository.findByCreatedAtAfter(since, unsorted(pageable))
+                .map(mapper::fromDocument);
                 
         } catch (Exception e) {
             log.error("Failed to find packing solutions created after: {}", since, e);
-            return List.of();
+            return emptySlice(pageable);
         }
     }
 
     @Override
-    public List<PackingSolution> findSolutionsWithMinimumPackages(int minPackages) {
+    public Slice<PackingSolution> findSolutionsWithMinimumPackages(int minPackages, Pageable pageable) {
         try {
-            log.debug("Finding packing solutions with minimum {} packages", minPackages);
+            log.debug("Finding packing solutions with minimum {} packages, page: {}", minPackages, pageable);
             
-            return springDataRepository.findByPackageCountGreaterThanEqual(minPackages).stream()
-                .map(mapper::fromDocument)
-                .collect(Collectors.toList());
+            return springDataRepository.findByPackageCountGreaterThanEqual(minPackages, unsorted(pageable))
+                .map(mapper::fromDocument);
                 
         } catch (Exception e) {
             log.error("Failed to find packing solutions with minimum packages: {}", minPackages, e);
-            return List.of();
+            return emptySlice(pageable);
+        }
+    }
+
+    @Override
+    public Slice<PackingSolution> findSolutionsWithTotalItemsBetween(int minItems, int maxItems, Pageable pageable) {
+        try {
+            log.debug("Finding packing solutions with {} to {} items, page: {}", minItems, maxItems, pageable);
+
+            return springDataRepository.findByTotalItemsBetween(minItems, maxItems, unsorted(pageable))
+                .map(mapper::fromDocument);
+
+        } catch (Exception e) {
+            log.error("Failed to find packing solutions with {} to {} items", minItems, maxItems, e);
+            return emptySlice(pageable);
+        }
+    }
+
+    @Override
+    public Slice<PackingSolution> findSolutionsWithUtilizationBetween(BigDecimal min, BigDecimal max,
+                                                                      Pageable pageable) {
+        try {
+            log.debug("Finding packing solutions with utilization {} to {}, page: {}", min, max, pageable);
+
+            return springDataRepository.findByAvgUtilizationBetween(min.doubleValue(), max.doubleValue(),
+                    unsorted(pageable))
+                .map(mapper::fromDocument);
+
+        } catch (Exception e) {
+            log.error("Failed to find packing solutions with utilization {} to {}", min, max, e);
+            return emptySlice(pageable);
         }
     }
 
     @Override
-    @CacheEvict(value = {"packing-solutions", "packing-cache"}, allEntries = true)
+    public Slice<PackingSolution> findSolutionsWithUsedVolumeBetween(BigDecimal min, BigDecimal max,
+                                                                     Pageable pageable) {
+        try {
+            log.debug("Finding packing solutions with used volume {} to {}, page: {}", min, max, pageable);
+
+            return springDataRepository.findByUsedVolumeBetween(min.doubleValue(), max.doubleValue(),
+                    unsorted(pageable))
+                .map(mapper::fromDocument);
+
+        } catch (Exception e) {
+            log.error("Failed to find packing solutions with used volume {} to {}", min, max, e);
+            return emptySlice(pageable);
+        }
+    }
+
+    @Override
+    public Stream<PackingSolutionExport> streamForExport(PackingSolutionExport.Query query) {
+        log.debug("Streaming packing solutions for export: {}", query);
+        PackingSolutionExport.Position after = query.after();
+        return springDataRepository.streamByKeyset(query.from(), query.to(),
+                after != null ? after.createdAt() : null, after != null ? after.solutionId() : null,
+                query.batchSize(), query.withPackages())
+            .map(document -> mapper.toExport(document, query.withPackages()));
+    }
+
+    @Override
+    @Caching(evict = {
+        @CacheEvict(value = {"packing-solutions", "packing-cache"}, allEntries = true),
+        @CacheEvict(value = "packing-solution-views", key = "#solutionId")
+    })
     public void deleteById(String solutionId) {
         try {
             log.debug("Deleting packing solution: {}", solutionId);
@@ -155,8 +246,8 @@ public class MongoPackingSolutionRepository implements PackingSolutionRepository
         }
     }
 
+    // Cached copies of solutions this old have long expired, so nothing to evict
     @Override
-    @CacheEvict(value = {"packing-solutions", "packing-cache"}, allEntries = true)
     public void deleteOlderThan(Instant cutoffDate) {
         try {
             log.debug("Deleting packing solutions older than: {}", cutoffDate);
@@ -200,4 +291,43 @@ public class MongoPackingSolutionRepository implements PackingSolutionRepository
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // The solution's events go into the same document write, for the outbox relay to publish
+    private PackingSolutionDocument toDocument(PackingSolution solution) {
+        PackingSolutionDocument document = mapper.toDocument(solution);
+        String key = solution.getRequestId() != null ? solution.getRequestId() : solution.getSolutionId();
+        document.setOutbox(outboxMapper.toOutbox(solution.domainEvents(), key));
+        return document;
+    }
+
+    /**
+     * Rewrites a version 1 document in the compact layout the first time it is
+     * read by key. Bulk reads leave old documents alone so a scan never turns
+     * into a mass rewrite; a failed rewrite is retried on the next read.
+     */
+    private PackingSolutionDocument upgradeIfLegacy(PackingSolutionDocument document) {
+        if (!migrateOnRead || !document.isLegacy()) {
+            return document;
+        }
+        try {
+            PackingSolutionDocument upgraded = springDataRepository.save(mapper.upgrade(document));
+            migratedDocuments.increment();
+            log.debug("Upgraded packing solution {} to schema version {}",
+                    upgraded.getSolutionId(), PackingSolutionDocument.SCHEMA_VERSION);
+            return upgraded;
+        } catch (Exception e) {
+            log.warn("Failed to upgrade packing solution {}, serving version 1: {}",
+                    document.getSolutionId(), e.getMessage());
+            return document;
+        }
+    }
+
+    // Each query declares the order its index serves; a caller's sort would force an in-memory sort
+    private static Pageable unsorted(Pageable pageable) {
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable;
+    }
+
+    private static Slice<PackingSolution> emptySlice(Pageable pageable) {
+        return new SliceImpl<>(List.of(), pageable, false);
+    }
+}
@@ -5,9 +5,14 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface SpringDataMongoCartonRepository extends MongoRepository<CartonDocument, String> {
+public interface SpringDataMongoCartonRepository extends MongoRepository<CartonDocument, String>,
+        SpringDataMongoCartonRepositoryCustom {
 
     List<CartonDocument> findByStatus(String status);
+
+    // Backed by a server-side cursor; must be closed by the caller
+    Stream<CartonDocument> streamAllBy();
 }
\ No newline at end of file
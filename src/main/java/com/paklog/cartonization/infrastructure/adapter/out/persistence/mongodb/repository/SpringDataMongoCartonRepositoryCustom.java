@@ -0,0 +1,18 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
+
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.CartonDocument;
+
+import java.util.List;
+
+public interface SpringDataMongoCartonRepositoryCustom {
+
+    /**
+     * Upserts the documents by ID with one ordered bulk write; the write stops
+     * at the first failing document. Each document's outbox events are
+     * appended to the ones the relay has not published yet, in the same
+     * update as the carton's state.
+     *
+     * @return the number of documents inserted or modified
+     */
+    int bulkUpsert(List<CartonDocument> documents);
+}
@@ -0,0 +1,82 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.CartonDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.OutboxDocument;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class SpringDataMongoCartonRepositoryCustomImpl implements SpringDataMongoCartonRepositoryCustom {
+
+    private static final String OUTBOX = "outbox";
+
+    private final MongoOperations mongoOperations;
+
+    SpringDataMongoCartonRepositoryCustomImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public int bulkUpsert(List<CartonDocument> documents) {
+        if (documents.isEmpty()) {
+            return 0;
+        }
+
+        List<String> stateFields = stateFields();
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.ORDERED, CartonDocument.class);
+        for (CartonDocument document : documents) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(document.getId())), toUpdate(document, stateFields));
+        }
+
+        BulkWriteResult result = bulk.execute();
+        return result.getModifiedCount() + result.getUpserts().size();
+    }
+
+    /**
+     * Sets the carton's state the way a replace would, unsetting the fields it
+     * no longer has, but appends to the outbox instead of overwriting events
+     * that are still waiting to be relayed.
+     */
+    private Update toUpdate(CartonDocument document, List<String> stateFields) {
+        Document state = new Document();
+        mongoOperations.getConverter().write(document, state);
+        state.remove("_id");
+        state.remove(OUTBOX);
+
+        Update update = new Update();
+        state.forEach(update::set);
+        for (String field : stateFields) {
+            if (!state.containsKey(field)) {
+                update.unset(field);
+            }
+        }
+
+        OutboxDocument outbox = document.getOutbox();
+        if (outbox != null && outbox.getEvents() != null && !outbox.getEvents().isEmpty()) {
+            update.push(OUTBOX + ".events").each(outbox.getEvents().toArray());
+            update.min(OUTBOX + ".since", outbox.getSince());
+        }
+        return update;
+    }
+
+    private List<String> stateFields() {
+        MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(CartonDocument.class);
+        List<String> fields = new ArrayList<>();
+        for (MongoPersistentProperty property : entity) {
+            if (!property.isIdProperty() && !OUTBOX.equals(property.getFieldName())) {
+                fields.add(property.getFieldName());
+            }
+        }
+        return fields;
+    }
+}
@@ -1,28 +1,49 @@
 package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
 
 import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.PackingSolutionDocument;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Range queries sort on the ranged field first so each one walks a single
+ * index in order; see MongoIndexBootstrap for the matching indexes.
+ */
 @Repository
-public interface SpringDataMongoPackingSolutionRepository extends MongoRepository<PackingSolutionDocument, String> {
+public interface SpringDataMongoPackingSolutionRepository extends MongoRepository<PackingSolutionDocument, String>,
+        SpringDataMongoPackingSolutionRepositoryCustom {
 
-    Optional<PackingSolutionDocument> findByRequestId(String requestId);
+    // A request ID normally maps to one solution; a retried request that raced its original may have two
+    Optional<PackingSolutionDocument> findFirstByRequestIdOrderByCreatedAtDesc(String requestId);
 
-    List<PackingSolutionDocument> findByOrderId(String orderId);
+    @Query(value = "{ 'orderId': ?0 }", sort = "{ 'createdAt': -1 }")
+    Slice<PackingSolutionDocument> findByOrderId(String orderId, Pageable pageable);
 
     @Query(value = "{}", sort = "{ 'createdAt': -1 }")
-    List<PackingSolutionDocument> findRecentSolutions(org.springframework.data.domain.Pageable pageable);
+    Slice<PackingSolutionDocument> findRecentSolutions(Pageable pageable);
 
-    List<PackingSolutionDocument> findByCreatedAtAfter(Instant since);
+    @Query(value = "{ 'createdAt': { $gt: ?0 } }", sort = "{ 'createdAt': 1 }")
+    Slice<PackingSolutionDocument> findByCreatedAtAfter(Instant since, Pageable pageable);
 
-    @Query("{ 'packages': { $size: { $gte: ?0 } } }")
-    List<PackingSolutionDocument> findByPackageCountGreaterThanEqual(int minPackages);
+    Stream<PackingSolutionDocument> streamByCreatedAtAfter(Instant since);
+
+    @Query(value = "{ 'packageCount': { $gte: ?0 } }", sort = "{ 'packageCount': 1, 'createdAt': -1 }")
+    Slice<PackingSolutionDocument> findByPackageCountGreaterThanEqual(int minPackages, Pageable pageable);
+
+    @Query(value = "{ 'totalItems': { $gte: ?0, $lte: ?1 } }", sort = "{ 'totalItems': 1, 'createdAt': -1 }")
+    Slice<PackingSolutionDocument> findByTotalItemsBetween(int minItems, int maxItems, Pageable pageable);
+
+    @Query(value = "{ 'avgUtilization': { $gte: ?0, $lte: ?1 } }", sort = "{ 'avgUtilization': 1, 'createdAt': -1 }")
+    Slice<PackingSolutionDocument> findByAvgUtilizationBetween(double min, double max, Pageable pageable);
+
+    @Query(value = "{ 'usedVolume': { $gte: ?0, $lte: ?1 } }", sort = "{ 'usedVolume': 1, 'createdAt': -1 }")
+    Slice<PackingSolutionDocument> findByUsedVolumeBetween(double min, double max, Pageable pageable);
 
     void deleteByCreatedAtBefore(Instant cutoffDate);
 
@@ -30,4 +51,4 @@ public interface SpringDataMongoPackingSolutionRepository extends MongoRepositor
 
     @Query(value = "{ 'createdAt': { $gte: ?0, $lte: ?1 } }", count = true)
     long countByCreatedAtBetween(Instant start, Instant end);
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
+
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.PackingSolutionDocument;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface SpringDataMongoPackingSolutionRepositoryCustom {
+
+    /**
+     * Inserts the documents with one unordered bulk write. Documents whose ID
+     * already exists are skipped rather than failing the rest of the batch.
+     *
+     * @return the number of documents inserted
+     */
+    int bulkInsert(List<PackingSolutionDocument> documents);
+
+    /**
+     * Streams documents created in {@code [from, to)} ordered by
+     * {@code createdAt} then {@code _id}, starting strictly after
+     * {@code (afterCreatedAt, afterId)} when given. Documents are fetched
+     * {@code batchSize} at a time, each batch a separate query resuming after
+     * the last document of the previous one. Without packages, the compact
+     * package, SKU and carton arrays are left out of the read.
+     */
+    Stream<PackingSolutionDocument> streamByKeyset(Instant from, Instant to, Instant afterCreatedAt, String afterId,
+                                                   int batchSize, boolean withPackages);
+}
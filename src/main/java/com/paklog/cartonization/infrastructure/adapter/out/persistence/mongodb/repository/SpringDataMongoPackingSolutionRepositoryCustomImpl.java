@@ -0,0 +1,132 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.PackingSolutionDocument;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+class SpringDataMongoPackingSolutionRepositoryCustomImpl implements SpringDataMongoPackingSolutionRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoOperations mongoOperations;
+
+    SpringDataMongoPackingSolutionRepositoryCustomImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public int bulkInsert(List<PackingSolutionDocument> documents) {
+        if (documents.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, PackingSolutionDocument.class);
+        bulk.insert(documents);
+        try {
+            return bulk.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            // A retried batch may find some of its documents already written
+            boolean onlyDuplicates = e.getErrors().stream()
+                .map(BulkWriteError::getCode)
+                .allMatch(code -> code == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+            return e.getResult().getInsertedCount();
+        }
+    }
+
+    @Override
+    public Stream<PackingSolutionDocument> streamByKeyset(Instant from, Instant to, Instant afterCreatedAt,
+                                                          String afterId, int batchSize, boolean withPackages) {
+        KeysetIterator batches = new KeysetIterator(from, to, afterCreatedAt, afterId, batchSize, withPackages);
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private final class KeysetIterator implements Iterator<PackingSolutionDocument> {
+
+        private final Instant from;
+        private final Instant to;
+        private final int batchSize;
+        private final boolean withPackages;
+        private Instant lastCreatedAt;
+        private String lastId;
+        private Iterator<PackingSolutionDocument> batch = Collections.emptyIterator();
+        private boolean exhausted;
+
+        private KeysetIterator(Instant from, Instant to, Instant afterCreatedAt, String afterId, int batchSize,
+                               boolean withPackages) {
+            this.from = from;
+            this.to = to;
+            this.lastCreatedAt = afterCreatedAt;
+            this.lastId = afterId;
+            this.batchSize = batchSize;
+            this.withPackages = withPackages;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!batch.hasNext() && !exhausted) {
+                List<PackingSolutionDocument> next = mongoOperations.find(nextBatch(), PackingSolutionDocument.class);
+                exhausted = next.size() < batchSize;
+                batch = next.iterator();
+            }
+            return batch.hasNext();
+        }
+
+        @Override
+        public PackingSolutionDocument next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PackingSolutionDocument document = batch.next();
+            lastCreatedAt = document.getCreatedAt();
+            lastId = document.getSolutionId();
+            return document;
+        }
+
+        private Query nextBatch() {
+            List<Criteria> criteria = new ArrayList<>();
+            if (from != null || to != null) {
+                Criteria createdAt = Criteria.where("createdAt");
+                if (from != null) {
+                    createdAt = createdAt.gte(from);
+                }
+                if (to != null) {
+                    createdAt = createdAt.lt(to);
+                }
+                criteria.add(createdAt);
+            }
+            if (lastCreatedAt != null) {
+                criteria.add(new Criteria().orOperator(
+                    Criteria.where("createdAt").gt(lastCreatedAt),
+                    Criteria.where("createdAt").is(lastCreatedAt).and("_id").gt(lastId)));
+            }
+
+            Query query = new Query(criteria.isEmpty() ? new Criteria() : new Criteria().andOperator(criteria))
+                .with(Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("_id")))
+                .limit(batchSize);
+            if (!withPackages) {
+                query.fields().exclude("skus", "cartons", "pkgs");
+            }
+            return query;
+        }
+    }
+}
@@ -1,24 +1,51 @@
 package com.paklog.cartonization.infrastructure.cache;
 
+import com.paklog.cartonization.application.port.out.CacheStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 
 @Service
 public class CacheService {
 
     private static final Logger log = LoggerFactory.getLogger(CacheService.class);
+    private static final String LEASE_PREFIX = "cache-lease";
+    private static final long LEASE_POLL_MILLIS = 25;
     
     private final CacheManager cacheManager;
+    private final CacheStore cacheStore;
+    private final MeterRegistry meterRegistry;
 
-    public CacheService(CacheManager cacheManager) {
+    private final double beta;
+    private final Duration leaseTtl;
+    private final Duration leaseWait;
+    private final Duration staleGrace;
+
+    public CacheService(CacheManager cacheManager,
+                        CacheStore cacheStore,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.cache.stampede.beta:1.0}") double beta,
+                        @Value("${app.cache.stampede.lease-ttl:5s}") Duration leaseTtl,
+                        @Value("${app.cache.stampede.lease-wait:500ms}") Duration leaseWait,
+                        @Value("${app.cache.stampede.stale-grace:30s}") Duration staleGrace) {
         this.cacheManager = cacheManager;
+        this.cacheStore = cacheStore;
+        this.meterRegistry = meterRegistry;
+        this.beta = beta;
+        this.leaseTtl = leaseTtl;
+        this.leaseWait = leaseWait;
+        this.staleGrace = staleGrace;
     }
 
     public <T> Optional<T> get(String cacheName, Object key, Class<T> type) {
@@ -27,7 +54,7 @@ public class CacheService {
             if (cache != null) {
                 Cache.ValueWrapper wrapper = cache.get(key);
                 if (wrapper != null) {
-                    Object value = wrapper.get();
+                    Object value = unwrap(wrapper.get());
                     if (type.isInstance(value)) {
                         log.debug("Cache hit for cache: {}, key: {}", cacheName, key);
                         return Optional.of(type.cast(value));
@@ -60,6 +87,90 @@ public class CacheService {
         }
     }
 
+    /**
+     * Returns the cached value, recomputing it with stampede protection.
+     * <p>
+     * Values are stored with their compute time and logical expiry. Each read
+     * may decide to recompute early, with a probability that rises as expiry
+     * nears (XFetch). Only the caller that takes the per-key lease, a Redis
+     * {@code SET NX} with a short TTL, recomputes. Everyone else keeps serving the
+     * previous value until it is {@code app.cache.stampede.stale-grace} past
+     * expiry, or waits briefly for the lease holder when there is no value at
+     * all. A failed recompute also falls back to the stale value while it is
+     * within the grace window. Null results are not cached.
+     *
+     * @param ttl how long a computed value stays fresh
+     */
+    public <T> T getWithEarlyRecompute(String cacheName, Object key, Class<T> type, Duration ttl,
+                                       Callable<T> valueLoader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return call(valueLoader);
+        }
+
+        RecomputableEntry entry = lookupEntry(cache, key);
+        long now = System.currentTimeMillis();
+        if (entry != null && !entry.shouldRecompute(now, beta)) {
+            return type.cast(entry.getValue());
+        }
+
+        String reason = entry == null ? "miss" : entry.isExpired(now) ? "expired" : "early";
+        String leaseKey = cacheStore.buildKey(LEASE_PREFIX, cacheName, key);
+        // Unique per call, so only this call can release the lease it took
+        String leaseToken = UUID.randomUUID().toString();
+
+        if (!cacheStore.putIfAbsent(leaseKey, leaseToken, leaseTtl)) {
+            counter("cartonization.cache.stampede.lease_contention", cacheName).increment();
+            if (entry != null && isServable(entry, now)) {
+                if (entry.isExpired(now)) {
+                    counter("cartonization.cache.stampede.stale_served", cacheName).increment();
+                }
+                return type.cast(entry.getValue());
+            }
+            RecomputableEntry recomputed = awaitLeaseHolder(cache, key);
+            if (recomputed != null) {
+                return type.cast(recomputed.getValue());
+            }
+            log.debug("Lease holder for cache: {}, key: {} did not finish in {}, computing anyway",
+                    cacheName, key, leaseWait);
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            T value = valueLoader.call();
+            long computeMillis = System.currentTimeMillis() - start;
+            if (value != null) {
+                cache.put(key, new RecomputableEntry(value, computeMillis, System.currentTimeMillis() + ttl.toMillis()));
+            }
+            counter("cartonization.cache.stampede.recomputes", cacheName, "reason", reason).increment();
+            log.debug("Recomputed cache: {}, key: {} ({}) in {} ms", cacheName, key, reason, computeMillis);
+            return value;
+
+        } catch (Exception e) {
+            if (entry != null && isServable(entry, System.currentTimeMillis())) {
+                counter("cartonization.cache.stampede.stale_served", cacheName).increment();
+                log.warn("Recompute failed for cache: {}, key: {}, serving previous value: {}",
+                        cacheName, key, e.getMessage());
+                return type.cast(entry.getValue());
+            }
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to load value", e);
+        } finally {
+            releaseLease(leaseKey, leaseToken);
+        }
+    }
+
+    /**
+     * Returns the cached value with its recompute metadata; values written
+     * without it come back with a compute time of zero and no logical expiry.
+     */
+    public Optional<RecomputableEntry> getEntry(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache != null ? Optional.ofNullable(lookupEntry(cache, key)) : Optional.empty();
+    }
+
     public void put(String cacheName, Object key, Object value) {
         try {
             Cache cache = cacheManager.getCache(cacheName);
@@ -109,6 +220,68 @@ public class CacheService {
         return Set.copyOf(cacheManager.getCacheNames());
     }
 
+    private RecomputableEntry lookupEntry(Cache cache, Object key) {
+        try {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            Object value = wrapper != null ? wrapper.get() : null;
+            if (value instanceof RecomputableEntry entry) {
+                return entry;
+            }
+            // Written without metadata, e.g. by refresh-ahead: fresh until the entry itself expires
+            return value != null ? new RecomputableEntry(value, 0, Long.MAX_VALUE) : null;
+        } catch (Exception e) {
+            log.error("Error retrieving from cache: {}, key: {}", cache.getName(), key, e);
+            return null;
+        }
+    }
+
+    private RecomputableEntry awaitLeaseHolder(Cache cache, Object key) {
+        long deadline = System.currentTimeMillis() + leaseWait.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LEASE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            RecomputableEntry entry = lookupEntry(cache, key);
+            if (entry != null && !entry.isExpired(System.currentTimeMillis())) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void releaseLease(String leaseKey, String leaseToken) {
+        // Only release our own lease; it may have expired and been taken over meanwhile
+        cacheStore.deleteIfEquals(leaseKey, leaseToken);
+    }
+
+    private boolean isServable(RecomputableEntry entry, long now) {
+        return now < entry.getExpiresAtMillis() + staleGrace.toMillis();
+    }
+
+    private Counter counter(String name, String cacheName, String... tags) {
+        return Counter.builder(name)
+            .tag("cache", cacheName)
+            .tags(tags)
+            .register(meterRegistry);
+    }
+
+    private static Object unwrap(Object value) {
+        return value instanceof RecomputableEntry entry ? entry.getValue() : value;
+    }
+
+    private static <T> T call(Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load value", e);
+        }
+    }
+
     public boolean exists(String cacheName, Object key) {
         try {
             Cache cache = cacheManager.getCache(cacheName);
@@ -13,6 +13,7 @@ import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -24,17 +25,34 @@ public class CacheWarmupService {
     private final CartonRepository cartonRepository;
     private final ProductCatalogClient productCatalogClient;
     private final CacheService cacheService;
+    private final ProductRefreshAheadService productRefreshAheadService;
+    private final VersionedCartonCatalog cartonCatalog;
+    private final DemandDrivenWarmupService demandDrivenWarmupService;
     
-    private boolean warmupEnabled;
+    private final boolean warmupEnabled;
     
-    private List<String> commonSkus;
+    private final int productWarmupLimit;
+    
+    private final List<String> warmupSites;
 
     public CacheWarmupService(CartonRepository cartonRepository,
                             ProductCatalogClient productCatalogClient,
-                            CacheService cacheService) {
+                            CacheService cacheService,
+                            ProductRefreshAheadService productRefreshAheadService,
+                            VersionedCartonCatalog cartonCatalog,
+                            DemandDrivenWarmupService demandDrivenWarmupService,
+                            @Value("${app.cache.warmup.enabled:true}") boolean warmupEnabled,
+                            @Value("${app.cache.warmup.product-limit:200}") int productWarmupLimit,
+                            @Value("${app.cache.warmup.sites:}") List<String> warmupSites) {
         this.cartonRepository = cartonRepository;
         this.productCatalogClient = productCatalogClient;
         this.cacheService = cacheService;
+        this.productRefreshAheadService = productRefreshAheadService;
+        this.cartonCatalog = cartonCatalog;
+        this.demandDrivenWarmupService = demandDrivenWarmupService;
+        this.warmupEnabled = warmupEnabled;
+        this.productWarmupLimit = productWarmupLimit;
+        this.warmupSites = warmupSites;
     }
 
     @EventListener(ApplicationReadyEvent.class)
@@ -73,8 +91,21 @@ public class CacheWarmupService {
             List<Carton> allCartons = cartonRepository.findAll();
             log.debug("Preloaded {} total cartons", allCartons.size());
             
-            log.info("Carton cache warmup completed - {} active cartons, {} total cartons", 
-                    activeCartons.size(), allCartons.size());
+            // Build each site's carton index separately so one failing site doesn't hold up the rest
+            Collection<String> sites = warmupSites.isEmpty() ? cartonCatalog.current().sites() : warmupSites;
+            int warmedSites = 0;
+            for (String site : sites) {
+                try {
+                    List<Carton> siteCartons = cartonRepository.findAllActiveForSite(site);
+                    log.debug("Preloaded {} active cartons for site: {}", siteCartons.size(), site);
+                    warmedSites++;
+                } catch (Exception e) {
+                    log.warn("Failed to warm up carton catalog for site: {}", site, e);
+                }
+            }
+            
+            log.info("Carton cache warmup completed - {} active cartons, {} total cartons, {}/{} sites", 
+                    activeCartons.size(), allCartons.size(), warmedSites, sites.size());
             
             return CompletableFuture.completedFuture(null);
             
@@ -89,15 +120,13 @@ public class CacheWarmupService {
         try {
             log.debug("Warming up product cache...");
             
-            if (commonSkus == null || commonSkus.isEmpty()) {
-                log.debug("No common SKUs configured for product cache warmup");
+            // Hot SKUs as observed by the frequency sketch on this and peer instances
+            List<SKU> skus = productRefreshAheadService.warmupCandidates(productWarmupLimit);
+            if (skus.isEmpty()) {
+                log.debug("No hot SKUs known yet for product cache warmup");
                 return CompletableFuture.completedFuture(null);
             }
             
-            List<SKU> skus = commonSkus.stream()
-                .map(SKU::of)
-                .toList();
-            
             // Warm up product info cache
             skus.parallelStream()
                 .forEach(sku -> {
@@ -135,8 +164,8 @@ public class CacheWarmupService {
                     warmupProductCache().get();
                 }
                 case "packing-solutions", "packing-cache" -> {
-                    // Packing solution cache is populated on-demand
-                    log.debug("Packing solution cache cleared, will be populated on-demand");
+                    // Recompute the most frequent order shapes; everything else is populated on demand
+                    demandDrivenWarmupService.trigger("refresh");
                 }
                 default -> {
                     log.warn("Unknown cache name for refresh: {}", cacheName);
@@ -163,13 +192,16 @@ public class CacheWarmupService {
         boolean cartonsCached = cacheService.exists("active-cartons", "warmup-marker") ||
                               !cacheService.get("active-cartons", "test-key", Object.class).isEmpty();
         
-        boolean productsCached = commonSkus != null && !commonSkus.isEmpty() &&
-                               cacheService.exists("product-by-sku", commonSkus.get(0));
+        List<SKU> hottest = productRefreshAheadService.warmupCandidates(1);
+        boolean productsCached = !hottest.isEmpty() &&
+                               cacheService.exists("product-by-sku", hottest.get(0).getValue());
         
         return new CacheWarmupStatus(
             warmupEnabled,
             cartonsCached,
             productsCached,
+            demandDrivenWarmupService.warmFraction(),
+            demandDrivenWarmupService.isReady(),
             cacheService.getCacheNames()
         );
     }
@@ -178,6 +210,8 @@ public class CacheWarmupService {
         boolean enabled,
         boolean cartonsCached,
         boolean productsCached,
+        double warmFraction,
+        boolean ready,
         java.util.Set<String> availableCaches
     ) {}
 }
\ No newline at end of file
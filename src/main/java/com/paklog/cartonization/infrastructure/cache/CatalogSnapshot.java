@@ -0,0 +1,323 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.DimensionUnit;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+import com.paklog.cartonization.domain.model.valueobject.WeightUnit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only, memory-mapped snapshot of product facts, sorted by SKU.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header : magic(int) formatVersion(short) catalogVersion(long) createdAt(long) count(int) crc32(long)
+ * index  : count x recordOffset(int), relative to the start of the index
+ * records: sku name category length width height dimUnit(byte) weight weightUnit(byte) flags(byte)
+ * </pre>
+ * Strings are a short length followed by UTF-8 bytes (-1 for null); decimals are
+ * an unscaled long followed by a scale byte. The CRC covers index and records.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x504B4353; // "PKCS"
+    static final short FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 8 + 4 + 8;
+
+    private static final byte FLAG_FRAGILE = 0x01;
+    private static final byte FLAG_ACTIVE = 0x02;
+
+    private final ByteBuffer buffer;
+    private final long catalogVersion;
+    private final Instant createdAt;
+    private final int count;
+
+    private CatalogSnapshot(ByteBuffer buffer, long catalogVersion, Instant createdAt, int count) {
+        this.buffer = buffer;
+        this.catalogVersion = catalogVersion;
+        this.createdAt = createdAt;
+        this.count = count;
+    }
+
+    /**
+     * Memory-maps and validates a snapshot file.
+     *
+     * @throws IOException if the file cannot be read or fails validation
+     */
+    public static CatalogSnapshot open(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return from(mapped);
+    }
+
+    public static CatalogSnapshot from(ByteBuffer source) throws IOException {
+        if (source.limit() < HEADER_SIZE) {
+            throw new IOException("Catalog snapshot is truncated");
+        }
+        if (source.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        short formatVersion = source.getShort(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported catalog snapshot format version: " + formatVersion);
+        }
+        long catalogVersion = source.getLong(6);
+        Instant createdAt = Instant.ofEpochMilli(source.getLong(14));
+        int count = source.getInt(22);
+        long expectedCrc = source.getLong(26);
+
+        ByteBuffer body = source.slice(HEADER_SIZE, source.limit() - HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        if (crc.getValue() != expectedCrc) {
+            throw new IOException("Catalog snapshot checksum mismatch");
+        }
+        if (body.limit() < count * 4L) {
+            throw new IOException("Catalog snapshot index is truncated");
+        }
+        return new CatalogSnapshot(body, catalogVersion, createdAt, count);
+    }
+
+    /**
+     * Writes the products to {@code target} atomically, sorted by SKU.
+     */
+    public static void write(Path target, long catalogVersion, Collection<ProductInfo> products) throws IOException {
+        write(target, encode(catalogVersion, Instant.now(), products));
+    }
+
+    /**
+     * Writes an encoded snapshot to {@code target} atomically.
+     */
+    public static void write(Path target, byte[] encoded) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, encoded);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static byte[] encode(long catalogVersion, Instant createdAt, Collection<ProductInfo> products) throws IOException {
+        List<ProductInfo> sorted = sorted(products);
+        return frame(catalogVersion, createdAt, sorted.size(), body(sorted));
+    }
+
+    /**
+     * Encodes the products under a version derived from their facts, so any
+     * node snapshotting the same facts arrives at the same version, and the
+     * version only moves when a fact does.
+     */
+    public static byte[] encodeByContent(Instant createdAt, Collection<ProductInfo> products) throws IOException {
+        List<ProductInfo> sorted = sorted(products);
+        ByteBuffer body = body(sorted);
+        return frame(contentVersion(body), createdAt, sorted.size(), body);
+    }
+
+    private static List<ProductInfo> sorted(Collection<ProductInfo> products) {
+        List<ProductInfo> sorted = new ArrayList<>(products);
+        sorted.sort(Comparator.comparing(product -> product.sku().getValue()));
+        return sorted;
+    }
+
+    private static ByteBuffer body(List<ProductInfo> sorted) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream recordOut = new DataOutputStream(records);
+        int[] offsets = new int[sorted.size()];
+        int indexSize = sorted.size() * 4;
+        for (int i = 0; i < sorted.size(); i++) {
+            offsets[i] = indexSize + recordOut.size();
+            writeRecord(recordOut, sorted.get(i));
+        }
+        recordOut.flush();
+
+        ByteBuffer body = ByteBuffer.allocate(indexSize + records.size());
+        for (int offset : offsets) {
+            body.putInt(offset);
+        }
+        body.put(records.toByteArray());
+        body.flip();
+        return body;
+    }
+
+    private static byte[] frame(long catalogVersion, Instant createdAt, int count, ByteBuffer body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+
+        ByteBuffer file = ByteBuffer.allocate(HEADER_SIZE + body.limit());
+        file.putInt(MAGIC)
+            .putShort(FORMAT_VERSION)
+            .putLong(catalogVersion)
+            .putLong(createdAt.toEpochMilli())
+            .putInt(count)
+            .putLong(crc.getValue())
+            .put(body.duplicate());
+        return file.array();
+    }
+
+    // Leading 63 bits of the SHA-256 of index and records; never 0, which means "no version"
+    private static long contentVersion(ByteBuffer body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(body.duplicate());
+            long version = ByteBuffer.wrap(digest.digest()).getLong() & Long.MAX_VALUE;
+            return version != 0 ? version : 1;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<ProductInfo> find(String sku) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = buffer.getInt(mid * 4);
+            int cmp = readString(offset).compareTo(sku);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return Optional.of(readRecord(offset));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<ProductInfo> all() {
+        List<ProductInfo> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(readRecord(buffer.getInt(i * 4)));
+        }
+        return products;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private static void writeRecord(DataOutputStream out, ProductInfo product) throws IOException {
+        writeString(out, product.sku().getValue());
+        writeString(out, product.name());
+        writeString(out, product.category());
+        DimensionSet dimensions = product.dimensions();
+        writeDecimal(out, dimensions.getLength());
+        writeDecimal(out, dimensions.getWidth());
+        writeDecimal(out, dimensions.getHeight());
+        out.writeByte(dimensions.getUnit().ordinal());
+        writeDecimal(out, product.weight().getValue());
+        out.writeByte(product.weight().getUnit().ordinal());
+        int flags = (product.fragile() ? FLAG_FRAGILE : 0) | (product.active() ? FLAG_ACTIVE : 0);
+        out.writeByte(flags);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IOException("String too long for catalog snapshot: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        try {
+            out.writeLong(value.unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IOException("Decimal out of range for catalog snapshot: " + value, e);
+        }
+        out.writeByte(value.scale());
+    }
+
+    private ProductInfo readRecord(int offset) {
+        int[] cursor = {offset};
+        String sku = readString(cursor);
+        String name = readString(cursor);
+        String category = readString(cursor);
+        BigDecimal length = readDecimal(cursor);
+        BigDecimal width = readDecimal(cursor);
+        BigDecimal height = readDecimal(cursor);
+        DimensionUnit dimensionUnit = DimensionUnit.values()[buffer.get(cursor[0]++)];
+        BigDecimal weightValue = readDecimal(cursor);
+        WeightUnit weightUnit = WeightUnit.values()[buffer.get(cursor[0]++)];
+        byte flags = buffer.get(cursor[0]);
+
+        return new ProductInfo(
+            SKU.of(sku),
+            name,
+            null,
+            new DimensionSet(length, width, height, dimensionUnit),
+            new Weight(weightValue, weightUnit),
+            category,
+            (flags & FLAG_FRAGILE) != 0,
+            (flags & FLAG_ACTIVE) != 0,
+            null
+        );
+    }
+
+    private String readString(int offset) {
+        return readString(new int[]{offset});
+    }
+
+    private String readString(int[] cursor) {
+        short length = buffer.getShort(cursor[0]);
+        cursor[0] += 2;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(cursor[0], bytes);
+        cursor[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private BigDecimal readDecimal(int[] cursor) {
+        long unscaled = buffer.getLong(cursor[0]);
+        byte scale = buffer.get(cursor[0] + 8);
+        cursor[0] += 9;
+        return new BigDecimal(BigInteger.valueOf(unscaled), scale);
+    }
+}
@@ -0,0 +1,353 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.out.CacheStore;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps a memory-mapped {@link CatalogSnapshot} of product facts, shared by
+ * every instance through Redis, as a local read-through tier in front of the
+ * product catalog while recently confirmed, as the last known facts to fall
+ * back on while the catalog is unavailable, and as the catalog version.
+ * <p>
+ * One instance at a time, holding a lease, produces the snapshot; its version
+ * is derived from the facts it holds, so it only moves when a fact changes.
+ * The producer publishes the encoded snapshot under its version and then a
+ * head naming that version and when it was last confirmed; other instances
+ * download a version they do not have, map it from
+ * {@code app.catalog-snapshot.path} and otherwise only track the confirmation.
+ * Without a head, e.g. while Redis is down, the local file is used as before,
+ * so a file dropped there by hand is picked up too. A snapshot not confirmed
+ * within {@code app.catalog-snapshot.max-age} is ignored.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+    static final String HEAD_KEY = "catalog-snapshot:head";
+    static final String DATA_KEY_PREFIX = "catalog-snapshot:data";
+    static final String PRODUCER_LEASE_KEY = "catalog-snapshot:producer";
+
+    private final HotSkuTracker hotSkuTracker;
+    private final ProductCatalogClient productCatalogClient;
+    private final CacheService cacheService;
+    private final CacheStore cacheStore;
+
+    private final boolean enabled;
+    private final boolean produceEnabled;
+    private final Path snapshotPath;
+    private final Duration maxAge;
+    private final int maxProducts;
+    private final int batchSize;
+    private final Duration producerLease;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile Instant confirmedAt;
+    private volatile FileTime loadedModifiedTime;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public CatalogSnapshotService(HotSkuTracker hotSkuTracker,
+                                  @Lazy ProductCatalogClient productCatalogClient,
+                                  CacheService cacheService,
+                                  CacheStore cacheStore,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.catalog-snapshot.enabled:true}") boolean enabled,
+                                  @Value("${app.catalog-snapshot.produce-enabled:true}") boolean produceEnabled,
+                                  @Value("${app.catalog-snapshot.path:${java.io.tmpdir}/cartonization/catalog-snapshot.bin}") String snapshotPath,
+                                  @Value("${app.catalog-snapshot.max-age:6h}") Duration maxAge,
+                                  @Value("${app.catalog-snapshot.max-products:50000}") int maxProducts,
+                                  @Value("${app.catalog-snapshot.batch-size:100}") int batchSize,
+                                  @Value("${app.catalog-snapshot.produce-interval-ms:900000}") long produceIntervalMs) {
+        this.hotSkuTracker = hotSkuTracker;
+        this.productCatalogClient = productCatalogClient;
+        this.cacheService = cacheService;
+        this.cacheStore = cacheStore;
+        this.enabled = enabled;
+        this.produceEnabled = produceEnabled;
+        this.snapshotPath = Path.of(snapshotPath);
+        this.maxAge = maxAge;
+        this.maxProducts = maxProducts;
+        this.batchSize = batchSize;
+        // Expires just before the next run, so one producer per interval and no gap if it dies
+        this.producerLease = Duration.ofMillis(produceIntervalMs * 9 / 10);
+
+        this.hitCounter = Counter.builder("cartonization.catalog_snapshot.lookups")
+            .description("Product lookups answered by the catalog snapshot")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("cartonization.catalog_snapshot.lookups")
+            .description("Product lookups answered by the catalog snapshot")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("cartonization.catalog_snapshot.entries", this, service -> {
+                CatalogSnapshot current = service.snapshot;
+                return current != null ? current.size() : 0;
+            })
+            .description("Number of products in the loaded catalog snapshot")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void loadOnStartup() {
+        if (enabled) {
+            reloadIfChanged();
+        }
+    }
+
+    /**
+     * Looks up a product in the loaded snapshot, ignoring a snapshot not
+     * confirmed within {@code app.catalog-snapshot.max-age}.
+     *
+     * @param sku the SKU to look up
+     * @return the snapshotted product facts, or empty if unknown or stale
+     */
+    public Optional<ProductInfo> find(SKU sku) {
+        return find(sku, maxAge);
+    }
+
+    /**
+     * Looks up a product in the loaded snapshot only if the snapshot was
+     * confirmed within {@code freshness}, so that it can stand in for the
+     * catalog itself rather than only for an unavailable one.
+     *
+     * @param sku the SKU to look up
+     * @param freshness how recently the snapshot must have been confirmed
+     * @return the snapshotted product facts, or empty if unknown or not fresh enough
+     */
+    public Optional<ProductInfo> findConfirmedWithin(SKU sku, Duration freshness) {
+        return find(sku, freshness.compareTo(maxAge) < 0 ? freshness : maxAge);
+    }
+
+    private Optional<ProductInfo> find(SKU sku, Duration within) {
+        CatalogSnapshot current = current(within);
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        Optional<ProductInfo> product = current.find(sku.getValue());
+        if (product.isPresent()) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+        }
+        return product;
+    }
+
+    /**
+     * Returns the content version of the loaded snapshot, the same on every
+     * instance holding the same facts, or 0 if none is loaded or it is stale.
+     */
+    public long getCatalogVersion() {
+        CatalogSnapshot current = current(maxAge);
+        return current != null ? current.getCatalogVersion() : 0L;
+    }
+
+    private CatalogSnapshot current(Duration within) {
+        CatalogSnapshot current = snapshot;
+        Instant confirmed = confirmedAt;
+        if (current == null || confirmed == null || confirmed.isBefore(Instant.now().minus(within))) {
+            return null;
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog-snapshot.reload-check-interval-ms:30000}",
+               initialDelayString = "${app.catalog-snapshot.reload-check-interval-ms:30000}")
+    public void reloadIfChanged() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Optional<Head> head = cacheStore.get(HEAD_KEY, String.class).flatMap(Head::parse);
+            if (head.isPresent()) {
+                loadShared(head.get());
+            } else {
+                loadLocalFile();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to load catalog snapshot, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    private void loadShared(Head head) throws IOException {
+        CatalogSnapshot current = snapshot;
+        if (current != null && current.getCatalogVersion() == head.version()) {
+            confirmedAt = head.confirmedAt();
+            return;
+        }
+
+        Optional<String> encoded = cacheStore.get(dataKey(head.version()), String.class);
+        if (encoded.isEmpty()) {
+            log.warn("Catalog snapshot version {} is announced but its data is missing", head.version());
+            return;
+        }
+        byte[] bytes = Base64.getDecoder().decode(encoded.get());
+        long version = CatalogSnapshot.from(ByteBuffer.wrap(bytes)).getCatalogVersion();
+        if (version != head.version()) {
+            throw new IOException("Shared catalog snapshot is version " + version + ", expected " + head.version());
+        }
+        install(bytes, head.confirmedAt());
+        log.info("Loaded shared catalog snapshot version {} with {} products", version, snapshot.size());
+    }
+
+    private void loadLocalFile() throws IOException {
+        if (!Files.isReadable(snapshotPath)) {
+            return;
+        }
+        FileTime modified = Files.getLastModifiedTime(snapshotPath);
+        if (modified.equals(loadedModifiedTime)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        CatalogSnapshot loaded = CatalogSnapshot.open(snapshotPath);
+        snapshot = loaded;
+        confirmedAt = loaded.getCreatedAt();
+        loadedModifiedTime = modified;
+        log.info("Loaded catalog snapshot version {} with {} products from {} in {} ms",
+                loaded.getCatalogVersion(), loaded.size(), snapshotPath,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void install(byte[] bytes, Instant confirmed) throws IOException {
+        CatalogSnapshot.write(snapshotPath, bytes);
+        CatalogSnapshot loaded = CatalogSnapshot.open(snapshotPath);
+        snapshot = loaded;
+        confirmedAt = confirmed;
+        loadedModifiedTime = Files.getLastModifiedTime(snapshotPath);
+    }
+
+    /**
+     * Produces a fresh snapshot of the products this instance has seen demand
+     * for, if it holds the producer lease: the currently hot SKUs plus
+     * everything in the previous snapshot, with current facts taken from the
+     * cache where possible and the catalog otherwise. Unchanged facts keep the
+     * version and only renew its confirmation.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog-snapshot.produce-interval-ms:900000}",
+               initialDelayString = "${app.catalog-snapshot.produce-interval-ms:900000}")
+    public void produceSnapshot() {
+        if (!enabled || !produceEnabled) {
+            return;
+        }
+
+        if (!cacheStore.putIfAbsent(PRODUCER_LEASE_KEY, nodeId, producerLease)) {
+            log.debug("Another instance produces the catalog snapshot this round");
+            return;
+        }
+
+        try {
+            Map<String, ProductInfo> products = new LinkedHashMap<>();
+            Set<SKU> toFetch = new LinkedHashSet<>();
+
+            List<SKU> candidates = new ArrayList<>(hotSkuTracker.hottest(maxProducts));
+            CatalogSnapshot previous = snapshot;
+            if (previous != null) {
+                previous.all().forEach(product -> candidates.add(product.sku()));
+            }
+
+            for (SKU sku : candidates) {
+                if (products.size() + toFetch.size() >= maxProducts) {
+                    break;
+                }
+                if (products.containsKey(sku.getValue())) {
+                    continue;
+                }
+                Optional<ProductInfo> cached = cacheService.get("product-by-sku", sku.getValue(), ProductInfo.class);
+                if (cached.isPresent()) {
+                    products.put(sku.getValue(), cached.get());
+                } else {
+                    toFetch.add(sku);
+                }
+            }
+
+            List<SKU> fetchList = new ArrayList<>(toFetch);
+            for (int from = 0; from < fetchList.size(); from += batchSize) {
+                List<SKU> batch = fetchList.subList(from, Math.min(from + batchSize, fetchList.size()));
+                productCatalogClient.getProductsInfo(batch)
+                    .forEach(product -> products.put(product.sku().getValue(), product));
+            }
+
+            if (products.isEmpty()) {
+                log.debug("No known products, skipping catalog snapshot");
+                return;
+            }
+
+            Instant now = Instant.now();
+            byte[] bytes = CatalogSnapshot.encodeByContent(now, products.values());
+            long version = CatalogSnapshot.from(ByteBuffer.wrap(bytes)).getCatalogVersion();
+            // Data goes first and is renewed with the head, so a head never names missing data
+            cacheStore.put(dataKey(version), Base64.getEncoder().encodeToString(bytes), maxAge);
+            cacheStore.put(HEAD_KEY, new Head(version, now).format(), maxAge);
+
+            if (previous != null && previous.getCatalogVersion() == version) {
+                confirmedAt = now;
+                log.debug("Catalog snapshot version {} confirmed unchanged with {} products", version, products.size());
+                return;
+            }
+            install(bytes, now);
+            log.info("Produced catalog snapshot version {} with {} products", version, products.size());
+        } catch (Exception e) {
+            log.error("Failed to produce catalog snapshot at {}", snapshotPath, e);
+        }
+    }
+
+    private static String dataKey(long version) {
+        return DATA_KEY_PREFIX + ":" + version;
+    }
+
+    /**
+     * The shared snapshot's version and when its facts were last confirmed,
+     * stored as {@code version:confirmedAtMillis}.
+     */
+    private record Head(long version, Instant confirmedAt) {
+        static Optional<Head> parse(String value) {
+            int separator = value.indexOf(':');
+            if (separator < 0) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new Head(Long.parseLong(value.substring(0, separator)),
+                    Instant.ofEpochMilli(Long.parseLong(value.substring(separator + 1)))));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+        String format() {
+            return version + ":" + confirmedAt.toEpochMilli();
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
+import com.paklog.cartonization.application.port.out.CacheStore;
+import com.paklog.cartonization.application.port.out.CartonRepository;
+import com.paklog.cartonization.application.port.out.HistoricalDemandSource;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient;
+import com.paklog.cartonization.application.service.PackingSolutionService;
+import com.paklog.cartonization.domain.model.valueobject.ItemToPack;
+import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Warms the product and packing solution caches from recent demand. The orders
+ * behind recently persisted solutions are mined for the most frequent SKUs and
+ * the most frequent order shapes (SKU and quantity multisets); the SKUs are
+ * loaded into the product caches and each shape is packed once per warmup site,
+ * which fills the solution cache under the keys real requests for the same
+ * basket will look up.
+ * <p>
+ * Runs on startup on every node, to fill its local tiers and gate readiness.
+ * After that it re-warms when the content versions of the product catalog or
+ * of a warmup site's cartons move, since that retires their solution cache
+ * keys. A change must hold for {@code app.cache.warmup.debounce} before it
+ * counts, so a burst of carton writes causes one run. Because the solution and
+ * product caches are shared, only the node that takes a Redis lease for the
+ * new versions re-warms; the others skip once it marks them warm. Work runs on
+ * a small pool of minimum-priority daemon threads. Readiness is held back until
+ * the configured fraction of the planned entries is warm, or until the ready
+ * timeout passes, whichever comes first; once ready, re-warming does not take
+ * the node out of rotation again.
+ */
+@Service
+public class DemandDrivenWarmupService {
+
+    private static final Logger log = LoggerFactory.getLogger(DemandDrivenWarmupService.class);
+
+    // Rules the packing API applies when a request leaves them out
+    private static final boolean DEFAULT_OPTIMIZE_FOR_MINIMUM_BOXES = true;
+    private static final boolean DEFAULT_ALLOW_MIXED_CATEGORIES = true;
+    static final String LEASE_PREFIX = "cache-warmup:lease";
+    static final String WARMED_PREFIX = "cache-warmup:warmed";
+    private static final Duration WARMED_MARKER_TTL = Duration.ofDays(1);
+
+    private final HistoricalDemandSource demandSource;
+    private final PackingSolutionService packingSolutionService;
+    private final ProductCatalogClient productCatalogClient;
+    private final CartonRepository cartonRepository;
+    private final VersionedCartonCatalog cartonCatalog;
+    private final CacheStore cacheStore;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final Duration lookback;
+    private final int maxOrders;
+    private final int topSkus;
+    private final int topShapes;
+    private final List<String> warmupSites;
+    private final double readyFraction;
+    private final Duration readyTimeout;
+    private final Duration debounce;
+    private final Duration leaseTtl;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger planned = new AtomicInteger();
+    private final AtomicInteger warmed = new AtomicInteger();
+
+    private volatile Instant readySince;
+    private volatile boolean ready;
+    private volatile boolean planKnown;
+    private volatile long warmedVersions;
+    private volatile long pendingVersions;
+    private volatile Instant pendingSince;
+
+    public DemandDrivenWarmupService(HistoricalDemandSource demandSource,
+                                     PackingSolutionService packingSolutionService,
+                                     ProductCatalogClient productCatalogClient,
+                                     CartonRepository cartonRepository,
+                                     VersionedCartonCatalog cartonCatalog,
+                                     CacheStore cacheStore,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.cache.warmup.enabled:true}") boolean enabled,
+                                     @Value("${app.cache.warmup.demand.lookback:7d}") Duration lookback,
+                                     @Value("${app.cache.warmup.demand.max-orders:100000}") int maxOrders,
+                                     @Value("${app.cache.warmup.demand.top-skus:1000}") int topSkus,
+                                     @Value("${app.cache.warmup.demand.top-shapes:500}") int topShapes,
+                                     @Value("${app.cache.warmup.demand.parallelism:2}") int parallelism,
+                                     @Value("${app.cache.warmup.sites:}") List<String> warmupSites,
+                                     @Value("${app.cache.warmup.ready-fraction:0.8}") double readyFraction,
+                                     @Value("${app.cache.warmup.ready-timeout:5m}") Duration readyTimeout,
+                                     @Value("${app.cache.warmup.debounce:2m}") Duration debounce,
+                                     @Value("${app.cache.warmup.lease-ttl:30m}") Duration leaseTtl) {
+        this.demandSource = demandSource;
+        this.packingSolutionService = packingSolutionService;
+        this.productCatalogClient = productCatalogClient;
+        this.cartonRepository = cartonRepository;
+        this.cartonCatalog = cartonCatalog;
+        this.cacheStore = cacheStore;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.lookback = lookback;
+        this.maxOrders = maxOrders;
+        this.topSkus = topSkus;
+        this.topShapes = topShapes;
+        this.warmupSites = warmupSites;
+        this.readyFraction = readyFraction;
+        this.readyTimeout = readyTimeout;
+        this.debounce = debounce;
+        this.leaseTtl = leaseTtl;
+        this.coordinator = Executors.newSingleThreadExecutor(lowPriorityThreads("cache-warmup-coordinator"));
+        this.workers = Executors.newFixedThreadPool(Math.max(parallelism, 1), lowPriorityThreads("cache-warmup"));
+
+        Gauge.builder("cartonization.cache.warmup.warm_fraction", this, DemandDrivenWarmupService::warmFraction)
+            .description("Share of the planned demand-driven warmup entries that are warm")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        readySince = Instant.now();
+        if (!enabled) {
+            log.info("Demand-driven cache warmup is disabled");
+            return;
+        }
+        trigger("startup");
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.warmup.version-check-interval-ms:30000}",
+               initialDelayString = "${app.cache.warmup.version-check-interval-ms:30000}")
+    public void warmOnCatalogChange() {
+        if (!enabled || readySince == null || running.get()) {
+            return;
+        }
+        long versions = catalogVersions();
+        if (versions == warmedVersions) {
+            pendingSince = null;
+            return;
+        }
+
+        // Wait for the catalogs to settle, so a burst of writes causes one run
+        Instant now = Instant.now();
+        if (pendingSince == null || versions != pendingVersions) {
+            pendingVersions = versions;
+            pendingSince = now;
+            return;
+        }
+        if (now.isBefore(pendingSince.plus(debounce))) {
+            return;
+        }
+
+        String marker = cacheStore.buildKey(WARMED_PREFIX, Long.toHexString(versions));
+        if (cacheStore.exists(marker)) {
+            log.info("Catalog versions {} already warmed by another node", Long.toHexString(versions));
+            warmedVersions = versions;
+            pendingSince = null;
+            return;
+        }
+        String lease = cacheStore.buildKey(LEASE_PREFIX, Long.toHexString(versions));
+        if (!cacheStore.putIfAbsent(lease, nodeId, leaseTtl)) {
+            log.debug("Another node is warming catalog versions {}", Long.toHexString(versions));
+            return;
+        }
+        // Marked warm only on success; otherwise the lease goes back so another node can retry
+        boolean started = start("catalog-change",
+            () -> cacheStore.put(marker, nodeId, WARMED_MARKER_TTL),
+            () -> releaseLease(lease));
+        if (!started) {
+            releaseLease(lease);
+            return;
+        }
+        log.info("Catalog versions moved to {}, re-warming shared caches", Long.toHexString(versions));
+        pendingSince = null;
+    }
+
+    private void releaseLease(String lease) {
+        try {
+            // Only release our own lease; it may have expired and been taken over meanwhile
+            cacheStore.deleteIfEquals(lease, nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to release warmup lease {}, it expires on its own: {}", lease, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a warmup run unless one is already in progress.
+     *
+     * @return whether a run was started
+     */
+    public boolean trigger(String reason) {
+        return start(reason, () -> { }, () -> { });
+    }
+
+    private boolean start(String reason, Runnable onCompleted, Runnable onFailed) {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return false;
+        }
+        coordinator.execute(() -> {
+            try {
+                run(reason);
+                onCompleted.run();
+            } catch (Exception e) {
+                log.error("Demand-driven cache warmup ({}) failed", reason, e);
+                onFailed.run();
+            } finally {
+                running.set(false);
+                planKnown = true;
+            }
+        });
+        return true;
+    }
+
+    public double warmFraction() {
+        if (!planKnown) {
+            return 0.0;
+        }
+        int total = planned.get();
+        return total > 0 ? (double) warmed.get() / total : 1.0;
+    }
+
+    /**
+     * Whether enough of the caches are warm to take traffic. Latches once true.
+     */
+    public boolean isReady() {
+        if (ready) {
+            return true;
+        }
+        Instant since = readySince;
+        if (!enabled) {
+            ready = true;
+        } else if (since != null
+            && (warmFraction() >= readyFraction || Instant.now().isAfter(since.plus(readyTimeout)))) {
+            ready = true;
+            log.info("Cache warmup readiness reached at warm fraction {}", String.format("%.2f", warmFraction()));
+        }
+        return ready;
+    }
+
+    // Whether a warmup run is in progress
+    boolean isRunning() {
+        return running.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(String reason) {
+        long started = System.nanoTime();
+        long versions = catalogVersions();
+
+        Demand demand = mine();
+        List<String> shapeSites = shapeSites();
+
+        warmed.set(0);
+        planned.set(demand.skus().size() + demand.shapes().size() * shapeSites.size());
+        planKnown = true;
+        log.info("Demand-driven cache warmup ({}) planned: {} SKUs, {} order shapes across {} sites",
+                reason, demand.skus().size(), demand.shapes().size(), shapeSites.size());
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (SKU sku : demand.skus()) {
+            tasks.add(CompletableFuture.runAsync(() -> warm("sku", () -> {
+                productCatalogClient.getProductInfo(sku);
+                productCatalogClient.getProductDimensions(sku);
+            }), workers));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+
+        // Shapes after SKUs, so enrichment finds the products already cached
+        tasks.clear();
+        for (List<ItemToPack> shape : demand.shapes()) {
+            for (String site : shapeSites) {
+                CalculatePackingSolutionCommand command = CalculatePackingSolutionCommand.builder()
+                    .requestId("warmup")
+                    .items(shape)
+                    .siteId(site)
+                    .optimizeForMinimumBoxes(DEFAULT_OPTIMIZE_FOR_MINIMUM_BOXES)
+                    .allowMixedCategories(DEFAULT_ALLOW_MIXED_CATEGORIES)
+                    .build();
+                tasks.add(CompletableFuture.runAsync(
+                    () -> warm("shape", () -> packingSolutionService.precompute(command)), workers));
+            }
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+
+        warmedVersions = versions;
+        log.info("Demand-driven cache warmup ({}) completed: {}/{} entries warm in {} ms",
+                reason, warmed.get(), planned.get(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private List<String> shapeSites() {
+        Collection<String> sites = warmupSites.isEmpty() ? cartonCatalog.current().sites() : warmupSites;
+        return sites.isEmpty() ? Collections.singletonList(null) : List.copyOf(sites);
+    }
+
+    /**
+     * Combines the product catalog's content version with the content versions
+     * of every warmup site's cartons, the versions solution cache keys embed.
+     */
+    private long catalogVersions() {
+        long versions = productCatalogClient.getCatalogVersion();
+        for (String site : shapeSites()) {
+            versions = versions * 31 + cartonRepository.getCatalogVersion(site);
+        }
+        return versions;
+    }
+
+    private void warm(String kind, Runnable task) {
+        try {
+            task.run();
+            warmed.incrementAndGet();
+            counter(kind, "warmed").increment();
+        } catch (Exception e) {
+            counter(kind, "failed").increment();
+            log.debug("Failed to warm {}: {}", kind, e.getMessage());
+        }
+    }
+
+    private Demand mine() {
+        Map<String, Integer> skuCounts = new HashMap<>();
+        Map<Map<String, Integer>, Integer> shapeCounts = new HashMap<>();
+        int orders = 0;
+
+        try (Stream<List<ItemWithDimensions>> stream = demandSource.streamOrders(Instant.now().minus(lookback))) {
+            var iterator = stream.iterator();
+            while (iterator.hasNext() && (maxOrders <= 0 || orders < maxOrders)) {
+                Map<String, Integer> shape = new TreeMap<>();
+                for (ItemWithDimensions item : iterator.next()) {
+                    shape.merge(item.getSku().getValue(), item.getQuantity(), Integer::sum);
+                }
+                shape.keySet().forEach(sku -> skuCounts.merge(sku, 1, Integer::sum));
+                shapeCounts.merge(shape, 1, Integer::sum);
+                orders++;
+            }
+        }
+
+        List<SKU> skus = top(skuCounts, topSkus).stream().map(SKU::of).toList();
+        List<List<ItemToPack>> shapes = top(shapeCounts, topShapes).stream()
+            .map(shape -> shape.entrySet().stream()
+                .map(entry -> ItemToPack.of(entry.getKey(), entry.getValue()))
+                .toList())
+            .toList();
+        log.info("Mined {} orders from the last {}: {} distinct SKUs, {} distinct order shapes",
+                orders, lookback, skuCounts.size(), shapeCounts.size());
+        return new Demand(skus, shapes);
+    }
+
+    private static <K> List<K> top(Map<K, Integer> counts, int limit) {
+        return counts.entrySet().stream()
+            .sorted(Map.Entry.<K, Integer>comparingByValue(Comparator.reverseOrder()))
+            .limit(Math.max(limit, 0))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    private Counter counter(String kind, String result) {
+        return Counter.builder("cartonization.cache.warmup.entries")
+            .tag("kind", kind)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static ThreadFactory lowPriorityThreads(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+    }
+
+    record Demand(List<SKU> skus, List<List<ItemToPack>> shapes) {
+    }
+}
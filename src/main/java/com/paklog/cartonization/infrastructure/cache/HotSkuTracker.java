@@ -0,0 +1,46 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tracks how often each SKU is looked up so the hottest ones can be refreshed
+ * ahead of expiry. Kept free of other application dependencies because it is
+ * fed from {@link ProductAccessTrackingAspect}.
+ */
+@Component
+public class HotSkuTracker {
+
+    private final SkuFrequencySketch sketch;
+
+    public HotSkuTracker(MeterRegistry meterRegistry,
+                         @Value("${app.cache.refresh-ahead.sketch-width:4096}") int sketchWidth,
+                         @Value("${app.cache.refresh-ahead.sketch-depth:4}") int sketchDepth,
+                         @Value("${app.cache.refresh-ahead.top-k:500}") int topK,
+                         @Value("${app.cache.refresh-ahead.sample-size:100000}") long sampleSize) {
+        this.sketch = new SkuFrequencySketch(sketchWidth, sketchDepth, topK, sampleSize);
+
+        Gauge.builder("cartonization.cache.hot_skus.tracked", sketch, SkuFrequencySketch::candidateCount)
+            .description("Number of SKUs currently tracked as refresh-ahead candidates")
+            .register(meterRegistry);
+    }
+
+    public void recordAccess(SKU sku) {
+        sketch.increment(sku.getValue());
+    }
+
+    public List<SKU> hottest(int limit) {
+        return sketch.topK(limit).stream()
+            .map(SKU::of)
+            .toList();
+    }
+
+    public long estimatedFrequency(SKU sku) {
+        return sketch.estimate(sku.getValue());
+    }
+}
@@ -1,152 +1,132 @@
 package com.paklog.cartonization.infrastructure.cache;
 
-import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
+import com.paklog.cartonization.application.port.out.PackingSolutionCache;
 import com.paklog.cartonization.domain.model.entity.PackingSolution;
-import com.paklog.cartonization.domain.model.valueobject.ItemToPack;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packing solution cache over the {@code packing-cache} Redis cache. Entries are
+ * stored with the time it took to compute them, so every hit reports the time
+ * it saved. Hits and misses are counted per key kind (the key prefix, e.g.
+ * {@code basket} or {@code items}).
+ */
 @Service
-public class PackingSolutionCacheService {
+public class PackingSolutionCacheService implements PackingSolutionCache {
 
     private static final Logger log = LoggerFactory.getLogger(PackingSolutionCacheService.class);
-    
-    private final CacheService cacheService;
+    private static final String CACHE_NAME = "packing-cache";
 
-    public PackingSolutionCacheService(CacheService cacheService) {
+    private final CacheService cacheService;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Map<String, KindStats> statsByKind = new ConcurrentHashMap<>();
+    private final Timer timeSaved;
+
+    public PackingSolutionCacheService(CacheService cacheService,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.redis.cache.packing-solution-ttl}") Duration ttl) {
         this.cacheService = cacheService;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.timeSaved = Timer.builder("cartonization.packing_cache.time_saved")
+            .description("Compute time of packing solutions served from the solution cache")
+            .register(meterRegistry);
     }
 
-    @Cacheable(value = "packing-cache", key = "#command.requestId")
-    public Optional<PackingSolution> getCachedSolution(CalculatePackingSolutionCommand command) {
-        // This method will be intercepted by Spring Cache
-        return Optional.empty();
-    }
+    @Override
+    public Optional<PackingSolution> find(String key) {
+        KindStats stats = stats(key);
+        Optional<RecomputableEntry> entry = cacheService.getEntry(CACHE_NAME, key)
+            .filter(cached -> cached.getValue() instanceof PackingSolution);
 
-    public void cacheSolution(CalculatePackingSolutionCommand command, PackingSolution solution) {
-        String cacheKey = generateCacheKey(command);
-        cacheService.put("packing-cache", cacheKey, solution);
-        
-        // Also cache by request ID for quick lookup
-        if (command.getRequestId() != null) {
-            cacheService.put("packing-cache", command.getRequestId(), solution);
+        if (entry.isEmpty()) {
+            stats.misses.increment();
+            return Optional.empty();
         }
-        
-        log.debug("Cached packing solution for key: {}", cacheKey);
-    }
 
-    public Optional<PackingSolution> findCachedSolution(CalculatePackingSolutionCommand command) {
-        String cacheKey = generateCacheKey(command);
-        Optional<PackingSolution> solution = cacheService.get("packing-cache", cacheKey, PackingSolution.class);
-        
-        if (solution.isEmpty() && command.getRequestId() != null) {
-            // Try by request ID as fallback
-            solution = cacheService.get("packing-cache", command.getRequestId(), PackingSolution.class);
-        }
-        
-        return solution;
+        stats.hits.increment();
+        timeSaved.record(entry.get().getComputeMillis(), TimeUnit.MILLISECONDS);
+        log.debug("Packing solution cache hit for key: {}", key);
+        return Optional.of((PackingSolution) entry.get().getValue());
     }
 
-    public Optional<PackingSolution> findByRequestId(String requestId) {
-        return cacheService.get("packing-cache", requestId, PackingSolution.class);
+    @Override
+    public void put(String key, PackingSolution solution, Duration computeTime) {
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        cacheService.put(CACHE_NAME, key, new RecomputableEntry(solution, computeTime.toMillis(), expiresAt));
+        log.debug("Cached packing solution for key: {}", key);
     }
 
-    @CacheEvict(value = "packing-cache", allEntries = true)
+    @CacheEvict(value = CACHE_NAME, allEntries = true)
     public void clearAllPackingCache() {
         log.info("Cleared all packing solution cache entries");
     }
 
-    @CacheEvict(value = "packing-cache", key = "#requestId")
+    @CacheEvict(value = CACHE_NAME, key = "#requestId")
     public void evictByRequestId(String requestId) {
         log.debug("Evicted packing cache entry for request ID: {}", requestId);
     }
 
-    public void evictByCommand(CalculatePackingSolutionCommand command) {
-        String cacheKey = generateCacheKey(command);
-        cacheService.evict("packing-cache", cacheKey);
-        
-        if (command.getRequestId() != null) {
-            cacheService.evict("packing-cache", command.getRequestId());
+    public CacheStats getCacheStats() {
+        long hits = 0;
+        long misses = 0;
+        for (KindStats stats : statsByKind.values()) {
+            hits += (long) stats.hits.count();
+            misses += (long) stats.misses.count();
         }
-        
-        log.debug("Evicted packing cache entries for command: {}", cacheKey);
+        return new CacheStats(
+            cacheService.getCacheNames().contains(CACHE_NAME),
+            CACHE_NAME,
+            hits,
+            misses,
+            0L, // eviction count - expiry is left to Redis
+            (long) timeSaved.totalTime(TimeUnit.MILLISECONDS)
+        );
     }
 
-    public boolean isCached(CalculatePackingSolutionCommand command) {
-        String cacheKey = generateCacheKey(command);
-        return cacheService.exists("packing-cache", cacheKey) ||
-               (command.getRequestId() != null && cacheService.exists("packing-cache", command.getRequestId()));
+    private KindStats stats(String key) {
+        int separator = key.indexOf(':');
+        String kind = separator > 0 ? key.substring(0, separator) : "other";
+        return statsByKind.computeIfAbsent(kind, this::registerKind);
     }
 
-    private String generateCacheKey(CalculatePackingSolutionCommand command) {
-        // Create a deterministic cache key based on command parameters
-        StringBuilder keyBuilder = new StringBuilder();
-        
-        // Add order ID if available
-        if (command.getOrderId() != null) {
-            keyBuilder.append("order:").append(command.getOrderId()).append("|");
-        }
-        
-        // Add sorted items for consistency
-        String itemsKey = command.getItems().stream()
-            .sorted((a, b) -> a.getSku().getValue().compareTo(b.getSku().getValue()))
-            .map(item -> item.getSku().getValue() + ":" + item.getQuantity())
-            .collect(Collectors.joining(","));
-        keyBuilder.append("items:").append(itemsKey);
-        
-        // Add optimization flags
-        keyBuilder.append("|minBoxes:").append(command.isOptimizeForMinimumBoxes());
-        keyBuilder.append("|mixedCat:").append(command.isAllowMixedCategories());
-        
-        String cacheKey = keyBuilder.toString();
-        
-        // Use hash if key is too long
-        if (cacheKey.length() > 250) {
-            cacheKey = "hash:" + Math.abs(cacheKey.hashCode());
-        }
-        
-        return cacheKey;
+    private KindStats registerKind(String kind) {
+        Counter hits = Counter.builder("cartonization.packing_cache.requests")
+            .tag("key", kind)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        Counter misses = Counter.builder("cartonization.packing_cache.requests")
+            .tag("key", kind)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        KindStats stats = new KindStats(hits, misses);
+        Gauge.builder("cartonization.packing_cache.hit_ratio", stats, KindStats::hitRatio)
+            .description("Share of solution cache lookups that were hits")
+            .tag("key", kind)
+            .register(meterRegistry);
+        return stats;
     }
 
-    public void warmUpCache(List<CalculatePackingSolutionCommand> commonCommands) {
-        log.info("Starting cache warm-up for {} common packing commands", commonCommands.size());
-        
-        // This would typically be called during startup or by a scheduled job
-        // to pre-populate cache with common packing scenarios
-        
-        commonCommands.parallelStream()
-            .forEach(command -> {
-                try {
-                    if (!isCached(command)) {
-                        // This would trigger actual calculation and caching
-                        log.debug("Pre-calculating solution for cache key: {}", generateCacheKey(command));
-                        // Actual implementation would call the packing service
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to warm up cache for command: {}", generateCacheKey(command), e);
-                }
-            });
-        
-        log.info("Cache warm-up completed");
-    }
+    private record KindStats(Counter hits, Counter misses) {
 
-    public CacheStats getCacheStats() {
-        // This would require access to Redis statistics or cache metrics
-        // For now, return basic info
-        return new CacheStats(
-            cacheService.getCacheNames().contains("packing-cache"),
-            "packing-cache",
-            0L, // hit count - would need metrics integration
-            0L, // miss count - would need metrics integration
-            0L  // eviction count - would need metrics integration
-        );
+        double hitRatio() {
+            double total = hits.count() + misses.count();
+            return total > 0 ? hits.count() / total : 0.0;
+        }
     }
 
     public record CacheStats(
@@ -154,6 +134,7 @@ public class PackingSolutionCacheService {
         String cacheName,
         long hitCount,
         long missCount,
-        long evictionCount
+        long evictionCount,
+        long timeSavedMillis
     ) {}
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.application.port.out.PackingSolutionViewStore;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.infrastructure.adapter.in.web.dto.PackingSolutionRecord;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Packing solution responses, serialized once and kept in the
+ * {@code packing-solution-views} cache (local LRU in front of Redis). A view
+ * is rendered when its solution is written; a lookup that finds none renders
+ * it from the stored solution and caches it. Solutions never change, so views
+ * only go stale when their solution is deleted.
+ * <p>
+ * Every lookup is timed, and the bytes it allocated are recorded where the
+ * JVM can count them, tagged by whether the view came from the projection or
+ * had to be rebuilt, so the two paths can be compared in production.
+ */
+@Service
+public class PackingSolutionViewCache implements PackingSolutionViewStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PackingSolutionViewCache.class);
+    static final String CACHE_NAME = "packing-solution-views";
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    private final CacheService cacheService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    private final Timer projectedServes;
+    private final Timer rebuiltServes;
+    private final DistributionSummary projectedAllocations;
+    private final DistributionSummary rebuiltAllocations;
+
+    public PackingSolutionViewCache(CacheService cacheService,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.solution-views.enabled:true}") boolean enabled) {
+        this.cacheService = cacheService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+
+        this.projectedServes = serveTimer(meterRegistry, "projection");
+        this.rebuiltServes = serveTimer(meterRegistry, "rebuilt");
+        this.projectedAllocations = allocationSummary(meterRegistry, "projection");
+        this.rebuiltAllocations = allocationSummary(meterRegistry, "rebuilt");
+    }
+
+    private static Timer serveTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("cartonization.solution_views.serve")
+            .description("Time to produce a packing solution response, by where it came from")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    private static DistributionSummary allocationSummary(MeterRegistry meterRegistry, String source) {
+        return DistributionSummary.builder("cartonization.solution_views.allocated")
+            .description("Heap allocated to produce a packing solution response, by where it came from")
+            .baseUnit("bytes")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void project(PackingSolution solution) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            cacheService.put(CACHE_NAME, solution.getSolutionId(), render(solution));
+        } catch (Exception e) {
+            log.warn("Failed to project packing solution {}: {}", solution.getSolutionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the serialized response for a solution, loading the solution
+     * only when no view of it is cached.
+     */
+    public byte[] serve(String solutionId, Function<String, PackingSolution> loader) {
+        long started = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+
+        Optional<byte[]> cached = enabled
+            ? cacheService.get(CACHE_NAME, solutionId, byte[].class)
+            : Optional.empty();
+        byte[] view;
+        if (cached.isPresent()) {
+            view = cached.get();
+        } else {
+            view = render(loader.apply(solutionId));
+            if (enabled) {
+                cacheService.put(CACHE_NAME, solutionId, view);
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        long allocated = allocatedBytes() - allocatedBefore;
+        (cached.isPresent() ? projectedServes : rebuiltServes).record(elapsed, TimeUnit.NANOSECONDS);
+        if (allocatedBefore >= 0) {
+            (cached.isPresent() ? projectedAllocations : rebuiltAllocations).record(allocated);
+        }
+        return view;
+    }
+
+    byte[] render(PackingSolution solution) {
+        try {
+            return objectMapper.writeValueAsBytes(PackingSolutionRecord.from(solution));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render packing solution " + solution.getSolutionId(), e);
+        }
+    }
+
+    // -1 where the JVM does not count allocations per thread
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts product lookups before the caching proxy sees them, so cache hits are
+ * reflected in SKU popularity and not only the misses that reach the catalog.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ProductAccessTrackingAspect {
+
+    private final HotSkuTracker hotSkuTracker;
+
+    public ProductAccessTrackingAspect(HotSkuTracker hotSkuTracker) {
+        this.hotSkuTracker = hotSkuTracker;
+    }
+
+    @Before("execution(* com.paklog.cartonization.application.port.out.ProductCatalogClient.getProductInfo(..)) && args(sku)")
+    public void recordProductLookup(SKU sku) {
+        if (sku != null) {
+            hotSkuTracker.recordAccess(sku);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.out.CacheStore;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers SKUs the product catalog has definitively answered "not found" or
+ * "no longer active" for, so that retries and replays of poison orders are
+ * answered locally instead of hitting the catalog again.
+ * <p>
+ * Tombstones are only recorded for authoritative answers from the catalog.
+ * Catalog outages are never cached here; they surface as
+ * {@link com.paklog.cartonization.domain.exception.ProductCatalogUnavailableException}.
+ */
+@Component
+public class ProductNegativeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductNegativeCache.class);
+    private static final String KEY_PREFIX = "product-tombstone";
+
+    private final CacheStore cacheStore;
+    private final Clock clock;
+    private final Map<String, Tombstone> localTombstones = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final Duration notFoundTtl;
+    private final Duration inactiveTtl;
+    private final int maxLocalEntries;
+
+    private final Counter localHitCounter;
+    private final Counter sharedHitCounter;
+    private final Counter notFoundRecordedCounter;
+    private final Counter inactiveRecordedCounter;
+
+    @Autowired
+    public ProductNegativeCache(CacheStore cacheStore,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.product-catalog.negative-cache.enabled:true}") boolean enabled,
+                                @Value("${app.product-catalog.negative-cache.not-found-ttl:300s}") Duration notFoundTtl,
+                                @Value("${app.product-catalog.negative-cache.inactive-ttl:900s}") Duration inactiveTtl,
+                                @Value("${app.product-catalog.negative-cache.max-local-entries:10000}") int maxLocalEntries) {
+        this(cacheStore, meterRegistry, enabled, notFoundTtl, inactiveTtl, maxLocalEntries, Clock.systemUTC());
+    }
+
+    ProductNegativeCache(CacheStore cacheStore, MeterRegistry meterRegistry, boolean enabled, Duration notFoundTtl,
+                         Duration inactiveTtl, int maxLocalEntries, Clock clock) {
+        this.cacheStore = cacheStore;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.notFoundTtl = notFoundTtl;
+        this.inactiveTtl = inactiveTtl;
+        this.maxLocalEntries = maxLocalEntries;
+
+        this.localHitCounter = Counter.builder("cartonization.product_catalog.negative_cache.hits")
+            .description("Product lookups answered by a tombstone")
+            .tag("tier", "local")
+            .register(meterRegistry);
+        this.sharedHitCounter = Counter.builder("cartonization.product_catalog.negative_cache.hits")
+            .description("Product lookups answered by a tombstone")
+            .tag("tier", "redis")
+            .register(meterRegistry);
+        this.notFoundRecordedCounter = Counter.builder("cartonization.product_catalog.negative_cache.recorded")
+            .description("Tombstones recorded for SKUs the catalog rejected")
+            .tag("reason", "not_found")
+            .register(meterRegistry);
+        this.inactiveRecordedCounter = Counter.builder("cartonization.product_catalog.negative_cache.recorded")
+            .description("Tombstones recorded for SKUs the catalog rejected")
+            .tag("reason", "inactive")
+            .register(meterRegistry);
+        Gauge.builder("cartonization.product_catalog.negative_cache.size", localTombstones, Map::size)
+            .description("Number of tombstones held locally")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Looks up a live tombstone for the SKU, checking the local tier first and
+     * falling back to the shared Redis tier.
+     *
+     * @param sku the SKU to check
+     * @return the reason the SKU was rejected, or empty if it is not tombstoned
+     */
+    public Optional<Reason> lookup(SKU sku) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        String skuValue = sku.getValue();
+        Tombstone local = localTombstones.get(skuValue);
+        if (local != null) {
+            if (!local.isExpiredAt(clock.instant())) {
+                localHitCounter.increment();
+                return Optional.of(local.reason());
+            }
+            localTombstones.remove(skuValue, local);
+        }
+
+        Optional<CacheStore.Expiring<String>> shared =
+            cacheStore.getWithTtl(cacheStore.buildKey(KEY_PREFIX, skuValue), String.class);
+        if (shared.isEmpty()) {
+            return Optional.empty();
+        }
+        Reason reason = Reason.valueOf(shared.get().value());
+        sharedHitCounter.increment();
+        rememberLocally(skuValue, reason, promotedTtl(reason, shared.get().ttl()));
+        return Optional.of(reason);
+    }
+
+    // A promoted copy expires with the shared tombstone instead of starting a fresh TTL
+    private Duration promotedTtl(Reason reason, Duration remaining) {
+        Duration ttl = ttlFor(reason);
+        return remaining != null && remaining.compareTo(ttl) < 0 ? remaining : ttl;
+    }
+
+    /**
+     * Records an authoritative rejection from the catalog.
+     *
+     * @param sku    the rejected SKU
+     * @param reason why the catalog rejected it
+     */
+    public void record(SKU sku, Reason reason) {
+        if (!enabled) {
+            return;
+        }
+
+        Duration ttl = ttlFor(reason);
+        rememberLocally(sku.getValue(), reason, ttl);
+        cacheStore.put(cacheStore.buildKey(KEY_PREFIX, sku.getValue()), reason.name(), ttl);
+
+        if (reason == Reason.NOT_FOUND) {
+            notFoundRecordedCounter.increment();
+        } else {
+            inactiveRecordedCounter.increment();
+        }
+        log.debug("Recorded {} tombstone for SKU: {} with TTL: {}", reason, sku.getValue(), ttl);
+    }
+
+    /**
+     * Drops any tombstone for the SKU, e.g. after the product has been (re)created upstream.
+     *
+     * @param sku the SKU to clear
+     */
+    public void invalidate(SKU sku) {
+        localTombstones.remove(sku.getValue());
+        cacheStore.delete(cacheStore.buildKey(KEY_PREFIX, sku.getValue()));
+    }
+
+    private void rememberLocally(String skuValue, Reason reason, Duration ttl) {
+        if (localTombstones.size() >= maxLocalEntries) {
+            Instant now = clock.instant();
+            localTombstones.values().removeIf(tombstone -> tombstone.isExpiredAt(now));
+            if (localTombstones.size() >= maxLocalEntries) {
+                log.debug("Local tombstone cache full ({} entries), relying on Redis for SKU: {}",
+                        maxLocalEntries, skuValue);
+                return;
+            }
+        }
+        localTombstones.put(skuValue, new Tombstone(reason, clock.instant().plus(ttl)));
+    }
+
+    private Duration ttlFor(Reason reason) {
+        return reason == Reason.NOT_FOUND ? notFoundTtl : inactiveTtl;
+    }
+
+    public enum Reason {
+        NOT_FOUND,
+        INACTIVE
+    }
+
+    private record Tombstone(Reason reason, Instant expiresAt) {
+        boolean isExpiredAt(Instant now) {
+            return now.isAfter(expiresAt);
+        }
+    }
+}
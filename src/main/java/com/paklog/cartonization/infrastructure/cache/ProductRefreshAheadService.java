@@ -0,0 +1,149 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.out.CacheStore;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-fetches the most frequently requested SKUs in batches before their cache
+ * entries expire, so hot products never fall out of the cache together. Less
+ * popular SKUs are left to the jittered product TTL configured in RedisConfig.
+ */
+@Service
+public class ProductRefreshAheadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductRefreshAheadService.class);
+    private static final String HOT_SKUS_KEY = "product-hot-skus";
+    private static final Duration HOT_SKUS_TTL = Duration.ofDays(1);
+
+    private final HotSkuTracker hotSkuTracker;
+    private final ProductCatalogClient productCatalogClient;
+    private final CacheService cacheService;
+    private final CacheStore cacheStore;
+
+    private final boolean enabled;
+    private final int topK;
+    private final int batchSize;
+    private final Duration refreshAfter;
+
+    private final Map<String, Instant> lastRefreshed = new ConcurrentHashMap<>();
+    private final Counter refreshedCounter;
+    private final Counter refreshFailureCounter;
+
+    public ProductRefreshAheadService(HotSkuTracker hotSkuTracker,
+                                      ProductCatalogClient productCatalogClient,
+                                      CacheService cacheService,
+                                      CacheStore cacheStore,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.cache.refresh-ahead.enabled:true}") boolean enabled,
+                                      @Value("${app.cache.refresh-ahead.top-k:500}") int topK,
+                                      @Value("${app.cache.refresh-ahead.batch-size:50}") int batchSize,
+                                      @Value("${app.cache.refresh-ahead.refresh-after:2400s}") Duration refreshAfter) {
+        this.hotSkuTracker = hotSkuTracker;
+        this.productCatalogClient = productCatalogClient;
+        this.cacheService = cacheService;
+        this.cacheStore = cacheStore;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.batchSize = batchSize;
+        this.refreshAfter = refreshAfter;
+
+        this.refreshedCounter = Counter.builder("cartonization.cache.refresh_ahead.refreshed")
+            .description("Hot SKUs re-fetched ahead of cache expiry")
+            .register(meterRegistry);
+        this.refreshFailureCounter = Counter.builder("cartonization.cache.refresh_ahead.failures")
+            .description("Refresh-ahead batches that failed")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.refresh-ahead.interval-ms:60000}",
+               initialDelayString = "${app.cache.refresh-ahead.interval-ms:60000}")
+    public void refreshHotSkus() {
+        if (!enabled) {
+            return;
+        }
+
+        List<SKU> hottest = hotSkuTracker.hottest(topK);
+        if (hottest.isEmpty()) {
+            return;
+        }
+
+        Set<String> hotValues = new LinkedHashSet<>();
+        hottest.forEach(sku -> hotValues.add(sku.getValue()));
+        lastRefreshed.keySet().retainAll(hotValues);
+
+        Instant dueBefore = Instant.now().minus(refreshAfter);
+        List<SKU> due = hottest.stream()
+            .filter(sku -> {
+                Instant refreshed = lastRefreshed.get(sku.getValue());
+                return refreshed == null || refreshed.isBefore(dueBefore);
+            })
+            .toList();
+
+        int refreshed = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            refreshed += refreshBatch(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+
+        cacheStore.put(HOT_SKUS_KEY, new ArrayList<>(hotValues), HOT_SKUS_TTL);
+
+        if (refreshed > 0) {
+            log.info("Refresh-ahead re-fetched {} of {} hot SKUs", refreshed, hottest.size());
+        }
+    }
+
+    /**
+     * Returns the SKUs worth preloading: the hot set published by any instance
+     * (so a fresh pod inherits its peers' view), followed by the local top-K.
+     *
+     * @param limit maximum number of SKUs to return
+     * @return SKUs ordered roughly from hottest to coldest
+     */
+    @SuppressWarnings("unchecked")
+    public List<SKU> warmupCandidates(int limit) {
+        Set<String> candidates = new LinkedHashSet<>();
+        cacheStore.get(HOT_SKUS_KEY, List.class)
+            .ifPresent(published -> ((List<Object>) published).forEach(value -> candidates.add(String.valueOf(value))));
+        hotSkuTracker.hottest(limit).forEach(sku -> candidates.add(sku.getValue()));
+
+        return candidates.stream()
+            .limit(limit)
+            .map(SKU::of)
+            .toList();
+    }
+
+    private int refreshBatch(List<SKU> batch) {
+        try {
+            List<ProductInfo> products = productCatalogClient.getProductsInfo(batch);
+            Instant now = Instant.now();
+            for (ProductInfo product : products) {
+                cacheService.put("product-by-sku", product.sku().getValue(), product);
+                cacheService.put("product-dimensions", product.sku().getValue(), product.dimensions());
+                lastRefreshed.put(product.sku().getValue(), now);
+            }
+            refreshedCounter.increment(products.size());
+            return products.size();
+        } catch (Exception e) {
+            refreshFailureCounter.increment();
+            log.warn("Refresh-ahead batch of {} SKUs failed: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+    }
+}
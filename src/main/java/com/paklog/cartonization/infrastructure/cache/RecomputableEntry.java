@@ -0,0 +1,65 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A cached value together with how long it took to compute and when it
+ * logically expires, so that readers can recompute it early (XFetch) instead of
+ * all missing at once. The entry itself outlives its logical expiry by the
+ * stale grace window, which is what lets other callers keep serving it while
+ * one caller recomputes.
+ */
+public class RecomputableEntry {
+
+    private final Object value;
+    private final long computeMillis;
+    private final long expiresAtMillis;
+
+    @JsonCreator
+    public RecomputableEntry(@JsonProperty("value") Object value,
+                             @JsonProperty("computeMillis") long computeMillis,
+                             @JsonProperty("expiresAtMillis") long expiresAtMillis) {
+        this.value = value;
+        this.computeMillis = computeMillis;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public long getComputeMillis() {
+        return computeMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    /**
+     * XFetch: recompute when {@code now - computeMillis * beta * ln(rand)} has
+     * reached the expiry, so the chance of recomputing rises as expiry nears and
+     * is higher for values that are slow to compute.
+     */
+    public boolean shouldRecompute(long nowMillis, double beta) {
+        double random = ThreadLocalRandom.current().nextDouble();
+        double gap = computeMillis * beta * -Math.log(random > 0 ? random : Double.MIN_VALUE);
+        return nowMillis + gap >= expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "RecomputableEntry{" +
+               "value=" + value +
+               ", computeMillis=" + computeMillis +
+               ", expiresAtMillis=" + expiresAtMillis +
+               '}';
+    }
+}
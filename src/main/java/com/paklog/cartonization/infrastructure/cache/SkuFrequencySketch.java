@@ -0,0 +1,128 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch over SKU accesses with a bounded heavy-hitter set on top.
+ * <p>
+ * The sketch gives a conservative frequency estimate in fixed memory; the
+ * candidate map keeps the keys whose estimate is high enough to be among the
+ * top {@code capacity} so they can be enumerated. Counters are halved every
+ * {@code sampleSize} increments so popularity decays as demand shifts.
+ */
+public class SkuFrequencySketch {
+
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final int width;
+    private final int depth;
+    private final int capacity;
+    private final long sampleSize;
+    private final AtomicLongArray counters;
+    private final AtomicLong additions = new AtomicLong();
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private volatile long admissionFloor;
+
+    public SkuFrequencySketch(int width, int depth, int capacity, long sampleSize) {
+        if (width <= 0 || capacity <= 0 || sampleSize <= 0) {
+            throw new IllegalArgumentException("Sketch width, capacity and sample size must be positive");
+        }
+        if (depth <= 0 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Sketch depth must be between 1 and " + SEEDS.length);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.capacity = capacity;
+        this.sampleSize = sampleSize;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    public void increment(String sku) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(indexOf(sku, row)));
+        }
+        admit(sku, estimate);
+
+        if (additions.incrementAndGet() % sampleSize == 0) {
+            age();
+        }
+    }
+
+    public long estimate(String sku) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(indexOf(sku, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns up to {@code limit} SKUs ordered from most to least frequently accessed.
+     */
+    public List<String> topK(int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(candidates.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        return entries.stream()
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    public int candidateCount() {
+        return candidates.size();
+    }
+
+    private void admit(String sku, long estimate) {
+        if (candidates.containsKey(sku) || candidates.size() < capacity) {
+            candidates.put(sku, estimate);
+            return;
+        }
+
+        if (estimate <= admissionFloor) {
+            return;
+        }
+
+        // Replace the coldest candidate only if the newcomer is hotter
+        Map.Entry<String, Long> coldest = null;
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (coldest == null || entry.getValue() < coldest.getValue()) {
+                coldest = entry;
+            }
+        }
+        if (coldest == null) {
+            return;
+        }
+        if (coldest.getValue() < estimate && candidates.remove(coldest.getKey(), coldest.getValue())) {
+            candidates.put(sku, estimate);
+        } else {
+            admissionFloor = coldest.getValue();
+        }
+    }
+
+    private void age() {
+        for (int i = 0; i < counters.length(); i++) {
+            long current;
+            do {
+                current = counters.get(i);
+            } while (!counters.compareAndSet(i, current, current >>> 1));
+        }
+        candidates.replaceAll((sku, count) -> count >>> 1);
+        candidates.values().removeIf(count -> count == 0);
+        admissionFloor = admissionFloor >>> 1;
+    }
+
+    private int indexOf(String sku, int row) {
+        long hash = sku.hashCode() * SEEDS[row];
+        hash ^= hash >>> 32;
+        return row * width + (int) Math.floorMod(hash, (long) width);
+    }
+}
@@ -0,0 +1,267 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.CartonId;
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One named cache with a bounded, node-local L1 in front of the shared Redis
+ * L2. Reads try L1 first and fill it from L2 on a miss. Every write, eviction
+ * and clear goes to both tiers and is announced so that peers drop their L1
+ * copy; the L1 TTL bounds staleness if an announcement is lost.
+ * <p>
+ * Like L2, L1 hands every caller its own instance: immutable values are held
+ * and served as they are, the mutable domain types as a private structural
+ * copy that is copied again on each hit, so a caller mutating its copy cannot
+ * corrupt the entry. Other types are left to L2.
+ */
+class TwoTierCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+        String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+        Float.class, Double.class, BigDecimal.class, BigInteger.class, Instant.class, Duration.class, UUID.class,
+        ProductInfo.class, DimensionSet.class, Weight.class, SKU.class, CartonId.class, ItemWithDimensions.class);
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final TwoTierCacheManager manager;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Timer localLatency;
+    private final Timer remoteLatency;
+
+    TwoTierCache(String name,
+                 Cache remote,
+                 com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                 TwoTierCacheManager manager,
+                 MeterRegistry meterRegistry) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.manager = manager;
+
+        this.localHits = requests(meterRegistry, "l1", "hit");
+        this.localMisses = requests(meterRegistry, "l1", "miss");
+        this.remoteHits = requests(meterRegistry, "l2", "hit");
+        this.remoteMisses = requests(meterRegistry, "l2", "miss");
+        this.localLatency = latency(meterRegistry, "l1");
+        this.remoteLatency = latency(meterRegistry, "l2");
+        Gauge.builder("cartonization.cache.l1.size", local, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+            .description("Entries held in the node-local cache tier")
+            .tag("cache", name)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+
+        long start = System.nanoTime();
+        Object value = copy(local.getIfPresent(localKey));
+        localLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        localMisses.increment();
+
+        start = System.nanoTime();
+        ValueWrapper wrapper = remote.get(key);
+        remoteLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (wrapper != null && wrapper.get() != null) {
+            remoteHits.increment();
+            storeLocal(localKey, wrapper.get());
+        } else {
+            remoteMisses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        storeLocal(localKey(key), value);
+        manager.announceEvict(name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        local.invalidate(localKey(key));
+        if (existing == null) {
+            manager.announceEvict(name, localKey(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        manager.announceEvict(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        local.invalidate(localKey(key));
+        manager.announceEvict(name, localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        manager.announceClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        local.invalidateAll();
+        manager.announceClear(name);
+        return invalidated;
+    }
+
+    /**
+     * Drops an L1 entry, or all of them when {@code key} is null, on behalf of
+     * another node. L2 is already up to date.
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    private void storeLocal(String localKey, Object value) {
+        Object stored = copy(value);
+        if (stored != null) {
+            local.put(localKey, stored);
+        } else {
+            // Not worth an L1 entry we cannot copy; L2 still has it
+            local.invalidate(localKey);
+            if (value != null) {
+                log.debug("Not holding {} in L1 cache {}: no cheap copy", value.getClass().getName(), name);
+            }
+        }
+    }
+
+    /**
+     * Returns the value itself if immutable, a structural copy of a known
+     * mutable type, or null if it cannot be copied cheaply.
+     */
+    private static Object copy(Object value) {
+        if (value == null || value instanceof Enum<?> || IMMUTABLE_TYPES.contains(value.getClass())) {
+            return value;
+        }
+        if (value instanceof RecomputableEntry entry) {
+            Object copied = copy(entry.getValue());
+            return copied != null || entry.getValue() == null
+                ? new RecomputableEntry(copied, entry.getComputeMillis(), entry.getExpiresAtMillis())
+                : null;
+        }
+        if (value instanceof PackingSolution solution) {
+            return solution.copy();
+        }
+        if (value instanceof Carton carton) {
+            return carton.copy();
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.clone();
+        }
+        return null;
+    }
+
+    // Redis keys are derived from the key's string form too, so peers agree on it
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cartonization.cache.tier.requests")
+            .description("Cache lookups by tier and outcome")
+            .tag("cache", name)
+            .tag("tier", tier)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private Timer latency(MeterRegistry meterRegistry, String tier) {
+        return Timer.builder("cartonization.cache.tier.latency")
+            .description("Time taken to look up a key in one cache tier")
+            .tag("cache", name)
+            .tag("tier", tier)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,144 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts a bounded Caffeine L1 in front of every cache of the Redis L2 manager.
+ * <p>
+ * L1 size and TTL default to {@code app.cache.local.max-size} and
+ * {@code app.cache.local.ttl} and can be set per cache under
+ * {@code app.cache.local.caches.<name>}. Writes, evictions and clears are
+ * broadcast on a Redis channel as {@code node|cache|key} (no key for a clear);
+ * each node drops the matching L1 entries and ignores its own announcements.
+ * Mutable domain values are held in L1 as structural copies; see
+ * {@link TwoTierCache}.
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+    static final String INVALIDATION_CHANNEL = "cache:l1-invalidate";
+
+    private final CacheManager remoteCacheManager;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final long defaultMaxSize;
+    private final Duration defaultTtl;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    private final Counter sentInvalidations;
+    private final Counter receivedInvalidations;
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               RedisTemplate<String, String> redisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               Environment environment,
+                               MeterRegistry meterRegistry,
+                               long defaultMaxSize,
+                               Duration defaultTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxSize = defaultMaxSize;
+        this.defaultTtl = defaultTtl;
+
+        this.sentInvalidations = Counter.builder("cartonization.cache.l1.invalidations")
+            .description("L1 invalidations announced to or received from other nodes")
+            .tag("direction", "sent")
+            .register(meterRegistry);
+        this.receivedInvalidations = Counter.builder("cartonization.cache.l1.invalidations")
+            .description("L1 invalidations announced to or received from other nodes")
+            .tag("direction", "received")
+            .register(meterRegistry);
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> createCache(key, remote));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length < 2 || nodeId.equals(parts[0])) {
+                return;
+            }
+            TwoTierCache cache = caches.get(parts[1]);
+            if (cache != null) {
+                cache.invalidateLocal(parts.length == 3 ? parts[2] : null);
+                receivedInvalidations.increment();
+            }
+        } catch (Exception e) {
+            log.error("Failed to handle L1 cache invalidation", e);
+        }
+    }
+
+    void announceEvict(String cacheName, String key) {
+        publish(nodeId + "|" + cacheName + "|" + key);
+    }
+
+    void announceClear(String cacheName) {
+        publish(nodeId + "|" + cacheName);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+            sentInvalidations.increment();
+        } catch (Exception e) {
+            log.warn("Failed to announce L1 cache invalidation, peers fall back to L1 TTL: {}", e.getMessage());
+        }
+    }
+
+    private TwoTierCache createCache(String name, Cache remote) {
+        String prefix = "app.cache.local.caches." + name + ".";
+        long maxSize = environment.getProperty(prefix + "max-size", Long.class, defaultMaxSize);
+        Duration ttl = environment.getProperty(prefix + "ttl", Duration.class, defaultTtl);
+
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .build();
+
+        log.info("Two-tier cache {} created with L1 max size: {}, TTL: {}", name, maxSize, ttl);
+        return new TwoTierCache(name, remote, local, this, meterRegistry);
+    }
+}
@@ -0,0 +1,321 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.CartonId;
+import com.paklog.cartonization.domain.model.valueobject.CartonStatus;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.CartonDocumentMapper;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository.SpringDataMongoCartonRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Node-local, immutable copy of the carton catalog behind a volatile pointer.
+ * <p>
+ * The version is derived from the catalog's content, so every node holding the
+ * same cartons reports the same version and it only moves when a carton does.
+ * Local writes are applied copy-on-write and the resulting version is broadcast
+ * over pub/sub; a peer holding a different version rebuilds from MongoDB, which
+ * also merges writes made concurrently on several nodes. Announcements can be
+ * lost, so every node also rebuilds from MongoDB periodically and keeps its
+ * copy when nothing changed. Readers on the packing path never touch Redis or
+ * MongoDB.
+ */
+@Component
+public class VersionedCartonCatalog implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionedCartonCatalog.class);
+    static final String VERSION_CHANNEL = "carton-catalog:version-changed";
+
+    private final SpringDataMongoCartonRepository springDataRepository;
+    private final CartonDocumentMapper mapper;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final CacheService cacheService;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile Snapshot current;
+
+    private final Counter announcedRebuilds;
+    private final Counter reconciledRebuilds;
+
+    public VersionedCartonCatalog(SpringDataMongoCartonRepository springDataRepository,
+                                  CartonDocumentMapper mapper,
+                                  @Qualifier("stringRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  CacheService cacheService,
+                                  MeterRegistry meterRegistry) {
+        this.springDataRepository = springDataRepository;
+        this.mapper = mapper;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.cacheService = cacheService;
+
+        Gauge.builder("cartonization.carton_catalog.cartons", this, catalog -> {
+                Snapshot snapshot = catalog.current;
+                return snapshot != null ? snapshot.all().size() : -1;
+            })
+            .description("Cartons in the node-local carton catalog")
+            .register(meterRegistry);
+        this.announcedRebuilds = Counter.builder("cartonization.carton_catalog.rebuilds")
+            .description("Rebuilds of the node-local carton catalog that changed it, by trigger")
+            .tag("trigger", "announced")
+            .register(meterRegistry);
+        this.reconciledRebuilds = Counter.builder("cartonization.carton_catalog.rebuilds")
+            .description("Rebuilds of the node-local carton catalog that changed it, by trigger")
+            .tag("trigger", "reconciled")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(VERSION_CHANNEL));
+    }
+
+    /**
+     * Returns the current catalog, building it on first use.
+     */
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = current;
+                if (snapshot == null) {
+                    snapshot = rebuild();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Applies a saved carton locally, updates its per-ID cache entry in place and
+     * announces the new catalog version to other nodes.
+     */
+    public synchronized void applySaved(Carton carton) {
+        apply(cartons -> cartons.put(carton.getId().getValue(), carton));
+        cacheService.put("carton-by-id", carton.getId().getValue(), carton);
+    }
+
+    /**
+     * Applies a batch of saved cartons under a single version bump and a single
+     * per-ID cache invalidation, however large the batch.
+     */
+    public synchronized void applySavedAll(List<Carton> saved) {
+        if (saved.isEmpty()) {
+            return;
+        }
+        apply(cartons -> saved.forEach(carton -> cartons.put(carton.getId().getValue(), carton)));
+        cacheService.clear("carton-by-id");
+    }
+
+    public synchronized void applyDeleted(CartonId id) {
+        apply(cartons -> cartons.remove(id.getValue()));
+        cacheService.evict("carton-by-id", id.getValue());
+    }
+
+    /**
+     * Handles {@code node|version} announcements: any version from another
+     * node that differs from the local one triggers a rebuild.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).trim().split("\\|", 2);
+            if (parts.length < 2 || nodeId.equals(parts[0])) {
+                return;
+            }
+            long announced = Long.parseLong(parts[1]);
+            synchronized (this) {
+                Snapshot snapshot = current;
+                if (snapshot == null || announced != snapshot.version()) {
+                    log.info("Carton catalog version {} announced, rebuilding local copy", announced);
+                    if (rebuild() != snapshot) {
+                        announcedRebuilds.increment();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to handle carton catalog version announcement", e);
+        }
+    }
+
+    /**
+     * Rebuilds from MongoDB so a node that missed an announcement, or wrote
+     * concurrently with another node, converges on the stored catalog.
+     */
+    @Scheduled(fixedDelayString = "${app.carton-catalog.reconcile-interval-ms:60000}",
+               initialDelayString = "${app.carton-catalog.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        try {
+            synchronized (this) {
+                Snapshot before = current;
+                if (before != null && rebuild() != before) {
+                    reconciledRebuilds.increment();
+                    log.warn("Carton catalog reconciled from version {} to {}", before.version(), current.version());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to reconcile carton catalog with MongoDB: {}", e.getMessage());
+        }
+    }
+
+    private void apply(Consumer<Map<String, Carton>> change) {
+        Snapshot base = current();
+        Map<String, Carton> cartons = new LinkedHashMap<>(base.byId());
+        change.accept(cartons);
+
+        Snapshot snapshot = Snapshot.of(cartons);
+        current = snapshot;
+        publish(snapshot.version());
+    }
+
+    /**
+     * Reads the catalog from MongoDB and installs it, unless it has the content
+     * of the current copy, which is kept along with its site indexes.
+     *
+     * @return the snapshot in use afterwards
+     */
+    private Snapshot rebuild() {
+        Map<String, Carton> cartons = new LinkedHashMap<>();
+        springDataRepository.findAll().stream()
+            .map(mapper::toDomain)
+            .forEach(carton -> cartons.put(carton.getId().getValue(), carton));
+
+        Snapshot snapshot = Snapshot.of(cartons);
+        Snapshot previous = current;
+        if (previous != null && previous.version() == snapshot.version()) {
+            return previous;
+        }
+        current = snapshot;
+        log.info("Carton catalog version {} built with {} cartons ({} active)",
+                snapshot.version(), snapshot.all().size(), snapshot.active().size());
+        return snapshot;
+    }
+
+    private void publish(long version) {
+        try {
+            redisTemplate.convertAndSend(VERSION_CHANNEL, nodeId + "|" + version);
+        } catch (Exception e) {
+            log.warn("Failed to announce carton catalog version {}: {}", version, e.getMessage());
+        }
+    }
+
+    /**
+     * One catalog version. Per-site indexes hold the active cartons a site
+     * stocks, smallest volume first, and are built the first time a site is
+     * asked for so each site is warmed independently, as are the content
+     * versions of those per-site sets.
+     * <p>
+     * The cartons are shared by every reader and must not be modified; hand
+     * callers that may modify them a copy.
+     */
+    public record Snapshot(
+        long version,
+        Map<String, Carton> byId,
+        List<Carton> all,
+        List<Carton> active,
+        Set<String> sites,
+        Map<String, List<Carton>> siteIndexes,
+        Map<String, Long> siteVersions
+    ) {
+        static Snapshot of(Map<String, Carton> cartons) {
+            List<Carton> all = List.copyOf(cartons.values());
+            long version = contentVersion(all);
+            List<Carton> active = all.stream()
+                .filter(carton -> carton.getStatus() == CartonStatus.ACTIVE)
+                .toList();
+            Set<String> sites = new TreeSet<>();
+            all.forEach(carton -> sites.addAll(carton.getSites()));
+            return new Snapshot(version, Collections.unmodifiableMap(new LinkedHashMap<>(cartons)), all, active,
+                Collections.unmodifiableSet(sites), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+
+        /**
+         * Leading 63 bits of the SHA-256 of what packing depends on, cartons in
+         * ID order; timestamps are left out because MongoDB truncates them.
+         */
+        static long contentVersion(Collection<Carton> cartons) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                cartons.stream()
+                    .sorted(Comparator.comparing(carton -> carton.getId().getValue()))
+                    .forEach(carton -> digest.update(String.join("|",
+                        carton.getId().getValue(),
+                        String.valueOf(carton.getName()),
+                        plain(carton.getDimensions().getLength()),
+                        plain(carton.getDimensions().getWidth()),
+                        plain(carton.getDimensions().getHeight()),
+                        carton.getDimensions().getUnit().name(),
+                        plain(carton.getMaxWeight().getValue()),
+                        carton.getMaxWeight().getUnit().name(),
+                        carton.getStatus().name(),
+                        String.join(",", new TreeSet<>(carton.getSites())),
+                        "\n").getBytes(StandardCharsets.UTF_8)));
+                long version = ByteBuffer.wrap(digest.digest()).getLong() & Long.MAX_VALUE;
+                return version != 0 ? version : 1;
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        private static String plain(BigDecimal value) {
+            return value.stripTrailingZeros().toPlainString();
+        }
+
+        public Optional<Carton> find(CartonId id) {
+            return Optional.ofNullable(byId.get(id.getValue()));
+        }
+
+        /**
+         * Returns the active cartons stocked at the site, smallest first, or every
+         * active carton when no site is given.
+         */
+        public List<Carton> activeAt(String site) {
+            if (site == null || site.isBlank()) {
+                return active;
+            }
+            return siteIndexes.computeIfAbsent(site.trim().toUpperCase(), key -> active.stream()
+                .filter(carton -> carton.isStockedAt(key))
+                .sorted(Comparator.comparing(carton -> carton.getDimensions().volume()))
+                .toList());
+        }
+
+        /**
+         * Returns the content version of {@link #activeAt(String)} for the site.
+         */
+        public long activeVersionAt(String site) {
+            String key = site == null || site.isBlank() ? "" : site.trim().toUpperCase();
+            return siteVersions.computeIfAbsent(key, ignored -> contentVersion(activeAt(site)));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.paklog.cartonization.infrastructure.cache.codec;
+
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.DimensionUnit;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+import com.paklog.cartonization.domain.model.valueobject.WeightUnit;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Reads what {@link BinaryWriter} wrote, in the same order.
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    public BinaryReader(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public boolean hasRemaining() {
+        return position < buffer.length;
+    }
+
+    public int readByte() throws IOException {
+        if (position >= buffer.length) {
+            throw new EOFException("Unexpected end of cache value");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public int readVarInt() throws IOException {
+        return (int) readVarLong();
+    }
+
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer in cache value");
+    }
+
+    public long readSignedVarLong() throws IOException {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public Boolean readNullableBoolean() throws IOException {
+        int value = readByte();
+        return value == 0 ? null : value == 2;
+    }
+
+    public String readString() throws IOException {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (position + length > buffer.length) {
+            throw new EOFException("Unexpected end of cache value");
+        }
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public byte[] readRemaining() {
+        byte[] value = Arrays.copyOfRange(buffer, position, buffer.length);
+        position = buffer.length;
+        return value;
+    }
+
+    public BigDecimal readDecimal() throws IOException {
+        return switch (readByte()) {
+            case 0 -> null;
+            case 1 -> {
+                long unscaled = readSignedVarLong();
+                yield new BigDecimal(BigInteger.valueOf(unscaled), (int) readSignedVarLong());
+            }
+            default -> new BigDecimal(readString());
+        };
+    }
+
+    public Instant readInstant() throws IOException {
+        if (readByte() == 0) {
+            return null;
+        }
+        long seconds = readSignedVarLong();
+        return Instant.ofEpochSecond(seconds, readVarInt());
+    }
+
+    public DimensionSet readDimensions() throws IOException {
+        if (readByte() == 0) {
+            return null;
+        }
+        BigDecimal length = readDecimal();
+        BigDecimal width = readDecimal();
+        BigDecimal height = readDecimal();
+        return new DimensionSet(length, width, height, DimensionUnit.valueOf(readString()));
+    }
+
+    public Weight readWeight() throws IOException {
+        if (readByte() == 0) {
+            return null;
+        }
+        BigDecimal value = readDecimal();
+        return new Weight(value, WeightUnit.valueOf(readString()));
+    }
+}
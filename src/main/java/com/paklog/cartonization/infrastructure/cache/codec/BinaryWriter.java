@@ -0,0 +1,115 @@
+package com.paklog.cartonization.infrastructure.cache.codec;
+
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Compact binary output used by {@link CacheValueCodec}s: variable-length
+ * integers, length-prefixed UTF-8 strings and decimals as unscaled value plus
+ * scale. Every nullable value carries its own presence marker.
+ */
+public final class BinaryWriter {
+
+    private final ByteArrayOutputStream out;
+
+    public BinaryWriter(int initialCapacity) {
+        this.out = new ByteArrayOutputStream(initialCapacity);
+    }
+
+    public byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    public void writeByte(int value) {
+        out.write(value);
+    }
+
+    public void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    public void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    public void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeBoolean(boolean value) {
+        out.write(value ? 1 : 0);
+    }
+
+    public void writeNullableBoolean(Boolean value) {
+        out.write(value == null ? 0 : value ? 2 : 1);
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        out.writeBytes(bytes);
+    }
+
+    // Unframed, so only for a value that takes up the rest of the payload
+    public void writeBytes(byte[] value) {
+        out.writeBytes(value);
+    }
+
+    public void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            out.write(0);
+        } else if (value.unscaledValue().bitLength() < 64) {
+            out.write(1);
+            writeSignedVarLong(value.unscaledValue().longValue());
+            writeSignedVarLong(value.scale());
+        } else {
+            out.write(2);
+            writeString(value.toString());
+        }
+    }
+
+    public void writeInstant(Instant value) {
+        if (value == null) {
+            out.write(0);
+            return;
+        }
+        out.write(1);
+        writeSignedVarLong(value.getEpochSecond());
+        writeVarInt(value.getNano());
+    }
+
+    public void writeDimensions(DimensionSet value) {
+        if (value == null) {
+            out.write(0);
+            return;
+        }
+        out.write(1);
+        writeDecimal(value.getLength());
+        writeDecimal(value.getWidth());
+        writeDecimal(value.getHeight());
+        writeString(value.getUnit().name());
+    }
+
+    public void writeWeight(Weight value) {
+        if (value == null) {
+            out.write(0);
+            return;
+        }
+        out.write(1);
+        writeDecimal(value.getValue());
+        writeString(value.getUnit().name());
+    }
+}
@@ -0,0 +1,19 @@
+package com.paklog.cartonization.infrastructure.cache.codec;
+
+import java.io.IOException;
+
+/**
+ * Binary schema for one cached value type. The codec ID is written into every
+ * frame, so it must never be reused for a different type; a layout change
+ * that old nodes cannot read needs a new ID.
+ */
+public interface CacheValueCodec<T> {
+
+    byte id();
+
+    Class<T> type();
+
+    void write(T value, BinaryWriter out);
+
+    T read(BinaryReader in) throws IOException;
+}
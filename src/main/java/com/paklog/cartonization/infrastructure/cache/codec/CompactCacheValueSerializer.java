@@ -0,0 +1,232 @@
+package com.paklog.cartonization.infrastructure.cache.codec;
+
+import com.paklog.cartonization.infrastructure.cache.RecomputableEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cache value serializer that writes registered types with their binary
+ * {@link CacheValueCodec} and everything else with the JSON serializer it
+ * wraps. Each value is framed as {@code [format version][flags][codec id]
+ * [payload]}; payloads at or above the compression threshold are deflated
+ * when that makes them smaller. A {@link RecomputableEntry} is written as its
+ * inner value with the recompute metadata between the header and the payload.
+ * <p>
+ * Rolling upgrades: values in an unknown format version or from an unknown
+ * codec read as a cache miss rather than an error, and JSON written before
+ * this serializer was introduced is still read through the wrapped serializer.
+ */
+public class CompactCacheValueSerializer implements RedisSerializer<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactCacheValueSerializer.class);
+
+    static final byte FORMAT_VERSION = 1;
+    static final byte JSON_CODEC_ID = 0;
+    private static final int FLAG_COMPRESSED = 0x01;
+    private static final int FLAG_RECOMPUTABLE = 0x02;
+    private static final int HEADER_LENGTH = 3;
+
+    private final RedisSerializer<Object> jsonSerializer;
+    private final Map<Class<?>, CacheValueCodec<?>> codecsByType = new HashMap<>();
+    private final Map<Byte, CacheValueCodec<?>> codecsById = new HashMap<>();
+    private final int compressionThreshold;
+
+    private final DistributionSummary storedBytes;
+    private final Counter compressedValues;
+    private final Counter unreadableValues;
+
+    public CompactCacheValueSerializer(RedisSerializer<Object> jsonSerializer,
+                                       List<CacheValueCodec<?>> codecs,
+                                       int compressionThreshold,
+                                       MeterRegistry meterRegistry) {
+        this.jsonSerializer = jsonSerializer;
+        this.compressionThreshold = compressionThreshold;
+        for (CacheValueCodec<?> codec : codecs) {
+            if (codec.id() == JSON_CODEC_ID || codecsById.putIfAbsent(codec.id(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate or reserved cache codec id: " + codec.id());
+            }
+            codecsByType.put(codec.type(), codec);
+        }
+
+        this.storedBytes = DistributionSummary.builder("cartonization.cache.serializer.stored_bytes")
+            .description("Size of cache values as written to Redis")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.compressedValues = Counter.builder("cartonization.cache.serializer.compressed")
+            .description("Cache values written compressed")
+            .register(meterRegistry);
+        this.unreadableValues = Counter.builder("cartonization.cache.serializer.unreadable")
+            .description("Cache values read as a miss because their format or codec is unknown")
+            .register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        int flags = 0;
+        byte[] meta = new byte[0];
+        if (value instanceof RecomputableEntry entry) {
+            BinaryWriter metaWriter = new BinaryWriter(16);
+            metaWriter.writeVarLong(entry.getComputeMillis());
+            metaWriter.writeSignedVarLong(entry.getExpiresAtMillis());
+            meta = metaWriter.toByteArray();
+            flags |= FLAG_RECOMPUTABLE;
+            value = entry.getValue();
+        }
+
+        CacheValueCodec<Object> codec = (CacheValueCodec<Object>) codecsByType.get(value.getClass());
+        byte[] payload;
+        if (codec != null) {
+            BinaryWriter writer = new BinaryWriter(256);
+            codec.write(value, writer);
+            payload = writer.toByteArray();
+        } else {
+            payload = jsonSerializer.serialize(value);
+        }
+
+        if (payload.length >= compressionThreshold) {
+            byte[] compressed = deflate(payload);
+            if (compressed.length < payload.length) {
+                payload = compressed;
+                flags |= FLAG_COMPRESSED;
+                compressedValues.increment();
+            }
+        }
+
+        byte[] frame = new byte[HEADER_LENGTH + meta.length + payload.length];
+        frame[0] = FORMAT_VERSION;
+        frame[1] = (byte) flags;
+        frame[2] = codec != null ? codec.id() : JSON_CODEC_ID;
+        System.arraycopy(meta, 0, frame, HEADER_LENGTH, meta.length);
+        System.arraycopy(payload, 0, frame, HEADER_LENGTH + meta.length, payload.length);
+        storedBytes.record(frame.length);
+        return frame;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (looksLikeJson(bytes[0])) {
+            return jsonSerializer.deserialize(bytes);
+        }
+        if (bytes[0] != FORMAT_VERSION || bytes.length < HEADER_LENGTH) {
+            return unreadable("format version " + bytes[0]);
+        }
+
+        byte codecId = bytes[2];
+        CacheValueCodec<?> codec = codecsById.get(codecId);
+        if (codec == null && codecId != JSON_CODEC_ID) {
+            return unreadable("codec " + codecId);
+        }
+
+        int start = HEADER_LENGTH;
+        long computeMillis = 0;
+        long expiresAtMillis = 0;
+        boolean recomputable = (bytes[1] & FLAG_RECOMPUTABLE) != 0;
+        try {
+            if (recomputable) {
+                BinaryReader metaReader = new BinaryReader(bytes, HEADER_LENGTH);
+                computeMillis = metaReader.readVarLong();
+                expiresAtMillis = metaReader.readSignedVarLong();
+                start = metaReader.position();
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Failed to read cache value metadata", e);
+        }
+
+        byte[] payload;
+        int offset;
+        if ((bytes[1] & FLAG_COMPRESSED) != 0) {
+            payload = inflate(bytes, start);
+            offset = 0;
+        } else {
+            payload = bytes;
+            offset = start;
+        }
+
+        try {
+            Object value;
+            if (codec == null) {
+                value = jsonSerializer.deserialize(offset == 0 ? payload : Arrays.copyOfRange(payload, offset, payload.length));
+            } else {
+                value = codec.read(new BinaryReader(payload, offset));
+            }
+            return recomputable ? new RecomputableEntry(value, computeMillis, expiresAtMillis) : value;
+        } catch (Exception e) {
+            throw new SerializationException("Failed to read cache value with codec " + codecId, e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return Object.class;
+    }
+
+    private Object unreadable(String reason) {
+        unreadableValues.increment();
+        log.debug("Treating cache value in unknown {} as a miss", reason);
+        return null;
+    }
+
+    private static boolean looksLikeJson(byte first) {
+        return first == '{' || first == '[' || first == '"';
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream((input.length - offset) * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Truncated compressed cache value");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.paklog.cartonization.infrastructure.cache.codec;
+
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.CartonId;
+import com.paklog.cartonization.domain.model.valueobject.CartonStatus;
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Codecs for the values the named caches hold most: product facts, product
+ * dimensions, cartons and packing solutions. A packing solution writes each
+ * distinct carton once and refers to it by index from its packages, and ends
+ * with its request fingerprint, which values written before it was added lack.
+ * Pre-serialized responses are stored as they are.
+ */
+public final class DomainCacheValueCodecs {
+
+    private DomainCacheValueCodecs() {
+    }
+
+    public static List<CacheValueCodec<?>> all() {
+        return List.of(new DimensionSetCodec(), new ProductInfoCodec(), new CartonCodec(), new PackingSolutionCodec(),
+            new BytesCodec());
+    }
+
+    static final class DimensionSetCodec implements CacheValueCodec<DimensionSet> {
+
+        @Override
+        public byte id() {
+            return 1;
+        }
+
+        @Override
+        public Class<DimensionSet> type() {
+            return DimensionSet.class;
+        }
+
+        @Override
+        public void write(DimensionSet value, BinaryWriter out) {
+            out.writeDimensions(value);
+        }
+
+        @Override
+        public DimensionSet read(BinaryReader in) throws IOException {
+            return in.readDimensions();
+        }
+    }
+
+    static final class ProductInfoCodec implements CacheValueCodec<ProductInfo> {
+
+        @Override
+        public byte id() {
+            return 2;
+        }
+
+        @Override
+        public Class<ProductInfo> type() {
+            return ProductInfo.class;
+        }
+
+        @Override
+        public void write(ProductInfo value, BinaryWriter out) {
+            out.writeString(value.sku() != null ? value.sku().getValue() : null);
+            out.writeString(value.name());
+            out.writeString(value.description());
+            out.writeDimensions(value.dimensions());
+            out.writeWeight(value.weight());
+            out.writeString(value.category());
+            out.writeBoolean(value.fragile());
+            out.writeBoolean(value.active());
+            out.writeString(value.barcode());
+        }
+
+        @Override
+        public ProductInfo read(BinaryReader in) throws IOException {
+            String sku = in.readString();
+            return new ProductInfo(
+                sku != null ? SKU.of(sku) : null,
+                in.readString(),
+                in.readString(),
+                in.readDimensions(),
+                in.readWeight(),
+                in.readString(),
+                in.readBoolean(),
+                in.readBoolean(),
+                in.readString()
+            );
+        }
+    }
+
+    static final class CartonCodec implements CacheValueCodec<Carton> {
+
+        @Override
+        public byte id() {
+            return 3;
+        }
+
+        @Override
+        public Class<Carton> type() {
+            return Carton.class;
+        }
+
+        @Override
+        public void write(Carton value, BinaryWriter out) {
+            out.writeString(value.getId().getValue());
+            out.writeString(value.getName());
+            out.writeDimensions(value.getDimensions());
+            out.writeWeight(value.getMaxWeight());
+            out.writeString(value.getStatus().name());
+            out.writeVarInt(value.getSites().size());
+            value.getSites().forEach(out::writeString);
+            out.writeInstant(value.getCreatedAt());
+            out.writeInstant(value.getUpdatedAt());
+        }
+
+        @Override
+        public Carton read(BinaryReader in) throws IOException {
+            CartonId id = CartonId.of(in.readString());
+            String name = in.readString();
+            var dimensions = in.readDimensions();
+            var maxWeight = in.readWeight();
+            CartonStatus status = CartonStatus.valueOf(in.readString());
+            int siteCount = in.readVarInt();
+            Set<String> sites = new LinkedHashSet<>(siteCount);
+            for (int i = 0; i < siteCount; i++) {
+                sites.add(in.readString());
+            }
+            return Carton.reconstitute(id, name, dimensions, maxWeight, status, sites, in.readInstant(), in.readInstant());
+        }
+    }
+
+    static final class PackingSolutionCodec implements CacheValueCodec<PackingSolution> {
+
+        private final CartonCodec cartonCodec = new CartonCodec();
+
+        @Override
+        public byte id() {
+            return 4;
+        }
+
+        @Override
+        public Class<PackingSolution> type() {
+            return PackingSolution.class;
+        }
+
+        @Override
+        public void write(PackingSolution value, BinaryWriter out) {
+            out.writeString(value.getSolutionId());
+            out.writeString(value.getRequestId());
+            out.writeString(value.getOrderId());
+            out.writeInstant(value.getCreatedAt());
+
+            Map<Carton, Integer> cartonIndexes = new IdentityHashMap<>();
+            List<Carton> cartons = new ArrayList<>();
+            for (Package pkg : value.getPackages()) {
+                cartonIndexes.computeIfAbsent(pkg.getCarton(), carton -> {
+                    cartons.add(carton);
+                    return cartons.size() - 1;
+                });
+            }
+            out.writeVarInt(cartons.size());
+            cartons.forEach(carton -> cartonCodec.write(carton, out));
+
+            out.writeVarInt(value.getPackages().size());
+            for (Package pkg : value.getPackages()) {
+                out.writeVarInt(cartonIndexes.get(pkg.getCarton()));
+                out.writeVarInt(pkg.getItems().size());
+                for (ItemWithDimensions item : pkg.getItems()) {
+                    out.writeString(item.getSku().getValue());
+                    out.writeVarInt(item.getQuantity());
+                    out.writeDimensions(item.getDimensions());
+                    out.writeWeight(item.getWeight());
+                    out.writeString(item.getCategory());
+                    out.writeNullableBoolean(item.getFragile());
+                }
+            }
+            out.writeString(value.getRequestFingerprint());
+        }
+
+        @Override
+        public PackingSolution read(BinaryReader in) throws IOException {
+            String solutionId = in.readString();
+            String requestId = in.readString();
+            String orderId = in.readString();
+            var createdAt = in.readInstant();
+
+            int cartonCount = in.readVarInt();
+            List<Carton> cartons = new ArrayList<>(cartonCount);
+            for (int i = 0; i < cartonCount; i++) {
+                cartons.add(cartonCodec.read(in));
+            }
+
+            int packageCount = in.readVarInt();
+            List<Package> packages = new ArrayList<>(packageCount);
+            for (int i = 0; i < packageCount; i++) {
+                Carton carton = cartons.get(in.readVarInt());
+                int itemCount = in.readVarInt();
+                List<ItemWithDimensions> items = new ArrayList<>(itemCount);
+                for (int j = 0; j < itemCount; j++) {
+                    items.add(ItemWithDimensions.builder()
+                        .sku(SKU.of(in.readString()))
+                        .quantity(in.readVarInt())
+                        .dimensions(in.readDimensions())
+                        .weight(in.readWeight())
+                        .category(in.readString())
+                        .fragile(in.readNullableBoolean())
+                        .build());
+                }
+                packages.add(Package.reconstitute(carton, items));
+            }
+            PackingSolution solution = PackingSolution.reconstitute(solutionId, requestId, orderId, packages, createdAt);
+            solution.setRequestFingerprint(in.hasRemaining() ? in.readString() : null);
+            return solution;
+        }
+    }
+
+    static final class BytesCodec implements CacheValueCodec<byte[]> {
+
+        @Override
+        public byte id() {
+            return 5;
+        }
+
+        @Override
+        public Class<byte[]> type() {
+            return byte[].class;
+        }
+
+        @Override
+        public void write(byte[] value, BinaryWriter out) {
+            out.writeBytes(value);
+        }
+
+        @Override
+        public byte[] read(BinaryReader in) {
+            return in.readRemaining();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.paklog.cartonization.infrastructure.config;
+
+import com.paklog.cartonization.infrastructure.cache.DemandDrivenWarmupService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the node out of the readiness group until enough of its caches are warm.
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final DemandDrivenWarmupService warmupService;
+
+    public CacheWarmupHealthIndicator(DemandDrivenWarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmupService.isReady() ? Health.up() : Health.outOfService();
+        return builder
+            .withDetail("warmFraction", Math.round(warmupService.warmFraction() * 100) / 100.0)
+            .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.paklog.cartonization.infrastructure.config;
 import io.cloudevents.CloudEvent;
 import io.cloudevents.kafka.CloudEventSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,15 @@ public class KafkaProducerConfig {
     @Value("${app.kafka.producer.delivery-timeout-ms}")
     private int deliveryTimeoutMs;
 
+    @Value("${app.analytics.producer.batch-size:262144}")
+    private int analyticsBatchSize;
+
+    @Value("${app.analytics.producer.linger-ms:100}")
+    private int analyticsLingerMs;
+
+    @Value("${app.analytics.producer.compression-type:zstd}")
+    private String analyticsCompressionType;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -142,4 +152,44 @@ public class KafkaProducerConfig {
         
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * Producer for the analytics records. Records are small and arrive steadily,
+     * so larger batches and a longer linger trade a little freshness (the data
+     * contract allows two minutes) for fewer, better-compressed produce requests.
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> analyticsProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+
+        // Basic configuration
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+        // Reliability configuration
+        configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+        configProps.put(ProducerConfig.RETRIES_CONFIG, retries);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+
+        // Performance configuration
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, analyticsBatchSize);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, analyticsLingerMs);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, analyticsCompressionType);
+
+        // Timeout configuration
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+
+        log.info("Analytics producer factory configured: batchSize={}, lingerMs={}, compressionType={}",
+                analyticsBatchSize, analyticsLingerMs, analyticsCompressionType);
+
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> analyticsKafkaTemplate() {
+        return new KafkaTemplate<>(analyticsProducerFactory());
+    }
+}
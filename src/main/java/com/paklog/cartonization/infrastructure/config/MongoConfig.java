@@ -5,5 +5,5 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class MongoConfig {
     // MongoDB configuration handled by Spring Boot auto-configuration
-    // Indexes are created automatically by @Indexed annotations on document fields
+    // Indexes are declared and created at startup by MongoIndexBootstrap; auto-index-creation stays off
 }
\ No newline at end of file
@@ -3,27 +3,38 @@ package com.paklog.cartonization.infrastructure.config;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.paklog.cartonization.infrastructure.cache.RecomputableEntry;
+import com.paklog.cartonization.infrastructure.cache.TwoTierCacheManager;
+import com.paklog.cartonization.infrastructure.cache.codec.CompactCacheValueSerializer;
+import com.paklog.cartonization.infrastructure.cache.codec.DomainCacheValueCodecs;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Configuration
 @EnableCaching
@@ -58,6 +69,30 @@ public class RedisConfig {
     @Value("${app.redis.cache.packing-solution-ttl}")
     private Duration packingSolutionTtl;
 
+    @Value("${app.redis.cache.solution-view-ttl:1h}")
+    private Duration solutionViewTtl;
+
+    @Value("${app.redis.cache.product-ttl-jitter:0.1}")
+    private double productTtlJitter;
+
+    @Value("${app.redis.cache.serializer:compact}")
+    private String cacheSerializer;
+
+    @Value("${app.redis.cache.compression-threshold:1024}")
+    private int compressionThreshold;
+
+    @Value("${app.cache.stampede.stale-grace:30s}")
+    private Duration staleGrace;
+
+    @Value("${app.cache.local.enabled:true}")
+    private boolean localCacheEnabled;
+
+    @Value("${app.cache.local.max-size:10000}")
+    private long localCacheMaxSize;
+
+    @Value("${app.cache.local.ttl:60s}")
+    private Duration localCacheTtl;
+
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
@@ -131,13 +166,24 @@ public class RedisConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     @Qualifier("stringRedisTemplate") RedisTemplate<String, String> stringRedisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     Environment environment,
+                                     MeterRegistry meterRegistry) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(defaultTtl)
             .serializeKeysWith(RedisSerializationContext.SerializationPair
                 .fromSerializer(new StringRedisSerializer()))
             .serializeValuesWith(RedisSerializationContext.SerializationPair
-                .fromSerializer(new GenericJackson2JsonRedisSerializer(redisObjectMapper())))
+                .fromSerializer(cacheValueSerializer(meterRegistry)))
             .disableCachingNullValues();
 
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
@@ -147,14 +193,17 @@ public class RedisConfig {
         cacheConfigurations.put("carton-by-id", defaultConfig.entryTtl(cartonTtl));
         cacheConfigurations.put("active-cartons", defaultConfig.entryTtl(cartonTtl));
         
-        // Product catalog cache configuration
-        cacheConfigurations.put("products", defaultConfig.entryTtl(productTtl));
-        cacheConfigurations.put("product-by-sku", defaultConfig.entryTtl(productTtl));
-        cacheConfigurations.put("product-dimensions", defaultConfig.entryTtl(productTtl));
+        // Product catalog cache configuration - jittered so entries written together don't expire together
+        RedisCacheWriter.TtlFunction jitteredProductTtl = jitteredTtl(productTtl, productTtlJitter);
+        cacheConfigurations.put("products", defaultConfig.entryTtl(jitteredProductTtl));
+        cacheConfigurations.put("product-by-sku",
+            defaultConfig.entryTtl(recomputableTtl(jitteredProductTtl, staleGrace)));
+        cacheConfigurations.put("product-dimensions", defaultConfig.entryTtl(jitteredProductTtl));
         
         // Packing solution cache configuration
         cacheConfigurations.put("packing-solutions", defaultConfig.entryTtl(packingSolutionTtl));
         cacheConfigurations.put("packing-cache", defaultConfig.entryTtl(packingSolutionTtl));
+        cacheConfigurations.put("packing-solution-views", defaultConfig.entryTtl(solutionViewTtl));
 
         RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(defaultConfig)
@@ -167,6 +216,50 @@ public class RedisConfig {
         log.info("Cache TTL settings - Default: {}, Carton: {}, Product: {}, PackingSolution: {}", 
                 defaultTtl, cartonTtl, productTtl, packingSolutionTtl);
 
-        return cacheManager;
+        if (!localCacheEnabled) {
+            return cacheManager;
+        }
+
+        // Not a bean itself, so its caches have to be initialized here
+        cacheManager.initializeCaches();
+        log.info("Local L1 cache tier enabled - default max size: {}, TTL: {}", localCacheMaxSize, localCacheTtl);
+        return new TwoTierCacheManager(cacheManager, stringRedisTemplate, listenerContainer, environment,
+            meterRegistry, localCacheMaxSize, localCacheTtl);
+    }
+
+    private RedisSerializer<Object> cacheValueSerializer(MeterRegistry meterRegistry) {
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper());
+        if ("json".equalsIgnoreCase(cacheSerializer)) {
+            log.info("Cache values serialized as JSON");
+            return jsonSerializer;
+        }
+        log.info("Cache values serialized with compact binary codecs, compressed from {} bytes", compressionThreshold);
+        return new CompactCacheValueSerializer(jsonSerializer, DomainCacheValueCodecs.all(), compressionThreshold,
+            meterRegistry);
+    }
+
+    /**
+     * Entries written by {@code CacheService.getWithEarlyRecompute} carry their own
+     * logical expiry; keep them in Redis for the stale grace window beyond it.
+     */
+    private static RedisCacheWriter.TtlFunction recomputableTtl(RedisCacheWriter.TtlFunction baseTtl,
+                                                               Duration grace) {
+        return (key, value) -> {
+            if (value instanceof RecomputableEntry entry) {
+                long remainingMillis = Math.max(entry.getExpiresAtMillis() - System.currentTimeMillis(), 0);
+                return Duration.ofMillis(remainingMillis).plus(grace);
+            }
+            return baseTtl.getTimeToLive(key, value);
+        };
+    }
+
+    private static RedisCacheWriter.TtlFunction jitteredTtl(Duration baseTtl, double jitter) {
+        long baseMillis = baseTtl.toMillis();
+        long spreadMillis = (long) (baseMillis * jitter);
+        if (spreadMillis <= 0) {
+            return RedisCacheWriter.TtlFunction.just(baseTtl);
+        }
+        return (key, value) -> Duration.ofMillis(
+            baseMillis + ThreadLocalRandom.current().nextLong(-spreadMillis, spreadMillis + 1));
     }
 }
\ No newline at end of file
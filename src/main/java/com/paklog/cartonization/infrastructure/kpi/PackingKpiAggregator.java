@@ -0,0 +1,251 @@
+package com.paklog.cartonization.infrastructure.kpi;
+
+import com.paklog.cartonization.application.port.out.PackingKpiRecorder;
+import com.paklog.cartonization.application.port.out.PackingKpiRollup;
+import com.paklog.cartonization.application.port.out.PackingKpiRollup.Resolution;
+import com.paklog.cartonization.application.port.out.PackingKpiRollupRepository;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps per-minute and per-hour packing KPI rollups in memory, keyed by site
+ * and carton, and writes each bucket once it has closed. Recording only
+ * updates counters, so it costs the request path a few map updates.
+ * <p>
+ * A minute bucket is written within a flush interval of its minute ending;
+ * an hour bucket at the end of its hour. On shutdown every open bucket is
+ * written as it stands; readers merge the partial rollups of a bucket. If a
+ * write fails, the buckets are kept for the next flush until they are older
+ * than the retry window. A crash loses the open buckets, at most the current
+ * hour of hourly rollups, which the minute rollups still cover.
+ */
+@Component
+public class PackingKpiAggregator implements PackingKpiRecorder, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PackingKpiAggregator.class);
+
+    // Stop after request intake (web server and listener containers) has stopped
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final PackingKpiRollupRepository rollupRepository;
+    private final boolean enabled;
+    private final Duration retryWindow;
+    private final Map<Key, Accumulator> buckets = new ConcurrentHashMap<>();
+
+    private final Counter flushedRollups;
+    private final Counter droppedRollups;
+
+    private volatile boolean running;
+
+    public PackingKpiAggregator(PackingKpiRollupRepository rollupRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.kpi.rollups.enabled:true}") boolean enabled,
+                                @Value("${app.kpi.rollups.retry-window:1h}") Duration retryWindow) {
+        this.rollupRepository = rollupRepository;
+        this.enabled = enabled;
+        this.retryWindow = retryWindow;
+
+        this.flushedRollups = Counter.builder("cartonization.kpi.rollups.flushed")
+            .description("KPI rollups written to the rollup collections")
+            .register(meterRegistry);
+        this.droppedRollups = Counter.builder("cartonization.kpi.rollups.dropped")
+            .description("KPI rollups dropped after failing to be written for longer than the retry window")
+            .register(meterRegistry);
+        Gauge.builder("cartonization.kpi.rollups.open", buckets, Map::size)
+            .description("KPI rollup buckets held in memory")
+            .register(meterRegistry);
+    }
+
+    private record Key(Resolution resolution, Instant bucketStart, String siteId, String cartonId) {
+    }
+
+    // Only mutated inside ConcurrentHashMap.compute, which serializes updates per key
+    private static final class Accumulator {
+        long solutions;
+        long packages;
+        double utilizationSum;
+        final long[] utilizationHistogram = new long[PackingKpiRollup.UTILIZATION_BUCKETS];
+        long solveMillisSum;
+        long solveMillisMax;
+        final long[] solveHistogram = new long[PackingKpiRollup.SOLVE_MILLIS_BOUNDS.length + 1];
+
+        void add(List<Double> packageUtilizations, long solveMillis) {
+            solutions++;
+            packages += packageUtilizations.size();
+            for (double utilization : packageUtilizations) {
+                utilizationSum += utilization;
+                utilizationHistogram[PackingKpiRollup.utilizationBucket(utilization)]++;
+            }
+            solveMillisSum += solveMillis;
+            solveMillisMax = Math.max(solveMillisMax, solveMillis);
+            solveHistogram[PackingKpiRollup.solveBucket(solveMillis)]++;
+        }
+
+        void addAll(PackingKpiRollup rollup) {
+            solutions += rollup.solutions();
+            packages += rollup.packages();
+            utilizationSum += rollup.utilizationSum();
+            for (int i = 0; i < utilizationHistogram.length; i++) {
+                utilizationHistogram[i] += rollup.utilizationHistogram().get(i);
+            }
+            solveMillisSum += rollup.solveMillisSum();
+            solveMillisMax = Math.max(solveMillisMax, rollup.solveMillisMax());
+            for (int i = 0; i < solveHistogram.length; i++) {
+                solveHistogram[i] += rollup.solveHistogram().get(i);
+            }
+        }
+
+        PackingKpiRollup toRollup(Key key) {
+            return new PackingKpiRollup(key.resolution(), key.bucketStart(), key.siteId(), key.cartonId(),
+                solutions, packages, utilizationSum,
+                Arrays.stream(utilizationHistogram).boxed().toList(),
+                solveMillisSum, solveMillisMax,
+                Arrays.stream(solveHistogram).boxed().toList());
+        }
+    }
+
+    @Override
+    public void record(PackingSolution solution, String siteId, Duration solveTime) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String site = siteId != null && !siteId.isBlank() ? siteId : PackingKpiRollup.NO_SITE;
+            long solveMillis = solveTime.toMillis();
+
+            Map<String, List<Double>> byCarton = new LinkedHashMap<>();
+            List<Double> all = new ArrayList<>(solution.getPackages().size());
+            for (Package pkg : solution.getPackages()) {
+                double utilization = pkg.getUtilization().doubleValue();
+                all.add(utilization);
+                byCarton.computeIfAbsent(pkg.getCarton().getId().getValue(), id -> new ArrayList<>()).add(utilization);
+            }
+
+            Instant now = Instant.now();
+            for (Resolution resolution : Resolution.values()) {
+                Instant bucketStart = resolution.bucketStart(now);
+                add(new Key(resolution, bucketStart, site, PackingKpiRollup.ALL_CARTONS), all, solveMillis);
+                byCarton.forEach((cartonId, utilizations) ->
+                    add(new Key(resolution, bucketStart, site, cartonId), utilizations, solveMillis));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to record packing KPIs for solution: {}", solution.getSolutionId(), e);
+        }
+    }
+
+    private void add(Key key, List<Double> utilizations, long solveMillis) {
+        buckets.compute(key, (k, accumulator) -> {
+            Accumulator target = accumulator != null ? accumulator : new Accumulator();
+            target.add(utilizations, solveMillis);
+            return target;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.kpi.rollups.flush-interval-ms:10000}",
+               initialDelayString = "${app.kpi.rollups.flush-interval-ms:10000}")
+    public void flushClosedBuckets() {
+        if (enabled) {
+            flush(Instant.now(), false);
+        }
+    }
+
+    /**
+     * Writes the buckets that closed by {@code now}, or all of them.
+     *
+     * @return the number of rollups written
+     */
+    int flush(Instant now, boolean includeOpen) {
+        List<PackingKpiRollup> rollups = new ArrayList<>();
+        for (Key key : List.copyOf(buckets.keySet())) {
+            if (includeOpen || !key.bucketStart().plus(key.resolution().duration()).isAfter(now)) {
+                // Removed before reading, so a late update lands in a fresh bucket rather than being lost
+                Accumulator accumulator = buckets.remove(key);
+                if (accumulator != null) {
+                    rollups.add(accumulator.toRollup(key));
+                }
+            }
+        }
+        if (rollups.isEmpty()) {
+            return 0;
+        }
+
+        // Only what was not written goes back, so a partly failed flush never counts a rollup twice
+        List<PackingKpiRollup> failed;
+        try {
+            failed = rollupRepository.insertAll(rollups);
+        } catch (Exception e) {
+            log.warn("Failed to write {} packing KPI rollups: {}", rollups.size(), e.getMessage());
+            failed = rollups;
+        }
+        int written = rollups.size() - failed.size();
+        flushedRollups.increment(written);
+        if (!failed.isEmpty()) {
+            int kept = requeue(failed, now);
+            log.warn("{} of {} packing KPI rollups not written, keeping {} for the next flush",
+                    failed.size(), rollups.size(), kept);
+        } else {
+            log.debug("Flushed {} packing KPI rollups", written);
+        }
+        return written;
+    }
+
+    private int requeue(List<PackingKpiRollup> rollups, Instant now) {
+        int kept = 0;
+        for (PackingKpiRollup rollup : rollups) {
+            if (rollup.bucketStart().plus(rollup.resolution().duration()).plus(retryWindow).isBefore(now)) {
+                droppedRollups.increment();
+                continue;
+            }
+            Key key = new Key(rollup.resolution(), rollup.bucketStart(), rollup.siteId(), rollup.cartonId());
+            buckets.compute(key, (k, accumulator) -> {
+                Accumulator target = accumulator != null ? accumulator : new Accumulator();
+                target.addAll(rollup);
+                return target;
+            });
+            kept++;
+        }
+        return kept;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (enabled) {
+            int written = flush(Instant.now(), true);
+            log.info("Flushed {} open packing KPI rollups on shutdown", written);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
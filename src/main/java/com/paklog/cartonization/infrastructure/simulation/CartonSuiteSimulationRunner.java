@@ -0,0 +1,202 @@
+package com.paklog.cartonization.infrastructure.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.application.port.out.CartonRepository;
+import com.paklog.cartonization.application.port.out.HistoricalDemandSource;
+import com.paklog.cartonization.application.service.CartonSuiteSimulator;
+import com.paklog.cartonization.application.service.CartonSuiteSimulator.Demand;
+import com.paklog.cartonization.application.service.CartonSuiteSimulator.Objective;
+import com.paklog.cartonization.application.service.CartonSuiteSimulator.SearchResult;
+import com.paklog.cartonization.application.service.CartonSuiteSimulator.SuiteScore;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.PackingRules;
+import com.paklog.cartonization.domain.service.PackingAlgorithmService;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository.MongoHistoricalDemandSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Runs one carton-suite simulation at startup when
+ * {@code app.simulation.enabled} is set, logs the chosen suite against the
+ * current catalog and optionally writes it to a JSON report. Meant to be run as
+ * an offline job, not alongside live traffic: by default the application exits
+ * once the simulation finishes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.simulation.enabled", havingValue = "true")
+public class CartonSuiteSimulationRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CartonSuiteSimulationRunner.class);
+
+    private final CartonSuiteSimulator simulator;
+    private final CartonRepository cartonRepository;
+    private final MongoHistoricalDemandSource mongoDemandSource;
+    private final ObjectMapper objectMapper;
+    private final LoggingSystem loggingSystem;
+    private final ConfigurableApplicationContext context;
+
+    private final String source;
+    private final String file;
+    private final Duration lookback;
+    private final long maxOrders;
+    private final int suiteSize;
+    private final Objective objective;
+    private final int swapRounds;
+    private final String site;
+    private final String reportPath;
+    private final boolean exitOnCompletion;
+
+    public CartonSuiteSimulationRunner(CartonSuiteSimulator simulator,
+                                       CartonRepository cartonRepository,
+                                       MongoHistoricalDemandSource mongoDemandSource,
+                                       ObjectMapper objectMapper,
+                                       LoggingSystem loggingSystem,
+                                       ConfigurableApplicationContext context,
+                                       @Value("${app.simulation.source:mongo}") String source,
+                                       @Value("${app.simulation.file:}") String file,
+                                       @Value("${app.simulation.lookback:90d}") Duration lookback,
+                                       @Value("${app.simulation.max-orders:0}") long maxOrders,
+                                       @Value("${app.simulation.suite-size:8}") int suiteSize,
+                                       @Value("${app.simulation.objective:shipped-volume}") String objective,
+                                       @Value("${app.simulation.swap-rounds:2}") int swapRounds,
+                                       @Value("${app.simulation.site:}") String site,
+                                       @Value("${app.simulation.report-path:}") String reportPath,
+                                       @Value("${app.simulation.exit-on-completion:true}") boolean exitOnCompletion) {
+        this.simulator = simulator;
+        this.cartonRepository = cartonRepository;
+        this.mongoDemandSource = mongoDemandSource;
+        this.objectMapper = objectMapper;
+        this.loggingSystem = loggingSystem;
+        this.context = context;
+        this.source = source;
+        this.file = file;
+        this.lookback = lookback;
+        this.maxOrders = maxOrders;
+        this.suiteSize = suiteSize;
+        this.objective = Objective.valueOf(objective.trim().toUpperCase().replace('-', '_'));
+        this.swapRounds = swapRounds;
+        this.site = site;
+        this.reportPath = reportPath;
+        this.exitOnCompletion = exitOnCompletion;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // The packing path logs every calculation, and every order a suite cannot hold as an error;
+        // across millions of replays that would drown the simulation log, and unpackable orders are scored anyway
+        loggingSystem.setLogLevel(PackingAlgorithmService.class.getName(), LogLevel.OFF);
+
+        int exitCode = 0;
+        try {
+            simulate();
+        } catch (Exception e) {
+            log.error("Carton suite simulation failed", e);
+            exitCode = 1;
+        } finally {
+            loggingSystem.setLogLevel(PackingAlgorithmService.class.getName(), null);
+        }
+
+        if (exitOnCompletion) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    private void simulate() throws IOException {
+        List<Carton> candidates = site == null || site.isBlank()
+            ? cartonRepository.findAllActive()
+            : cartonRepository.findAllActiveForSite(site);
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException("No active candidate cartons" + (site.isBlank() ? "" : " at site " + site));
+        }
+
+        HistoricalDemandSource demandSource = "file".equalsIgnoreCase(source)
+            ? new NdjsonHistoricalDemandSource(objectMapper, Path.of(file))
+            : mongoDemandSource;
+        Demand demand = simulator.loadDemand(demandSource.streamOrders(Instant.now().minus(lookback)), maxOrders);
+        if (demand.totalOrders() == 0) {
+            throw new IllegalStateException("No historical orders to replay");
+        }
+
+        log.info("Searching for the best suite of {} out of {} cartons by {} over {} orders",
+                suiteSize, candidates.size(), objective, demand.totalOrders());
+        SearchResult result = simulator.search(candidates, suiteSize, objective, demand,
+            PackingRules.defaultRules(), swapRounds);
+
+        log.info("Carton suite simulation finished after {} evaluations in {} ms", result.evaluations(), result.durationMs());
+        log.info("Current catalog: {}", result.baseline());
+        log.info("Proposed suite:  {}", result.score());
+        result.suite().forEach(carton -> log.info("  {} ({}) {}", carton.getName(), carton.getId().getValue(),
+                carton.getDimensions()));
+
+        if (reportPath != null && !reportPath.isBlank()) {
+            Path path = Path.of(reportPath);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), SimulationReport.from(result, demand));
+            log.info("Carton suite simulation report written to {}", path);
+        }
+    }
+
+    public record SimulationReport(
+        String objective,
+        long orders,
+        int distinctOrders,
+        int evaluations,
+        long durationMs,
+        SuiteScore currentCatalog,
+        SuiteScore proposedSuite,
+        List<SuiteCarton> cartons
+    ) {
+        static SimulationReport from(SearchResult result, Demand demand) {
+            return new SimulationReport(
+                result.objective().name(),
+                demand.totalOrders(),
+                demand.orders().size(),
+                result.evaluations(),
+                result.durationMs(),
+                result.baseline(),
+                result.score(),
+                result.suite().stream().map(SuiteCarton::from).toList()
+            );
+        }
+    }
+
+    public record SuiteCarton(
+        String id,
+        String name,
+        BigDecimal length,
+        BigDecimal width,
+        BigDecimal height,
+        String dimensionUnit
+    ) {
+        static SuiteCarton from(Carton carton) {
+            return new SuiteCarton(
+                carton.getId().getValue(),
+                carton.getName(),
+                carton.getDimensions().getLength(),
+                carton.getDimensions().getWidth(),
+                carton.getDimensions().getHeight(),
+                carton.getDimensions().getUnit().name()
+            );
+        }
+    }
+}
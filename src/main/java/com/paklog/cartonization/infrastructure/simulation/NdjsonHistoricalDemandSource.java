@@ -0,0 +1,127 @@
+package com.paklog.cartonization.infrastructure.simulation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.application.port.out.HistoricalDemandSource;
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.DimensionUnit;
+import com.paklog.cartonization.domain.model.valueobject.ItemWithDimensions;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+import com.paklog.cartonization.domain.model.valueobject.WeightUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Reads historical orders from a local NDJSON file, one order per line:
+ * <pre>
+ * {"orderId":"O-1","createdAt":"2024-05-01T10:00:00Z","items":[
+ *   {"sku":"SKU-1","quantity":2,"length":10,"width":8,"height":4,"dimensionUnit":"INCHES",
+ *    "weight":1.5,"weightUnit":"POUNDS","category":"Books","fragile":false}]}
+ * </pre>
+ * Lines that cannot be parsed are skipped and counted in the log.
+ */
+public class NdjsonHistoricalDemandSource implements HistoricalDemandSource {
+
+    private static final Logger log = LoggerFactory.getLogger(NdjsonHistoricalDemandSource.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public NdjsonHistoricalDemandSource(ObjectMapper objectMapper, Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public Stream<List<ItemWithDimensions>> streamOrders(Instant since) {
+        log.info("Streaming historical orders from {} created after {}", path, since);
+        AtomicLong skipped = new AtomicLong();
+        try {
+            Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8);
+            return lines
+                .filter(line -> !line.isBlank())
+                .map(line -> parse(line, skipped))
+                .filter(Objects::nonNull)
+                .filter(order -> order.createdAt() == null || order.createdAt().isAfter(since))
+                .map(order -> toItems(order, skipped))
+                .filter(items -> items != null && !items.isEmpty())
+                .onClose(() -> {
+                    if (skipped.get() > 0) {
+                        log.warn("Skipped {} unreadable orders in {}", skipped.get(), path);
+                    }
+                });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open historical orders file: " + path, e);
+        }
+    }
+
+    private HistoricalOrderRecord parse(String line, AtomicLong skipped) {
+        try {
+            return objectMapper.readValue(line, HistoricalOrderRecord.class);
+        } catch (JsonProcessingException e) {
+            skipped.incrementAndGet();
+            log.debug("Skipping unreadable historical order: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private List<ItemWithDimensions> toItems(HistoricalOrderRecord order, AtomicLong skipped) {
+        try {
+            return order.toItems();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            skipped.incrementAndGet();
+            log.debug("Skipping historical order {} with invalid items: {}", order.orderId(), e.getMessage());
+            return null;
+        }
+    }
+
+    public record HistoricalOrderRecord(
+        String orderId,
+        Instant createdAt,
+        List<HistoricalItemRecord> items
+    ) {
+        List<ItemWithDimensions> toItems() {
+            return items != null
+                ? items.stream().map(HistoricalItemRecord::toItem).toList()
+                : List.of();
+        }
+    }
+
+    public record HistoricalItemRecord(
+        String sku,
+        Integer quantity,
+        BigDecimal length,
+        BigDecimal width,
+        BigDecimal height,
+        String dimensionUnit,
+        BigDecimal weight,
+        String weightUnit,
+        String category,
+        Boolean fragile
+    ) {
+        ItemWithDimensions toItem() {
+            return ItemWithDimensions.builder()
+                .sku(SKU.of(sku))
+                .quantity(quantity != null ? quantity : 1)
+                .dimensions(new DimensionSet(length, width, height,
+                    DimensionUnit.valueOf(dimensionUnit.trim().toUpperCase())))
+                .weight(new Weight(weight, WeightUnit.valueOf(weightUnit.trim().toUpperCase())))
+                .category(category)
+                .fragile(Boolean.TRUE.equals(fragile))
+                .build();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.paklog.cartonization.application.service;
+
+import com.paklog.cartonization.application.service.CartonSuiteSimulator.Demand;
+import com.paklog.cartonization.application.service.CartonSuiteSimulator.Objective;
+import com.paklog.cartonization.application.service.CartonSuiteSimulator.SearchResult;
+import com.paklog.cartonization.application.service.CartonSuiteSimulator.SuiteScore;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import com.paklog.cartonization.domain.service.PackingAlgorithmService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CartonSuiteSimulatorTest {
+
+    private CartonSuiteSimulator simulator;
+    private Carton small;
+    private Carton medium;
+    private Carton large;
+
+    @BeforeEach
+    void setUp() {
+        simulator = new CartonSuiteSimulator(new PackingAlgorithmService(), 2, 4);
+        small = createCarton("Small Box", 15, 10, 8);
+        medium = createCarton("Medium Box", 25, 20, 15);
+        large = createCarton("Large Box", 40, 30, 25);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulator.shutdown();
+    }
+
+    @Test
+    void shouldCollapseIdenticalOrdersRegardlessOfItemOrder() {
+        ItemWithDimensions a = createItem("A", 5, 5, 5);
+        ItemWithDimensions b = createItem("B", 4, 4, 4);
+
+        Demand demand = simulator.loadDemand(Stream.of(List.of(a, b), List.of(b, a), List.of(a)), 0);
+
+        assertThat(demand.totalOrders()).isEqualTo(3);
+        assertThat(demand.orders()).hasSize(2);
+        assertThat(demand.orders()).anySatisfy(order -> {
+            assertThat(order.items()).containsExactly(a, b);
+            assertThat(order.occurrences()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void shouldPickSuiteThatPacksEveryOrderWithLeastShippedVolume() {
+        List<List<ItemWithDimensions>> orders = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            orders.add(List.of(createItem("SMALL-" + (i % 5), 5, 5, 5)));
+        }
+        orders.add(List.of(createItem("BULKY", 30, 25, 20)));
+
+        Demand demand = simulator.loadDemand(orders.stream(), 0);
+        SearchResult result = simulator.search(List.of(small, medium, large), 2, Objective.SHIPPED_VOLUME,
+            demand, PackingRules.defaultRules(), 2);
+
+        assertThat(result.suite()).containsExactlyInAnyOrder(large, small);
+        assertThat(result.score().unpackableOrders()).isZero();
+        assertThat(result.score().orders()).isEqualTo(51);
+        assertThat(result.score().shippedVolume()).isLessThanOrEqualTo(result.baseline().shippedVolume());
+    }
+
+    @Test
+    void shouldCountOrdersNoCartonInTheSuiteCanHold() {
+        Demand demand = simulator.loadDemand(Stream.of(
+            List.of(createItem("A", 5, 5, 5)),
+            List.of(createItem("BULKY", 30, 25, 20))
+        ), 0);
+
+        SuiteScore score = simulator.evaluate(List.of(small), demand, PackingRules.defaultRules());
+
+        assertThat(score.orders()).isEqualTo(2);
+        assertThat(score.unpackableOrders()).isEqualTo(1);
+        assertThat(score.packages()).isEqualTo(1);
+    }
+
+    private static Carton createCarton(String name, double length, double width, double height) {
+        return Carton.create(
+            name,
+            new DimensionSet(BigDecimal.valueOf(length), BigDecimal.valueOf(width), BigDecimal.valueOf(height), DimensionUnit.CENTIMETERS),
+            new Weight(BigDecimal.valueOf(30), WeightUnit.KILOGRAMS)
+        );
+    }
+
+    private static ItemWithDimensions createItem(String sku, double length, double width, double height) {
+        return ItemWithDimensions.builder()
+            .sku(SKU.of(sku))
+            .quantity(1)
+            .dimensions(new DimensionSet(
+                BigDecimal.valueOf(length),
+                BigDecimal.valueOf(width),
+                BigDecimal.valueOf(height),
+                DimensionUnit.CENTIMETERS
+            ))
+            .weight(new Weight(BigDecimal.valueOf(1.0), WeightUnit.KILOGRAMS))
+            .category("General")
+            .fragile(false)
+            .build();
+    }
+}
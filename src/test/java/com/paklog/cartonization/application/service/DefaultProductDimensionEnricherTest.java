@@ -0,0 +1,208 @@
+package com.paklog.cartonization.application.service;
+
+import com.paklog.cartonization.application.port.out.EnrichmentPinStore;
+import com.paklog.cartonization.application.port.out.EnrichmentPinStore.EnrichmentPin;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.exception.InvalidPackingRequestException;
+import com.paklog.cartonization.domain.exception.ProductCatalogUnavailableException;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DefaultProductDimensionEnricherTest {
+
+    private static final SKU SKU_1 = SKU.of("SKU-1");
+    private static final SKU SKU_2 = SKU.of("SKU-2");
+
+    private ProductCatalogClient catalogClient;
+    private EnrichmentPinStore pinStore;
+    private DefaultProductDimensionEnricher enricher;
+
+    @BeforeEach
+    void setUp() {
+        catalogClient = mock(ProductCatalogClient.class);
+        pinStore = mock(EnrichmentPinStore.class);
+        enricher = new DefaultProductDimensionEnricher(catalogClient, pinStore, 4, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        enricher.shutdown();
+    }
+
+    @Test
+    void shouldReusePinTakenUnderTheCurrentCatalogVersion() {
+        // Given
+        when(catalogClient.getCatalogVersion()).thenReturn(7L);
+        when(pinStore.find("order-1")).thenReturn(Optional.of(pin(7L, product(SKU_1, "2"), product(SKU_2, "3"))));
+        when(catalogClient.getVersionedProductInfo(any()))
+            .thenAnswer(invocation -> Optional.of(product(invocation.getArgument(0), "2")));
+
+        // When
+        List<ItemWithDimensions> enriched =
+            enricher.enrichItems("order-1", List.of(new ItemToPack(SKU_1, 1), new ItemToPack(SKU_2, 1)));
+
+        // Then: the version vouches for every pinned product the snapshot covers
+        verify(catalogClient, never()).getProductInfo(any());
+        verify(pinStore, never()).save(any());
+        assertThat(enriched.get(1).getDimensions().getHeight()).isEqualByComparingTo("3");
+    }
+
+    @Test
+    void shouldLookUpPinnedProductsTheVersionDoesNotCover() {
+        // Given: the pin was taken under the current version, but SKU-2 is not in the snapshot
+        when(catalogClient.getCatalogVersion()).thenReturn(7L);
+        when(pinStore.find("order-1")).thenReturn(Optional.of(pin(7L, product(SKU_1, "2"), product(SKU_2, "3"))));
+        when(catalogClient.getVersionedProductInfo(SKU_1)).thenReturn(Optional.of(product(SKU_1, "2")));
+        when(catalogClient.getVersionedProductInfo(SKU_2)).thenReturn(Optional.empty());
+        when(catalogClient.getProductInfo(SKU_2)).thenReturn(Optional.of(product(SKU_2, "9")));
+
+        // When
+        List<ItemWithDimensions> enriched =
+            enricher.enrichItems("order-1", List.of(new ItemToPack(SKU_1, 1), new ItemToPack(SKU_2, 1)));
+
+        // Then
+        verify(catalogClient, never()).getProductInfo(SKU_1);
+        assertThat(enriched.get(1).getDimensions().getHeight()).isEqualByComparingTo("9");
+        verify(pinStore).save(argThat(saved -> saved.catalogVersion() == 7L && saved.products().size() == 2));
+    }
+
+    @Test
+    void shouldKeepUnchangedPinnedProductsWhenCatalogVersionMoves() {
+        // Given: SKU-1 is unchanged under version 8, SKU-2 got taller
+        when(catalogClient.getCatalogVersion()).thenReturn(8L);
+        when(pinStore.find("order-1")).thenReturn(Optional.of(pin(7L, product(SKU_1, "2"), product(SKU_2, "3"))));
+        when(catalogClient.getVersionedProductInfo(SKU_1)).thenReturn(Optional.of(product(SKU_1, "2")));
+        when(catalogClient.getVersionedProductInfo(SKU_2)).thenReturn(Optional.of(product(SKU_2, "9")));
+        when(catalogClient.getProductInfo(SKU_2)).thenReturn(Optional.of(product(SKU_2, "9")));
+
+        // When
+        List<ItemWithDimensions> enriched =
+            enricher.enrichItems("order-1", List.of(new ItemToPack(SKU_1, 1), new ItemToPack(SKU_2, 1)));
+
+        // Then
+        verify(catalogClient, never()).getProductInfo(SKU_1);
+        assertThat(enriched.get(1).getDimensions().getHeight()).isEqualByComparingTo("9");
+        verify(pinStore).save(argThat(saved -> saved.catalogVersion() == 8L && saved.products().size() == 2));
+    }
+
+    @Test
+    void shouldNotReusePinsWithoutACatalogVersion() {
+        // Given
+        when(catalogClient.getCatalogVersion()).thenReturn(0L);
+        when(pinStore.find("order-1")).thenReturn(Optional.of(pin(0L, product(SKU_1, "2"))));
+        when(catalogClient.getProductInfo(SKU_1)).thenReturn(Optional.of(product(SKU_1, "5")));
+
+        // When
+        List<ItemWithDimensions> enriched = enricher.enrichItems("order-1", List.of(new ItemToPack(SKU_1, 1)));
+
+        // Then
+        assertThat(enriched.get(0).getDimensions().getHeight()).isEqualByComparingTo("5");
+    }
+
+    @Test
+    void shouldCancelSiblingLookupsOnFirstFailure() throws Exception {
+        // Given: SKU-2 is still in flight when SKU-1 turns out not to exist
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+        CountDownLatch siblingInterrupted = new CountDownLatch(1);
+        when(catalogClient.getProductInfo(SKU_2)).thenAnswer(invocation -> {
+            siblingStarted.countDown();
+            try {
+                new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                siblingInterrupted.countDown();
+            }
+            return Optional.of(product(SKU_2, "3"));
+        });
+        when(catalogClient.getProductInfo(SKU_1)).thenAnswer(invocation -> {
+            siblingStarted.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        // When / Then
+        assertThatThrownBy(() -> enricher.enrichItems(List.of(new ItemToPack(SKU_1, 1), new ItemToPack(SKU_2, 1))))
+            .isInstanceOf(InvalidPackingRequestException.class);
+        assertThat(siblingInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldCapConcurrentLookupsAtTheBulkheadSize() {
+        // Given
+        DefaultProductDimensionEnricher bounded =
+            new DefaultProductDimensionEnricher(catalogClient, pinStore, 2, Duration.ofSeconds(5));
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(catalogClient.getProductInfo(any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            inFlight.decrementAndGet();
+            return Optional.of(product(invocation.getArgument(0), "2"));
+        });
+        List<ItemToPack> items = IntStream.rangeClosed(1, 6)
+            .mapToObj(i -> new ItemToPack(SKU.of("SKU-" + i), 1))
+            .toList();
+
+        try {
+            // When
+            List<ItemWithDimensions> enriched = bounded.enrichItems(items);
+
+            // Then
+            assertThat(enriched).hasSize(6);
+            assertThat(maxInFlight.get()).isBetween(1, 2);
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFailWithTimeoutWhenLookupsOutlastTheDeadline() {
+        // Given
+        DefaultProductDimensionEnricher hurried =
+            new DefaultProductDimensionEnricher(catalogClient, pinStore, 4, Duration.ofMillis(100));
+        when(catalogClient.getProductInfo(any())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return Optional.of(product(invocation.getArgument(0), "2"));
+        });
+
+        try {
+            // When / Then
+            long started = System.nanoTime();
+            assertThatThrownBy(() -> hurried.enrichItems(List.of(new ItemToPack(SKU_1, 1), new ItemToPack(SKU_2, 1))))
+                .isInstanceOf(ProductCatalogUnavailableException.class)
+                .hasMessageContaining("exceeded deadline");
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+        } finally {
+            hurried.shutdown();
+        }
+    }
+
+    private static EnrichmentPin pin(long catalogVersion, ProductInfo... products) {
+        Map<SKU, ProductInfo> pinned = new LinkedHashMap<>();
+        for (ProductInfo product : products) {
+            pinned.put(product.sku(), product);
+        }
+        return new EnrichmentPin("order-1", catalogVersion, pinned);
+    }
+
+    private static ProductInfo product(SKU sku, String height) {
+        return new ProductInfo(sku, "Widget", null,
+            new DimensionSet(BigDecimal.ONE, BigDecimal.ONE, new BigDecimal(height), DimensionUnit.INCHES),
+            new Weight(BigDecimal.ONE, WeightUnit.POUNDS), "Books", false, true, null);
+    }
+}
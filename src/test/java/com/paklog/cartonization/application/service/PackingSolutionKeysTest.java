@@ -0,0 +1,71 @@
+package com.paklog.cartonization.application.service;
+
+import com.paklog.cartonization.domain.model.valueobject.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PackingSolutionKeysTest {
+
+    private final PackingRules rules = PackingRules.defaultRules();
+
+    @Test
+    void shouldHashSameBasketToSameKeyRegardlessOfLineOrderAndSplits() {
+        // Given
+        List<ItemToPack> basket = List.of(ItemToPack.of("SKU-A", 2), ItemToPack.of("SKU-B", 1));
+        List<ItemToPack> reordered = List.of(ItemToPack.of("SKU-B", 1), ItemToPack.of("SKU-A", 1),
+            ItemToPack.of("SKU-A", 1));
+
+        // When
+        String key = PackingSolutionKeys.basketKey(basket, rules, "DC-1", 7, 3);
+        String sameKey = PackingSolutionKeys.basketKey(reordered, rules, "DC-1", 7, 3);
+
+        // Then
+        assertThat(key).startsWith("basket:").hasSize("basket:".length() + 32);
+        assertThat(sameKey).isEqualTo(key);
+    }
+
+    @Test
+    void shouldChangeKeyWhenCatalogsSiteOrQuantitiesChange() {
+        // Given
+        List<ItemToPack> basket = List.of(ItemToPack.of("SKU-A", 2));
+        String key = PackingSolutionKeys.basketKey(basket, rules, "DC-1", 7, 3);
+
+        // When / Then
+        assertThat(PackingSolutionKeys.basketKey(basket, rules, "DC-1", 8, 3)).isNotEqualTo(key);
+        assertThat(PackingSolutionKeys.basketKey(basket, rules, "DC-1", 7, 4)).isNotEqualTo(key);
+        assertThat(PackingSolutionKeys.basketKey(basket, rules, "DC-2", 7, 3)).isNotEqualTo(key);
+        assertThat(PackingSolutionKeys.basketKey(List.of(ItemToPack.of("SKU-A", 3)), rules, "DC-1", 7, 3))
+            .isNotEqualTo(key);
+    }
+
+    @Test
+    void shouldKeyEnrichedItemsByTheirFactsIgnoringScaleOfDecimals() {
+        // Given
+        ItemWithDimensions item = item("10.0", "1.50");
+        ItemWithDimensions sameItem = item("10", "1.5");
+        ItemWithDimensions heavier = item("10", "2");
+
+        // When
+        String key = PackingSolutionKeys.itemsKey(List.of(item), rules, null, 7);
+
+        // Then
+        assertThat(PackingSolutionKeys.itemsKey(List.of(sameItem), rules, null, 7)).isEqualTo(key);
+        assertThat(PackingSolutionKeys.itemsKey(List.of(heavier), rules, null, 7)).isNotEqualTo(key);
+    }
+
+    private static ItemWithDimensions item(String length, String weight) {
+        return ItemWithDimensions.builder()
+            .sku(SKU.of("SKU-A"))
+            .quantity(1)
+            .dimensions(new DimensionSet(new BigDecimal(length), BigDecimal.valueOf(4), BigDecimal.valueOf(2),
+                DimensionUnit.INCHES))
+            .weight(new Weight(new BigDecimal(weight), WeightUnit.POUNDS))
+            .category("Books")
+            .fragile(false)
+            .build();
+    }
+}
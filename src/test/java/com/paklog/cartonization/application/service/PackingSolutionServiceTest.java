@@ -0,0 +1,152 @@
+package com.paklog.cartonization.application.service;
+
+import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
+import com.paklog.cartonization.application.port.out.CartonRepository;
+import com.paklog.cartonization.application.port.out.PackingAnalyticsPublisher;
+import com.paklog.cartonization.application.port.out.PackingKpiRecorder;
+import com.paklog.cartonization.application.port.out.PackingSolutionCache;
+import com.paklog.cartonization.application.port.out.PackingSolutionRepository;
+import com.paklog.cartonization.application.port.out.PackingSolutionWriter;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import com.paklog.cartonization.domain.service.PackingAlgorithmService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PackingSolutionServiceTest {
+
+    private static final Carton CARTON = Carton.reconstitute(CartonId.of("carton-1"), "Small Box",
+        new DimensionSet(BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, DimensionUnit.INCHES),
+        new Weight(BigDecimal.valueOf(50), WeightUnit.POUNDS), CartonStatus.ACTIVE, Set.of("DC-1"), null, null);
+
+    // One Redis-backed cache shared by every instance
+    private final Map<String, PackingSolution> shared = new ConcurrentHashMap<>();
+    private final PackingSolutionCache sharedCache = new PackingSolutionCache() {
+        @Override
+        public Optional<PackingSolution> find(String key) {
+            return Optional.ofNullable(shared.get(key));
+        }
+
+        @Override
+        public void put(String key, PackingSolution solution, Duration computeTime) {
+            shared.put(key, solution);
+        }
+    };
+
+    private Instance podA;
+
+    @BeforeEach
+    void setUp() {
+        podA = new Instance(11L);
+    }
+
+    @Test
+    void shouldShareSolutionsBetweenInstancesHoldingTheSameCatalogs() {
+        // Given
+        Instance podB = new Instance(11L);
+        podA.service.calculate(command("req-1", "order-1"));
+
+        // When
+        PackingSolution solution = podB.service.calculate(command("req-2", "order-2"));
+
+        // Then
+        assertThat(solution.getOrderId()).isEqualTo("order-2");
+        assertThat(solution.getCartonCatalogVersion()).isEqualTo(11L);
+        verify(podB.algorithm, never()).calculateOptimalPacking(anyList(), anyList(), any());
+        verify(podB.enricher, never()).enrichItems(anyString(), anyList());
+    }
+
+    @Test
+    void shouldEnrichBasketsWithProductsOutsideTheVersionedSnapshot() {
+        // Given: SKU-1 is not in podB's snapshot, so the product version says nothing about it
+        Instance podB = new Instance(11L);
+        when(podB.productCatalogClient.getVersionedProductInfo(SKU.of("SKU-1"))).thenReturn(Optional.empty());
+        podA.service.calculate(command("req-1", "order-1"));
+
+        // When
+        podB.service.calculate(command("req-2", "order-2"));
+
+        // Then: served by the enriched items' key instead of the basket key
+        verify(podB.enricher).enrichItems(anyString(), anyList());
+        verify(podB.algorithm, never()).calculateOptimalPacking(anyList(), anyList(), any());
+    }
+
+    @Test
+    void shouldNotReuseSolutionsComputedAgainstADifferentCartonSet() {
+        // Given
+        Instance stalePod = new Instance(12L);
+        podA.service.calculate(command("req-1", "order-1"));
+
+        // When
+        PackingSolution solution = stalePod.service.calculate(command("req-2", "order-2"));
+
+        // Then
+        assertThat(solution.getCartonCatalogVersion()).isEqualTo(12L);
+        verify(stalePod.algorithm).calculateOptimalPacking(anyList(), anyList(), any());
+    }
+
+    private static CalculatePackingSolutionCommand command(String requestId, String orderId) {
+        return CalculatePackingSolutionCommand.builder()
+            .requestId(requestId)
+            .orderId(orderId)
+            .siteId("DC-1")
+            .items(List.of(ItemToPack.of("SKU-1", 2)))
+            .build();
+    }
+
+    private static ItemWithDimensions enriched() {
+        return ItemWithDimensions.builder()
+            .sku(SKU.of("SKU-1"))
+            .quantity(2)
+            .dimensions(new DimensionSet(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, DimensionUnit.INCHES))
+            .weight(new Weight(BigDecimal.ONE, WeightUnit.POUNDS))
+            .category("Books")
+            .fragile(false)
+            .build();
+    }
+
+    /**
+     * One application instance with its own catalogs, reporting the given
+     * content version for its site's cartons.
+     */
+    private final class Instance {
+        private final PackingAlgorithmService algorithm = mock(PackingAlgorithmService.class);
+        private final ProductDimensionEnricher enricher = mock(ProductDimensionEnricher.class);
+        private final ProductCatalogClient productCatalogClient = mock(ProductCatalogClient.class);
+        private final PackingSolutionService service;
+
+        private Instance(long cartonVersion) {
+            CartonRepository cartonRepository = mock(CartonRepository.class);
+            when(cartonRepository.getCatalogVersion("DC-1")).thenReturn(cartonVersion);
+            when(cartonRepository.findAllActiveForSite("DC-1")).thenReturn(List.of(CARTON));
+            when(productCatalogClient.getCatalogVersion()).thenReturn(42L);
+            when(productCatalogClient.getVersionedProductInfo(SKU.of("SKU-1"))).thenReturn(Optional.of(
+                new ProductCatalogClient.ProductInfo(SKU.of("SKU-1"), "Widget", null, enriched().getDimensions(),
+                    enriched().getWeight(), "Books", false, true, null)));
+            when(enricher.enrichItems(anyString(), anyList())).thenReturn(List.of(enriched()));
+            when(algorithm.calculateOptimalPacking(anyList(), anyList(), any()))
+                .thenAnswer(invocation -> PackingSolution.create(List.of(Package.reconstitute(CARTON, List.of(enriched())))));
+
+            service = new PackingSolutionService(algorithm, cartonRepository, enricher, productCatalogClient,
+                sharedCache, mock(PackingSolutionWriter.class), mock(PackingSolutionRepository.class),
+                mock(PackingKpiRecorder.class), mock(PackingAnalyticsPublisher.class), true);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.paklog.cartonization.application.service;
+
+import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
+import com.paklog.cartonization.application.port.out.PackingSolutionRepository;
+import com.paklog.cartonization.application.port.out.PackingSolutionWriter;
+import com.paklog.cartonization.domain.exception.RequestIdReusedException;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.ItemToPack;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RequestReplayServiceTest {
+
+    private PackingSolutionWriter solutionWriter;
+    private PackingSolutionRepository solutionRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private RequestReplayService replayService;
+
+    @BeforeEach
+    void setUp() {
+        solutionWriter = mock(PackingSolutionWriter.class);
+        solutionRepository = mock(PackingSolutionRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        replayService = new RequestReplayService(solutionWriter, solutionRepository, meterRegistry);
+    }
+
+    @Test
+    void shouldReplayPendingSolutionBeforeStoredOne() {
+        // Given
+        PackingSolution pending = solution("req-1");
+        when(solutionWriter.findPendingByRequestId("req-1")).thenReturn(Optional.of(pending));
+
+        // When
+        Optional<PackingSolution> replayed = replayService.replay("req-1", RequestReplayService.Channel.HTTP);
+
+        // Then
+        assertThat(replayed).containsSame(pending);
+        verify(solutionRepository, never()).findByRequestId(any());
+        assertThat(lookups("http", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReplayStoredSolutionOnceFlushed() {
+        // Given
+        PackingSolution stored = solution("req-2");
+        when(solutionWriter.findPendingByRequestId("req-2")).thenReturn(Optional.empty());
+        when(solutionRepository.findByRequestId("req-2")).thenReturn(Optional.of(stored));
+
+        // When
+        Optional<PackingSolution> replayed = replayService.replay("req-2", RequestReplayService.Channel.KAFKA);
+
+        // Then
+        assertThat(replayed).containsSame(stored);
+        assertThat(lookups("kafka", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountFailedLookupAsMiss() {
+        // Given
+        when(solutionWriter.findPendingByRequestId("req-3")).thenReturn(Optional.empty());
+        when(solutionRepository.findByRequestId("req-3")).thenThrow(new IllegalStateException("database down"));
+
+        // When
+        Optional<PackingSolution> replayed = replayService.replay("req-3", RequestReplayService.Channel.KAFKA);
+
+        // Then
+        assertThat(replayed).isEmpty();
+        assertThat(lookups("kafka", "miss")).isEqualTo(1);
+        assertThat(lookups("kafka", "hit")).isZero();
+    }
+
+    @Test
+    void shouldReplayRetryListingTheSameBasketDifferently() {
+        // Given
+        PackingSolution stored = solution("req-4");
+        stored.setRequestFingerprint(PackingSolutionKeys.requestFingerprint(
+            command("req-4", "DC-1", ItemToPack.of("SKU-1", 2), ItemToPack.of("SKU-2", 1))));
+        when(solutionWriter.findPendingByRequestId("req-4")).thenReturn(Optional.of(stored));
+
+        // When
+        Optional<PackingSolution> replayed = replayService.replay(
+            command("req-4", "DC-1", ItemToPack.of("SKU-2", 1), ItemToPack.of("SKU-1", 1), ItemToPack.of("SKU-1", 1)),
+            RequestReplayService.Channel.HTTP);
+
+        // Then
+        assertThat(replayed).containsSame(stored);
+    }
+
+    @Test
+    void shouldRejectRequestIdReusedForADifferentRequest() {
+        // Given: same order, but a different site
+        PackingSolution stored = solution("req-5");
+        stored.setRequestFingerprint(PackingSolutionKeys.requestFingerprint(
+            command("req-5", "DC-1", ItemToPack.of("SKU-1", 2))));
+        when(solutionWriter.findPendingByRequestId("req-5")).thenReturn(Optional.of(stored));
+
+        // When / Then
+        assertThatThrownBy(() -> replayService.replay(command("req-5", "DC-2", ItemToPack.of("SKU-1", 2)),
+            RequestReplayService.Channel.HTTP))
+            .isInstanceOf(RequestIdReusedException.class);
+    }
+
+    private static CalculatePackingSolutionCommand command(String requestId, String siteId, ItemToPack... items) {
+        return CalculatePackingSolutionCommand.builder()
+            .requestId(requestId)
+            .orderId("order-1")
+            .siteId(siteId)
+            .items(List.of(items))
+            .build();
+    }
+
+    private double lookups(String channel, String result) {
+        return meterRegistry.get("cartonization.replay.lookups")
+            .tag("channel", channel)
+            .tag("result", result)
+            .counter()
+            .count();
+    }
+
+    private static PackingSolution solution(String requestId) {
+        PackingSolution solution = PackingSolution.create(List.of());
+        solution.setRequestId(requestId);
+        return solution;
+    }
+}
@@ -4,6 +4,7 @@ import com.paklog.cartonization.domain.model.valueobject.*;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -116,6 +117,33 @@ class CartonTest {
         assertThat(canFit).isFalse();
     }
 
+    @Test
+    void shouldBeStockedEverywhereWhenNoSitesAssigned() {
+        // Given
+        Carton carton = createTestCarton();
+
+        // When & Then
+        assertThat(carton.getSites()).isEmpty();
+        assertThat(carton.isStockedAt("DC-EAST-01")).isTrue();
+        assertThat(carton.isStockedAt(null)).isTrue();
+    }
+
+    @Test
+    void shouldOnlyBeStockedAtAssignedSites() {
+        // Given
+        Carton carton = createTestCarton();
+        carton.pullDomainEvents(); // Clear creation events
+
+        // When
+        carton.assignSites(Set.of(" dc-east-01 ", "DC-WEST-02"));
+
+        // Then
+        assertThat(carton.getSites()).containsExactly("DC-EAST-01", "DC-WEST-02");
+        assertThat(carton.isStockedAt("dc-east-01")).isTrue();
+        assertThat(carton.isStockedAt("DC-NORTH-03")).isFalse();
+        assertThat(carton.pullDomainEvents()).hasSize(1);
+    }
+
     private Carton createTestCarton() {
         return Carton.create(
             "Test Box",
@@ -0,0 +1,89 @@
+package com.paklog.cartonization.infrastructure.adapter.in.messaging.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.application.port.in.BulkCartonResult;
+import com.paklog.cartonization.application.port.in.CartonManagementUseCase;
+import com.paklog.cartonization.application.port.in.PackingSolutionUseCase;
+import com.paklog.cartonization.application.service.IdempotencyService;
+import com.paklog.cartonization.application.service.RequestReplayService;
+import com.paklog.cartonization.infrastructure.adapter.in.messaging.cloudevents.CloudEventFactory;
+import com.paklog.cartonization.infrastructure.adapter.in.messaging.cloudevents.CloudEventTypes;
+import com.paklog.cartonization.infrastructure.adapter.in.messaging.mapper.CartonManagementEventMapper;
+import com.paklog.cartonization.infrastructure.adapter.in.messaging.mapper.CartonizationEventMapper;
+import com.paklog.cartonization.infrastructure.adapter.out.messaging.CloudEventPublisher;
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CloudEventCartonizationConsumerTest {
+
+    private static final String BATCH = """
+        {"batchId": "batch-1", "operations": [
+          {"type": "CREATE", "name": "Box", "length": 10, "width": 10, "height": 10, "dimensionUnit": "IN",
+           "maxWeight": 5, "weightUnit": "LB"}
+        ]}
+        """;
+
+    private IdempotencyService idempotencyService;
+    private CartonManagementUseCase cartonManagementUseCase;
+    private Acknowledgment acknowledgment;
+    private CloudEventCartonizationConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = mock(IdempotencyService.class);
+        cartonManagementUseCase = mock(CartonManagementUseCase.class);
+        acknowledgment = mock(Acknowledgment.class);
+        consumer = new CloudEventCartonizationConsumer(mock(PackingSolutionUseCase.class),
+            mock(CloudEventPublisher.class), mock(CartonizationEventMapper.class), mock(CloudEventFactory.class),
+            new ObjectMapper().findAndRegisterModules(), idempotencyService, mock(RequestReplayService.class), cartonManagementUseCase,
+            new CartonManagementEventMapper(), "responses");
+        when(idempotencyService.tryAcquireIdempotencyLock("batch-1")).thenReturn(true);
+    }
+
+    @Test
+    void shouldReleaseLockAndLeaveBatchForRedeliveryWhenApplyFails() {
+        // Given
+        when(cartonManagementUseCase.applyBulk(any()))
+            .thenThrow(new DataAccessResourceFailureException("mongo down"));
+
+        // When / Then
+        assertThatThrownBy(() -> consumer.handleCartonManagementCloudEvent(event(), "topic", 0, 1L, acknowledgment))
+            .isInstanceOf(DataAccessResourceFailureException.class);
+        verify(idempotencyService).clearIdempotency("batch-1");
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void shouldKeepLockAndAcknowledgeWhenBatchIsApplied() {
+        // Given
+        when(cartonManagementUseCase.applyBulk(any())).thenReturn(new BulkCartonResult("batch-1", 1, 0, 0, List.of()));
+
+        // When
+        consumer.handleCartonManagementCloudEvent(event(), "topic", 0, 1L, acknowledgment);
+
+        // Then
+        verify(idempotencyService, never()).clearIdempotency(any());
+        verify(acknowledgment).acknowledge();
+    }
+
+    private static CloudEvent event() {
+        return CloudEventBuilder.v1()
+            .withId("event-1")
+            .withType(CloudEventTypes.CARTON_MANAGEMENT_REQUEST)
+            .withSource(URI.create("/test"))
+            .withData("application/json", BATCH.getBytes(StandardCharsets.UTF_8))
+            .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.paklog.cartonization.infrastructure.adapter.in.messaging.mapper;
+
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
+import com.paklog.cartonization.domain.model.valueobject.DimensionUnit;
+import com.paklog.cartonization.domain.model.valueobject.WeightUnit;
+import com.paklog.cartonization.infrastructure.adapter.in.messaging.event.CartonManagementRequestEvent;
+import com.paklog.cartonization.infrastructure.adapter.in.messaging.event.CartonManagementRequestEvent.OperationRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CartonManagementEventMapperTest {
+
+    private final CartonManagementEventMapper mapper = new CartonManagementEventMapper();
+
+    @Test
+    void shouldMapUnitAbbreviationsAndRejectOnlyTheMalformedOperation() {
+        // Given
+        CartonManagementRequestEvent event = new CartonManagementRequestEvent("batch-1", List.of(
+            create("IN", "LB"),
+            create("MM", "KG"),
+            new OperationRequest("REPAINT", "carton-9", null, null, null, null, null, null, null, null),
+            create("CENTIMETERS", "KILOGRAMS")
+        ));
+
+        // When
+        BulkCartonCommand command = mapper.toCommand(event, "event-1");
+
+        // Then
+        List<BulkCartonCommand.Operation> operations = command.operations();
+        assertThat(operations).hasSize(4);
+        assertThat(operations.get(0).rejection()).isNull();
+        assertThat(operations.get(0).dimensions().getUnit()).isEqualTo(DimensionUnit.INCHES);
+        assertThat(operations.get(0).maxWeight().getUnit()).isEqualTo(WeightUnit.POUNDS);
+        assertThat(operations.get(1).rejection()).contains("MM");
+        assertThat(operations.get(2).rejection()).isNotNull();
+        assertThat(operations.get(2).cartonId()).isEqualTo("carton-9");
+        assertThat(operations.get(3).dimensions().getUnit()).isEqualTo(DimensionUnit.CENTIMETERS);
+        assertThat(operations.get(3).maxWeight().getUnit()).isEqualTo(WeightUnit.KILOGRAMS);
+    }
+
+    private static OperationRequest create(String dimensionUnit, String weightUnit) {
+        return new OperationRequest("CREATE", null, "Box", BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN,
+            dimensionUnit, BigDecimal.ONE, weightUnit, List.of("DC-1"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.application.port.in.BulkCartonResult;
+import com.paklog.cartonization.application.port.in.CartonManagementUseCase;
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import com.paklog.cartonization.infrastructure.adapter.in.web.CartonTransferService.ImportSummary;
+import com.paklog.cartonization.infrastructure.adapter.in.web.CartonTransferService.TransferFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CartonTransferServiceTest {
+
+    private CartonManagementUseCase cartonManagementUseCase;
+    private SimpleMeterRegistry meterRegistry;
+    private CartonTransferService transferService;
+
+    @BeforeEach
+    void setUp() {
+        cartonManagementUseCase = mock(CartonManagementUseCase.class);
+        meterRegistry = new SimpleMeterRegistry();
+        transferService = new CartonTransferService(cartonManagementUseCase, new ObjectMapper(), meterRegistry, 1000, 100);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldImportItsOwnCsvExport() throws Exception {
+        // Given: a name with a line break, and an inactive carton
+        Carton multiline = carton("box-1", "Box\nwith \"notes\"", CartonStatus.ACTIVE);
+        Carton inactive = carton("box-2", "Retired, large", CartonStatus.INACTIVE);
+        doAnswer(invocation -> {
+            Consumer<Carton> action = invocation.getArgument(0);
+            action.accept(multiline);
+            action.accept(inactive);
+            return null;
+        }).when(cartonManagementUseCase).forEachCarton(any());
+        ArgumentCaptor<BulkCartonCommand> command = ArgumentCaptor.forClass(BulkCartonCommand.class);
+        when(cartonManagementUseCase.applyBulk(command.capture()))
+            .thenAnswer(invocation -> new BulkCartonResult("chunk", 0, 2, 1, List.of()));
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+
+        // When
+        transferService.export(TransferFormat.CSV, exported);
+        ImportSummary summary = transferService.importCartons(TransferFormat.CSV,
+            new ByteArrayInputStream(exported.toByteArray()));
+
+        // Then
+        assertThat(summary.rows()).isEqualTo(2);
+        assertThat(summary.rejected()).isZero();
+        List<BulkCartonCommand.Operation> operations = command.getValue().operations();
+        assertThat(operations).extracting(BulkCartonCommand.Operation::type).containsExactly(
+            BulkCartonCommand.OperationType.UPSERT, BulkCartonCommand.OperationType.ACTIVATE,
+            BulkCartonCommand.OperationType.UPSERT, BulkCartonCommand.OperationType.DEACTIVATE);
+        assertThat(operations.get(0).name()).isEqualTo("Box\nwith \"notes\"");
+        assertThat(operations.get(2).name()).isEqualTo("Retired, large");
+        assertThat(meterRegistry.get("cartonization.cartons.transfer.rows").tag("result", "applied").counter().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectAFailingRowOnce() throws Exception {
+        // Given: both operations of the inactive row fail
+        when(cartonManagementUseCase.applyBulk(any())).thenReturn(new BulkCartonResult("chunk", 0, 0, 0, List.of(
+            new BulkCartonResult.Failure(0, "box-1", "Dimensions are required"),
+            new BulkCartonResult.Failure(1, "box-1", "Carton not found: box-1"))));
+        String csv = "id,name,length,width,height,dimensionUnit,maxWeight,weightUnit,status,sites\n"
+            + "box-1,Box,,,,,,,INACTIVE,\n";
+
+        // When
+        ImportSummary summary = transferService.importCartons(TransferFormat.CSV,
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertThat(summary.rows()).isEqualTo(1);
+        assertThat(summary.rejected()).isEqualTo(1);
+        assertThat(summary.failures()).singleElement()
+            .satisfies(failure -> assertThat(failure.line()).isEqualTo(2));
+        assertThat(meterRegistry.get("cartonization.cartons.transfer.rows").tag("result", "applied").counter().count())
+            .isZero();
+    }
+
+    private static Carton carton(String id, String name, CartonStatus status) {
+        BigDecimal side = BigDecimal.TEN;
+        return Carton.reconstitute(CartonId.of(id), name, new DimensionSet(side, side, side, DimensionUnit.INCHES),
+            new Weight(BigDecimal.valueOf(50), WeightUnit.POUNDS), status, Set.of("DC-1"), null, null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.paklog.cartonization.infrastructure.adapter.in.web.dto;
+
+import com.paklog.cartonization.application.port.in.command.BulkCartonCommand;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CartonRecordTest {
+
+    @Test
+    void shouldRoundTripCartonThroughCsv() {
+        // Given
+        Carton carton = Carton.create(
+            "Box, \"Large\"",
+            new DimensionSet(BigDecimal.valueOf(12.5), BigDecimal.valueOf(8), BigDecimal.valueOf(6), DimensionUnit.INCHES),
+            new Weight(BigDecimal.valueOf(25), WeightUnit.POUNDS),
+            Set.of("DC-EAST-01", "DC-WEST-02")
+        );
+        CartonRecord record = CartonRecord.from(carton);
+
+        // When
+        CartonRecord parsed = CartonRecord.fromCsv(record.toCsv());
+
+        // Then
+        assertThat(parsed).isEqualTo(record);
+        assertThat(parsed.name()).isEqualTo("Box, \"Large\"");
+    }
+
+    @Test
+    void shouldUpsertThenDeactivateInactiveRecord() {
+        // Given
+        CartonRecord record = CartonRecord.fromCsv("box-1,Small Box,4,4,4,INCHES,5,POUNDS,INACTIVE,");
+
+        // When
+        List<BulkCartonCommand.Operation> operations = record.toOperations();
+
+        // Then
+        assertThat(operations).extracting(BulkCartonCommand.Operation::type)
+            .containsExactly(BulkCartonCommand.OperationType.UPSERT, BulkCartonCommand.OperationType.DEACTIVATE);
+        assertThat(operations).extracting(BulkCartonCommand.Operation::cartonId)
+            .containsOnly("box-1");
+        assertThat(operations.get(0).sites()).isEmpty();
+    }
+
+    @Test
+    void shouldReactivateActiveRecord() {
+        // Given
+        CartonRecord record = CartonRecord.fromCsv("box-1,Small Box,4,4,4,IN,5,LB,ACTIVE,DC-1");
+
+        // When
+        List<BulkCartonCommand.Operation> operations = record.toOperations();
+
+        // Then
+        assertThat(operations).extracting(BulkCartonCommand.Operation::type)
+            .containsExactly(BulkCartonCommand.OperationType.UPSERT, BulkCartonCommand.OperationType.ACTIVATE);
+        assertThat(operations.get(0).dimensions().getUnit()).isEqualTo(DimensionUnit.INCHES);
+    }
+
+    @Test
+    void shouldRejectMalformedCsvRow() {
+        assertThatThrownBy(() -> CartonRecord.fromCsv("box-1,Small Box,4,4"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("CSV columns");
+        assertThatThrownBy(() -> CartonRecord.fromCsv("box-1,Small Box,four,4,4,INCHES,5,POUNDS,ACTIVE,"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Not a number: four");
+    }
+}
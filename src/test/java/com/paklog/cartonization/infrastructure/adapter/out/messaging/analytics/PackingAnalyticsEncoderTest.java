@@ -0,0 +1,158 @@
+package com.paklog.cartonization.infrastructure.adapter.out.messaging.analytics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks encoded records against the data contract and the Pinot schema
+ * the {@code packingSolutions_v1} table ingests them with.
+ */
+class PackingAnalyticsEncoderTest {
+
+    private static final Path PINOT_SCHEMA = Path.of("pinot-config/packingSolutions_schema.json");
+    private static final Path DATA_CONTRACT = Path.of("data-mesh/contracts/packing-solution-v1.yaml");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PackingAnalyticsEncoder encoder = new PackingAnalyticsEncoder();
+
+    @Test
+    void shouldConformToPinotSchemaAndDataContract() throws IOException {
+        // Given
+        JsonNode schema = objectMapper.readTree(PINOT_SCHEMA.toFile());
+        List<JsonNode> fieldSpecs = new ArrayList<>();
+        for (String specs : List.of("dimensionFieldSpecs", "metricFieldSpecs", "dateTimeFieldSpecs")) {
+            schema.path(specs).forEach(fieldSpecs::add);
+        }
+        List<Map<String, Object>> contractFields = contractFields();
+        PackingSolution solution = solution();
+
+        // When
+        List<JsonNode> records = new ArrayList<>();
+        for (Package pkg : solution.getPackages()) {
+            records.add(objectMapper.readTree(encoder.encode(solution, pkg)));
+        }
+
+        // Then: the contract and the schema describe the same columns
+        assertThat(contractFields).extracting(field -> (String) field.get("name"))
+            .containsExactlyInAnyOrderElementsOf(fieldSpecs.stream().map(spec -> spec.get("name").asText()).toList());
+
+        assertThat(records).hasSize(solution.getPackages().size()).allSatisfy(record -> {
+            Set<String> names = new HashSet<>();
+            record.fieldNames().forEachRemaining(names::add);
+            assertThat(names).containsExactlyInAnyOrderElementsOf(
+                fieldSpecs.stream().map(spec -> spec.get("name").asText()).toList());
+
+            for (JsonNode spec : fieldSpecs) {
+                assertConformsToSpec(record.get(spec.get("name").asText()), spec);
+            }
+            for (Map<String, Object> field : contractFields) {
+                if (Boolean.TRUE.equals(field.get("required"))) {
+                    assertThat(record.get((String) field.get("name")).isNull()).isFalse();
+                }
+            }
+            assertThat(record.get("utilizationPercentage").asDouble()).isBetween(0.0, 100.0);
+        });
+    }
+
+    @Test
+    void shouldFlattenPackageIntoRecord() throws IOException {
+        // Given
+        PackingSolution solution = solution();
+        Package pkg = solution.getPackages().get(0);
+
+        // When
+        JsonNode record = objectMapper.readTree(encoder.encode(solution, pkg));
+
+        // Then
+        assertThat(record.get("solutionId").asText()).isEqualTo(solution.getSolutionId());
+        assertThat(record.get("calculationTimestamp").asLong()).isEqualTo(solution.getCreatedAt().toEpochMilli());
+        assertThat(record.get("cartonId").asText()).isEqualTo(pkg.getCarton().getId().getValue());
+        assertThat(record.get("totalPackedItems").asInt()).isEqualTo(3);
+        assertThat(record.get("utilizationPercentage").asDouble())
+            .isCloseTo(pkg.getUtilization().doubleValue() * 100, within(0.01));
+        assertThat(record.get("packedSkus")).extracting(JsonNode::asText)
+            .containsExactly("BOOK-001", "MUG \"Ø\" 2");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> contractFields() throws IOException {
+        try (Reader reader = Files.newBufferedReader(DATA_CONTRACT)) {
+            Map<String, Object> contract = new Yaml().load(reader);
+            return (List<Map<String, Object>>) ((Map<String, Object>) contract.get("schema")).get("fields");
+        }
+    }
+
+    private static void assertConformsToSpec(JsonNode value, JsonNode spec) {
+        String name = spec.get("name").asText();
+        if (!spec.path("singleValueField").asBoolean(true)) {
+            assertThat(value.isArray()).as("%s is multi-valued", name).isTrue();
+            value.forEach(element -> assertConformsToType(element, spec.get("dataType").asText(), name));
+        } else {
+            assertConformsToType(value, spec.get("dataType").asText(), name);
+        }
+    }
+
+    private static void assertConformsToType(JsonNode value, String dataType, String name) {
+        switch (dataType) {
+            case "STRING" -> assertThat(value.isTextual()).as("%s is a string", name).isTrue();
+            case "INT" -> assertThat(value.isIntegralNumber() && value.canConvertToInt()).as("%s is an int", name).isTrue();
+            case "DOUBLE" -> assertThat(value.isNumber()).as("%s is a number", name).isTrue();
+            case "TIMESTAMP" -> assertThat(value.isIntegralNumber() && value.canConvertToLong())
+                .as("%s is epoch millis", name).isTrue();
+            default -> fail("Unhandled Pinot data type %s for %s", dataType, name);
+        }
+    }
+
+    private static PackingSolution solution() {
+        Carton small = carton("Small Box", 12);
+        Carton large = carton("Large Box", 24);
+        ItemWithDimensions book = item("BOOK-001");
+        ItemWithDimensions mug = item("MUG \"Ø\" 2");
+        return PackingSolution.reconstitute("sol-123456789abc", "req-1", "ORDER-1",
+            List.of(
+                Package.reconstitute(small, List.of(book, mug, book)),
+                Package.reconstitute(large, List.of(mug))
+            ),
+            Instant.parse("2025-10-04T14:30:00Z"));
+    }
+
+    private static Carton carton(String name, int size) {
+        return Carton.create(name,
+            new DimensionSet(BigDecimal.valueOf(size), BigDecimal.valueOf(size), BigDecimal.valueOf(size),
+                DimensionUnit.INCHES),
+            new Weight(BigDecimal.valueOf(50), WeightUnit.POUNDS),
+            Set.of("DC-1"));
+    }
+
+    private static ItemWithDimensions item(String sku) {
+        return ItemWithDimensions.builder()
+            .sku(SKU.of(sku))
+            .quantity(1)
+            .dimensions(new DimensionSet(new BigDecimal("8"), new BigDecimal("5"), new BigDecimal("2"),
+                DimensionUnit.INCHES))
+            .weight(new Weight(new BigDecimal("1.2"), WeightUnit.POUNDS))
+            .category("General")
+            .fragile(false)
+            .build();
+    }
+}
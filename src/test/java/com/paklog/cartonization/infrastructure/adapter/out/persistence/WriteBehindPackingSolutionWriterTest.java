@@ -0,0 +1,150 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence;
+
+import com.paklog.cartonization.application.port.out.PackingSolutionRepository;
+import com.paklog.cartonization.application.port.out.PackingSolutionViewStore;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class WriteBehindPackingSolutionWriterTest {
+
+    private PackingSolutionRepository repository;
+    private PackingSolutionViewStore viewStore;
+    private List<List<PackingSolution>> batches;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PackingSolutionRepository.class);
+        viewStore = mock(PackingSolutionViewStore.class);
+        batches = new CopyOnWriteArrayList<>();
+        when(repository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<PackingSolution> batch = new ArrayList<>(invocation.getArgument(0));
+            batches.add(batch);
+            return batch.size();
+        });
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldInsertInSizeBoundedBatchesAndDrainOnStop() {
+        // Given
+        WriteBehindPackingSolutionWriter writer = writer(100, 2, Duration.ofSeconds(10));
+        writer.start();
+        List<PackingSolution> solutions = List.of(solution(), solution(), solution(), solution(), solution());
+
+        // When
+        solutions.forEach(writer::write);
+        writer.stop();
+
+        // Then
+        assertThat(batches).allSatisfy(batch -> assertThat(batch.size()).isLessThanOrEqualTo(2));
+        assertThat(batches.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(solutions);
+        assertThat(writer.findPending(solutions.get(0).getSolutionId())).isEmpty();
+        assertThat(meterRegistry.get("cartonization.persistence.write_behind.batch_size").summary().count())
+            .isEqualTo(batches.size());
+        verify(repository, never()).save(any());
+        solutions.forEach(solution -> verify(viewStore).project(solution));
+    }
+
+    @Test
+    void shouldWriteOnCallerThreadWhenQueueIsFull() {
+        // Given: not started, so nothing drains the single queue slot
+        WriteBehindPackingSolutionWriter writer = writer(1, 10, Duration.ofMillis(50));
+        PackingSolution solution = solution();
+
+        // When
+        writer.write(solution);
+
+        // Then
+        verify(repository).save(solution);
+        verify(viewStore).project(solution);
+        assertThat(meterRegistry.get("cartonization.persistence.write_behind.caller_writes").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepFlushingWhileViewProjectionIsBlocked() throws InterruptedException {
+        // Given: projecting a view blocks until released
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(viewStore).project(any());
+        WriteBehindPackingSolutionWriter writer = writer(100, 1, Duration.ofMillis(20));
+        writer.start();
+
+        // When
+        writer.write(solution());
+        writer.write(solution());
+        writer.write(solution());
+
+        // Then
+        verify(repository, timeout(5_000).times(3)).insertAll(anyList());
+        release.countDown();
+        writer.stop();
+        verify(viewStore, times(3)).project(any());
+    }
+
+    @Test
+    void shouldReturnNormallyAndCountDropWhenCallerWriteFails() {
+        // Given
+        WriteBehindPackingSolutionWriter writer = writer(1, 10, Duration.ofMillis(50));
+        PackingSolution solution = solution();
+        doThrow(new IllegalStateException("mongo down")).when(repository).save(solution);
+
+        // When
+        assertThatCode(() -> writer.write(solution)).doesNotThrowAnyException();
+
+        // Then
+        assertThat(writer.findPending(solution.getSolutionId())).isEmpty();
+        assertThat(meterRegistry.get("cartonization.persistence.write_behind.dropped").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountBatchAsDroppedWhenInterruptedWhileBackingOff() throws InterruptedException {
+        // Given: every insert fails and the flusher backs off between attempts
+        when(repository.insertAll(anyList())).thenThrow(new IllegalStateException("mongo down"));
+        WriteBehindPackingSolutionWriter writer = writer(100, 1, Duration.ofSeconds(10));
+        writer.start();
+        writer.write(solution());
+        Thread flusher = awaitFlusher();
+        verify(repository, timeout(5_000)).insertAll(anyList());
+
+        // When
+        flusher.interrupt();
+        flusher.join(5_000);
+
+        // Then
+        assertThat(meterRegistry.get("cartonization.persistence.write_behind.dropped").counter().count())
+            .isEqualTo(1);
+    }
+
+    private static Thread awaitFlusher() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().equals("packing-solution-writer"))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private WriteBehindPackingSolutionWriter writer(int capacity, int batchSize, Duration flushInterval) {
+        return new WriteBehindPackingSolutionWriter(repository, viewStore, meterRegistry, capacity, batchSize, flushInterval,
+            Duration.ofMillis(10), 3, Duration.ofSeconds(5), 8);
+    }
+
+    private static PackingSolution solution() {
+        return PackingSolution.create(List.of());
+    }
+}
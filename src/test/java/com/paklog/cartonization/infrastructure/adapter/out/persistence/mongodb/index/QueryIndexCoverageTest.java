@@ -0,0 +1,77 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.index;
+
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.PackingSolutionDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository.SpringDataMongoPackingSolutionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class QueryIndexCoverageTest {
+
+    private final MongoPersistentEntity<?> entity = entity();
+
+    @Test
+    void shouldCoverEveryQueryWithDeclaredIndexes() {
+        // Given
+        List<List<String>> indexKeys = List.of(
+            List.of("_id"),
+            List.of("requestId", "createdAt"),
+            List.of("orderId", "createdAt"),
+            List.of("createdAt"),
+            List.of("packageCount", "createdAt"),
+            List.of("totalItems", "createdAt"),
+            List.of("avgUtilization", "createdAt"),
+            List.of("usedVolume", "createdAt")
+        );
+
+        // When
+        List<QueryIndexCoverage.Gap> gaps =
+            QueryIndexCoverage.uncoveredQueries(SpringDataMongoPackingSolutionRepository.class, entity, indexKeys);
+
+        // Then
+        assertThat(gaps).isEmpty();
+    }
+
+    @Test
+    void shouldFlagDerivedAndAnnotatedQueriesWithoutLeadingIndex() {
+        // Given
+        List<List<String>> indexKeys = List.of(List.of("_id"), List.of("createdAt", "orderId"));
+
+        // When
+        List<QueryIndexCoverage.Gap> gaps =
+            QueryIndexCoverage.uncoveredQueries(SpringDataMongoPackingSolutionRepository.class, entity, indexKeys);
+
+        // Then
+        assertThat(gaps).extracting(QueryIndexCoverage.Gap::method)
+            .contains("findFirstByRequestIdOrderByCreatedAtDesc", "existsByRequestId", "findByOrderId", "findByPackageCountGreaterThanEqual")
+            .doesNotContain("findRecentSolutions", "countByCreatedAtBetween", "streamByCreatedAtAfter");
+    }
+
+    @Test
+    void shouldFlagOperatorsNoIndexCanServe() {
+        // When
+        List<QueryIndexCoverage.Gap> gaps = QueryIndexCoverage.uncoveredQueries(SizeQueries.class, entity,
+            List.of(List.of("packages")));
+
+        // Then
+        assertThat(gaps).singleElement()
+            .satisfies(gap -> assertThat(gap.reason()).contains("$size on 'packages'"));
+    }
+
+    interface SizeQueries {
+        @Query("{ 'packages': { $size: ?0 } }")
+        List<PackingSolutionDocument> findByPackageCount(int packages);
+    }
+
+    private static MongoPersistentEntity<?> entity() {
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        return context.getRequiredPersistentEntity(PackingSolutionDocument.class);
+    }
+}
@@ -0,0 +1,224 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper;
+
+import com.paklog.cartonization.application.port.out.PackingSolutionExport;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.CartonDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.PackingSolutionDocument;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PackingSolutionDocumentMapperTest {
+
+    private final CartonDocumentMapper cartonMapper = new CartonDocumentMapper();
+    private PackingSolutionDocumentMapper mapper;
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new PackingSolutionDocumentMapper(cartonMapper);
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void shouldRoundTripSolutionThroughCompactDocument() {
+        // Given
+        PackingSolution solution = solution();
+
+        // When
+        PackingSolutionDocument document = roundTrip(mapper.toDocument(solution));
+        PackingSolution restored = mapper.fromDocument(document);
+
+        // Then
+        assertThat(document.isLegacy()).isFalse();
+        assertThat(document.getCartonCatalogVersion()).isEqualTo(42L);
+        assertThat(document.getPackageCount()).isEqualTo(3);
+        assertThat(document.getTotalItems()).isEqualTo(solution.getTotalItems());
+        assertThat(document.getSkus()).hasSize(3);
+        assertThat(document.getCartons()).hasSize(2);
+        assertSameSolution(restored, solution);
+        assertThat(restored.getCartonCatalogVersion()).isEqualTo(42L);
+        assertThat(mapper.itemsOf(document)).hasSize(solution.getAllItems().size());
+    }
+
+    @Test
+    void shouldReadAndUpgradeVersionOneDocuments() {
+        // Given
+        PackingSolution solution = solution();
+        PackingSolutionDocument legacy = roundTrip(legacyDocument(solution));
+
+        // When
+        PackingSolution restored = mapper.fromDocument(legacy);
+        PackingSolutionDocument upgraded = mapper.upgrade(legacy);
+
+        // Then
+        assertThat(legacy.isLegacy()).isTrue();
+        assertSameSolution(restored, solution);
+        assertThat(upgraded.isLegacy()).isFalse();
+        assertThat(upgraded.getSolutionId()).isEqualTo(legacy.getSolutionId());
+        assertSameSolution(mapper.fromDocument(roundTrip(upgraded)), solution);
+    }
+
+    @Test
+    void shouldStoreSolutionInLessThanHalfTheBytesOfVersionOne() {
+        // Given
+        PackingSolution solution = solution();
+
+        // When
+        int legacyBytes = bsonSize(legacyDocument(solution));
+        int compactBytes = bsonSize(mapper.toDocument(solution));
+
+        // Then
+        assertThat(compactBytes)
+            .as("compact %d bytes vs version 1 %d bytes", compactBytes, legacyBytes)
+            .isLessThan(legacyBytes / 2);
+    }
+
+    @Test
+    void shouldExportSameSummaryFromBothVersions() {
+        // Given
+        PackingSolution solution = solution();
+
+        // When
+        PackingSolutionExport compact = mapper.toExport(roundTrip(mapper.toDocument(solution)), false);
+        PackingSolutionExport legacy = mapper.toExport(roundTrip(legacyDocument(solution)), true);
+
+        // Then
+        assertThat(compact.solution()).isNull();
+        assertThat(compact.position()).isEqualTo(
+            new PackingSolutionExport.Position(solution.getCreatedAt(), solution.getSolutionId()));
+        assertThat(compact.packageCount()).isEqualTo(legacy.packageCount()).isEqualTo(3);
+        assertThat(compact.totalItems()).isEqualTo(legacy.totalItems()).isEqualTo(solution.getTotalItems());
+        assertThat(compact.usedVolume()).isEqualByComparingTo(legacy.usedVolume());
+        assertThat(compact.packedWeight()).isEqualByComparingTo(legacy.packedWeight());
+        assertThat(compact.avgUtilization()).isEqualByComparingTo(legacy.avgUtilization());
+        assertSameSolution(legacy.solution(), solution);
+    }
+
+    private PackingSolutionDocument roundTrip(PackingSolutionDocument document) {
+        Document bson = new Document();
+        converter.write(document, bson);
+        return converter.read(PackingSolutionDocument.class, bson);
+    }
+
+    private int bsonSize(PackingSolutionDocument document) {
+        Document bson = new Document();
+        converter.write(document, bson);
+        return new RawBsonDocument(bson, new DocumentCodec()).getByteBuffer().remaining();
+    }
+
+    private static void assertSameSolution(PackingSolution actual, PackingSolution expected) {
+        assertThat(actual.getSolutionId()).isEqualTo(expected.getSolutionId());
+        assertThat(actual.getRequestId()).isEqualTo(expected.getRequestId());
+        assertThat(actual.getOrderId()).isEqualTo(expected.getOrderId());
+        assertThat(actual.getTotalPackages()).isEqualTo(expected.getTotalPackages());
+        for (int i = 0; i < expected.getPackages().size(); i++) {
+            Package actualPackage = actual.getPackages().get(i);
+            Package expectedPackage = expected.getPackages().get(i);
+            assertThat(actualPackage.getCarton().getId()).isEqualTo(expectedPackage.getCarton().getId());
+            assertThat(actualPackage.getCarton().getDimensions()).isEqualTo(expectedPackage.getCarton().getDimensions());
+            assertThat(actualPackage.getCurrentWeight()).isEqualByComparingTo(expectedPackage.getCurrentWeight());
+            assertThat(actualPackage.getItems())
+                .extracting(item -> item.getSku().getValue(), ItemWithDimensions::getQuantity)
+                .containsExactlyElementsOf(expectedPackage.getItems().stream()
+                    .map(item -> tuple(item.getSku().getValue(), item.getQuantity()))
+                    .toList());
+        }
+    }
+
+    private static PackingSolution solution() {
+        Carton small = carton("Small Box", 12, 10, 8, 20);
+        Carton large = carton("Large Box", 24, 18, 12, 50);
+        ItemWithDimensions book = item("BOOK-001", "8.5", "5.5", "1.25", "1.2", "Books", false);
+        ItemWithDimensions mug = item("MUG-002", "4.75", "4.75", "4", "0.9", "Kitchen", true);
+        ItemWithDimensions lamp = item("LAMP-003", "10", "10", "16.5", "4.35", "Home", false);
+
+        List<Package> packages = List.of(
+            Package.reconstitute(small, repeat(book, 4)),
+            Package.reconstitute(small, List.of(mug, mug, book)),
+            Package.reconstitute(large, List.of(lamp, mug, book, book, book))
+        );
+        PackingSolution solution = PackingSolution.reconstitute("sol-123456789abc", "req-1", "ORDER-1", packages,
+            Instant.parse("2025-01-01T10:00:00Z"));
+        solution.setCartonCatalogVersion(42L);
+        return solution;
+    }
+
+    private PackingSolutionDocument legacyDocument(PackingSolution solution) {
+        List<PackingSolutionDocument.PackageDocument> packages = solution.getPackages().stream()
+            .map(pkg -> new PackingSolutionDocument.PackageDocument(
+                cartonMapper.toDocument(pkg.getCarton()),
+                pkg.getItems().stream().map(PackingSolutionDocumentMapperTest::legacyItem).toList(),
+                pkg.getCurrentWeight().toString(),
+                pkg.getUsedVolume().toString()))
+            .toList();
+        return new PackingSolutionDocument(solution.getSolutionId(), solution.getRequestId(), solution.getOrderId(),
+            packages, solution.getCreatedAt());
+    }
+
+    private static PackingSolutionDocument.ItemDocument legacyItem(ItemWithDimensions item) {
+        DimensionSet dimensions = item.getDimensions();
+        return new PackingSolutionDocument.ItemDocument(
+            item.getSku().getValue(),
+            item.getQuantity(),
+            new CartonDocument.DimensionDocument(dimensions.getLength(), dimensions.getWidth(), dimensions.getHeight(),
+                dimensions.getUnit().toString()),
+            new CartonDocument.WeightDocument(item.getWeight().getValue(), item.getWeight().getUnit().toString()),
+            item.getCategory(),
+            item.getFragile()
+        );
+    }
+
+    private static List<ItemWithDimensions> repeat(ItemWithDimensions item, int times) {
+        List<ItemWithDimensions> items = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static Carton carton(String name, int length, int width, int height, int maxWeight) {
+        return Carton.create(name,
+            new DimensionSet(BigDecimal.valueOf(length), BigDecimal.valueOf(width), BigDecimal.valueOf(height),
+                DimensionUnit.INCHES),
+            new Weight(BigDecimal.valueOf(maxWeight), WeightUnit.POUNDS),
+            Set.of("DC-1", "DC-2"));
+    }
+
+    private static ItemWithDimensions item(String sku, String length, String width, String height, String weight,
+                                           String category, boolean fragile) {
+        return ItemWithDimensions.builder()
+            .sku(SKU.of(sku))
+            .quantity(1)
+            .dimensions(new DimensionSet(new BigDecimal(length), new BigDecimal(width), new BigDecimal(height),
+                DimensionUnit.INCHES))
+            .weight(new Weight(new BigDecimal(weight), WeightUnit.POUNDS))
+            .category(category)
+            .fragile(fragile)
+            .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.CartonDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.CartonDocumentMapper;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.OutboxDocumentMapper;
+import com.paklog.cartonization.infrastructure.cache.VersionedCartonCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class MongoCartonRepositoryTest {
+
+    private SpringDataMongoCartonRepository springDataRepository;
+    private VersionedCartonCatalog cartonCatalog;
+    private MongoCartonRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        springDataRepository = mock(SpringDataMongoCartonRepository.class);
+        cartonCatalog = mock(VersionedCartonCatalog.class);
+        repository = new MongoCartonRepository(springDataRepository, new CartonDocumentMapper(),
+            new OutboxDocumentMapper(new ObjectMapper().findAndRegisterModules()), cartonCatalog);
+    }
+
+    @Test
+    void shouldKeepEventsOnTheCartonWhenTheWriteFails() {
+        // Given
+        Carton carton = carton();
+        when(springDataRepository.bulkUpsert(anyList()))
+            .thenThrow(new IllegalStateException("mongo down"))
+            .thenReturn(1);
+
+        // When
+        assertThatThrownBy(() -> repository.save(carton)).isInstanceOf(IllegalStateException.class);
+        int pendingAfterFailure = carton.domainEvents().size();
+        repository.save(carton);
+
+        // Then: the retry stored the event, and only then was it cleared
+        assertThat(pendingAfterFailure).isEqualTo(1);
+        assertThat(carton.domainEvents()).isEmpty();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CartonDocument>> documents = ArgumentCaptor.forClass(List.class);
+        verify(springDataRepository, times(2)).bulkUpsert(documents.capture());
+        assertThat(documents.getValue().get(0).getOutbox().getEvents()).hasSize(1);
+    }
+
+    @Test
+    void shouldShareCatalogListsAndCopyOnlyTheCartonLookedUpById() {
+        // Given
+        Carton carton = carton();
+        List<Carton> cartons = List.of(carton);
+        when(cartonCatalog.current()).thenReturn(new VersionedCartonCatalog.Snapshot(1L,
+            Map.of(carton.getId().getValue(), carton), cartons, cartons, Set.of("DC-1"), Map.of(), Map.of()));
+
+        // When
+        List<Carton> active = repository.findAllActive();
+        Carton found = repository.findById(carton.getId()).orElseThrow();
+        found.deactivate();
+
+        // Then
+        assertThat(active).isSameAs(cartons);
+        assertThat(found).isNotSameAs(carton);
+        assertThat(carton.getStatus()).isEqualTo(CartonStatus.ACTIVE);
+    }
+
+    private static Carton carton() {
+        return Carton.create("Small Box",
+            new DimensionSet(BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, DimensionUnit.INCHES),
+            new Weight(BigDecimal.valueOf(50), WeightUnit.POUNDS),
+            Set.of("DC-1"));
+    }
+}
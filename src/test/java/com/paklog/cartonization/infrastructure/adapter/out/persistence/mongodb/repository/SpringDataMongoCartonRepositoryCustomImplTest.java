@@ -0,0 +1,118 @@
+package com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.CartonDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.OutboxDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.CartonDocumentMapper;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.OutboxDocumentMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SpringDataMongoCartonRepositoryCustomImplTest {
+
+    private final CartonDocumentMapper cartonMapper = new CartonDocumentMapper();
+    private final OutboxDocumentMapper outboxMapper = new OutboxDocumentMapper(new ObjectMapper().findAndRegisterModules());
+    private BulkOperations bulk;
+    private SpringDataMongoCartonRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        MongoOperations mongoOperations = mock(MongoOperations.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoOperations.getConverter()).thenReturn(converter);
+        when(mongoOperations.bulkOps(BulkOperations.BulkMode.ORDERED, CartonDocument.class)).thenReturn(bulk);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getUpserts()).thenReturn(List.of());
+        when(result.getModifiedCount()).thenReturn(1);
+        when(bulk.execute()).thenReturn(result);
+        repository = new SpringDataMongoCartonRepositoryCustomImpl(mongoOperations);
+    }
+
+    @Test
+    void shouldAppendOutboxEventsInTheSameUpsertAsTheState() {
+        // Given
+        Carton carton = carton();
+        CartonDocument document = cartonMapper.toDocument(carton);
+        document.setOutbox(outboxMapper.toOutbox(carton.pullDomainEvents(), carton.getId().getValue()));
+        document.setSites(null);
+
+        // When
+        repository.bulkUpsert(List.of(document));
+        Document update = capturedUpdate();
+
+        // Then: state is set field by field, so pending events already in the document survive
+        Document set = update.get("$set", Document.class);
+        assertThat(set).containsEntry("name", "Small Box").containsEntry("status", "ACTIVE")
+            .doesNotContainKeys("_id", "outbox");
+        assertThat(update.get("$unset", Document.class)).containsOnlyKeys("sites");
+
+        Update.Modifiers push = (Update.Modifiers) update.get("$push", Document.class).get("outbox.events");
+        Object[] appended = (Object[]) push.getModifiers().iterator().next().getValue();
+        assertThat(appended).singleElement().isInstanceOfSatisfying(OutboxDocument.Event.class, event -> {
+            assertThat(event.getType()).isEqualTo("CartonCreatedEvent");
+            assertThat(event.getKey()).isEqualTo(carton.getId().getValue());
+            assertThat(event.getPayload()).contains("\"name\":\"Small Box\"");
+        });
+        assertThat(update.get("$min", Document.class)).containsKey("outbox.since");
+    }
+
+    @Test
+    void shouldLeaveOutboxAloneWhenThereAreNoNewEvents() {
+        // Given
+        Carton carton = carton();
+        carton.pullDomainEvents();
+        CartonDocument document = cartonMapper.toDocument(carton);
+        document.setOutbox(outboxMapper.toOutbox(carton.pullDomainEvents(), carton.getId().getValue()));
+
+        // When
+        repository.bulkUpsert(List.of(document));
+        Document update = capturedUpdate();
+
+        // Then
+        assertThat(document.getOutbox()).isNull();
+        assertThat(update).doesNotContainKeys("$push", "$min", "$unset");
+        assertThat(update.get("$set", Document.class)).doesNotContainKey("outbox");
+    }
+
+    private Document capturedUpdate() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).upsert(any(Query.class), update.capture());
+        return update.getValue().getUpdateObject();
+    }
+
+    private static Carton carton() {
+        return Carton.create("Small Box",
+            new DimensionSet(BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, DimensionUnit.INCHES),
+            new Weight(BigDecimal.valueOf(50), WeightUnit.POUNDS),
+            Set.of("DC-1"));
+    }
+}
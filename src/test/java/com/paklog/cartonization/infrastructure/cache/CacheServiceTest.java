@@ -0,0 +1,97 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.out.CacheStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CacheServiceTest {
+
+    private static final String CACHE = "product-by-sku";
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private ConcurrentMapCacheManager cacheManager;
+    private CacheStore cacheStore;
+    private SimpleMeterRegistry meterRegistry;
+    private CacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CACHE);
+        cacheStore = mock(CacheStore.class);
+        when(cacheStore.buildKey(anyString(), any(), any())).thenCallRealMethod();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new CacheService(cacheManager, cacheStore, meterRegistry, 1.0,
+            Duration.ofSeconds(5), Duration.ofMillis(50), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldComputeOnMissUnderLeaseAndServeFreshValueAfterwards() {
+        // Given
+        when(cacheStore.putIfAbsent(eq("cache-lease:product-by-sku:SKU-1"), anyString(), any())).thenReturn(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        String first = cacheService.getWithEarlyRecompute(CACHE, "SKU-1", String.class, TTL,
+            () -> "widget-" + loads.incrementAndGet());
+        String second = cacheService.getWithEarlyRecompute(CACHE, "SKU-1", String.class, TTL,
+            () -> "widget-" + loads.incrementAndGet());
+
+        // Then
+        assertThat(first).isEqualTo("widget-1");
+        assertThat(second).isEqualTo("widget-1");
+        assertThat(loads).hasValue(1);
+        assertThat(cacheService.get(CACHE, "SKU-1", String.class)).contains("widget-1");
+        assertThat(meterRegistry.get("cartonization.cache.stampede.recomputes").tag("reason", "miss").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeStaleValueWhileAnotherCallerHoldsTheLease() {
+        // Given
+        cacheManager.getCache(CACHE).put("SKU-1",
+            new RecomputableEntry("stale-widget", 20, System.currentTimeMillis() - 1_000));
+        when(cacheStore.putIfAbsent(anyString(), anyString(), any())).thenReturn(false);
+
+        // When
+        String value = cacheService.getWithEarlyRecompute(CACHE, "SKU-1", String.class, TTL,
+            () -> { throw new AssertionError("only the lease holder recomputes"); });
+
+        // Then
+        assertThat(value).isEqualTo("stale-widget");
+        assertThat(meterRegistry.get("cartonization.cache.stampede.lease_contention").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cartonization.cache.stampede.stale_served").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFallBackToStaleValueWhenRecomputeFailsAndReleaseOwnLease() {
+        // Given
+        cacheManager.getCache(CACHE).put("SKU-1",
+            new RecomputableEntry("stale-widget", 20, System.currentTimeMillis() - 1_000));
+        AtomicReference<String> lease = new AtomicReference<>();
+        when(cacheStore.putIfAbsent(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            lease.set(invocation.getArgument(1));
+            return true;
+        });
+
+        // When
+        String value = cacheService.getWithEarlyRecompute(CACHE, "SKU-1", String.class, TTL,
+            () -> { throw new IllegalStateException("catalog down"); });
+
+        // Then
+        assertThat(value).isEqualTo("stale-widget");
+        verify(cacheStore).deleteIfEquals("cache-lease:product-by-sku:SKU-1", lease.get());
+        verify(cacheStore, never()).delete(anyString());
+    }
+}
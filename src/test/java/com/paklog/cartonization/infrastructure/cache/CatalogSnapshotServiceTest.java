@@ -0,0 +1,141 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.out.CacheStore;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CatalogSnapshotServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, Object> shared = new ConcurrentHashMap<>();
+    private CacheStore cacheStore;
+    private ProductCatalogClient catalogClient;
+    private HotSkuTracker hotSkuTracker;
+
+    @BeforeEach
+    void setUp() {
+        cacheStore = mock(CacheStore.class);
+        doAnswer(invocation -> shared.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(cacheStore).put(anyString(), any(), any(Duration.class));
+        when(cacheStore.get(anyString(), eq(String.class)))
+            .thenAnswer(invocation -> Optional.ofNullable((String) shared.get(invocation.getArgument(0))));
+        when(cacheStore.putIfAbsent(anyString(), anyString(), any()))
+            .thenAnswer(invocation -> shared.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+
+        catalogClient = mock(ProductCatalogClient.class);
+        hotSkuTracker = new HotSkuTracker(new SimpleMeterRegistry(), 1024, 4, 100, 100_000);
+        hotSkuTracker.recordAccess(SKU.of("SKU-1"));
+    }
+
+    @Test
+    void shouldShareOneContentVersionAcrossInstancesAndKeepItWhileFactsHold() {
+        // Given
+        when(catalogClient.getProductsInfo(anyList())).thenReturn(List.of(product("2")));
+        CatalogSnapshotService producer = service("a");
+        CatalogSnapshotService peer = service("b");
+
+        // When
+        producer.produceSnapshot();
+        peer.produceSnapshot();
+        peer.reloadIfChanged();
+        long version = producer.getCatalogVersion();
+        shared.remove(CatalogSnapshotService.PRODUCER_LEASE_KEY);
+        producer.produceSnapshot();
+
+        // Then: the peer lost the lease and loaded the producer's snapshot instead
+        verify(catalogClient, times(2)).getProductsInfo(anyList());
+        assertThat(version).isNotZero();
+        assertThat(peer.getCatalogVersion()).isEqualTo(version);
+        assertThat(peer.find(SKU.of("SKU-1"))).isPresent();
+        assertThat(producer.getCatalogVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void shouldMoveVersionWhenFactsChange() {
+        // Given
+        when(catalogClient.getProductsInfo(anyList()))
+            .thenReturn(List.of(product("2")))
+            .thenReturn(List.of(product("3")));
+        CatalogSnapshotService producer = service("a");
+        producer.produceSnapshot();
+        long first = producer.getCatalogVersion();
+
+        // When
+        shared.remove(CatalogSnapshotService.PRODUCER_LEASE_KEY);
+        producer.produceSnapshot();
+
+        // Then
+        assertThat(producer.getCatalogVersion()).isNotEqualTo(first).isNotZero();
+    }
+
+    @Test
+    void shouldReadThroughOnlyWhileConfirmedWithinFreshness() {
+        // Given: a peer loads a snapshot whose facts were last confirmed two hours ago
+        when(catalogClient.getProductsInfo(anyList())).thenReturn(List.of(product("2")));
+        CatalogSnapshotService producer = service("a");
+        producer.produceSnapshot();
+        long version = producer.getCatalogVersion();
+        shared.put(CatalogSnapshotService.HEAD_KEY,
+            version + ":" + Instant.now().minus(Duration.ofHours(2)).toEpochMilli());
+        CatalogSnapshotService peer = service("b");
+
+        // When
+        peer.reloadIfChanged();
+
+        // Then: too old to stand in for the catalog, still good as a fallback
+        assertThat(peer.findConfirmedWithin(SKU.of("SKU-1"), Duration.ofHours(3))).isPresent();
+        assertThat(peer.findConfirmedWithin(SKU.of("SKU-1"), Duration.ofHours(1))).isEmpty();
+        assertThat(peer.find(SKU.of("SKU-1"))).isPresent();
+        assertThat(peer.getCatalogVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void shouldReportNoVersionWithoutSnapshot() {
+        // Given
+        CatalogSnapshotService service = service("a");
+
+        // When
+        service.reloadIfChanged();
+
+        // Then
+        assertThat(service.getCatalogVersion()).isZero();
+        assertThat(service.find(SKU.of("SKU-1"))).isEmpty();
+    }
+
+    private CatalogSnapshotService service(String node) {
+        CacheService cacheService = mock(CacheService.class);
+        when(cacheService.get(anyString(), any(), eq(ProductInfo.class))).thenReturn(Optional.empty());
+        return new CatalogSnapshotService(hotSkuTracker, catalogClient, cacheService, cacheStore,
+            new SimpleMeterRegistry(), true, true, tempDir.resolve(node).resolve("catalog.bin").toString(),
+            Duration.ofHours(6), 1000, 100, 900_000);
+    }
+
+    private static ProductInfo product(String height) {
+        return new ProductInfo(SKU.of("SKU-1"), "Widget", null,
+            new DimensionSet(BigDecimal.ONE, BigDecimal.ONE, new BigDecimal(height), DimensionUnit.INCHES),
+            new Weight(BigDecimal.ONE, WeightUnit.POUNDS), "Books", false, true, null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRoundTripProductsThroughMappedFile() throws IOException {
+        // Given
+        Path file = tempDir.resolve("catalog.bin");
+        ProductInfo widget = product("SKU-B", "Widget", true);
+        ProductInfo gadget = product("SKU-A", "Gadget", false);
+
+        // When
+        CatalogSnapshot.write(file, 42L, List.of(widget, gadget));
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        // Then
+        assertThat(snapshot.getCatalogVersion()).isEqualTo(42L);
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.all()).extracting(p -> p.sku().getValue()).containsExactly("SKU-A", "SKU-B");
+
+        ProductInfo found = snapshot.find("SKU-B").orElseThrow();
+        assertThat(found.name()).isEqualTo("Widget");
+        assertThat(found.dimensions()).isEqualTo(widget.dimensions());
+        assertThat(found.weight()).isEqualTo(widget.weight());
+        assertThat(found.category()).isEqualTo("TOYS");
+        assertThat(found.fragile()).isTrue();
+        assertThat(found.active()).isTrue();
+        assertThat(snapshot.find("SKU-C")).isEmpty();
+    }
+
+    @Test
+    void shouldRejectCorruptedSnapshot() throws IOException {
+        // Given
+        byte[] bytes = CatalogSnapshot.encode(1L, Instant.now(), List.of(product("SKU-A", "Gadget", false)));
+        bytes[bytes.length - 1] ^= 0x7F;
+        Path file = tempDir.resolve("corrupt.bin");
+        Files.write(file, bytes);
+
+        // When & Then
+        assertThatThrownBy(() -> CatalogSnapshot.open(file))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void shouldDeriveVersionFromFactsOnly() throws IOException {
+        // Given
+        ProductInfo widget = product("SKU-B", "Widget", true);
+        ProductInfo gadget = product("SKU-A", "Gadget", false);
+
+        // When
+        long first = versionOf(CatalogSnapshot.encodeByContent(Instant.parse("2024-05-01T10:00:00Z"),
+            List.of(widget, gadget)));
+        long reordered = versionOf(CatalogSnapshot.encodeByContent(Instant.parse("2024-05-01T11:00:00Z"),
+            List.of(gadget, widget)));
+        long changed = versionOf(CatalogSnapshot.encodeByContent(Instant.parse("2024-05-01T10:00:00Z"),
+            List.of(widget, product("SKU-A", "Gadget", true))));
+
+        // Then
+        assertThat(first).isPositive().isEqualTo(reordered);
+        assertThat(changed).isNotEqualTo(first);
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        // Given
+        ByteBuffer garbage = ByteBuffer.wrap(new byte[64]);
+
+        // When & Then
+        assertThatThrownBy(() -> CatalogSnapshot.from(garbage))
+            .isInstanceOf(IOException.class)
+            .hasMessage("Not a catalog snapshot");
+    }
+
+    private static long versionOf(byte[] encoded) throws IOException {
+        return CatalogSnapshot.from(ByteBuffer.wrap(encoded)).getCatalogVersion();
+    }
+
+    private ProductInfo product(String sku, String name, boolean fragile) {
+        return new ProductInfo(
+            SKU.of(sku),
+            name,
+            null,
+            new DimensionSet(new BigDecimal("10.5"), new BigDecimal("4"), new BigDecimal("2.25"), DimensionUnit.INCHES),
+            new Weight(new BigDecimal("1.75"), WeightUnit.POUNDS),
+            "TOYS",
+            fragile,
+            true,
+            null
+        );
+    }
+}
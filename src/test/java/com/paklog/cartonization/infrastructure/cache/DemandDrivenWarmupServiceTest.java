@@ -0,0 +1,198 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.in.command.CalculatePackingSolutionCommand;
+import com.paklog.cartonization.application.port.out.CacheStore;
+import com.paklog.cartonization.application.port.out.CartonRepository;
+import com.paklog.cartonization.application.port.out.HistoricalDemandSource;
+import com.paklog.cartonization.application.port.out.ProductCatalogClient;
+import com.paklog.cartonization.application.service.PackingSolutionService;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class DemandDrivenWarmupServiceTest {
+
+    private HistoricalDemandSource demandSource;
+    private PackingSolutionService packingSolutionService;
+    private ProductCatalogClient productCatalogClient;
+    private CartonRepository cartonRepository;
+    private CacheStore cacheStore;
+    private DemandDrivenWarmupService warmupService;
+
+    @BeforeEach
+    void setUp() {
+        demandSource = mock(HistoricalDemandSource.class);
+        packingSolutionService = mock(PackingSolutionService.class);
+        productCatalogClient = mock(ProductCatalogClient.class);
+        cartonRepository = mock(CartonRepository.class);
+        cacheStore = mock(CacheStore.class);
+        when(cacheStore.buildKey(anyString(), any())).thenCallRealMethod();
+
+        warmupService = new DemandDrivenWarmupService(demandSource, packingSolutionService, productCatalogClient,
+            cartonRepository, mock(VersionedCartonCatalog.class), cacheStore, new SimpleMeterRegistry(),
+            true, Duration.ofDays(7), 0, 2, 1, 2, List.of("DC-1"), 1.0, Duration.ofMinutes(5),
+            Duration.ZERO, Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        warmupService.shutdown();
+    }
+
+    @Test
+    void shouldPrecomputeMostFrequentOrderShapeAndBecomeReady() {
+        // Given
+        when(demandSource.streamOrders(any())).thenReturn(Stream.of(
+            List.of(item("SKU-A", 1), item("SKU-B", 2)),
+            List.of(item("SKU-B", 1), item("SKU-A", 1), item("SKU-B", 1)),
+            List.of(item("SKU-C", 1))
+        ));
+
+        // When
+        warmupService.warmOnStartup();
+
+        // Then
+        await(() -> warmupService.isReady());
+        ArgumentCaptor<CalculatePackingSolutionCommand> command = ArgumentCaptor.forClass(CalculatePackingSolutionCommand.class);
+        verify(packingSolutionService).precompute(command.capture());
+        assertThat(command.getValue().getItems()).containsExactly(ItemToPack.of("SKU-A", 1), ItemToPack.of("SKU-B", 2));
+        assertThat(command.getValue().getSiteId()).isEqualTo("DC-1");
+        verify(productCatalogClient).getProductInfo(SKU.of("SKU-A"));
+        verify(productCatalogClient).getProductInfo(SKU.of("SKU-B"));
+        verify(productCatalogClient, never()).getProductInfo(SKU.of("SKU-C"));
+        assertThat(warmupService.warmFraction()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldHoldReadinessWhileWarmupFallsShort() {
+        // Given
+        when(demandSource.streamOrders(any())).thenReturn(Stream.<List<ItemWithDimensions>>of(List.of(item("SKU-A", 1))));
+        doThrow(new IllegalStateException("No active cartons available at site: DC-1"))
+            .when(packingSolutionService).precompute(any());
+
+        // When
+        warmupService.warmOnStartup();
+
+        // Then
+        await(() -> warmupService.warmFraction() > 0);
+        assertThat(warmupService.warmFraction()).isEqualTo(0.5);
+        assertThat(warmupService.isReady()).isFalse();
+    }
+
+    @Test
+    void shouldRewarmOnlyOnSettledContentChangeAndOnlyOnTheLeaseHolder() {
+        // Given: startup warmed carton version 1 at DC-1
+        when(cartonRepository.getCatalogVersion("DC-1")).thenReturn(1L);
+        when(demandSource.streamOrders(any())).thenAnswer(invocation ->
+            Stream.<List<ItemWithDimensions>>of(List.of(item("SKU-A", 1))));
+        warmupService.warmOnStartup();
+        awaitStartupCompleted();
+        clearInvocations(demandSource);
+
+        // When: the versions hold, then move, and another node holds the lease
+        warmupService.warmOnCatalogChange();
+        when(cartonRepository.getCatalogVersion("DC-1")).thenReturn(2L);
+        warmupService.warmOnCatalogChange();
+        when(cacheStore.putIfAbsent(anyString(), anyString(), any())).thenReturn(false);
+        warmupService.warmOnCatalogChange();
+
+        // Then: nothing re-ran until this node took the lease
+        verify(demandSource, never()).streamOrders(any());
+        when(cacheStore.putIfAbsent(anyString(), anyString(), any())).thenReturn(true);
+        warmupService.warmOnCatalogChange();
+        await(() -> mockingDetails(cacheStore).getInvocations().stream()
+            .anyMatch(invocation -> invocation.getMethod().getName().equals("put")));
+        verify(demandSource).streamOrders(any());
+        verify(cacheStore).put(startsWith(DemandDrivenWarmupService.WARMED_PREFIX), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void shouldReleaseTheLeaseWithoutMarkingWarmWhenTheRunFails() {
+        // Given
+        when(cartonRepository.getCatalogVersion("DC-1")).thenReturn(1L);
+        when(demandSource.streamOrders(any())).thenAnswer(invocation ->
+            Stream.<List<ItemWithDimensions>>of(List.of(item("SKU-A", 1))));
+        warmupService.warmOnStartup();
+        awaitStartupCompleted();
+        when(cartonRepository.getCatalogVersion("DC-1")).thenReturn(2L);
+        when(cacheStore.putIfAbsent(anyString(), anyString(), any())).thenReturn(true);
+        when(demandSource.streamOrders(any())).thenThrow(new IllegalStateException("mongo down"));
+
+        // When
+        warmupService.warmOnCatalogChange();
+        warmupService.warmOnCatalogChange();
+
+        // Then
+        await(() -> mockingDetails(cacheStore).getInvocations().stream()
+            .anyMatch(invocation -> invocation.getMethod().getName().equals("deleteIfEquals")));
+        verify(cacheStore).deleteIfEquals(startsWith(DemandDrivenWarmupService.LEASE_PREFIX), anyString());
+        verify(cacheStore, never()).put(startsWith(DemandDrivenWarmupService.WARMED_PREFIX), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void shouldAdoptVersionsAnotherNodeAlreadyWarmed() {
+        // Given
+        when(cartonRepository.getCatalogVersion("DC-1")).thenReturn(1L);
+        when(demandSource.streamOrders(any())).thenAnswer(invocation ->
+            Stream.<List<ItemWithDimensions>>of(List.of(item("SKU-A", 1))));
+        warmupService.warmOnStartup();
+        awaitStartupCompleted();
+        clearInvocations(demandSource);
+        when(cartonRepository.getCatalogVersion("DC-1")).thenReturn(2L);
+        when(cacheStore.exists(startsWith(DemandDrivenWarmupService.WARMED_PREFIX))).thenReturn(true);
+
+        // When
+        warmupService.warmOnCatalogChange();
+        warmupService.warmOnCatalogChange();
+        warmupService.warmOnCatalogChange();
+
+        // Then
+        verify(cacheStore, times(1)).exists(anyString());
+        verify(cacheStore, never()).putIfAbsent(anyString(), any(), any());
+        verify(demandSource, never()).streamOrders(any());
+    }
+
+    // Readiness can latch before the run records what it warmed, so wait for the run itself
+    private void awaitStartupCompleted() {
+        await(() -> warmupService.isReady() && !warmupService.isRunning());
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static ItemWithDimensions item(String sku, int quantity) {
+        return ItemWithDimensions.builder()
+            .sku(SKU.of(sku))
+            .quantity(quantity)
+            .dimensions(new DimensionSet(BigDecimal.valueOf(4), BigDecimal.valueOf(3), BigDecimal.valueOf(2),
+                DimensionUnit.INCHES))
+            .weight(new Weight(BigDecimal.ONE, WeightUnit.POUNDS))
+            .category("Books")
+            .fragile(false)
+            .build();
+    }
+}
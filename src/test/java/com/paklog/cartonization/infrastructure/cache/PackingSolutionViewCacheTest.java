@@ -0,0 +1,127 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paklog.cartonization.application.port.out.CacheStore;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PackingSolutionViewCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private CacheService cacheService;
+    private PackingSolutionViewCache viewCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new CacheService(new ConcurrentMapCacheManager(PackingSolutionViewCache.CACHE_NAME),
+            mock(CacheStore.class), meterRegistry, 1.0, Duration.ofSeconds(5), Duration.ofMillis(50),
+            Duration.ofSeconds(30));
+        viewCache = new PackingSolutionViewCache(cacheService, objectMapper, meterRegistry, true);
+    }
+
+    @Test
+    void shouldServeProjectedViewWithoutLoadingTheSolution() throws Exception {
+        // Given
+        PackingSolution solution = solution();
+        viewCache.project(solution);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        byte[] view = viewCache.serve("sol-1", id -> {
+            loads.incrementAndGet();
+            return solution;
+        });
+
+        // Then
+        assertThat(loads).hasValue(0);
+        JsonNode json = objectMapper.readTree(view);
+        assertThat(json.get("solutionId").asText()).isEqualTo("sol-1");
+        assertThat(json.get("packageCount").asInt()).isEqualTo(1);
+        assertThat(json.get("totalItems").asInt()).isEqualTo(2);
+        assertThat(json.get("packages").get(0).get("cartonId").asText()).isEqualTo("carton-1");
+        assertThat(meterRegistry.get("cartonization.solution_views.serve").tag("source", "projection").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldRenderAndCacheViewOnceWhenNoneWasProjected() {
+        // Given
+        PackingSolution solution = solution();
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, PackingSolution> loader = id -> {
+            loads.incrementAndGet();
+            return solution;
+        };
+
+        // When
+        byte[] first = viewCache.serve("sol-1", loader);
+        byte[] second = viewCache.serve("sol-1", loader);
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(second).isEqualTo(first).isEqualTo(viewCache.render(solution));
+        assertThat(meterRegistry.get("cartonization.solution_views.serve").tag("source", "rebuilt").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("cartonization.solution_views.serve").tag("source", "projection").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldAlwaysRenderWhenDisabled() {
+        // Given
+        PackingSolutionViewCache disabled = new PackingSolutionViewCache(cacheService, objectMapper, meterRegistry,
+            false);
+        AtomicInteger loads = new AtomicInteger();
+        disabled.project(solution());
+
+        // When
+        disabled.serve("sol-1", id -> {
+            loads.incrementAndGet();
+            return solution();
+        });
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(cacheService.get(PackingSolutionViewCache.CACHE_NAME, "sol-1", byte[].class)).isEmpty();
+    }
+
+    private static PackingSolution solution() {
+        DimensionSet dimensions = new DimensionSet(BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, DimensionUnit.INCHES);
+        Carton carton = Carton.reconstitute(CartonId.of("carton-1"), "Small Box", dimensions,
+            new Weight(BigDecimal.valueOf(50), WeightUnit.POUNDS), CartonStatus.ACTIVE, Set.of("DC-1"), null, null);
+        List<ItemWithDimensions> items = List.of(item("SKU-1"), item("SKU-2"));
+        return PackingSolution.reconstitute("sol-1", "req-1", "order-1", List.of(Package.reconstitute(carton, items)),
+            Instant.parse("2024-05-01T10:00:00Z"));
+    }
+
+    private static ItemWithDimensions item(String sku) {
+        return ItemWithDimensions.builder()
+            .sku(SKU.of(sku))
+            .quantity(1)
+            .dimensions(new DimensionSet(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, DimensionUnit.INCHES))
+            .weight(new Weight(BigDecimal.ONE, WeightUnit.POUNDS))
+            .category("Books")
+            .fragile(false)
+            .build();
+    }
+}
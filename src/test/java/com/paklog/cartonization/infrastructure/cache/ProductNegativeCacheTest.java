@@ -0,0 +1,119 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.application.port.out.CacheStore;
+import com.paklog.cartonization.domain.model.valueobject.SKU;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProductNegativeCacheTest {
+
+    private static final String KEY = "product-tombstone:SKU-1";
+
+    private CacheStore cacheStore;
+    private MutableClock clock;
+    private ProductNegativeCache negativeCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheStore = mock(CacheStore.class);
+        when(cacheStore.buildKey(anyString(), any())).thenCallRealMethod();
+        when(cacheStore.getWithTtl(anyString(), eq(String.class))).thenReturn(Optional.empty());
+        clock = new MutableClock(Instant.parse("2024-05-01T10:00:00Z"));
+        negativeCache = new ProductNegativeCache(cacheStore, new SimpleMeterRegistry(), true,
+            Duration.ofMinutes(5), Duration.ofMinutes(15), 100, clock);
+    }
+
+    @Test
+    void shouldRecordNotFoundAndInactiveTombstonesWithTheirOwnTtl() {
+        // Given
+        negativeCache.record(SKU.of("SKU-1"), ProductNegativeCache.Reason.NOT_FOUND);
+        negativeCache.record(SKU.of("SKU-2"), ProductNegativeCache.Reason.INACTIVE);
+
+        // When: past the not-found TTL, within the inactive one
+        clock.advance(Duration.ofMinutes(6));
+        Optional<ProductNegativeCache.Reason> notFound = negativeCache.lookup(SKU.of("SKU-1"));
+        Optional<ProductNegativeCache.Reason> inactive = negativeCache.lookup(SKU.of("SKU-2"));
+
+        // Then
+        verify(cacheStore).put(KEY, "NOT_FOUND", Duration.ofMinutes(5));
+        verify(cacheStore).put("product-tombstone:SKU-2", "INACTIVE", Duration.ofMinutes(15));
+        assertThat(notFound).isEmpty();
+        assertThat(inactive).contains(ProductNegativeCache.Reason.INACTIVE);
+        verify(cacheStore, never()).getWithTtl(eq("product-tombstone:SKU-2"), any());
+    }
+
+    @Test
+    void shouldPromoteSharedTombstoneWithOneReadAndServeItLocally() {
+        // Given
+        when(cacheStore.getWithTtl(KEY, String.class))
+            .thenReturn(Optional.of(new CacheStore.Expiring<>("NOT_FOUND", Duration.ofMinutes(4))));
+
+        // When
+        Optional<ProductNegativeCache.Reason> first = negativeCache.lookup(SKU.of("SKU-1"));
+        Optional<ProductNegativeCache.Reason> second = negativeCache.lookup(SKU.of("SKU-1"));
+
+        // Then
+        assertThat(first).contains(ProductNegativeCache.Reason.NOT_FOUND);
+        assertThat(second).contains(ProductNegativeCache.Reason.NOT_FOUND);
+        verify(cacheStore, times(1)).getWithTtl(eq(KEY), eq(String.class));
+        verify(cacheStore, never()).get(anyString(), any());
+    }
+
+    @Test
+    void shouldExpirePromotedTombstoneWithTheSharedOne() {
+        // Given: the shared tombstone has a minute left of its five
+        when(cacheStore.getWithTtl(KEY, String.class))
+            .thenReturn(Optional.of(new CacheStore.Expiring<>("INACTIVE", Duration.ofMinutes(1))))
+            .thenReturn(Optional.empty());
+        negativeCache.lookup(SKU.of("SKU-1"));
+
+        // When
+        clock.advance(Duration.ofSeconds(61));
+        Optional<ProductNegativeCache.Reason> later = negativeCache.lookup(SKU.of("SKU-1"));
+
+        // Then
+        assertThat(later).isEmpty();
+        verify(cacheStore, times(2)).getWithTtl(KEY, String.class);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SkuFrequencySketchTest {
+
+    @Test
+    void shouldRankHottestSkusFirst() {
+        // Given
+        SkuFrequencySketch sketch = new SkuFrequencySketch(1024, 4, 3, 1_000_000);
+
+        // When
+        for (int i = 0; i < 50; i++) sketch.increment("HOT");
+        for (int i = 0; i < 20; i++) sketch.increment("WARM");
+        for (int i = 0; i < 5; i++) sketch.increment("COOL");
+
+        // Then
+        assertThat(sketch.topK(2)).containsExactly("HOT", "WARM");
+        assertThat(sketch.estimate("HOT")).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    void shouldReplaceColdestCandidateWhenHotterSkuArrives() {
+        // Given
+        SkuFrequencySketch sketch = new SkuFrequencySketch(1024, 4, 2, 1_000_000);
+        for (int i = 0; i < 10; i++) sketch.increment("A");
+        sketch.increment("B");
+
+        // When
+        for (int i = 0; i < 5; i++) sketch.increment("C");
+
+        // Then
+        assertThat(sketch.topK(2)).containsExactly("A", "C");
+        assertThat(sketch.candidateCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDecayCountsAfterSampleSize() {
+        // Given
+        SkuFrequencySketch sketch = new SkuFrequencySketch(1024, 4, 10, 100);
+
+        // When
+        for (int i = 0; i < 100; i++) sketch.increment("SKU");
+
+        // Then
+        assertThat(sketch.estimate("SKU")).isEqualTo(50);
+    }
+
+    @Test
+    void shouldRejectInvalidDimensions() {
+        assertThatThrownBy(() -> new SkuFrequencySketch(0, 4, 10, 100))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SkuFrequencySketch(1024, 9, 10, 100))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,146 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.DimensionSet;
+import com.paklog.cartonization.domain.model.valueobject.DimensionUnit;
+import com.paklog.cartonization.domain.model.valueobject.Weight;
+import com.paklog.cartonization.domain.model.valueobject.WeightUnit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TwoTierCacheManagerTest {
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private RedisTemplate<String, String> redisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager("product-by-sku");
+        redisTemplate = mock(RedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("app.cache.local.caches.product-by-sku.max-size", "100");
+
+        cacheManager = new TwoTierCacheManager(remoteCacheManager, redisTemplate,
+            mock(RedisMessageListenerContainer.class), environment, meterRegistry, 10, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldServeRepeatReadsFromLocalTier() {
+        // Given
+        remoteCacheManager.getCache("product-by-sku").put("SKU-1", "widget");
+        Cache cache = cacheManager.getCache("product-by-sku");
+
+        // When
+        cache.get("SKU-1");
+        remoteCacheManager.getCache("product-by-sku").evict("SKU-1");
+        Cache.ValueWrapper second = cache.get("SKU-1");
+
+        // Then
+        assertThat(second).isNotNull();
+        assertThat(second.get()).isEqualTo("widget");
+        assertThat(requests("l1", "hit")).isEqualTo(1);
+        assertThat(requests("l2", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAnnounceWritesAndDropLocalCopyOnPeerInvalidation() {
+        // Given
+        Cache cache = cacheManager.getCache("product-by-sku");
+        cache.put("SKU-1", "widget");
+        verify(redisTemplate).convertAndSend(eq(TwoTierCacheManager.INVALIDATION_CHANNEL), anyString());
+
+        // When - a peer overwrites the entry in Redis and announces it
+        remoteCacheManager.getCache("product-by-sku").put("SKU-1", "gadget");
+        cacheManager.onMessage(message("peer|product-by-sku|SKU-1"), null);
+
+        // Then
+        assertThat(cache.get("SKU-1", String.class)).isEqualTo("gadget");
+    }
+
+    @Test
+    void shouldIgnoreInvalidationsForOtherCachesAndUnknownNames() {
+        // Given
+        Cache cache = cacheManager.getCache("product-by-sku");
+        cache.put("SKU-1", "widget");
+        remoteCacheManager.getCache("product-by-sku").evict("SKU-1");
+
+        // When
+        cacheManager.onMessage(message("peer|carton-by-id|SKU-1"), null);
+        cacheManager.onMessage(message("garbage"), null);
+
+        // Then
+        assertThat(cache.get("SKU-1", String.class)).isEqualTo("widget");
+    }
+
+    @Test
+    void shouldHandEachCallerItsOwnCopyOfAMutableValue() {
+        // Given
+        Cache cache = cacheManager.getCache("product-by-sku");
+        Carton stored = Carton.create("Small box",
+            new DimensionSet(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, DimensionUnit.INCHES),
+            new Weight(BigDecimal.TEN, WeightUnit.POUNDS));
+        cache.put("BOX-1", stored);
+
+        // When
+        stored.updateName("put-side mutation");
+        Carton first = cache.get("BOX-1", Carton.class);
+        first.updateName("caller mutation");
+        Carton second = cache.get("BOX-1", Carton.class);
+
+        // Then
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("Small box");
+        assertThat(requests("l1", "hit")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldLeaveValuesWithoutACheapCopyToTheRemoteTier() {
+        // Given
+        Cache cache = cacheManager.getCache("product-by-sku");
+        cache.put("SKU-1", new ArrayList<>(List.of("widget")));
+
+        // When
+        List<?> value = cache.get("SKU-1", List.class);
+
+        // Then
+        assertThat(value).isEqualTo(List.of("widget"));
+        assertThat(requests("l1", "miss")).isEqualTo(1);
+        assertThat(requests("l2", "hit")).isEqualTo(1);
+    }
+
+    private double requests(String tier, String result) {
+        return meterRegistry.get("cartonization.cache.tier.requests")
+            .tag("cache", "product-by-sku")
+            .tag("tier", tier)
+            .tag("result", result)
+            .counter()
+            .count();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TwoTierCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8));
+    }
+}
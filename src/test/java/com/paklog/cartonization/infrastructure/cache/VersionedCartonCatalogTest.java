@@ -0,0 +1,151 @@
+package com.paklog.cartonization.infrastructure.cache;
+
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.document.CartonDocument;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.mapper.CartonDocumentMapper;
+import com.paklog.cartonization.infrastructure.adapter.out.persistence.mongodb.repository.SpringDataMongoCartonRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VersionedCartonCatalogTest {
+
+    private final CartonDocumentMapper mapper = new CartonDocumentMapper();
+    private final List<CartonDocument> stored = new ArrayList<>();
+    private SpringDataMongoCartonRepository springDataRepository;
+
+    @BeforeEach
+    void setUp() {
+        springDataRepository = mock(SpringDataMongoCartonRepository.class);
+        when(springDataRepository.findAll()).thenAnswer(invocation -> List.copyOf(stored));
+    }
+
+    @Test
+    void shouldConvergeWhenTwoNodesWriteConcurrently() {
+        // Given: both nodes start from the same catalog and agree on its version
+        store(carton("carton-1", "10"));
+        RedisTemplate<String, String> redisA = redisTemplate();
+        RedisTemplate<String, String> redisB = redisTemplate();
+        VersionedCartonCatalog nodeA = catalog(redisA);
+        VersionedCartonCatalog nodeB = catalog(redisB);
+        assertThat(nodeA.current().version()).isEqualTo(nodeB.current().version());
+
+        // When: each node writes a different carton, then hears the other's announcement
+        Carton fromA = store(carton("carton-2", "12"));
+        Carton fromB = store(carton("carton-3", "14"));
+        nodeA.applySaved(fromA);
+        nodeB.applySaved(fromB);
+        nodeA.onMessage(message(announcement(redisB)), null);
+        nodeB.onMessage(message(announcement(redisA)), null);
+
+        // Then
+        assertThat(nodeA.current().all()).hasSize(3);
+        assertThat(nodeA.current().version()).isEqualTo(nodeB.current().version());
+    }
+
+    @Test
+    void shouldIgnoreOwnAnnouncementsAndKeepCopyWhenReconcileFindsNoChange() {
+        // Given
+        store(carton("carton-1", "10"));
+        RedisTemplate<String, String> redis = redisTemplate();
+        VersionedCartonCatalog catalog = catalog(redis);
+        Carton saved = store(carton("carton-2", "12"));
+        catalog.applySaved(saved);
+        VersionedCartonCatalog.Snapshot before = catalog.current();
+
+        // When
+        catalog.onMessage(message(announcement(redis)), null);
+        catalog.reconcile();
+
+        // Then
+        assertThat(catalog.current()).isSameAs(before);
+        verify(springDataRepository, times(2)).findAll();
+    }
+
+    @Test
+    void shouldPickUpMissedWritesOnReconcile() {
+        // Given
+        store(carton("carton-1", "10"));
+        VersionedCartonCatalog catalog = catalog(redisTemplate());
+        long before = catalog.current().version();
+
+        // When: another node wrote, and its announcement never arrived
+        store(carton("carton-2", "12"));
+        catalog.reconcile();
+
+        // Then
+        assertThat(catalog.current().version()).isNotEqualTo(before);
+        assertThat(catalog.current().all()).hasSize(2);
+    }
+
+    @Test
+    void shouldAgreeOnSiteVersionsAcrossNodesAndIgnoreOtherSites() {
+        // Given
+        store(carton("carton-1", "10"));
+        VersionedCartonCatalog nodeA = catalog(redisTemplate());
+        VersionedCartonCatalog nodeB = catalog(redisTemplate());
+        long siteVersion = nodeA.current().activeVersionAt("DC-1");
+        long allVersion = nodeB.current().activeVersionAt(null);
+
+        // When: a carton stocked only at another site is added
+        nodeA.applySaved(store(carton("carton-2", "12", "DC-2")));
+
+        // Then
+        assertThat(nodeB.current().activeVersionAt("dc-1")).isEqualTo(siteVersion);
+        assertThat(nodeA.current().activeVersionAt("DC-1")).isEqualTo(siteVersion);
+        assertThat(nodeA.current().activeVersionAt("DC-2")).isNotEqualTo(siteVersion);
+        assertThat(nodeA.current().activeVersionAt(null)).isNotEqualTo(allVersion);
+    }
+
+    private VersionedCartonCatalog catalog(RedisTemplate<String, String> redisTemplate) {
+        return new VersionedCartonCatalog(springDataRepository, mapper, redisTemplate,
+            mock(RedisMessageListenerContainer.class), mock(CacheService.class), new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisTemplate<String, String> redisTemplate() {
+        return mock(RedisTemplate.class);
+    }
+
+    private static String announcement(RedisTemplate<String, String> redisTemplate) {
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, atLeastOnce()).convertAndSend(eq(VersionedCartonCatalog.VERSION_CHANNEL), body.capture());
+        return body.getValue();
+    }
+
+    private Carton store(Carton carton) {
+        CartonDocument document = mapper.toDocument(carton);
+        stored.add(document);
+        return mapper.toDomain(document);
+    }
+
+    private static Carton carton(String id, String side) {
+        return carton(id, side, "DC-1");
+    }
+
+    private static Carton carton(String id, String side, String site) {
+        BigDecimal size = new BigDecimal(side);
+        return Carton.reconstitute(CartonId.of(id), "Box " + side, new DimensionSet(size, size, size, DimensionUnit.INCHES),
+            new Weight(BigDecimal.valueOf(50), WeightUnit.POUNDS), CartonStatus.ACTIVE, Set.of(site), null, null);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(VersionedCartonCatalog.VERSION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,148 @@
+package com.paklog.cartonization.infrastructure.cache.codec;
+
+import com.paklog.cartonization.application.port.out.ProductCatalogClient.ProductInfo;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import com.paklog.cartonization.infrastructure.cache.RecomputableEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompactCacheValueSerializerTest {
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+    private CompactCacheValueSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        jsonSerializer = new GenericJackson2JsonRedisSerializer();
+        serializer = new CompactCacheValueSerializer(jsonSerializer, DomainCacheValueCodecs.all(), 512,
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldRoundTripProductInfo() {
+        // Given
+        ProductInfo product = new ProductInfo(SKU.of("SKU-1"), "Widget", null,
+            dimensions(10, 8, 4), new Weight(new BigDecimal("1.25"), WeightUnit.POUNDS),
+            "Electronics", true, true, "0123456789");
+
+        // When
+        byte[] bytes = serializer.serialize(product);
+
+        // Then
+        assertThat(bytes[0]).isEqualTo(CompactCacheValueSerializer.FORMAT_VERSION);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(product);
+    }
+
+    @Test
+    void shouldRoundTripPackingSolutionCompressedAboveThreshold() {
+        // Given
+        Carton carton = Carton.reconstitute(CartonId.of("carton-1"), "Medium Box", dimensions(25, 20, 15),
+            new Weight(BigDecimal.valueOf(30), WeightUnit.POUNDS), CartonStatus.ACTIVE, Set.of("DC-1"), null, null);
+        List<Package> packages = new ArrayList<>();
+        for (int p = 0; p < 5; p++) {
+            List<ItemWithDimensions> items = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                items.add(ItemWithDimensions.builder()
+                    .sku(SKU.of("SKU-" + i))
+                    .quantity(1)
+                    .dimensions(dimensions(4, 3, 2))
+                    .weight(new Weight(new BigDecimal("0.5"), WeightUnit.POUNDS))
+                    .category("Books")
+                    .fragile(false)
+                    .build());
+            }
+            packages.add(Package.reconstitute(carton, items));
+        }
+        PackingSolution solution = PackingSolution.reconstitute("sol-1", "req-1", "order-1", packages,
+            Instant.parse("2024-05-01T10:00:00Z"));
+        solution.setRequestFingerprint("0123456789abcdef0123456789abcdef");
+
+        // When
+        byte[] bytes = serializer.serialize(solution);
+        PackingSolution restored = (PackingSolution) serializer.deserialize(bytes);
+
+        // Then
+        assertThat(bytes[1]).isEqualTo((byte) 1);
+        assertThat(bytes.length).isLessThan(300);
+        assertThat(restored.getSolutionId()).isEqualTo("sol-1");
+        assertThat(restored.getRequestId()).isEqualTo("req-1");
+        assertThat(restored.getOrderId()).isEqualTo("order-1");
+        assertThat(restored.getCreatedAt()).isEqualTo(solution.getCreatedAt());
+        assertThat(restored.getRequestFingerprint()).isEqualTo(solution.getRequestFingerprint());
+        assertThat(restored.getTotalPackages()).isEqualTo(5);
+        assertThat(restored.getTotalItems()).isEqualTo(20);
+        assertThat(restored.getTotalWeight()).isEqualByComparingTo(solution.getTotalWeight());
+        assertThat(restored.getPackages().get(0).getCarton().getSites()).containsExactly("DC-1");
+    }
+
+    @Test
+    void shouldStorePreSerializedResponsesAsTheyAre() {
+        // Given
+        byte[] view = "{\"solutionId\":\"sol-1\"}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] bytes = serializer.serialize(view);
+
+        // Then
+        assertThat(bytes.length).isLessThan(view.length + 4);
+        assertThat((byte[]) serializer.deserialize(bytes)).isEqualTo(view);
+    }
+
+    @Test
+    void shouldFallBackToJsonForUnregisteredTypesAndReadLegacyJson() {
+        // Given
+        String value = "warmup-marker";
+        byte[] legacy = jsonSerializer.serialize(value);
+
+        // When / Then
+        assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value);
+        assertThat(serializer.deserialize(legacy)).isEqualTo(value);
+    }
+
+    @Test
+    void shouldKeepRecomputeMetadataAroundEncodedValue() {
+        // Given
+        RecomputableEntry entry = new RecomputableEntry(dimensions(1, 2, 3), 42, 1_714_557_600_000L);
+
+        // When
+        RecomputableEntry restored = (RecomputableEntry) serializer.deserialize(serializer.serialize(entry));
+
+        // Then
+        assertThat(restored.getValue()).isEqualTo(entry.getValue());
+        assertThat(restored.getComputeMillis()).isEqualTo(42);
+        assertThat(restored.getExpiresAtMillis()).isEqualTo(1_714_557_600_000L);
+    }
+
+    @Test
+    void shouldTreatUnknownFormatVersionAndCodecAsMiss() {
+        // Given
+        byte[] bytes = serializer.serialize(dimensions(1, 2, 3));
+        byte[] futureVersion = bytes.clone();
+        futureVersion[0] = 2;
+        byte[] unknownCodec = bytes.clone();
+        unknownCodec[2] = 99;
+
+        // When / Then
+        assertThat(serializer.deserialize(futureVersion)).isNull();
+        assertThat(serializer.deserialize(unknownCodec)).isNull();
+    }
+
+    private static DimensionSet dimensions(double length, double width, double height) {
+        return new DimensionSet(BigDecimal.valueOf(length), BigDecimal.valueOf(width), BigDecimal.valueOf(height),
+            DimensionUnit.INCHES);
+    }
+}
@@ -0,0 +1,149 @@
+package com.paklog.cartonization.infrastructure.kpi;
+
+import com.paklog.cartonization.application.port.out.PackingKpiRollup;
+import com.paklog.cartonization.application.port.out.PackingKpiRollupRepository;
+import com.paklog.cartonization.domain.model.aggregate.Carton;
+import com.paklog.cartonization.domain.model.entity.Package;
+import com.paklog.cartonization.domain.model.entity.PackingSolution;
+import com.paklog.cartonization.domain.model.valueobject.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class PackingKpiAggregatorTest {
+
+    private PackingKpiRollupRepository repository;
+    private List<PackingKpiRollup> written;
+    private PackingKpiAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PackingKpiRollupRepository.class);
+        written = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> write(invocation.getArgument(0))).when(repository).insertAll(anyList());
+        aggregator = new PackingKpiAggregator(repository, new SimpleMeterRegistry(), true, Duration.ofHours(1));
+    }
+
+    @Test
+    void shouldRollUpSolutionsPerSiteAndCarton() {
+        // Given
+        Carton small = carton("Small Box", 10);
+        Carton large = carton("Large Box", 20);
+        aggregator.record(solution(small, small, large), "DC-1", Duration.ofMillis(40));
+        aggregator.record(solution(small), "DC-1", Duration.ofMillis(700));
+
+        // When: once every bucket, hourly included, has closed
+        int flushed = aggregator.flush(Instant.now().plus(Duration.ofHours(2)), false);
+
+        // Then
+        assertThat(flushed).isEqualTo(written.size()).isGreaterThanOrEqualTo(6);
+        PackingKpiRollup all = rollup(PackingKpiRollup.Resolution.MINUTE, PackingKpiRollup.ALL_CARTONS);
+        assertThat(all.siteId()).isEqualTo("DC-1");
+        assertThat(all.solutions()).isEqualTo(2);
+        assertThat(all.packages()).isEqualTo(4);
+        assertThat(all.solveMillisMax()).isEqualTo(700);
+        assertThat(all.solveHistogram().get(PackingKpiRollup.solveBucket(40))).isEqualTo(1);
+        assertThat(all.utilizationHistogram().stream().mapToLong(Long::longValue).sum()).isEqualTo(4);
+
+        PackingKpiRollup smallHourly = rollup(PackingKpiRollup.Resolution.HOUR, small.getId().getValue());
+        assertThat(smallHourly.solutions()).isEqualTo(2);
+        assertThat(smallHourly.packages()).isEqualTo(3);
+        assertThat(rollup(PackingKpiRollup.Resolution.HOUR, large.getId().getValue()).packages()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepOpenBucketsUntilTheyCloseAndRetryFailedWrites() {
+        // Given
+        aggregator.record(solution(carton("Small Box", 10)), null, Duration.ofMillis(5));
+
+        // When
+        int whileOpen = aggregator.flush(Instant.now().minusSeconds(1), false);
+        doThrow(new IllegalStateException("database down"))
+            .doAnswer(invocation -> write(invocation.getArgument(0)))
+            .when(repository).insertAll(anyList());
+        int failed = aggregator.flush(Instant.now(), true);
+        int retried = aggregator.flush(Instant.now(), true);
+
+        // Then
+        assertThat(whileOpen).isZero();
+        assertThat(failed).isZero();
+        assertThat(retried).isEqualTo(4);
+        assertThat(written).extracting(PackingKpiRollup::siteId).containsOnly(PackingKpiRollup.NO_SITE);
+    }
+
+    @Test
+    void shouldRetryOnlyTheRollupsThatWereNotWritten() {
+        // Given: the minute rollups are written, the hourly ones are not
+        aggregator.record(solution(carton("Small Box", 10)), "DC-1", Duration.ofMillis(5));
+        doAnswer(invocation -> {
+            List<PackingKpiRollup> rollups = invocation.getArgument(0);
+            write(rollups.stream().filter(rollup -> rollup.resolution() == PackingKpiRollup.Resolution.MINUTE).toList());
+            return rollups.stream().filter(rollup -> rollup.resolution() == PackingKpiRollup.Resolution.HOUR).toList();
+        }).doAnswer(invocation -> write(invocation.getArgument(0)))
+            .when(repository).insertAll(anyList());
+
+        // When
+        int partial = aggregator.flush(Instant.now(), true);
+        int retried = aggregator.flush(Instant.now(), true);
+
+        // Then: every bucket was written exactly once
+        assertThat(partial).isEqualTo(2);
+        assertThat(retried).isEqualTo(2);
+        assertThat(written).hasSize(4);
+        assertThat(rollup(PackingKpiRollup.Resolution.MINUTE, PackingKpiRollup.ALL_CARTONS).solutions()).isEqualTo(1);
+        assertThat(rollup(PackingKpiRollup.Resolution.HOUR, PackingKpiRollup.ALL_CARTONS).solutions()).isEqualTo(1);
+    }
+
+    private List<PackingKpiRollup> write(List<PackingKpiRollup> rollups) {
+        written.addAll(rollups);
+        return List.of();
+    }
+
+    // Recording may straddle a minute boundary, so merge what was written per bucket
+    private PackingKpiRollup rollup(PackingKpiRollup.Resolution resolution, String cartonId) {
+        return written.stream()
+            .filter(rollup -> rollup.resolution() == resolution && rollup.cartonId().equals(cartonId))
+            .reduce(PackingKpiRollup::merge)
+            .orElseThrow();
+    }
+
+    private static PackingSolution solution(Carton... cartons) {
+        List<Package> packages = new ArrayList<>();
+        for (Carton carton : cartons) {
+            packages.add(Package.reconstitute(carton, List.of(item())));
+        }
+        return PackingSolution.reconstitute("sol-" + System.nanoTime(), "req-1", "ORDER-1", packages, Instant.now());
+    }
+
+    private static Carton carton(String name, int size) {
+        return Carton.create(name,
+            new DimensionSet(BigDecimal.valueOf(size), BigDecimal.valueOf(size), BigDecimal.valueOf(size),
+                DimensionUnit.INCHES),
+            new Weight(BigDecimal.valueOf(50), WeightUnit.POUNDS),
+            Set.of("DC-1"));
+    }
+
+    private static ItemWithDimensions item() {
+        return ItemWithDimensions.builder()
+            .sku(SKU.of("BOOK-001"))
+            .quantity(1)
+            .dimensions(new DimensionSet(new BigDecimal("8"), new BigDecimal("5"), new BigDecimal("2"),
+                DimensionUnit.INCHES))
+            .weight(new Weight(new BigDecimal("1.2"), WeightUnit.POUNDS))
+            .category("Books")
+            .fragile(false)
+            .build();
+    }
+}